@@ -69,6 +69,9 @@ public final class IntensityToReflectance extends MultiMatrixFilter {
         final ReflectanceSettings settings = loadReflectanceSettings(
                 this, reflectanceSettingsFile);
         final Func f = settings.intensityToReflectanceFunc(source.elementType(), maximalPrecision);
+        if (LookupTableTranslation.isApplicable(source, float.class)) {
+            return LookupTableTranslation.translate(source, f, float.class);
+        }
         return source.asMono().asFunc(f, FloatArray.class).clone();
     }
 
@@ -84,7 +87,7 @@ public final class IntensityToReflectance extends MultiMatrixFilter {
     public static ReflectanceSettings loadReflectanceSettings(Executor executor, String file) {
         final Path path = translateReflectanceSettingsFile(executor, file);
         try {
-            final ReflectanceSettings settings = ReflectanceSettings.read(path);
+            final ReflectanceSettings settings = ReflectanceSettings.readCached(path);
             if (executor.hasOutputPort(OUTPUT_REFLECTANCE_SETTINGS)) {
                 executor.getScalar(OUTPUT_REFLECTANCE_SETTINGS).setTo(settings.jsonString());
             }
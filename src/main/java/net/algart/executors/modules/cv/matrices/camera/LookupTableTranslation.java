@@ -0,0 +1,148 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.camera;
+
+import net.algart.arrays.*;
+import net.algart.math.functions.Func;
+import net.algart.multimatrix.MultiMatrix;
+
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Translation of byte or short matrix by some function, compiled into a lookup table (LUT).
+ * Such matrices contain at most 65536 different values, so the function is calculated only once
+ * for every possible value, and the translation is reduced to a simple parallel table lookup.
+ *
+ * <p>The table is built by AlgART {@link Arrays#asFuncArray(Func, Class, PArray...)} itself,
+ * so the results are identical to the lazy translation {@code asFunc(f, resultType).clone()}.</p>
+ */
+final class LookupTableTranslation {
+    private static final int BLOCK_LENGTH = 32 * 1024;
+
+    private final Class<?> resultElementType;
+    private final Object table;
+
+    private LookupTableTranslation(Func f, Class<?> sourceElementType, Class<?> resultElementType) {
+        final int tableLength = sourceElementType == byte.class ? 256 : 65536;
+        final PArray allValues = sourceElementType == byte.class ?
+                Arrays.asIndexFuncArray(Func.IDENTITY, ByteArray.class, tableLength) :
+                Arrays.asIndexFuncArray(Func.IDENTITY, ShortArray.class, tableLength);
+        this.resultElementType = resultElementType;
+        this.table = Arrays.asFuncArray(f, Arrays.type(PArray.class, resultElementType), allValues).toJavaArray();
+    }
+
+    public static boolean isApplicable(MultiMatrix source, Class<?> resultElementType) {
+        Objects.requireNonNull(source, "Null source");
+        Objects.requireNonNull(resultElementType, "Null resultElementType");
+        final Class<?> elementType = source.elementType();
+        return (elementType == byte.class || elementType == short.class) && resultElementType != boolean.class;
+    }
+
+    public static MultiMatrix translate(MultiMatrix source, Func f, Class<?> resultElementType) {
+        Objects.requireNonNull(f, "Null function");
+        if (!isApplicable(source, resultElementType)) {
+            throw new IllegalArgumentException("Lookup table cannot be used for " + source
+                    + " and " + resultElementType + " result");
+        }
+        final Matrix<? extends PArray> mono = source.asMono().channel(0);
+        return MultiMatrix.ofMono(new LookupTableTranslation(f, mono.elementType(), resultElementType)
+                .translate(mono));
+    }
+
+    private Matrix<? extends PArray> translate(Matrix<? extends PArray> source) {
+        final PArray array = source.array();
+        final long n = array.length();
+        final UpdatablePArray result = (UpdatablePArray) Arrays.SMM.newUnresizableArray(resultElementType, n);
+        final long numberOfBlocks = (n + BLOCK_LENGTH - 1) / BLOCK_LENGTH;
+        final int numberOfTasks = (int) Math.min(numberOfBlocks, 4L * Arrays.SystemSettings.cpuCount());
+        IntStream.range(0, numberOfTasks).parallel().forEach(task -> {
+            // - every task allocates its buffers only once
+            final Object sourceBuffer = array.newJavaArray(BLOCK_LENGTH);
+            final int[] indexes = new int[BLOCK_LENGTH];
+            final Object resultBuffer = result.newJavaArray(BLOCK_LENGTH);
+            for (long block = task; block < numberOfBlocks; block += numberOfTasks) {
+                final long from = block * BLOCK_LENGTH;
+                final int count = (int) Math.min(n - from, BLOCK_LENGTH);
+                array.getData(from, sourceBuffer, 0, count);
+                if (sourceBuffer instanceof byte[] bytes) {
+                    for (int k = 0; k < count; k++) {
+                        indexes[k] = bytes[k] & 0xFF;
+                    }
+                } else {
+                    final short[] shorts = (short[]) sourceBuffer;
+                    for (int k = 0; k < count; k++) {
+                        indexes[k] = shorts[k] & 0xFFFF;
+                    }
+                }
+                lookup(resultBuffer, indexes, count);
+                result.setData(from, resultBuffer, 0, count);
+            }
+        });
+        return Matrices.matrix(result, source.dimensions());
+    }
+
+    private void lookup(Object resultBuffer, int[] indexes, int count) {
+        if (table instanceof float[] t) {
+            final float[] r = (float[]) resultBuffer;
+            for (int k = 0; k < count; k++) {
+                r[k] = t[indexes[k]];
+            }
+        } else if (table instanceof byte[] t) {
+            final byte[] r = (byte[]) resultBuffer;
+            for (int k = 0; k < count; k++) {
+                r[k] = t[indexes[k]];
+            }
+        } else if (table instanceof short[] t) {
+            final short[] r = (short[]) resultBuffer;
+            for (int k = 0; k < count; k++) {
+                r[k] = t[indexes[k]];
+            }
+        } else if (table instanceof char[] t) {
+            final char[] r = (char[]) resultBuffer;
+            for (int k = 0; k < count; k++) {
+                r[k] = t[indexes[k]];
+            }
+        } else if (table instanceof int[] t) {
+            final int[] r = (int[]) resultBuffer;
+            for (int k = 0; k < count; k++) {
+                r[k] = t[indexes[k]];
+            }
+        } else if (table instanceof long[] t) {
+            final long[] r = (long[]) resultBuffer;
+            for (int k = 0; k < count; k++) {
+                r[k] = t[indexes[k]];
+            }
+        } else if (table instanceof double[] t) {
+            final double[] r = (double[]) resultBuffer;
+            for (int k = 0; k < count; k++) {
+                r[k] = t[indexes[k]];
+            }
+        } else {
+            throw new AssertionError("Unsupported table " + table.getClass());
+        }
+    }
+}
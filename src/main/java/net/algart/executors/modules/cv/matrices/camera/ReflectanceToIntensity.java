@@ -75,6 +75,9 @@ public final class ReflectanceToIntensity extends MultiMatrixFilter {
         final ReflectanceSettings settings = IntensityToReflectance.loadReflectanceSettings(
                 this, reflectanceSettingsFile);
         final Func f = settings.reflectanceToIntensityFunc(elementType, maximalPrecision);
+        if (LookupTableTranslation.isApplicable(source, elementType)) {
+            return LookupTableTranslation.translate(source, f, elementType);
+        }
         return source.asMono().asFunc(f, Arrays.type(PArray.class, elementType)).clone();
     }
 }
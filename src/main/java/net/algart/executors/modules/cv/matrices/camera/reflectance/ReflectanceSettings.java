@@ -39,12 +39,20 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ReflectanceSettings extends AbstractConvertibleToJson {
     public static final String APP_NAME = "reflectance-settings";
     public static final String CURRENT_VERSION = "1.0";
 
+    private record CachedJson(FileTime lastModifiedTime, long size, JsonObject json) {
+    }
+
+    private static final Map<Path, CachedJson> JSON_CACHE = new ConcurrentHashMap<>();
+
     public abstract static class Translation extends AbstractConvertibleToJson {
         private final double byteScale = 1.0 / 255.0;
 
@@ -227,6 +235,32 @@ public class ReflectanceSettings extends AbstractConvertibleToJson {
         return new ReflectanceSettings(json, reflectanceJsonFile);
     }
 
+    /**
+     * Equivalent of {@link #read(Path)}, but the parsed JSON is cached: the file is read and parsed again
+     * only if its last modification time or size have changed since the previous call.
+     * Every call returns a new instance, so the result may be freely modified.
+     *
+     * @param reflectanceJsonFile path to the reflectance JSON file.
+     * @return new reflectance settings.
+     * @throws IOException in a case of I/O error.
+     */
+    public static ReflectanceSettings readCached(Path reflectanceJsonFile) throws IOException {
+        Objects.requireNonNull(reflectanceJsonFile, "Null reflectanceJsonFile");
+        final Path key = reflectanceJsonFile.toAbsolutePath().normalize();
+        final FileTime lastModifiedTime = Files.getLastModifiedTime(key);
+        final long size = Files.size(key);
+        CachedJson cached = JSON_CACHE.get(key);
+        if (cached == null || !cached.lastModifiedTime.equals(lastModifiedTime) || cached.size != size) {
+            cached = new CachedJson(lastModifiedTime, size, Jsons.readJson(key));
+            JSON_CACHE.put(key, cached);
+        }
+        return new ReflectanceSettings(cached.json, reflectanceJsonFile);
+    }
+
+    public static void clearCache() {
+        JSON_CACHE.clear();
+    }
+
     public void write(Path reflectanceJsonFile, OpenOption... options) throws IOException {
         Objects.requireNonNull(reflectanceJsonFile, "Null reflectanceJsonFile");
         Files.writeString(reflectanceJsonFile, Jsons.toPrettyString(toJson()), options);
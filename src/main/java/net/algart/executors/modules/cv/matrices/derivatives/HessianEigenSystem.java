@@ -0,0 +1,212 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.derivatives;
+
+/**
+ * Eigenvalues and eigenvectors of the symmetric 2x2 matrix (Hessian) at one pixel, solved once
+ * for all {@link HessianOperation operations}. For the same arguments, {@link #value} returns exactly
+ * the same results as the functions, returned by {@link HessianOperation#asOperation}.
+ *
+ * <p>This class is not thread-safe: every thread should use its own instance.</p>
+ */
+final class HessianEigenSystem {
+    private final boolean orderedByDecreasingLambdaMagnitude;
+    private final boolean stableSignumX;
+    private final boolean normalize;
+
+    private double a;
+    private double b;
+    private double c;
+    private double abAbs;
+    private double cAbs;
+    private double d;
+    private double lambda1;
+    private double lambda2;
+    private boolean swapped;
+    // - true if 1st vector must correspond to 2nd eigenvalue (ordering by magnitude)
+    private final Vector vector1 = new Vector();
+    private final Vector vector2 = new Vector();
+
+    private static final class Vector {
+        double x;
+        double y;
+        double norm;
+        boolean fixed;
+        // - true if the vector is replaced by a constant unit vector (normalization of almost diagonal matrix)
+    }
+
+    HessianEigenSystem(boolean orderedByDecreasingLambdaMagnitude, boolean stableSignumX, boolean normalize) {
+        this.orderedByDecreasingLambdaMagnitude = orderedByDecreasingLambdaMagnitude;
+        this.stableSignumX = stableSignumX;
+        this.normalize = normalize;
+    }
+
+    // a == d2/dx2, b = d2/dy2, c = d2/dxdy
+    void solve(double a, double b, double c) {
+        this.a = a;
+        this.b = b;
+        this.c = c;
+        this.abAbs = Math.abs(a - b);
+        this.cAbs = Math.abs(c);
+        this.d = Math.sqrt((a - b) * (a - b) + 4 * c * c);
+        // - the same as sqrt(abAbs * abAbs + 4 * c * c)
+        this.lambda1 = 0.5 * (a + b + d);
+        this.lambda2 = 0.5 * (a + b - d);
+        if (orderedByDecreasingLambdaMagnitude) {
+            final double lambda1Doubled = a + b + d;
+            final double lambda2Doubled = a + b - d;
+            swapped = lambda1Doubled * lambda1Doubled < lambda2Doubled * lambda2Doubled;
+        } else {
+            swapped = false;
+        }
+        buildVector(vector1, !swapped);
+        buildVector(vector2, swapped);
+    }
+
+    // operation must not be null: it is checked once by the caller, not for every pixel
+    double value(HessianOperation operation, double vX, double vY) {
+        switch (operation) {
+            case LAMBDA_1:
+                return lambda(true);
+            case LAMBDA_2:
+                return lambda(false);
+            case LAMBDA_1_PLUS:
+                return lambdaPlus(true);
+            case LAMBDA_2_PLUS:
+                return lambdaPlus(false);
+            case LAMBDA_1_MINUS:
+                return lambdaMinus(true);
+            case LAMBDA_2_MINUS:
+                return lambdaMinus(false);
+            case VECTOR_1_X:
+                return component(vector1, true);
+            case VECTOR_1_Y:
+                return component(vector1, false);
+            case VECTOR_2_X:
+                return component(vector2, true);
+            case VECTOR_2_Y:
+                return component(vector2, false);
+            case VECTOR_1_SCALAR_PRODUCT:
+                return scalarProduct(vector1, vX, vY);
+            case VECTOR_2_SCALAR_PRODUCT:
+                return scalarProduct(vector2, vX, vY);
+            default:
+                throw new AssertionError("Unsupported " + operation);
+        }
+    }
+
+    private double lambda(boolean firstValue) {
+        if (orderedByDecreasingLambdaMagnitude) {
+            final boolean firstLess = lambda1 * lambda1 < lambda2 * lambda2;
+            return firstValue == firstLess ? lambda2 : lambda1;
+        } else {
+            return firstValue ? lambda1 : lambda2;
+        }
+    }
+
+    private double lambdaPlus(boolean firstValue) {
+        if (orderedByDecreasingLambdaMagnitude) {
+            if (firstValue) {
+                return lambda1 * lambda1 >= lambda2 * lambda2 ? lambda1 : lambda2;
+            } else {
+                return 0.0;
+            }
+        } else {
+            final double result = firstValue ? lambda1 : lambda2;
+            return result >= 0.0 ? result : 0.0;
+        }
+    }
+
+    private double lambdaMinus(boolean firstValue) {
+        if (orderedByDecreasingLambdaMagnitude) {
+            if (firstValue) {
+                return lambda2 >= 0.0 ? lambda2 : lambda1 <= 0.0 ? lambda1 : 0.0;
+            } else {
+                return lambda2 >= 0.0 || lambda1 <= 0.0 ? 0.0 : lambda1 >= -lambda2 ? lambda2 : lambda1;
+            }
+        } else {
+            final double result = firstValue ? lambda1 : lambda2;
+            return result <= 0.0 ? result : 0.0;
+        }
+    }
+
+    private double component(Vector v, boolean xComponent) {
+        if (v.fixed) {
+            return xComponent ? v.x : v.y;
+        }
+        if (normalize) {
+            return xComponent ? v.x / v.norm : v.y / v.norm;
+        }
+        return xComponent ? v.x : v.y;
+    }
+
+    private double scalarProduct(Vector v, double vX, double vY) {
+        if (v.fixed) {
+            return v.x != 0.0 ? (v.x > 0.0 ? vX : -vX) : (v.y > 0.0 ? vY : -vY);
+        }
+        final double product = v.x * vX + v.y * vY;
+        return normalize ? product / v.norm : product;
+    }
+
+    // See comments in HessianOperation.EigenVectorFunc
+    private void buildVector(Vector v, boolean useFirst) {
+        final boolean fix = normalize && cAbs < HessianOperation.DEFAULT_HESSIAN_D2DXDY_NORMALIZING_THRESHOLD;
+        v.fixed = fix;
+        if (stableSignumX) {
+            if (fix) {
+                v.x = useFirst ? 1.0 : -1.0;
+                v.y = 0.0;
+                return;
+            }
+            final double y = 2 * c;
+            v.y = y;
+            if (useFirst) {
+                v.x = a > b ? abAbs + d : d > HessianOperation.COMPUTER_EPSILON ? y * y / (d + abAbs) : 0.0;
+            } else {
+                v.x = a > b ? -y * y / (d + abAbs) : d > HessianOperation.COMPUTER_EPSILON ? -abAbs - d : -0.0;
+            }
+        } else {
+            if (fix) {
+                if (useFirst) {
+                    v.x = a >= b ? 1.0 : 0.0;
+                    v.y = a >= b ? 0.0 : 1.0;
+                } else {
+                    v.x = a >= b ? 0.0 : -1.0;
+                    v.y = a >= b ? -1.0 : 0.0;
+                }
+                return;
+            }
+            if (useFirst) {
+                v.x = a >= b ? a - b + d : 2 * c;
+                v.y = a >= b ? 2 * c : b - a + d;
+            } else {
+                v.x = a >= b ? 2 * c : a - b - d;
+                v.y = a >= b ? b - a - d : 2 * c;
+            }
+        }
+        v.norm = normalize ? Math.sqrt(v.x * v.x + v.y * v.y) : 1.0;
+    }
+}
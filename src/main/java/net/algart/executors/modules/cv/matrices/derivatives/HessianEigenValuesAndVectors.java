@@ -71,6 +71,7 @@ public final class HessianEigenValuesAndVectors extends MultichannelDerivativesF
     private boolean orderEigenValuesByMagnitude = false;
     private boolean stableEigenVectorsSignumX = false;
     private boolean normalizeEigenVectors = false;
+    private boolean fusedComputation = true;
 
     public HessianEigenValuesAndVectors() {
         useVisibleResultParameter();
@@ -107,10 +108,18 @@ public final class HessianEigenValuesAndVectors extends MultichannelDerivativesF
         return this;
     }
 
+    public boolean isFusedComputation() {
+        return fusedComputation;
+    }
+
+    public HessianEigenValuesAndVectors setFusedComputation(boolean fusedComputation) {
+        this.fusedComputation = fusedComputation;
+        return this;
+    }
+
     public void process(final Map<HessianOperation, MultiMatrix2D> results, MultiMatrix2D source) {
         source = preprocess(source);
         final List<Matrix<? extends PArray>> sourceChannels = source.allChannels();
-        final Convolution convolution = createConvolution();
         final Class<? extends PFloatingArray> type = floatingType(source.elementType());
         final Map<HessianOperation, List<Matrix<? extends PArray>>> resultChannels = new LinkedHashMap<>();
         boolean gradientVectorNecessary = false;
@@ -118,31 +127,50 @@ public final class HessianEigenValuesAndVectors extends MultichannelDerivativesF
             resultChannels.put(operation, new ArrayList<>());
             gradientVectorNecessary |= operation.additionalVectorRequired();
         }
-        for (final Matrix<? extends PArray> m : sourceChannels) {
-            final Matrix<? extends PFloatingArray> d2dx2 = DerivativeOperation.D2_DX2.process(type, convolution, m);
-            final Matrix<? extends PFloatingArray> d2dy2 = DerivativeOperation.D2_DY2.process(type, convolution, m);
-            final Matrix<? extends PFloatingArray> d2dxdy = DerivativeOperation.D2_DXDY.process(type, convolution, m);
-            final Matrix<? extends PFloatingArray> dx, dy;
-            if (gradientVectorNecessary) {
-                dx = DerivativeOperation.DX.process(type, convolution, m);
-                dy = DerivativeOperation.DY.process(type, convolution, m);
-            } else {
-                dx = null;
-                dy = null;
+        if (fusedComputation) {
+            final List<HessianOperation> operations = new ArrayList<>(resultChannels.keySet());
+            final HessianFusedEngine engine = new HessianFusedEngine(
+                    operations,
+                    type,
+                    getContinuationMode().continuationModeOrNull(),
+                    orderEigenValuesByMagnitude,
+                    stableEigenVectorsSignumX,
+                    normalizeEigenVectors);
+            for (final Matrix<? extends PArray> m : sourceChannels) {
+                final List<Matrix<? extends PArray>> channelResults = engine.process(m);
+                for (int k = 0; k < operations.size(); k++) {
+                    resultChannels.get(operations.get(k)).add(channelResults.get(k));
+                }
             }
-            for (Map.Entry<HessianOperation, List<Matrix<? extends PArray>>> entry : resultChannels.entrySet()) {
-                final HessianOperation operation = entry.getKey();
-                entry.getValue().add(operation.asOperation(
-                        DoubleArray.class,
-                        // - lazy operation, so we can require maximal precision without spending memory
-                        d2dx2,
-                        d2dy2,
-                        d2dxdy,
-                        dx,
-                        dy,
-                        orderEigenValuesByMagnitude,
-                        stableEigenVectorsSignumX,
-                        normalizeEigenVectors));
+        } else {
+            final Convolution convolution = createConvolution();
+            for (final Matrix<? extends PArray> m : sourceChannels) {
+                final Matrix<? extends PFloatingArray> d2dx2 = DerivativeOperation.D2_DX2.process(type, convolution, m);
+                final Matrix<? extends PFloatingArray> d2dy2 = DerivativeOperation.D2_DY2.process(type, convolution, m);
+                final Matrix<? extends PFloatingArray> d2dxdy =
+                        DerivativeOperation.D2_DXDY.process(type, convolution, m);
+                final Matrix<? extends PFloatingArray> dx, dy;
+                if (gradientVectorNecessary) {
+                    dx = DerivativeOperation.DX.process(type, convolution, m);
+                    dy = DerivativeOperation.DY.process(type, convolution, m);
+                } else {
+                    dx = null;
+                    dy = null;
+                }
+                for (Map.Entry<HessianOperation, List<Matrix<? extends PArray>>> entry : resultChannels.entrySet()) {
+                    final HessianOperation operation = entry.getKey();
+                    entry.getValue().add(operation.asOperation(
+                            DoubleArray.class,
+                            // - lazy operation, so we can require maximal precision without spending memory
+                            d2dx2,
+                            d2dy2,
+                            d2dxdy,
+                            dx,
+                            dy,
+                            orderEigenValuesByMagnitude,
+                            stableEigenVectorsSignumX,
+                            normalizeEigenVectors));
+                }
             }
         }
         for (Map.Entry<HessianOperation, List<Matrix<? extends PArray>>> entry : resultChannels.entrySet()) {
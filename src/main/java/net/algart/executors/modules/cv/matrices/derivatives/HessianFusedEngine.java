@@ -0,0 +1,181 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.derivatives;
+
+import net.algart.arrays.*;
+import net.algart.math.functions.Func;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Single-pass computation of several {@link HessianOperation Hessian operations} for one channel.
+ *
+ * <p>The source is read in horizontal tiles (bands of rows), which fit in the processor cache.
+ * Inside a tile, the derivatives d<sup>2</sup>/dx<sup>2</sup>, d<sup>2</sup>/dy<sup>2</sup>,
+ * d<sup>2</sup>/dxdy (and, if necessary, the gradient) are calculated by the same kernels as
+ * {@link DerivativeOperation#D2_DX2}, {@link DerivativeOperation#D2_DY2}, {@link DerivativeOperation#D2_DXDY},
+ * {@link DerivativeOperation#DX}, {@link DerivativeOperation#DY}, the eigen system is solved once per pixel
+ * by {@link HessianEigenSystem}, and all requested results are stored at once. Tiles are processed in parallel.</p>
+ */
+final class HessianFusedEngine {
+    private static final int TILE_BUFFER_LENGTH = 32768;
+    // - 256 KB of double values: source rows of one tile
+
+    private final HessianOperation[] operations;
+    private final Class<? extends PFloatingArray> type;
+    private final Matrix.ContinuationMode continuationMode;
+    private final boolean orderEigenValuesByMagnitude;
+    private final boolean stableEigenVectorsSignumX;
+    private final boolean normalizeEigenVectors;
+    private final boolean floatPrecision;
+
+    HessianFusedEngine(
+            List<HessianOperation> operations,
+            Class<? extends PFloatingArray> type,
+            Matrix.ContinuationMode continuationModeOrNull,
+            boolean orderEigenValuesByMagnitude,
+            boolean stableEigenVectorsSignumX,
+            boolean normalizeEigenVectors) {
+        Objects.requireNonNull(operations, "Null operations");
+        this.operations = operations.toArray(new HessianOperation[0]);
+        for (HessianOperation operation : this.operations) {
+            Objects.requireNonNull(operation, "Null operation in the list");
+        }
+        this.type = Objects.requireNonNull(type, "Null type");
+        this.continuationMode = continuationModeOrNull == null ?
+                Matrix.ContinuationMode.PSEUDO_CYCLIC :
+                continuationModeOrNull;
+        // - BasicConvolution without continuation works in pseudo-cyclic mode
+        this.orderEigenValuesByMagnitude = orderEigenValuesByMagnitude;
+        this.stableEigenVectorsSignumX = stableEigenVectorsSignumX;
+        this.normalizeEigenVectors = normalizeEigenVectors;
+        this.floatPrecision = type == FloatArray.class;
+    }
+
+    /**
+     * Returns the results of all operations, in the order of the list passed to the constructor.
+     * The element type of results corresponds to the <code>type</code> argument of the constructor.
+     *
+     * @param m source channel.
+     * @return newly allocated results.
+     */
+    List<Matrix<? extends PArray>> process(Matrix<? extends PArray> m) {
+        Objects.requireNonNull(m, "Null matrix");
+        if (m.dimX() > Integer.MAX_VALUE - 2) {
+            throw new TooLargeArrayException("Too large matrix width " + m.dimX() + " for Hessian engine: " + m);
+        }
+        final int dimX = (int) m.dimX();
+        final long dimY = m.dimY();
+        final List<Matrix<? extends UpdatablePFloatingArray>> results = new ArrayList<>();
+        for (int k = 0; k < operations.length; k++) {
+            results.add(Arrays.SMM.newMatrix(
+                    UpdatablePFloatingArray.class, floatPrecision ? float.class : double.class, dimX, dimY));
+        }
+        if (m.size() > 0 && operations.length > 0) {
+            final boolean gradientNecessary = java.util.Arrays.stream(operations)
+                    .anyMatch(HessianOperation::additionalVectorRequired);
+            final Matrix<? extends PArray> continued = m.subMatr(
+                    -1, -1, dimX + 2, dimY + 2, continuationMode);
+            final DoubleArray values = Arrays.asFuncArray(Func.IDENTITY, DoubleArray.class, continued.array());
+            final int rowLength = dimX + 2;
+            final long maxRowsForParallelism = Math.max(1, dimY / (4L * Arrays.SystemSettings.cpuCount()));
+            final int rowsPerTile = (int) Math.min(maxRowsForParallelism,
+                    Math.max(1, TILE_BUFFER_LENGTH / rowLength - 2));
+            final long numberOfTiles = (dimY + rowsPerTile - 1) / rowsPerTile;
+            if (numberOfTiles > Integer.MAX_VALUE) {
+                throw new TooLargeArrayException("Too large matrix height: " + m);
+            }
+            IntStream.range(0, (int) numberOfTiles).parallel().forEach(tile -> {
+                final long y1 = (long) tile * rowsPerTile;
+                final int rows = (int) Math.min(rowsPerTile, dimY - y1);
+                processTile(values, results, dimX, y1, rows, gradientNecessary);
+            });
+        }
+        return new ArrayList<>(results);
+    }
+
+    private void processTile(
+            DoubleArray values,
+            List<Matrix<? extends UpdatablePFloatingArray>> results,
+            int dimX,
+            long y1,
+            int rows,
+            boolean gradientNecessary) {
+        final int rowLength = dimX + 2;
+        final int n = operations.length;
+        final int tileSize = rows * dimX;
+        final double[] source = new double[(rows + 2) * rowLength];
+        values.getData(y1 * rowLength, source);
+        // - row #0 of the continued matrix is the row y1-1 of the source matrix
+        final float[][] floatResults = floatPrecision ? new float[n][tileSize] : null;
+        final double[][] doubleResults = floatPrecision ? null : new double[n][tileSize];
+        final HessianEigenSystem eigenSystem = new HessianEigenSystem(
+                orderEigenValuesByMagnitude, stableEigenVectorsSignumX, normalizeEigenVectors);
+        for (int r = 0, disp = 0; r < rows; r++) {
+            final int up = r * rowLength + 1;
+            final int middle = up + rowLength;
+            final int down = middle + rowLength;
+            for (int x = 0; x < dimX; x++, disp++) {
+                final double v = source[middle + x];
+                double a = source[middle + x - 1] - 2.0 * v + source[middle + x + 1];
+                double b = source[up + x] - 2.0 * v + source[down + x];
+                double c = 0.25 * (source[up + x - 1] - source[up + x + 1]
+                        - source[down + x - 1] + source[down + x + 1]);
+                double dx = 0.0;
+                double dy = 0.0;
+                if (gradientNecessary) {
+                    dx = 0.5 * (source[middle + x + 1] - source[middle + x - 1]);
+                    dy = 0.5 * (source[down + x] - source[up + x]);
+                }
+                if (floatPrecision) {
+                    // - derivatives are rounded in the same way as by DerivativeOperation.process
+                    a = (float) a;
+                    b = (float) b;
+                    c = (float) c;
+                    dx = (float) dx;
+                    dy = (float) dy;
+                }
+                eigenSystem.solve(a, b, c);
+                if (floatPrecision) {
+                    for (int k = 0; k < n; k++) {
+                        floatResults[k][disp] = (float) eigenSystem.value(operations[k], dx, dy);
+                    }
+                } else {
+                    for (int k = 0; k < n; k++) {
+                        doubleResults[k][disp] = eigenSystem.value(operations[k], dx, dy);
+                    }
+                }
+            }
+        }
+        final long position = y1 * dimX;
+        for (int k = 0; k < n; k++) {
+            results.get(k).array().setData(position, floatPrecision ? floatResults[k] : doubleResults[k]);
+        }
+    }
+}
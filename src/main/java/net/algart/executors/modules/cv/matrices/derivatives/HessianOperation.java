@@ -112,8 +112,8 @@ public enum HessianOperation {
         }
     };
 
-    private static final double DEFAULT_HESSIAN_D2DXDY_NORMALIZING_THRESHOLD = 1e-7;
-    private static final double COMPUTER_EPSILON = 1e-10;
+    static final double DEFAULT_HESSIAN_D2DXDY_NORMALIZING_THRESHOLD = 1e-7;
+    static final double COMPUTER_EPSILON = 1e-10;
 
     abstract Func funcOfSecondDerivatives(
             boolean orderEigenValues,
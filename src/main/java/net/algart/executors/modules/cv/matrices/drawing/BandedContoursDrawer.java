@@ -0,0 +1,332 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.drawing;
+
+import net.algart.arrays.*;
+import net.algart.contours.ContourHeader;
+import net.algart.contours.Contours;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Multithreading drawing of contours by horizontal bands.
+ *
+ * <p>Contours are distributed between bands by their containing rectangles (one contour may belong
+ * to several bands), and every band is drawn in its own thread, clipping all segments by the band.
+ * Inside a band, contours are drawn in increasing order of their indexes, so, when contours overlap,
+ * the result is the same as in the sequential drawing. Pixels are written directly into the Java arrays
+ * of the channels, which must be <code>byte</code> or <code>int</code> matrices, stored in Java arrays
+ * (see {@link #isApplicable(List)}).</p>
+ */
+final class BandedContoursDrawer {
+    static final long MIN_BAND_HEIGHT = 64;
+
+    @FunctionalInterface
+    interface ContourColors {
+        long color(int contourIndex, int channelIndex);
+    }
+
+    private final Contours contours;
+    private final IntPredicate drawn;
+    private final ContourColors colors;
+    private final boolean exactContours;
+    private final int increment;
+    private final long originX;
+    private final long originY;
+    private final long scale;
+    private final int dimX;
+    private final int dimY;
+    private final int numberOfChannels;
+    private final byte[][] bytes;
+    private final int[][] ints;
+    private final int[] offsets;
+
+    BandedContoursDrawer(
+            Contours contours,
+            List<Matrix<? extends UpdatablePArray>> channels,
+            IntPredicate drawn,
+            ContourColors colors,
+            boolean exactContours,
+            int increment,
+            long originX,
+            long originY,
+            long scale) {
+        this.contours = Objects.requireNonNull(contours, "Null contours");
+        Objects.requireNonNull(channels, "Null channels");
+        this.drawn = Objects.requireNonNull(drawn, "Null drawn predicate");
+        this.colors = Objects.requireNonNull(colors, "Null colors");
+        if (!isApplicable(channels)) {
+            throw new IllegalArgumentException("Channels must be byte or int matrices, stored in Java arrays");
+        }
+        this.exactContours = exactContours;
+        this.increment = increment;
+        this.originX = originX;
+        this.originY = originY;
+        this.scale = scale;
+        final Matrix<? extends UpdatablePArray> first = channels.get(0);
+        this.dimX = (int) first.dimX();
+        this.dimY = (int) first.dimY();
+        this.numberOfChannels = channels.size();
+        final boolean byteChannels = first.elementType() == byte.class;
+        this.bytes = byteChannels ? new byte[numberOfChannels][] : null;
+        this.ints = byteChannels ? null : new int[numberOfChannels][];
+        this.offsets = new int[numberOfChannels];
+        for (int c = 0; c < numberOfChannels; c++) {
+            final DirectAccessible da = (DirectAccessible) channels.get(c).array();
+            if (byteChannels) {
+                bytes[c] = (byte[]) da.javaArray();
+            } else {
+                ints[c] = (int[]) da.javaArray();
+            }
+            offsets[c] = da.javaArrayOffset();
+        }
+    }
+
+    static boolean isApplicable(List<Matrix<? extends UpdatablePArray>> channels) {
+        if (channels.isEmpty()) {
+            return false;
+        }
+        final Matrix<? extends UpdatablePArray> first = channels.get(0);
+        if (first.elementType() != byte.class && first.elementType() != int.class) {
+            return false;
+        }
+        if (first.dimX() > Integer.MAX_VALUE || first.dimY() > Integer.MAX_VALUE) {
+            return false;
+        }
+        for (Matrix<? extends UpdatablePArray> channel : channels) {
+            if (!channel.dimEquals(first) || channel.elementType() != first.elementType()
+                    || !(channel.array() instanceof DirectAccessible da && da.hasJavaArray())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int recommendedNumberOfBands(long dimY) {
+        final long result = Math.min(dimY / MIN_BAND_HEIGHT, 4L * Arrays.SystemSettings.cpuCount());
+        return (int) Math.max(result, 1);
+    }
+
+    void draw(int numberOfBands) {
+        if (numberOfBands <= 0) {
+            throw new IllegalArgumentException("Zero or negative number of bands " + numberOfBands);
+        }
+        if (dimX == 0 || dimY == 0) {
+            return;
+        }
+        final int bandHeight = (int) (((long) dimY + numberOfBands - 1) / numberOfBands);
+        final int n = contours.numberOfContours();
+        final int[] firstBand = new int[n];
+        final int[] lastBand = new int[n];
+        final int[] counts = new int[numberOfBands + 1];
+        final ContourHeader header = new ContourHeader();
+        for (int k = 0; k < n; k++) {
+            firstBand[k] = -1;
+            if (!drawn.test(k)) {
+                continue;
+            }
+            contours.getHeader(header, k);
+            final long fromY = Math.max(scale * (header.minY() - originY) - 1, 0);
+            final long toY = Math.min(scale * (header.maxY() - originY), dimY - 1);
+            // - -1: boundaries of some segments are drawn at the previous line
+            if (fromY > toY) {
+                continue;
+            }
+            firstBand[k] = (int) (fromY / bandHeight);
+            lastBand[k] = (int) (toY / bandHeight);
+            for (int b = firstBand[k]; b <= lastBand[k]; b++) {
+                counts[b + 1]++;
+            }
+        }
+        for (int b = 0; b < numberOfBands; b++) {
+            counts[b + 1] += counts[b];
+        }
+        final int[] bandContours = new int[counts[numberOfBands]];
+        final int[] positions = java.util.Arrays.copyOf(counts, numberOfBands);
+        for (int k = 0; k < n; k++) {
+            for (int b = firstBand[k]; b >= 0 && b <= lastBand[k]; b++) {
+                bandContours[positions[b]++] = k;
+            }
+        }
+        IntStream.range(0, numberOfBands).parallel().forEach(b -> {
+            final long bandFromY = (long) b * bandHeight;
+            final long bandToY = Math.min(bandFromY + bandHeight, dimY) - 1;
+            final long[] channelColors = new long[numberOfChannels];
+            for (int i = counts[b]; i < counts[b + 1]; i++) {
+                final int k = bandContours[i];
+                for (int c = 0; c < numberOfChannels; c++) {
+                    channelColors[c] = colors.color(k, c);
+                }
+                drawContour(k, channelColors, bandFromY, bandToY);
+            }
+        });
+    }
+
+    private void drawContour(int contourIndex, long[] channelColors, long bandFromY, long bandToY) {
+        final IntArray contour = contours.getContour(contourIndex);
+        final Boolean internal = exactContours ? null : contours.isInternalContour(contourIndex);
+        final long n = contour.length();
+        long lastX = contour.getInt(n - 2) - originX;
+        long lastY = contour.getInt(n - 1) - originY;
+        for (long i = 0; i < n; i += 2) {
+            final long x = contour.getInt(i) - originX;
+            final long y = contour.getInt(i + 1) - originY;
+            if (!drawHorizontalOrVerticalLine(
+                    scale * lastX, scale * lastY, scale * x, scale * y,
+                    internal, channelColors, bandFromY, bandToY)) {
+                throw new IllegalArgumentException("Cannot draw contours containing non-horizontal "
+                        + "and non-vertical segments (" + lastX + "," + lastY + " - " + x + "," + y
+                        + ") between points #" + (i / 2 - 1) + " and #" + i / 2);
+            }
+            lastX = x;
+            lastY = y;
+        }
+    }
+
+    // The same logic as in DrawContours.drawHorizontalOrVerticalLine
+    private boolean drawHorizontalOrVerticalLine(
+            long x1,
+            long y1,
+            long x2,
+            long y2,
+            Boolean internal,
+            long[] channelColors,
+            long bandFromY,
+            long bandToY) {
+        if (y1 == y2) {
+            if (x1 == x2) {
+                return true;
+            } else if (x1 < x2) {
+                if (internal != null && internal) {
+                    y1--;
+                }
+                drawRow(x1, x2 - 1, y1, channelColors, bandFromY, bandToY);
+            } else {
+                if (internal != null && !internal) {
+                    y1--;
+                }
+                if (internal == null) {
+                    drawRow(x2 + 1, x1, y1, channelColors, bandFromY, bandToY);
+                } else {
+                    drawRow(x2, x1 - 1, y1, channelColors, bandFromY, bandToY);
+                }
+            }
+            return true;
+        } else if (x1 == x2) {
+            if (y1 < y2) {
+                if (internal != null && !internal) {
+                    x1--;
+                }
+                drawColumn(x1, y1, y2 - 1, channelColors, bandFromY, bandToY);
+            } else {
+                if (internal != null && internal) {
+                    x1--;
+                }
+                if (internal == null) {
+                    drawColumn(x1, y2 + 1, y1, channelColors, bandFromY, bandToY);
+                } else {
+                    drawColumn(x1, y2, y1 - 1, channelColors, bandFromY, bandToY);
+                }
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    private void drawRow(long minX, long maxX, long y, long[] channelColors, long bandFromY, long bandToY) {
+        if (y < bandFromY || y > bandToY) {
+            return;
+        }
+        minX = Math.max(minX, 0);
+        maxX = Math.min(maxX, dimX - 1);
+        if (minX > maxX) {
+            return;
+        }
+        final int from = (int) (y * dimX + minX);
+        final int to = (int) (y * dimX + maxX) + 1;
+        for (int c = 0; c < numberOfChannels; c++) {
+            fill(c, from, to, 1, channelColors[c]);
+        }
+    }
+
+    private void drawColumn(long x, long minY, long maxY, long[] channelColors, long bandFromY, long bandToY) {
+        if (x < 0 || x >= dimX) {
+            return;
+        }
+        minY = Math.max(minY, bandFromY);
+        maxY = Math.min(maxY, bandToY);
+        if (minY > maxY) {
+            return;
+        }
+        final int from = (int) (minY * dimX + x);
+        final int to = (int) (maxY * dimX + x) + 1;
+        for (int c = 0; c < numberOfChannels; c++) {
+            fill(c, from, to, dimX, channelColors[c]);
+        }
+    }
+
+    private void fill(int channel, int from, int to, int step, long colorOrMaxValue) {
+        final int offset = offsets[channel];
+        if (bytes != null) {
+            final byte[] array = bytes[channel];
+            if (increment > 0) {
+                for (int i = from + offset, end = to + offset; i < end; i += step) {
+                    array[i] = (byte) Math.min((array[i] & 0xFF) + increment, colorOrMaxValue);
+                }
+            } else {
+                final byte value = (byte) colorOrMaxValue;
+                for (int i = from + offset, end = to + offset; i < end; i += step) {
+                    array[i] = value;
+                }
+            }
+        } else {
+            final int[] array = ints[channel];
+            if (increment > 0) {
+                for (int i = from + offset, end = to + offset; i < end; i += step) {
+                    array[i] = (int) Math.min((long) array[i] + increment, colorOrMaxValue);
+                }
+            } else {
+                final int value = (int) colorOrMaxValue;
+                for (int i = from + offset, end = to + offset; i < end; i += step) {
+                    array[i] = value;
+                }
+            }
+        }
+    }
+
+    static long randomColor(long seed, int contourIndex, int channelIndex, long maxValue) {
+        long z = seed + 0x9E3779B97F4A7C15L * (((long) contourIndex << 2) + channelIndex + 1);
+        // - SplitMix64 finalizer: every (contour, channel) pair gets its own well-mixed value
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return Long.remainderUnsigned(z, maxValue);
+    }
+}
@@ -29,6 +29,7 @@ import net.algart.contours.Contours;
 import net.algart.executors.api.data.SNumbers;
 import net.algart.executors.modules.core.common.matrices.MultiMatrix2DFilter;
 import net.algart.executors.modules.core.matrices.geometry.Resize;
+import net.algart.executors.modules.cv.matrices.objects.binary.boundaries.SharedContours;
 import net.algart.executors.modules.cv.matrices.misc.Selector;
 import net.algart.math.IPoint;
 import net.algart.multimatrix.MultiMatrix;
@@ -36,6 +37,7 @@ import net.algart.multimatrix.MultiMatrix2D;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Random;
 import java.util.function.Predicate;
 
@@ -87,6 +89,7 @@ public final class DrawContours extends MultiMatrix2DFilter {
     private long randSeed = 0;
     // 0 means really random: new sequence for each call
     private boolean contrastBackground = false;
+    private boolean multithreadingBands = true;
 
     public DrawContours() {
         addInputNumbers(INPUT_CONTOURS);
@@ -211,9 +214,18 @@ public final class DrawContours extends MultiMatrix2DFilter {
         return this;
     }
 
+    public boolean isMultithreadingBands() {
+        return multithreadingBands;
+    }
+
+    public DrawContours setMultithreadingBands(boolean multithreadingBands) {
+        this.multithreadingBands = multithreadingBands;
+        return this;
+    }
+
     @Override
     public MultiMatrix2D process(MultiMatrix2D source) {
-        Contours contours = Contours.deserialize(getInputNumbers(INPUT_CONTOURS).toIntArray());
+        Contours contours = SharedContours.get(getInputNumbers(INPUT_CONTOURS));
         return process(contours, source);
     }
 
@@ -255,11 +267,15 @@ public final class DrawContours extends MultiMatrix2DFilter {
                         UpdatablePArray.class, drawnFeatures.elementType, dimX, dimY));
             }
         }
-        Random rnd = randSeed == 0 ? new Random() : new Random(randSeed);
-        for (int k = 0, n = contours.numberOfContours(); k < n; k++) {
-            for (Matrix<? extends UpdatablePArray> channel : resultChannels) {
-                drawContour(channel.cast(UpdatablePFixedArray.class), contours, k, originPoint, rnd);
-                // - actually, the element type is always byte or int
+        if (multithreadingBands && BandedContoursDrawer.isApplicable(resultChannels)) {
+            drawByBands(resultChannels, contours, originPoint);
+        } else {
+            Random rnd = randSeed == 0 ? new Random() : new Random(randSeed);
+            for (int k = 0, n = contours.numberOfContours(); k < n; k++) {
+                for (Matrix<? extends UpdatablePArray> channel : resultChannels) {
+                    drawContour(channel.cast(UpdatablePFixedArray.class), contours, k, originPoint, rnd);
+                    // - actually, the element type is always byte or int
+                }
             }
         }
         MultiMatrix2D result = MultiMatrix.of2D(resultChannels);
@@ -277,6 +293,50 @@ public final class DrawContours extends MultiMatrix2DFilter {
         return true;
     }
 
+    private void drawByBands(
+            List<Matrix<? extends UpdatablePArray>> resultChannels,
+            Contours contours,
+            IPoint origin) {
+        if (origin.coordCount() != 2) {
+            throw new IllegalArgumentException("Different number of dimensions: " + origin.coordCount()
+                    + "-dimensional point (" + origin + ") and 2-dimensional matrix");
+        }
+        final long maxValue = resultChannels.get(0).array().maxPossibleValue();
+        final long seed = randSeed == 0 ? new Random().nextLong() : randSeed;
+        final BandedContoursDrawer.ContourColors colors = switch (drawnFeatures) {
+            case STRICT_BYTE_CONTOURS -> (contourIndex, channelIndex) -> maxValue;
+            case NOT_INTERSECTED_LABELS_OF_CONTOURS -> (contourIndex, channelIndex) ->
+                    contours.getObjectLabel(contourIndex);
+            case NOT_INTERSECTED_INDEXES_OF_CONTOURS -> (contourIndex, channelIndex) -> contourIndex + 1;
+            case NOT_INTERSECTED_RANDOMLY_COLORED_CONTOURS -> (contourIndex, channelIndex) ->
+                    BandedContoursDrawer.randomColor(seed, contourIndex, channelIndex, maxValue);
+        };
+        final long dimY = resultChannels.get(0).dimY();
+        final BandedContoursDrawer drawer = new BandedContoursDrawer(
+                contours,
+                resultChannels,
+                contourIndex -> isDrawn(contours, contourIndex),
+                colors,
+                drawnFeatures.incrementing,
+                drawnFeatures.incrementing ? strictByteMultiplier : 0,
+                origin.x(),
+                origin.y(),
+                scale);
+        final int numberOfBands = BandedContoursDrawer.recommendedNumberOfBands(dimY);
+        long t1 = debugTime();
+        drawer.draw(numberOfBands);
+        long t2 = debugTime();
+        logDebug(() -> String.format(Locale.US, "%d contours drawn by %d bands in %.3f ms",
+                contours.numberOfContours(), numberOfBands, (t2 - t1) * 1e-6));
+    }
+
+    private boolean isDrawn(Contours contours, int contourIndex) {
+        if (!drawnContourKinds.accept.test(contours.isInternalContour(contourIndex))) {
+            return false;
+        }
+        return contourIndex >= firstIndex && (numberOfContours <= 0 || contourIndex - firstIndex < numberOfContours);
+    }
+
     private void drawContour(
             Matrix<? extends UpdatablePFixedArray> result,
             Contours contours,
@@ -24,14 +24,20 @@
 
 package net.algart.executors.modules.cv.matrices.filtering;
 
+import net.algart.arrays.Matrix;
+import net.algart.arrays.PArray;
 import net.algart.executors.modules.core.common.matrices.MultiMatrixFilter;
 import net.algart.math.IRectangularArea;
 import net.algart.matrices.morphology.Quick2DAverager;
 import net.algart.multimatrix.MultiMatrix;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 public final class AverageByRectangle extends MultiMatrixFilter {
+    public static final String OUTPUT_VARIANCE = "variance";
+
     private int sizeX = 15;
     private int sizeY = 15;
     private int centerX = 0;
@@ -39,8 +45,10 @@ public final class AverageByRectangle extends MultiMatrixFilter {
     boolean strictDivision = false;
     private boolean rounding = true;
     boolean twoStage = false;
+    private boolean integralImage = false;
 
     public AverageByRectangle() {
+        addOutputMat(OUTPUT_VARIANCE);
     }
 
     public int getSizeX() {
@@ -106,10 +114,36 @@ public final class AverageByRectangle extends MultiMatrixFilter {
         return this;
     }
 
+    public boolean isIntegralImage() {
+        return integralImage;
+    }
+
+    /**
+     * Sets whether the averaging should be performed by a summed-area table (integral image).
+     * The table is built once for every source matrix and reused while this matrix exists (the summary memory
+     * of reused tables is limited), so the same matrix can be averaged by any other rectangles without
+     * repeated summing. Every reuse compares the matrix with its copy, stored together with the table,
+     * so modification of the matrix in place is detected; because of this additional memory and time,
+     * this mode is disabled by default.
+     * The results are the same as in the usual mode, excepting little differences due to rounding errors
+     * for <code>int</code>, <code>long</code> and floating-point matrices.
+     * The table is also used for calculating {@link #OUTPUT_VARIANCE variance}, if it is requested,
+     * regardless on this flag; but if this flag is cleared, this table is built for this call only.
+     *
+     * @param integralImage whether to use summed-area table.
+     * @return a reference to this object.
+     */
+    public AverageByRectangle setIntegralImage(boolean integralImage) {
+        this.integralImage = integralImage;
+        return this;
+    }
+
     @Override
     public MultiMatrix process(MultiMatrix source) {
         long t1 = debugTime();
-        final Quick2DAverager averager = Quick2DAverager.newInstance(
+        final boolean varianceNecessary = isOutputNecessary(OUTPUT_VARIANCE);
+        final boolean tableNecessary = integralImage || varianceNecessary;
+        final Quick2DAverager averager = integralImage ? null : Quick2DAverager.newInstance(
                         source.elementType(),
                         source.dimensions(),
                         twoStage)
@@ -121,16 +155,44 @@ public final class AverageByRectangle extends MultiMatrixFilter {
         final int minY = centerY - sizeY / 2;
         final IRectangularArea rectangle = IRectangularArea.valueOf(
                 minX, minY, minX + sizeX - 1, minY + sizeY - 1);
+        final List<SummedAreaTable> tables = new ArrayList<>();
+        if (tableNecessary) {
+            for (Matrix<? extends PArray> m : source.allChannels()) {
+                tables.add(integralImage ?
+                        SummedAreaTable.getInstance(m, varianceNecessary) :
+                        SummedAreaTable.newInstance(m, true));
+                // - without integralImage flag, the table is used only for variance and is not cached
+            }
+        }
         long t2 = debugTime();
-        final MultiMatrix result = source.mapChannels(m -> averager.filter(m, rectangle));
+        final MultiMatrix result;
+        if (integralImage) {
+            final List<Matrix<? extends PArray>> channels = new ArrayList<>();
+            for (SummedAreaTable table : tables) {
+                channels.add(table.average(source.elementType(), rectangle, rounding, strictDivision));
+            }
+            result = MultiMatrix.of(channels);
+        } else {
+            result = source.mapChannels(m -> averager.filter(m, rectangle));
+        }
         long t3 = debugTime();
+        if (varianceNecessary) {
+            final Class<?> varianceType = source.elementType() == double.class ? double.class : float.class;
+            final List<Matrix<? extends PArray>> variances = new ArrayList<>();
+            for (SummedAreaTable table : tables) {
+                variances.add(table.variance(varianceType, rectangle));
+            }
+            getMat(OUTPUT_VARIANCE).setTo(MultiMatrix.of(variances));
+        }
+        long t4 = debugTime();
         logDebug(() -> String.format(Locale.US, "Averaging of %s by %s using %s calculated in %.3f ms: "
                         + "%.3f initializing, "
-                        + "%.3f averaging",
+                        + "%.3f averaging"
+                        + (varianceNecessary ? ", %.3f variance" : ""),
                 source,
                 rectangle,
-                averager,
-                (t3 - t1) * 1e-6, (t2 - t1) * 1e-6, (t3 - t2) * 1e-6));
+                integralImage ? tables : averager,
+                (t4 - t1) * 1e-6, (t2 - t1) * 1e-6, (t3 - t2) * 1e-6, (t4 - t3) * 1e-6));
         return result;
     }
 
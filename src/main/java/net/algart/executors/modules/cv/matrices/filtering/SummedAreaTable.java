@@ -0,0 +1,474 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.filtering;
+
+import net.algart.arrays.*;
+import net.algart.executors.modules.cv.matrices.misc.ArrayContentCache;
+import net.algart.math.IRectangularArea;
+import net.algart.math.functions.Func;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Summed-area table (integral image) of a 2-dimensional matrix: the sum of elements in any rectangle
+ * is found by several table accesses, regardless of the rectangle sizes. So, after building the table once,
+ * we can average the matrix by any rectangles in O(1) operations per pixel.
+ *
+ * <p>The matrix is considered to be continued in the pseudo-cyclic manner
+ * ({@link Matrix.ContinuationMode#PSEUDO_CYCLIC}), like in
+ * {@link net.algart.matrices.morphology.Quick2DAverager}: the sum for a rectangle, crossing the matrix
+ * boundary, consists of several rectangles inside the matrix and (if the rectangle is wider than the matrix)
+ * of some number of entire rows. All sums are calculated in <code>double</code> values; they are exact
+ * while the sum of all elements does not exceed 2<sup>53</sup> (for example, for any <code>byte</code>
+ * matrix with less than 2<sup>45</sup> pixels), but for <code>int</code>, <code>long</code> and
+ * floating-point matrices the results can be little different from {@link
+ * net.algart.matrices.morphology.Quick2DAverager} due to rounding errors.</p>
+ *
+ * <p>Optionally, the table also contains sums of squares of elements, that allows to find local variance.</p>
+ *
+ * <p>{@link #getInstance(Matrix, boolean)} method reuses tables, built for the same Java array
+ * (by identity), while this array is alive: usually the same matrix is passed by reference to several
+ * executors, that can average it by different rectangles. Tables are stored in {@link ArrayContentCache},
+ * together with a copy of the array, so that modification of the array in place is always detected
+ * (and the table is built again). The summary memory of cached tables and copies is limited
+ * by {@link #CACHE_MAX_MEMORY_PROPERTY_NAME} system property (256 MB by default, 0 disables caching);
+ * least recently used tables are evicted first.</p>
+ */
+final class SummedAreaTable {
+    /**
+     * Maximal summary memory (in bytes) of cached tables and copies of source arrays.
+     */
+    static final String CACHE_MAX_MEMORY_PROPERTY_NAME =
+            "net.algart.executors.modules.cv.summedAreaTableCacheMemory";
+
+    private static final int BLOCK_LENGTH = 32768;
+    // - 256 KB of double values: source rows, processed by one task
+    private static final int MIN_COLUMNS_PER_TASK = 256;
+
+    private static final System.Logger LOG = System.getLogger(SummedAreaTable.class.getName());
+
+    private static final ArrayContentCache<SummedAreaTable> CACHE = ArrayContentCache.newSnapshotInstance(
+            Arrays.SystemSettings.getLongProperty(CACHE_MAX_MEMORY_PROPERTY_NAME, 256L * 1048576L));
+
+    private final int dimX;
+    private final int dimY;
+    private final int rowLength;
+    private final Plane sums;
+    private final Plane squares;
+
+    private SummedAreaTable(Matrix<? extends PArray> matrix, boolean withSquares) {
+        Objects.requireNonNull(matrix, "Null matrix");
+        if (!isApplicable(matrix)) {
+            throw new TooLargeArrayException("Cannot build summed-area table for " + matrix
+                    + ": it must be 2-dimensional and have < 2^31 elements (with additional row and column)");
+        }
+        this.dimX = (int) matrix.dimX();
+        this.dimY = (int) matrix.dimY();
+        this.rowLength = dimX + 1;
+        this.sums = new Plane();
+        this.squares = withSquares ? new Plane() : null;
+        build(Arrays.asFuncArray(Func.IDENTITY, DoubleArray.class, matrix.array()));
+    }
+
+    static boolean isApplicable(Matrix<? extends PArray> matrix) {
+        return matrix.dimCount() == 2
+                && (matrix.dimX() + 1) * (matrix.dimY() + 1) <= Integer.MAX_VALUE - 16;
+    }
+
+    static SummedAreaTable newInstance(Matrix<? extends PArray> matrix, boolean withSquares) {
+        return new SummedAreaTable(matrix, withSquares);
+    }
+
+    /**
+     * Returns the table for the given matrix, probably built before for the same matrix.
+     * The table is reused only if the matrix is based on a Java array (usual case for matrices,
+     * passed between executors); in other case, this method is equivalent to
+     * {@link #newInstance(Matrix, boolean)}.
+     *
+     * @param matrix      2-dimensional matrix.
+     * @param withSquares whether the table must contain sums of squares (necessary for {@link #variance}).
+     * @return summed-area table.
+     */
+    static SummedAreaTable getInstance(Matrix<? extends PArray> matrix, boolean withSquares) {
+        Objects.requireNonNull(matrix, "Null matrix");
+        final Object key = javaArrayOrNull(matrix.array());
+        if (key == null) {
+            return newInstance(matrix, withSquares);
+        }
+        final SummedAreaTable cached = CACHE.get(key);
+        if (cached != null
+                && cached.dimX == matrix.dimX() && cached.dimY == matrix.dimY()
+                && (cached.squares != null || !withSquares)) {
+            LOG.log(System.Logger.Level.DEBUG, () -> String.format(Locale.US,
+                    "Summed-area table %dx%d reused", cached.dimX, cached.dimY));
+            return cached;
+        }
+        final SummedAreaTable result = newInstance(matrix, withSquares);
+        CACHE.put(key, result, result.memory());
+        return result;
+    }
+
+    static void clearCache() {
+        CACHE.clear();
+    }
+
+    int dimX() {
+        return dimX;
+    }
+
+    int dimY() {
+        return dimY;
+    }
+
+    boolean hasSquares() {
+        return squares != null;
+    }
+
+    long memory() {
+        final long planeMemory = 8L * ((long) rowLength * (dimY + 1) + dimY + 1);
+        return squares != null ? 2 * planeMemory : planeMemory;
+    }
+
+    /**
+     * Returns the sum of elements <code>m[x-dx,y-dy]</code> of the source matrix <code>m</code>
+     * for all <code>(dx,dy)</code> in the given rectangle.
+     * Note: if the rectangle is <code>[x1..x2]x[y1..y2]</code>, the summed elements are
+     * <code>[x-x2..x-x1]x[y-y2..y-y1]</code>.
+     *
+     * @param x         x-coordinate of the pixel.
+     * @param y         y-coordinate of the pixel.
+     * @param rectangle 2-dimensional rectangle.
+     * @return sum of elements (pseudo-cyclically continued).
+     */
+    double sum(int x, int y, IRectangularArea rectangle) {
+        checkRectangle(rectangle);
+        return sums.windowSum(x, y, rectangle.min(0), rectangle.max(0), rectangle.min(1), rectangle.max(1));
+    }
+
+    /**
+     * Returns the matrix, averaged by the given rectangle:
+     * every element of the result is {@link #sum(int, int, IRectangularArea) sum} divided by the
+     * number of pixels in the rectangle.
+     * Integer results are calculated as <code>(int)(&alpha;+0.5)</code> (if <code>rounding</code>)
+     * or as <code>(int)&alpha;</code>; <code>rounding</code> flag is ignored for <code>long</code> elements.
+     *
+     * @param elementType    element type of the result.
+     * @param rectangle      2-dimensional rectangle.
+     * @param rounding       whether integer results should be rounded.
+     * @param strictDivision whether the sum should be divided by the number of pixels
+     *                       (or multiplied by its inverse value).
+     * @return newly allocated averaged matrix.
+     */
+    Matrix<? extends UpdatablePArray> average(
+            Class<?> elementType,
+            IRectangularArea rectangle,
+            boolean rounding,
+            boolean strictDivision) {
+        Objects.requireNonNull(elementType, "Null elementType");
+        checkRectangle(rectangle);
+        final double area = (double) (rectangle.max(0) - rectangle.min(0) + 1)
+                * (double) (rectangle.max(1) - rectangle.min(1) + 1);
+        final double multiplier = 1.0 / area;
+        final Matrix<? extends UpdatablePArray> result = Arrays.SMM.newMatrix(
+                UpdatablePArray.class, elementType, dimX, dimY);
+        final UpdatablePArray resultArray = result.array();
+        processRows((y, values, unused, buffer) -> {
+            sums.sumRow(y, rectangle, values);
+            for (int x = 0; x < dimX; x++) {
+                values[x] = strictDivision ? values[x] / area : values[x] * multiplier;
+            }
+            store(resultArray, (long) y * dimX, values, buffer, rounding);
+        }, elementType);
+        return result;
+    }
+
+    /**
+     * Returns the local variance <code>E(m<sup>2</sup>)-(E(m))<sup>2</sup></code> of the source matrix
+     * in the given rectangle (see {@link #sum(int, int, IRectangularArea)}).
+     * Requires the table with squares.
+     *
+     * @param elementType <code>float.class</code> or <code>double.class</code>.
+     * @param rectangle   2-dimensional rectangle.
+     * @return newly allocated matrix of variances.
+     */
+    Matrix<? extends UpdatablePArray> variance(Class<?> elementType, IRectangularArea rectangle) {
+        Objects.requireNonNull(elementType, "Null elementType");
+        if (elementType != float.class && elementType != double.class) {
+            throw new IllegalArgumentException("Variance can be float or double, but not " + elementType);
+        }
+        if (squares == null) {
+            throw new IllegalStateException("Summed-area table does not contain squares of elements");
+        }
+        checkRectangle(rectangle);
+        final double multiplier = 1.0 / ((double) (rectangle.max(0) - rectangle.min(0) + 1)
+                * (double) (rectangle.max(1) - rectangle.min(1) + 1));
+        final Matrix<? extends UpdatablePArray> result = Arrays.SMM.newMatrix(
+                UpdatablePArray.class, elementType, dimX, dimY);
+        final UpdatablePArray resultArray = result.array();
+        processRows((y, values, means, buffer) -> {
+            sums.sumRow(y, rectangle, means);
+            squares.sumRow(y, rectangle, values);
+            for (int x = 0; x < dimX; x++) {
+                final double mean = means[x] * multiplier;
+                values[x] = Math.max(0.0, values[x] * multiplier - mean * mean);
+                // - negative values are possible due to rounding errors
+            }
+            store(resultArray, (long) y * dimX, values, buffer, false);
+        }, elementType);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "summed-area table " + dimX + "x" + dimY + (squares != null ? " with squares" : "");
+    }
+
+    private void build(DoubleArray values) {
+        final int rowsPerTask = Math.max(1, BLOCK_LENGTH / Math.max(1, dimX));
+        final int numberOfRowTasks = (int) (((long) dimY + rowsPerTask - 1) / rowsPerTask);
+        IntStream.range(0, numberOfRowTasks).parallel().forEach(task -> {
+            final int y1 = task * rowsPerTask;
+            final int rows = Math.min(rowsPerTask, dimY - y1);
+            final double[] buffer = new double[rows * dimX];
+            values.getData((long) y1 * dimX, buffer);
+            for (int r = 0, src = 0; r < rows; r++) {
+                final int disp = (y1 + r + 1) * rowLength + 1;
+                double s = 0.0;
+                double s2 = 0.0;
+                for (int x = 0; x < dimX; x++, src++) {
+                    final double v = buffer[src];
+                    s += v;
+                    sums.table[disp + x] = s;
+                    if (squares != null) {
+                        s2 += v * v;
+                        squares.table[disp + x] = s2;
+                    }
+                }
+            }
+        });
+        // - row prefix sums; now we accumulate them along columns: every task processes a vertical strip
+        final int columnsPerTask = Math.max(MIN_COLUMNS_PER_TASK,
+                rowLength / (4 * Arrays.SystemSettings.cpuCount()) + 1);
+        final int numberOfColumnTasks = (rowLength + columnsPerTask - 1) / columnsPerTask;
+        IntStream.range(0, numberOfColumnTasks).parallel().forEach(task -> {
+            final int x1 = task * columnsPerTask;
+            final int x2 = Math.min(rowLength, x1 + columnsPerTask);
+            sums.accumulateColumns(x1, x2);
+            if (squares != null) {
+                squares.accumulateColumns(x1, x2);
+            }
+        });
+        sums.buildSecondOrder();
+        if (squares != null) {
+            squares.buildSecondOrder();
+        }
+    }
+
+    private void processRows(RowProcessor processor, Class<?> elementType) {
+        final int rowsPerTask = Math.max(1, Math.min(
+                BLOCK_LENGTH / Math.max(1, dimX),
+                dimY / (4 * Arrays.SystemSettings.cpuCount())));
+        final int numberOfTasks = (int) (((long) dimY + rowsPerTask - 1) / rowsPerTask);
+        IntStream.range(0, numberOfTasks).parallel().forEach(task -> {
+            final int y1 = task * rowsPerTask;
+            final int y2 = Math.min(dimY, y1 + rowsPerTask);
+            final double[] values = new double[dimX];
+            final double[] additional = new double[dimX];
+            final Object buffer = java.lang.reflect.Array.newInstance(elementType, dimX);
+            for (int y = y1; y < y2; y++) {
+                processor.process(y, values, additional, buffer);
+            }
+        });
+    }
+
+    private void checkRectangle(IRectangularArea rectangle) {
+        Objects.requireNonNull(rectangle, "Null rectangle");
+        if (rectangle.coordCount() != 2) {
+            throw new IllegalArgumentException("Rectangle must be 2-dimensional: " + rectangle);
+        }
+    }
+
+    private static void store(UpdatablePArray result, long position, double[] values, Object buffer,
+                              boolean rounding) {
+        final int n = values.length;
+        final double shift = rounding ? 0.5 : 0.0;
+        if (buffer instanceof boolean[] a) {
+            for (int k = 0; k < n; k++) {
+                a[k] = values[k] + shift >= 1.0;
+            }
+        } else if (buffer instanceof char[] a) {
+            for (int k = 0; k < n; k++) {
+                a[k] = (char) (int) (values[k] + shift);
+            }
+        } else if (buffer instanceof byte[] a) {
+            for (int k = 0; k < n; k++) {
+                a[k] = (byte) (int) (values[k] + shift);
+            }
+        } else if (buffer instanceof short[] a) {
+            for (int k = 0; k < n; k++) {
+                a[k] = (short) (int) (values[k] + shift);
+            }
+        } else if (buffer instanceof int[] a) {
+            for (int k = 0; k < n; k++) {
+                a[k] = (int) (values[k] + shift);
+            }
+        } else if (buffer instanceof long[] a) {
+            for (int k = 0; k < n; k++) {
+                a[k] = (long) values[k];
+            }
+        } else if (buffer instanceof float[] a) {
+            for (int k = 0; k < n; k++) {
+                a[k] = (float) values[k];
+            }
+        } else if (buffer instanceof double[] a) {
+            System.arraycopy(values, 0, a, 0, n);
+        } else {
+            throw new AssertionError("Unsupported buffer " + buffer.getClass());
+        }
+        result.setData(position, buffer, 0, n);
+    }
+
+    private static Object javaArrayOrNull(PArray array) {
+        if (array instanceof DirectAccessible da && da.hasJavaArray()
+                && da.javaArrayOffset() == 0 && da.javaArrayLength() == array.length()) {
+            return da.javaArray();
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface RowProcessor {
+        void process(int y, double[] values, double[] additional, Object buffer);
+    }
+
+    /**
+     * Table <code>S(x,y)</code> of sums of the elements <code>[0..x-1]x[0..y-1]</code>
+     * (<code>0&le;x&le;dimX</code>, <code>0&le;y&le;dimY</code>), and the sums of first elements
+     * of its last column <code>R(y)=S(dimX,y)</code> (sums of all elements in rows <code>0..y-1</code>).
+     */
+    private final class Plane {
+        private final double[] table = new double[rowLength * (dimY + 1)];
+        private final double[] secondOrder = new double[dimY + 1];
+        // - secondOrder[v] = R(0)+R(1)+...+R(v-1)
+
+        private void accumulateColumns(int x1, int x2) {
+            for (int y = 2; y <= dimY; y++) {
+                final int disp = y * rowLength;
+                final int previous = disp - rowLength;
+                for (int x = x1; x < x2; x++) {
+                    table[disp + x] += table[previous + x];
+                }
+            }
+        }
+
+        private void buildSecondOrder() {
+            for (int v = 0; v < dimY; v++) {
+                secondOrder[v + 1] = secondOrder[v] + table[v * rowLength + dimX];
+            }
+        }
+
+        private void sumRow(int y, IRectangularArea rectangle, double[] result) {
+            final long minX = rectangle.min(0);
+            final long maxX = rectangle.max(0);
+            final long minY = rectangle.min(1);
+            final long maxY = rectangle.max(1);
+            final long yFrom = y - maxY;
+            final long yTo = y - minY + 1;
+            final long xFastFrom = Math.max(0, maxX);
+            final long xFastTo = Math.min(dimX, dimX + minX);
+            if (yFrom >= 0 && yTo <= dimY && xFastFrom < xFastTo) {
+                // - the rectangle lies inside the matrix for x in xFastFrom..xFastTo-1
+                final int from = (int) yFrom * rowLength;
+                final int to = (int) yTo * rowLength;
+                final int shiftFrom = (int) -maxX;
+                final int shiftTo = (int) (1 - minX);
+                for (int x = 0; x < xFastFrom; x++) {
+                    result[x] = windowSum(x, y, minX, maxX, minY, maxY);
+                }
+                for (int x = (int) xFastFrom; x < xFastTo; x++) {
+                    final int x1 = x + shiftFrom;
+                    final int x2 = x + shiftTo;
+                    result[x] = (table[to + x2] - table[to + x1]) - (table[from + x2] - table[from + x1]);
+                }
+                for (int x = (int) xFastTo; x < dimX; x++) {
+                    result[x] = windowSum(x, y, minX, maxX, minY, maxY);
+                }
+            } else {
+                for (int x = 0; x < dimX; x++) {
+                    result[x] = windowSum(x, y, minX, maxX, minY, maxY);
+                }
+            }
+        }
+
+        private double windowSum(int x, int y, long minX, long maxX, long minY, long maxY) {
+            final long a = x - maxX;
+            final long b = x - minX;
+            final long qa = Math.floorDiv(a, dimX);
+            final int ca = (int) Math.floorMod(a, dimX);
+            final long qb = Math.floorDiv(b, dimX);
+            final int cb = (int) Math.floorMod(b, dimX);
+            final long r0 = y - maxY;
+            final long r1 = y - minY;
+            // - summing pseudo-cyclic segments [a..b] of rows r-qa..r-qb for r=r0..r1
+            if (qa == qb) {
+                return rectangleSum(ca, cb + 1, r0 + qa, r1 + qa + 1);
+            }
+            return rectangleSum(ca, dimX, r0 + qa, r1 + qa + 1)
+                    + rectangleSum(0, cb + 1, r0 + qb, r1 + qb + 1)
+                    + (secondOrder(r1 + qb + 1) - secondOrder(r0 + qb))
+                    - (secondOrder(r1 + qa + 2) - secondOrder(r0 + qa + 1));
+            // - last 2 lines: entire rows r+qa+1..r+qb-1 for all r
+        }
+
+        private double rectangleSum(int xFrom, int xTo, long yFrom, long yTo) {
+            return (prefix(xTo, yTo) - prefix(xFrom, yTo)) - (prefix(xTo, yFrom) - prefix(xFrom, yFrom));
+        }
+
+        // S(x,y) for any integer y: rows are continued cyclically, adding the total sum at every period
+        private double prefix(int x, long y) {
+            if (y >= 0 && y <= dimY) {
+                return table[(int) y * rowLength + x];
+            }
+            final long q = Math.floorDiv(y, dimY);
+            final int r = (int) Math.floorMod(y, dimY);
+            return (double) q * table[dimY * rowLength + x] + table[r * rowLength + x];
+        }
+
+        // R(0)+...+R(v-1) for any integer v (with the natural extension to negative v)
+        private double secondOrder(long v) {
+            if (v >= 0 && v <= dimY) {
+                return secondOrder[(int) v];
+            }
+            final long q = Math.floorDiv(v, dimY);
+            final int r = (int) Math.floorMod(v, dimY);
+            final double total = table[dimY * rowLength + dimX];
+            final double qd = q;
+            return 0.5 * total * dimY * qd * (qd - 1.0) + qd * secondOrder[dimY] + r * qd * total + secondOrder[r];
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.misc;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.function.BiPredicate;
+
+/**
+ * Cache of objects, built from Java arrays: usually the arrays of matrices or numbers, that are passed
+ * by reference from the output port of one executor to the input ports of the following ones.
+ * Every array is used as a key by identity; the map is weak, so an entry disappears together with the array.
+ *
+ * <p>Executors may modify their input arrays in place (if they do not implement
+ * <code>ReadOnlyExecutionInput</code>), so {@link #get(Object)} <b>validates</b> every found entry against
+ * the current content of the array and removes it if it does not correspond to the array anymore.
+ * There are two kinds of validation:</p>
+ * <ul>
+ *     <li>{@link #newSnapshotInstance(long)}: the cache stores a copy of the array and compares it with
+ *     the array element by element;</li>
+ *     <li>{@link #newInstance(long, BiPredicate)}: the validator, passed by the user, compares the cached
+ *     object with the array (this is possible if the object contains the same information, like
+ *     deserialized contours).</li>
+ * </ul>
+ * <p>Both variants are exact: a changed array never returns an object, built for its previous content.
+ * The validation is linear in the array length, but it is much faster than building a new object.</p>
+ *
+ * <p>The summary memory of cached objects (and copies of arrays) is limited; least recently used entries
+ * are evicted first.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ *
+ * @param <V> type of cached objects.
+ */
+public final class ArrayContentCache<V> {
+    private static final class Entry<V> {
+        private final V value;
+        private final Object snapshot;
+        private final long memory;
+        private long lastAccess;
+
+        private Entry(V value, Object snapshot, long memory) {
+            this.value = value;
+            this.snapshot = snapshot;
+            this.memory = memory;
+        }
+    }
+
+    private final long maxMemory;
+    private final BiPredicate<Object, V> validator;
+    private final Map<Object, Entry<V>> entries = new WeakHashMap<>();
+    // - Java arrays do not override equals/hashCode, so it is an identity map
+    private long accessCounter = 0;
+    private long memory = 0;
+    // - synchronized by entries
+
+    private ArrayContentCache(long maxMemory, BiPredicate<Object, V> validator) {
+        if (maxMemory < 0) {
+            throw new IllegalArgumentException("Negative maximal memory " + maxMemory);
+        }
+        this.maxMemory = maxMemory;
+        this.validator = validator;
+    }
+
+    /**
+     * Creates new cache, that validates entries by the given validator.
+     * The validator receives the array and the object, cached for it, and must return <code>true</code>
+     * if and only if the object still corresponds to the current content of the array.
+     *
+     * @param maxMemory maximal summary memory of cached objects (in bytes); 0 disables caching.
+     * @param validator validator of the found entries.
+     * @param <V>       type of cached objects.
+     * @return new cache.
+     */
+    public static <V> ArrayContentCache<V> newInstance(long maxMemory, BiPredicate<Object, V> validator) {
+        Objects.requireNonNull(validator, "Null validator");
+        return new ArrayContentCache<>(maxMemory, validator);
+    }
+
+    /**
+     * Creates new cache, that stores a copy of every array and validates entries by comparing it with the array.
+     * The memory of copies is included in the limit.
+     *
+     * @param maxMemory maximal summary memory of cached objects and array copies (in bytes);
+     *                  0 disables caching.
+     * @param <V>       type of cached objects.
+     * @return new cache.
+     */
+    public static <V> ArrayContentCache<V> newSnapshotInstance(long maxMemory) {
+        return new ArrayContentCache<>(maxMemory, null);
+    }
+
+    public long maxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * Returns the object, cached for the given array, or <code>null</code> if there is no such object
+     * or if it does not correspond to the current content of the array (in the last case,
+     * the entry is removed).
+     *
+     * @param array Java array (by identity).
+     * @return cached object or <code>null</code>.
+     */
+    public V get(Object array) {
+        checkArray(array);
+        final Entry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(array);
+            if (entry == null) {
+                return null;
+            }
+            entry.lastAccess = ++accessCounter;
+        }
+        final boolean valid = validator != null ?
+                validator.test(array, entry.value) :
+                contentEquals(entry.snapshot, array);
+        if (valid) {
+            return entry.value;
+        }
+        synchronized (entries) {
+            if (entries.get(array) == entry) {
+                remove(array);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores the object, built from the current content of the given array, replacing the previous one.
+     * Does nothing if the object (with a copy of the array for {@link #newSnapshotInstance(long) snapshot
+     * cache}) is larger than {@link #maxMemory()}.
+     * The object must not refer to the array itself, in other case it will never be removed from this cache.
+     *
+     * @param array  Java array (by identity).
+     * @param value  object, built from the array.
+     * @param memory estimated memory occupied by the object (in bytes).
+     */
+    public void put(Object array, V value, long memory) {
+        checkArray(array);
+        Objects.requireNonNull(value, "Null value");
+        if (memory < 0) {
+            throw new IllegalArgumentException("Negative memory " + memory);
+        }
+        if (validator == null) {
+            memory += arrayMemory(array);
+        }
+        if (memory > maxMemory) {
+            remove(array);
+            return;
+        }
+        final Object snapshot = validator == null ? copyOf(array) : null;
+        final Entry<V> entry = new Entry<>(value, snapshot, memory);
+        synchronized (entries) {
+            remove(array);
+            evictIfNecessary(maxMemory - memory);
+            entry.lastAccess = ++accessCounter;
+            entries.put(array, entry);
+            this.memory += memory;
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            memory = 0;
+        }
+    }
+
+    private void remove(Object array) {
+        synchronized (entries) {
+            final Entry<V> removed = entries.remove(array);
+            if (removed != null) {
+                memory -= removed.memory;
+            }
+        }
+    }
+
+    // Called while synchronization by entries
+    private void evictIfNecessary(long maxMemory) {
+        if (memory <= maxMemory) {
+            return;
+        }
+        long actualMemory = 0;
+        for (Entry<V> entry : entries.values()) {
+            actualMemory += entry.memory;
+        }
+        memory = actualMemory;
+        // - some entries could disappear together with their arrays
+        while (memory > maxMemory && !entries.isEmpty()) {
+            Map.Entry<Object, Entry<V>> leastRecentlyUsed = null;
+            for (Map.Entry<Object, Entry<V>> entry : entries.entrySet()) {
+                if (leastRecentlyUsed == null
+                        || entry.getValue().lastAccess < leastRecentlyUsed.getValue().lastAccess) {
+                    leastRecentlyUsed = entry;
+                }
+            }
+            assert leastRecentlyUsed != null;
+            memory -= leastRecentlyUsed.getValue().memory;
+            entries.remove(leastRecentlyUsed.getKey());
+        }
+    }
+
+    private static void checkArray(Object array) {
+        Objects.requireNonNull(array, "Null array");
+        if (!array.getClass().isArray()) {
+            throw new IllegalArgumentException("The key is not a Java array: " + array.getClass());
+        }
+    }
+
+    private static long arrayMemory(Object array) {
+        final long length = java.lang.reflect.Array.getLength(array);
+        final Class<?> elementType = array.getClass().getComponentType();
+        if (elementType == boolean.class || elementType == byte.class) {
+            return length;
+        } else if (elementType == char.class || elementType == short.class) {
+            return 2 * length;
+        } else if (elementType == int.class || elementType == float.class) {
+            return 4 * length;
+        } else {
+            return 8 * length;
+        }
+    }
+
+    private static Object copyOf(Object array) {
+        if (array instanceof boolean[] a) {
+            return a.clone();
+        } else if (array instanceof byte[] a) {
+            return a.clone();
+        } else if (array instanceof char[] a) {
+            return a.clone();
+        } else if (array instanceof short[] a) {
+            return a.clone();
+        } else if (array instanceof int[] a) {
+            return a.clone();
+        } else if (array instanceof long[] a) {
+            return a.clone();
+        } else if (array instanceof float[] a) {
+            return a.clone();
+        } else if (array instanceof double[] a) {
+            return a.clone();
+        } else {
+            throw new IllegalArgumentException("Snapshot cache supports only arrays of primitive types, but not "
+                    + array.getClass());
+        }
+    }
+
+    private static boolean contentEquals(Object snapshot, Object array) {
+        if (array instanceof boolean[] a) {
+            return java.util.Arrays.equals((boolean[]) snapshot, a);
+        } else if (array instanceof byte[] a) {
+            return java.util.Arrays.equals((byte[]) snapshot, a);
+        } else if (array instanceof char[] a) {
+            return java.util.Arrays.equals((char[]) snapshot, a);
+        } else if (array instanceof short[] a) {
+            return java.util.Arrays.equals((short[]) snapshot, a);
+        } else if (array instanceof int[] a) {
+            return java.util.Arrays.equals((int[]) snapshot, a);
+        } else if (array instanceof long[] a) {
+            return java.util.Arrays.equals((long[]) snapshot, a);
+        } else if (array instanceof float[] a) {
+            return java.util.Arrays.equals((float[]) snapshot, a);
+        } else if (array instanceof double[] a) {
+            return java.util.Arrays.equals((double[]) snapshot, a);
+        } else {
+            throw new AssertionError("Impossible array type " + array.getClass());
+        }
+    }
+}
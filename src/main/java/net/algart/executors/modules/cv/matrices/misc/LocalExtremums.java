@@ -42,11 +42,16 @@ import net.algart.multimatrix.MultiMatrix;
 import net.algart.multimatrix.MultiMatrix2D;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 public final class LocalExtremums extends MultiMatrixToNumbers {
-    private static final int MULTITHREADING_Y_BLOCK_LENGTH = 8; // zero value disables multithreading
+    private static final boolean MULTITHREADING = true;
     private static final int MIN_MULTITHREADING_Y_BLOCK_LENGTH = 4;
-    // - Note that every thread allocates arrays with length, equal to aperture size
+    private static final int MAX_MULTITHREADING_Y_BLOCK_LENGTH = 64;
+    private static final int MULTITHREADING_BANDS_PER_THREAD = 4;
+    // - Note that every thread allocates arrays with length, equal to aperture size,
+    // but only once: the same finder processes all bands, taken by this thread
 
     public static final String INPUT_MASK = "mask";
     public static final String INPUT_IGNORE = "ignore";
@@ -252,29 +257,20 @@ public final class LocalExtremums extends MultiMatrixToNumbers {
         final float[] values = source.channel(0).toFloat();
         final Matrix<UpdatableBitArray> extremumsMaskMatrix = Arrays.SMM.newBitMatrix(source.dimensions());
         long t4 = System.nanoTime();
-        MutableIntArray extremumsXY = Arrays.SMM.newEmptyIntArray();
+        IntArray extremumsXY = Arrays.SMM.newEmptyIntArray();
         if (source.size() > 0) {
-            final long dimY = source.dimY();
-            if (MULTITHREADING_Y_BLOCK_LENGTH == 0 || Arrays.SystemSettings.cpuCount() == 1) {
+            final int dimY = (int) source.dimY();
+            final int cpuCount = Arrays.SystemSettings.cpuCount();
+            if (!MULTITHREADING || cpuCount == 1) {
                 extremumsXY = processRange(
                         values, maskArray, aperture, depthAperture, ignoreMatrix, extremumsMaskMatrix,
                         IRange.valueOf(0, dimY - 1));
             } else {
-                final List<IRange> yRanges = new ArrayList<>();
-                final int yBlockLength = Math.max(MIN_MULTITHREADING_Y_BLOCK_LENGTH,
-                        (int) Math.min(MULTITHREADING_Y_BLOCK_LENGTH,
-                                dimY / Runtime.getRuntime().availableProcessors()));
-                for (long y = 0; y < dimY; y += yBlockLength) {
-                    yRanges.add(IRange.valueOf(y, Math.min(y + yBlockLength, dimY) - 1));
-                }
-                final List<? extends IntArray> results = yRanges.parallelStream().map(
-                                range -> processRange(
-                                        values, maskArray, aperture, depthAperture, ignoreMatrix, extremumsMaskMatrix
-                                        , range))
-                        .toList();
-                for (IntArray a : results) {
-                    extremumsXY.append(a);
-                }
+                final int maxRadius = Math.max(aperture.maxRadius(),
+                        depthAperture == null ? 0 : depthAperture.maxRadius());
+                extremumsXY = processBands(
+                        values, maskArray, aperture, depthAperture, ignoreMatrix, extremumsMaskMatrix,
+                        dimY, bandHeight(maxRadius, dimY, cpuCount), cpuCount);
             }
         }
         long t5 = System.nanoTime();
@@ -357,25 +353,92 @@ public final class LocalExtremums extends MultiMatrixToNumbers {
                 .process(resultExtremumsMask).asMultiMatrix2D();
     }
 
-    private MutableIntArray processRange(
+    private static int bandHeight(int maxRadius, int dimY, int cpuCount) {
+        final int height = Math.max(MIN_MULTITHREADING_Y_BLOCK_LENGTH,
+                Math.min(MAX_MULTITHREADING_Y_BLOCK_LENGTH, maxRadius + 1));
+        // - neighbouring lines of one band share most of aperture lines in CPU cache
+        final int balanced = dimY / (MULTITHREADING_BANDS_PER_THREAD * cpuCount);
+        // - several bands per thread for good load balancing
+        return Math.max(MIN_MULTITHREADING_Y_BLOCK_LENGTH, Math.min(height, balanced));
+    }
+
+    private IntArray processBands(
             float[] values,
             boolean[] mask,
             SortedRound2DAperture aperture,
             SortedRound2DAperture depthAperture,
             Matrix<? extends BitArray> ignore,
             Matrix<UpdatableBitArray> extremumsMaskMatrix,
-            IRange yRange) {
+            int dimY,
+            int bandHeight,
+            int cpuCount) {
+        final int numberOfBands = (dimY + bandHeight - 1) / bandHeight;
+        final int numberOfWorkers = Math.min(cpuCount, numberOfBands);
+        final AtomicInteger nextBand = new AtomicInteger(0);
+        final ExtremumsFinder[] finders = new ExtremumsFinder[numberOfWorkers];
+        final int[] bandWorkers = new int[numberOfBands];
+        final int[] bandFrom = new int[numberOfBands];
+        final int[] bandTo = new int[numberOfBands];
+        IntStream.range(0, numberOfWorkers).parallel().forEach(worker -> {
+            // - every worker dynamically takes the next free band, so fast threads help slow ones
+            final ExtremumsFinder finder = newFinder(values, mask, aperture, depthAperture, ignore,
+                    extremumsMaskMatrix);
+            finders[worker] = finder;
+            for (int band = nextBand.getAndIncrement(); band < numberOfBands; band = nextBand.getAndIncrement()) {
+                bandWorkers[band] = worker;
+                bandFrom[band] = (int) finder.getExtremumsXY().length();
+                for (int y = band * bandHeight, yTo = Math.min(y + bandHeight, dimY); y < yTo; y++) {
+                    finder.processLine(y);
+                }
+                bandTo[band] = (int) finder.getExtremumsXY().length();
+            }
+        });
+        long length = 0;
+        for (int band = 0; band < numberOfBands; band++) {
+            length += bandTo[band] - bandFrom[band];
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new TooLargeArrayException("Too many extremums: " + length / 2);
+        }
+        final int[] result = new int[(int) length];
+        for (int band = 0, disp = 0; band < numberOfBands; band++) {
+            final int count = bandTo[band] - bandFrom[band];
+            finders[bandWorkers[band]].getExtremumsXY().getData(bandFrom[band], result, disp, count);
+            disp += count;
+            // - the same order of extremums as in a case of single-thread processing
+        }
+        return SimpleMemoryModel.asUpdatableIntArray(result);
+    }
+
+    private ExtremumsFinder newFinder(
+            float[] values,
+            boolean[] mask,
+            SortedRound2DAperture aperture,
+            SortedRound2DAperture depthAperture,
+            Matrix<? extends BitArray> ignore,
+            Matrix<UpdatableBitArray> extremumsMaskMatrix) {
         final ExtremumsFinder.DeepTestSettings deepTestSettings = new ExtremumsFinder.DeepTestSettings()
                 .setDepthAperture(depthAperture)
                 .setMode(depthAnalysisMode)
                 .setPercentileLevel(depthPercentileLevel)
                 .setMinimalDepth(minimalDepth)
                 .setIgnore(ignore);
-        final ExtremumsFinder finder = resultValues == ResultValues.MAXIMUMS ?
+        return resultValues == ResultValues.MAXIMUMS ?
                 ExtremumsFinder.getMaximumsFinder(values, mask, aperture, deepTestSettings, extremumsMaskMatrix,
                         !resultAtPlateau.postProcessingRequired) :
                 ExtremumsFinder.getMinimumsFinder(values, mask, aperture, deepTestSettings, extremumsMaskMatrix,
                         !resultAtPlateau.postProcessingRequired);
+    }
+
+    private MutableIntArray processRange(
+            float[] values,
+            boolean[] mask,
+            SortedRound2DAperture aperture,
+            SortedRound2DAperture depthAperture,
+            Matrix<? extends BitArray> ignore,
+            Matrix<UpdatableBitArray> extremumsMaskMatrix,
+            IRange yRange) {
+        final ExtremumsFinder finder = newFinder(values, mask, aperture, depthAperture, ignore, extremumsMaskMatrix);
         for (int y = (int) yRange.min(), yMax = (int) yRange.max(); y <= yMax; y++) {
             finder.processLine(y);
         }
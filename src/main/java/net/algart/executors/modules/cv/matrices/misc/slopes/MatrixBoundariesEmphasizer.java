@@ -32,9 +32,15 @@ import java.util.stream.IntStream;
 public final class MatrixBoundariesEmphasizer {
     private static final boolean OPTIMIZE_DIRECT_ACCESSIBLE = true;
     // - should be true for good performance
+    private static final int STRIP_BYTES = 64;
+    // - one cache line: every row of a strip is read/written by whole lines
+    private static final int MIN_STRIP_WIDTH = 16;
+    private static final int MAX_STRIP_WIDTH = 64;
+    private static final long MAX_SCRATCH_LENGTH = 1L << 24;
 
     private final SlopeEmphasizer slopeEmphasizer;
     private int directionToEmphasize = 0;
+    private boolean blockedVerticalPass = true;
 
     private MatrixBoundariesEmphasizer(SlopeEmphasizer slopeEmphasizer) {
         this.slopeEmphasizer = Objects.requireNonNull(slopeEmphasizer, "Null slopeEmphasizer");
@@ -64,6 +70,25 @@ public final class MatrixBoundariesEmphasizer {
         return this;
     }
 
+    public boolean isBlockedVerticalPass() {
+        return blockedVerticalPass;
+    }
+
+    /**
+     * Sets the mode of processing direction #1 (vertical) for matrices, stored in Java arrays.
+     * If <code>true</code> (default), strips of several columns are transposed into a contiguous
+     * scratch buffer, emphasized there by the same algorithm as rows, and written back.
+     * It avoids reading every element with the step <code>dimX</code>, which is very slow for wide matrices.
+     * The results are identical in both modes.
+     *
+     * @param blockedVerticalPass whether the vertical direction should be processed by blocks.
+     * @return a reference to this object.
+     */
+    public MatrixBoundariesEmphasizer setBlockedVerticalPass(boolean blockedVerticalPass) {
+        this.blockedVerticalPass = blockedVerticalPass;
+        return this;
+    }
+
     public void emphasize(Matrix<? extends UpdatablePArray> matrix) {
         Objects.requireNonNull(matrix, "Null matrix");
         final SlopeEmphasizer.ForType emphasizer = slopeEmphasizer.forElementType(matrix.elementType());
@@ -134,9 +159,14 @@ public final class MatrixBoundariesEmphasizer {
                     break;
                 }
                 case 1: {
-                    IntStream.range(0, dimX).parallel().forEach(x -> {
-                        emphasizer.emphasize(values, startOffset + x, dimY, dimX);
-                    });
+                    final int stripWidth = stripWidth(matrix.elementType());
+                    if (blockedVerticalPass && dimX > 1 && (long) stripWidth * dimY <= MAX_SCRATCH_LENGTH) {
+                        emphasizeColumnsByStrips(values, startOffset, dimX, dimY, stripWidth, emphasizer);
+                    } else {
+                        IntStream.range(0, dimX).parallel().forEach(x -> {
+                            emphasizer.emphasize(values, startOffset + x, dimY, dimX);
+                        });
+                    }
                     break;
                 }
                 default: {
@@ -148,4 +178,310 @@ public final class MatrixBoundariesEmphasizer {
             return false;
         }
     }
+
+    private static void emphasizeColumnsByStrips(
+            Object values,
+            int startOffset,
+            int dimX,
+            int dimY,
+            int stripWidth,
+            SlopeEmphasizer.ForType emphasizer) {
+        final int numberOfStrips = (dimX + stripWidth - 1) / stripWidth;
+        final int numberOfTasks = Math.min(numberOfStrips, 4 * Arrays.SystemSettings.cpuCount());
+        IntStream.range(0, numberOfTasks).parallel().forEach(task -> {
+            final Object scratch = java.lang.reflect.Array.newInstance(
+                    values.getClass().getComponentType(), stripWidth * dimY);
+            // - one scratch buffer for all strips of this task
+            final int fromStrip = (int) ((long) numberOfStrips * task / numberOfTasks);
+            final int toStrip = (int) ((long) numberOfStrips * (task + 1) / numberOfTasks);
+            for (int strip = fromStrip; strip < toStrip; strip++) {
+                final int x = strip * stripWidth;
+                final int width = Math.min(stripWidth, dimX - x);
+                transpose(values, startOffset + x, dimX, scratch, dimY, width, dimY, true);
+                for (int c = 0; c < width; c++) {
+                    emphasizer.emphasize(scratch, c * dimY, dimY);
+                }
+                transpose(values, startOffset + x, dimX, scratch, dimY, width, dimY, false);
+            }
+        });
+    }
+
+    // Copies width x height block of the matrix (starting from offset, with line length dimX)
+    // to (toScratch) or from (!toScratch) the scratch, where every column is stored contiguously.
+    private static void transpose(
+            Object values,
+            int offset,
+            int dimX,
+            Object scratch,
+            int scratchColumnLength,
+            int width,
+            int height,
+            boolean toScratch) {
+        if (values instanceof byte[] a) {
+            if (toScratch) {
+                copyToScratch(a, offset, dimX, (byte[]) scratch, scratchColumnLength, width, height);
+            } else {
+                copyFromScratch(a, offset, dimX, (byte[]) scratch, scratchColumnLength, width, height);
+            }
+        } else if (values instanceof char[] a) {
+            if (toScratch) {
+                copyToScratch(a, offset, dimX, (char[]) scratch, scratchColumnLength, width, height);
+            } else {
+                copyFromScratch(a, offset, dimX, (char[]) scratch, scratchColumnLength, width, height);
+            }
+        } else if (values instanceof short[] a) {
+            if (toScratch) {
+                copyToScratch(a, offset, dimX, (short[]) scratch, scratchColumnLength, width, height);
+            } else {
+                copyFromScratch(a, offset, dimX, (short[]) scratch, scratchColumnLength, width, height);
+            }
+        } else if (values instanceof int[] a) {
+            if (toScratch) {
+                copyToScratch(a, offset, dimX, (int[]) scratch, scratchColumnLength, width, height);
+            } else {
+                copyFromScratch(a, offset, dimX, (int[]) scratch, scratchColumnLength, width, height);
+            }
+        } else if (values instanceof long[] a) {
+            if (toScratch) {
+                copyToScratch(a, offset, dimX, (long[]) scratch, scratchColumnLength, width, height);
+            } else {
+                copyFromScratch(a, offset, dimX, (long[]) scratch, scratchColumnLength, width, height);
+            }
+        } else if (values instanceof float[] a) {
+            if (toScratch) {
+                copyToScratch(a, offset, dimX, (float[]) scratch, scratchColumnLength, width, height);
+            } else {
+                copyFromScratch(a, offset, dimX, (float[]) scratch, scratchColumnLength, width, height);
+            }
+        } else if (values instanceof double[] a) {
+            if (toScratch) {
+                copyToScratch(a, offset, dimX, (double[]) scratch, scratchColumnLength, width, height);
+            } else {
+                copyFromScratch(a, offset, dimX, (double[]) scratch, scratchColumnLength, width, height);
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported array type " + values.getClass());
+        }
+    }
+
+    /*Repeat() byte ==> char,,short,,int,,long,,float,,double */
+
+    private static void copyToScratch(
+            byte[] values,
+            int offset,
+            int dimX,
+            byte[] scratch,
+            int scratchColumnLength,
+            int width,
+            int height) {
+        for (int y = 0, p = offset; y < height; y++, p += dimX) {
+            for (int c = 0, q = y; c < width; c++, q += scratchColumnLength) {
+                scratch[q] = values[p + c];
+            }
+        }
+    }
+
+    private static void copyFromScratch(
+            byte[] values,
+            int offset,
+            int dimX,
+            byte[] scratch,
+            int scratchColumnLength,
+            int width,
+            int height) {
+        for (int y = 0, p = offset; y < height; y++, p += dimX) {
+            for (int c = 0, q = y; c < width; c++, q += scratchColumnLength) {
+                values[p + c] = scratch[q];
+            }
+        }
+    }
+
+    /*Repeat.AutoGeneratedStart !! Auto-generated: NOT EDIT !! */
+
+    private static void copyToScratch(
+            char[] values,
+            int offset,
+            int dimX,
+            char[] scratch,
+            int scratchColumnLength,
+            int width,
+            int height) {
+        for (int y = 0, p = offset; y < height; y++, p += dimX) {
+            for (int c = 0, q = y; c < width; c++, q += scratchColumnLength) {
+                scratch[q] = values[p + c];
+            }
+        }
+    }
+
+    private static void copyFromScratch(
+            char[] values,
+            int offset,
+            int dimX,
+            char[] scratch,
+            int scratchColumnLength,
+            int width,
+            int height) {
+        for (int y = 0, p = offset; y < height; y++, p += dimX) {
+            for (int c = 0, q = y; c < width; c++, q += scratchColumnLength) {
+                values[p + c] = scratch[q];
+            }
+        }
+    }
+
+    private static void copyToScratch(
+            short[] values,
+            int offset,
+            int dimX,
+            short[] scratch,
+            int scratchColumnLength,
+            int width,
+            int height) {
+        for (int y = 0, p = offset; y < height; y++, p += dimX) {
+            for (int c = 0, q = y; c < width; c++, q += scratchColumnLength) {
+                scratch[q] = values[p + c];
+            }
+        }
+    }
+
+    private static void copyFromScratch(
+            short[] values,
+            int offset,
+            int dimX,
+            short[] scratch,
+            int scratchColumnLength,
+            int width,
+            int height) {
+        for (int y = 0, p = offset; y < height; y++, p += dimX) {
+            for (int c = 0, q = y; c < width; c++, q += scratchColumnLength) {
+                values[p + c] = scratch[q];
+            }
+        }
+    }
+
+    private static void copyToScratch(
+            int[] values,
+            int offset,
+            int dimX,
+            int[] scratch,
+            int scratchColumnLength,
+            int width,
+            int height) {
+        for (int y = 0, p = offset; y < height; y++, p += dimX) {
+            for (int c = 0, q = y; c < width; c++, q += scratchColumnLength) {
+                scratch[q] = values[p + c];
+            }
+        }
+    }
+
+    private static void copyFromScratch(
+            int[] values,
+            int offset,
+            int dimX,
+            int[] scratch,
+            int scratchColumnLength,
+            int width,
+            int height) {
+        for (int y = 0, p = offset; y < height; y++, p += dimX) {
+            for (int c = 0, q = y; c < width; c++, q += scratchColumnLength) {
+                values[p + c] = scratch[q];
+            }
+        }
+    }
+
+    private static void copyToScratch(
+            long[] values,
+            int offset,
+            int dimX,
+            long[] scratch,
+            int scratchColumnLength,
+            int width,
+            int height) {
+        for (int y = 0, p = offset; y < height; y++, p += dimX) {
+            for (int c = 0, q = y; c < width; c++, q += scratchColumnLength) {
+                scratch[q] = values[p + c];
+            }
+        }
+    }
+
+    private static void copyFromScratch(
+            long[] values,
+            int offset,
+            int dimX,
+            long[] scratch,
+            int scratchColumnLength,
+            int width,
+            int height) {
+        for (int y = 0, p = offset; y < height; y++, p += dimX) {
+            for (int c = 0, q = y; c < width; c++, q += scratchColumnLength) {
+                values[p + c] = scratch[q];
+            }
+        }
+    }
+
+    private static void copyToScratch(
+            float[] values,
+            int offset,
+            int dimX,
+            float[] scratch,
+            int scratchColumnLength,
+            int width,
+            int height) {
+        for (int y = 0, p = offset; y < height; y++, p += dimX) {
+            for (int c = 0, q = y; c < width; c++, q += scratchColumnLength) {
+                scratch[q] = values[p + c];
+            }
+        }
+    }
+
+    private static void copyFromScratch(
+            float[] values,
+            int offset,
+            int dimX,
+            float[] scratch,
+            int scratchColumnLength,
+            int width,
+            int height) {
+        for (int y = 0, p = offset; y < height; y++, p += dimX) {
+            for (int c = 0, q = y; c < width; c++, q += scratchColumnLength) {
+                values[p + c] = scratch[q];
+            }
+        }
+    }
+
+    private static void copyToScratch(
+            double[] values,
+            int offset,
+            int dimX,
+            double[] scratch,
+            int scratchColumnLength,
+            int width,
+            int height) {
+        for (int y = 0, p = offset; y < height; y++, p += dimX) {
+            for (int c = 0, q = y; c < width; c++, q += scratchColumnLength) {
+                scratch[q] = values[p + c];
+            }
+        }
+    }
+
+    private static void copyFromScratch(
+            double[] values,
+            int offset,
+            int dimX,
+            double[] scratch,
+            int scratchColumnLength,
+            int width,
+            int height) {
+        for (int y = 0, p = offset; y < height; y++, p += dimX) {
+            for (int c = 0, q = y; c < width; c++, q += scratchColumnLength) {
+                values[p + c] = scratch[q];
+            }
+        }
+    }
+
+    /*Repeat.AutoGeneratedEnd*/
+
+    private static int stripWidth(Class<?> elementType) {
+        final long bytesPerElement = Math.max(1, Arrays.sizeOf(elementType));
+        return (int) Math.max(MIN_STRIP_WIDTH, Math.min(MAX_STRIP_WIDTH, STRIP_BYTES / bytesPerElement));
+    }
 }
@@ -24,7 +24,10 @@
 
 package net.algart.executors.modules.cv.matrices.morphology;
 
+import net.algart.arrays.ArrayContext;
+import net.algart.arrays.LargeMemoryModel;
 import net.algart.arrays.Matrix;
+import net.algart.arrays.MemoryModel;
 import net.algart.arrays.PArray;
 import net.algart.executors.modules.core.common.matrices.MultiMatrixChannelFilter;
 import net.algart.executors.modules.core.matrices.geometry.ContinuationMode;
@@ -32,9 +35,11 @@ import net.algart.math.IRange;
 import net.algart.math.Point;
 import net.algart.math.patterns.Pattern;
 import net.algart.math.patterns.Patterns;
+import net.algart.matrices.TiledApertureProcessorFactory;
 import net.algart.matrices.morphology.BasicMorphology;
 import net.algart.matrices.morphology.ContinuedMorphology;
 import net.algart.matrices.morphology.Morphology;
+import net.algart.matrices.morphology.TiledMorphology;
 
 import java.util.Arrays;
 import java.util.Objects;
@@ -90,6 +95,9 @@ public abstract class MorphologyFilter extends MultiMatrixChannelFilter {
     private Pattern customPattern = null;
     private String customPatternSpecification = null;
     Matrix.ContinuationMode continuationMode = null;
+    private int tileSize = 0;
+    // - 0 means processing the whole matrix
+    private boolean memoryMappedResult = false;
 
     public final Pattern getPattern(Matrix<? extends PArray> m) {
         return getPattern(m, false);
@@ -184,6 +192,42 @@ public abstract class MorphologyFilter extends MultiMatrixChannelFilter {
         return this;
     }
 
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Sets the size of tiles for tiled processing: if it is positive, the matrix is split into tiles
+     * with this size along all dimensions, which are processed in parallel threads.
+     * Every tile is extended by the dependence aperture of the operation (which may be greater than
+     * the pattern for composite operations like closing or black hat), so the result is the same
+     * as without tiling. Zero value (default) means processing the whole matrix at once.
+     *
+     * @param tileSize size of tiles or 0.
+     * @return a reference to this object.
+     */
+    public MorphologyFilter setTileSize(int tileSize) {
+        this.tileSize = nonNegative(tileSize, "tile size");
+        return this;
+    }
+
+    public boolean isMemoryMappedResult() {
+        return memoryMappedResult;
+    }
+
+    /**
+     * If set, the results of tiled processing are written into the memory-mapped temporary files
+     * (LargeMemoryModel) instead of Java memory. It allows to process matrices larger than RAM.
+     * Ignored if {@link #getTileSize() tile size} is 0.
+     *
+     * @param memoryMappedResult whether the results should be stored in memory-mapped files.
+     * @return a reference to this object.
+     */
+    public MorphologyFilter setMemoryMappedResult(boolean memoryMappedResult) {
+        this.memoryMappedResult = memoryMappedResult;
+        return this;
+    }
+
     @SuppressWarnings("resource")
     @Override
     public void onChangeParameter(String name) {
@@ -203,6 +247,33 @@ public abstract class MorphologyFilter extends MultiMatrixChannelFilter {
         if (continuationMode != null) {
             morphology = ContinuedMorphology.getInstance(morphology, continuationMode);
         }
+        if (needTiling(m)) {
+            final MemoryModel memoryModel = memoryMappedResult ?
+                    LargeMemoryModel.getInstance() :
+                    net.algart.arrays.Arrays.SMM;
+            final ArrayContext context = ArrayContext.getSimpleContext(memoryModel, true);
+            final long[] tileDim = new long[m.dimCount()];
+            Arrays.fill(tileDim, tileSize);
+            final TiledApertureProcessorFactory tiler = TiledApertureProcessorFactory.getInstance(
+                    context,
+                    continuationMode != null ? continuationMode : Matrix.ContinuationMode.PSEUDO_CYCLIC,
+                    // - BasicMorphology processes the whole matrix as pseudo-cyclic
+                    net.algart.arrays.Arrays.SystemSettings.maxTempJavaMemory(),
+                    tileDim);
+            morphology = TiledMorphology.getInstance(morphology, context, tiler);
+        }
         return morphology;
     }
+
+    private boolean needTiling(Matrix<? extends PArray> m) {
+        if (tileSize <= 0) {
+            return false;
+        }
+        for (long dim : m.dimensions()) {
+            if (dim > tileSize) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
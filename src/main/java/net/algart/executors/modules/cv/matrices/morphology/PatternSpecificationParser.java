@@ -35,17 +35,47 @@ import net.algart.math.functions.ConstantFunc;
 import net.algart.math.functions.Func;
 import net.algart.math.patterns.*;
 
-import java.lang.ref.Reference;
+import java.io.IOException;
 import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class PatternSpecificationParser {
+    /**
+     * Maximal summary weight of cached patterns (see {@link #weight(Pattern)}) for every element type.
+     * Cached patterns are stored via soft references, so this limit does not prevent garbage collector
+     * from freeing memory, occupied by patterns: it only limits the size of the cache in normal situation.
+     */
+    public static final String CACHE_MAX_WEIGHT_PROPERTY_NAME =
+            "net.algart.executors.modules.cv.patternCacheMaxWeight";
+    /**
+     * Path to a text file with pattern specifications (one per line; empty lines and lines beginning with #
+     * are ignored), which are parsed in a background thread when the parser for some element type is created.
+     */
+    public static final String CACHE_WARM_UP_FILE_PROPERTY_NAME =
+            "net.algart.executors.modules.cv.patternCacheWarmUpFile";
+
     private static final System.Logger LOG = System.getLogger(PatternSpecificationParser.class.getName());
 
+    private static final long CACHE_MAX_WEIGHT = Arrays.SystemSettings.getLongProperty(
+            CACHE_MAX_WEIGHT_PROPERTY_NAME, 64L * 1048576L);
     private static final Map<Class<?>, PatternSpecificationParser> INSTANCES = new HashMap<>();
 
     private final Class<?> elementType;
-    private final Map<String, Reference<Pattern>> patternCache = new HashMap<>();
+    private final ConcurrentHashMap<String, CachedPattern> patternCache = new ConcurrentHashMap<>();
+    private final AtomicLong cacheWeight = new AtomicLong();
+    private final AtomicLong accessCounter = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong buildTimeNanos = new AtomicLong();
+    private final Object evictionLock = new Object();
 
     private PatternSpecificationParser(Class<?> elementType) {
         this.elementType = elementType;
@@ -53,14 +83,17 @@ public final class PatternSpecificationParser {
 
     // elementType is important while usage 3D patterns: integer matrices allows optimization of large Minkowski sums
     public static PatternSpecificationParser getInstance(Class<?> elementType) {
+        PatternSpecificationParser result;
         synchronized (INSTANCES) {
-            PatternSpecificationParser result = INSTANCES.get(elementType);
-            if (result == null) {
-                result = new PatternSpecificationParser(elementType);
-                INSTANCES.put(elementType, result);
+            result = INSTANCES.get(elementType);
+            if (result != null) {
+                return result;
             }
-            return result;
+            result = new PatternSpecificationParser(elementType);
+            INSTANCES.put(elementType, result);
         }
+        result.startWarmUp();
+        return result;
     }
 
     public Pattern parse(String s) {
@@ -68,18 +101,195 @@ public final class PatternSpecificationParser {
         if (!isSurelyLowCase(s)) {
             s = s.toLowerCase();
         }
-        Pattern result = null;
-        synchronized (patternCache) {
-            Reference<Pattern> ref = patternCache.get(s);
-            if (ref != null) {
-                result = ref.get();
+        for (; ; ) {
+            CachedPattern cached = patternCache.get(s);
+            if (cached == null) {
+                final CachedPattern newCached = new CachedPattern();
+                cached = patternCache.putIfAbsent(s, newCached);
+                if (cached == null) {
+                    // - this thread is responsible for building the pattern; other threads will wait for it
+                    return buildAndCache(s, newCached);
+                }
             }
+            final Pattern result = cached.get();
             if (result != null) {
+                hits.incrementAndGet();
+                cached.lastAccess = accessCounter.incrementAndGet();
                 return result;
             }
-            // cleaning
-            patternCache.entrySet().removeIf(entry -> entry.getValue().get() == null);
+            // - the pattern was freed by garbage collector: removing the entry and building it again
+            synchronized (evictionLock) {
+                if (patternCache.remove(s, cached)) {
+                    cacheWeight.addAndGet(-cached.weight);
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses all given specifications and stores the results in the cache.
+     * Illegal specifications are logged and skipped.
+     *
+     * @param specifications pattern specifications.
+     */
+    public void warmUp(Collection<String> specifications) {
+        Objects.requireNonNull(specifications, "Null specifications");
+        for (String specification : specifications) {
+            try {
+                parse(specification);
+            } catch (RuntimeException e) {
+                LOG.log(System.Logger.Level.WARNING, "Cannot warm up pattern cache by \""
+                        + specification + "\": " + e.getMessage());
+            }
+        }
+    }
+
+    public void clearCache() {
+        synchronized (evictionLock) {
+            patternCache.forEach((key, cached) -> {
+                if (cached.isDone() && patternCache.remove(key, cached)) {
+                    cacheWeight.addAndGet(-cached.weight);
+                }
+            });
+        }
+    }
+
+    public int cacheSize() {
+        return patternCache.size();
+    }
+
+    public long cacheWeight() {
+        return cacheWeight.get();
+    }
+
+    public long numberOfHits() {
+        return hits.get();
+    }
+
+    public long numberOfMisses() {
+        return misses.get();
+    }
+
+    public long numberOfEvictions() {
+        return evictions.get();
+    }
+
+    public long buildTimeNanos() {
+        return buildTimeNanos.get();
+    }
+
+    public void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+        buildTimeNanos.set(0);
+    }
+
+    public String statistics() {
+        return String.format(Locale.US,
+                "%s patterns: %d hits, %d misses (%.3f ms for building), %d evictions, "
+                        + "%d cached patterns with weight %d",
+                elementType, numberOfHits(), numberOfMisses(), buildTimeNanos() * 1e-6, numberOfEvictions(),
+                cacheSize(), cacheWeight());
+    }
+
+    /**
+     * Returns the weight of the pattern in the cache: the number of its points, but not less than 1.
+     * For patterns with Minkowski decomposition, it is the sum of the numbers of points
+     * of all summands: such patterns do not store the points of the sum.
+     * The result is never greater than the maximal weight of the cache + 1.
+     *
+     * @param pattern some pattern.
+     * @return its weight.
+     */
+    public static long weight(Pattern pattern) {
+        double count = 0.0;
+        if (pattern.hasMinkowskiDecomposition()) {
+            for (Pattern summand : pattern.minkowskiDecomposition(0)) {
+                count += summand.largePointCount();
+            }
+        } else {
+            count = pattern.largePointCount();
+        }
+        return count > CACHE_MAX_WEIGHT ? CACHE_MAX_WEIGHT + 1 : Math.max(1, (long) count);
+    }
+
+    private Pattern buildAndCache(String s, CachedPattern cached) {
+        misses.incrementAndGet();
+        final long t1 = System.nanoTime();
+        final Pattern result;
+        try {
+            result = build(s);
+        } catch (RuntimeException | Error e) {
+            patternCache.remove(s, cached);
+            cached.fail(e);
+            throw e;
+        }
+        final long t2 = System.nanoTime();
+        buildTimeNanos.addAndGet(t2 - t1);
+        cached.lastAccess = accessCounter.incrementAndGet();
+        cached.weight = weight(result);
+        synchronized (evictionLock) {
+            cacheWeight.addAndGet(cached.weight);
+            cached.complete(result);
+            // - complete under the lock: clearCache() and evictIfNecessary() see only consistent weights
+            evictIfNecessary();
+        }
+        LOG.log(System.Logger.Level.DEBUG, () -> String.format(Locale.US,
+                "Pattern \"%s\" built in %.3f ms and stored in cache: %s", s, (t2 - t1) * 1e-6, result));
+        return result;
+    }
+
+    // Called while synchronization by evictionLock
+    private void evictIfNecessary() {
+        if (cacheWeight.get() <= CACHE_MAX_WEIGHT) {
+            return;
+        }
+        final List<Map.Entry<String, CachedPattern>> entries = new ArrayList<>();
+        for (Map.Entry<String, CachedPattern> entry : patternCache.entrySet()) {
+            final CachedPattern cached = entry.getValue();
+            if (cached.isCleared()) {
+                if (patternCache.remove(entry.getKey(), cached)) {
+                    cacheWeight.addAndGet(-cached.weight);
+                }
+            } else if (cached.isDone()) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+        final long desiredWeight = CACHE_MAX_WEIGHT - CACHE_MAX_WEIGHT / 4;
+        // - evicting more than necessary to avoid sorting at every new pattern
+        for (Map.Entry<String, CachedPattern> entry : entries) {
+            if (cacheWeight.get() <= desiredWeight) {
+                break;
+            }
+            final CachedPattern cached = entry.getValue();
+            if (patternCache.remove(entry.getKey(), cached)) {
+                cacheWeight.addAndGet(-cached.weight);
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private void startWarmUp() {
+        final List<String> specifications = WarmUpHolder.SPECIFICATIONS;
+        if (specifications.isEmpty()) {
+            return;
         }
+        final Thread thread = new Thread(() -> {
+            final long t1 = System.nanoTime();
+            warmUp(specifications);
+            final long t2 = System.nanoTime();
+            LOG.log(System.Logger.Level.DEBUG, () -> String.format(Locale.US,
+                    "Pattern cache for %s warmed up by %d specifications in %.3f ms",
+                    elementType, specifications.size(), (t2 - t1) * 1e-6));
+        }, "Pattern cache warm-up (" + elementType + ")");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private Pattern build(String s) {
+        Pattern result = null;
         Class<PArray> arrayType = Arrays.type(PArray.class, elementType);
         final boolean integerType = PIntegerArray.class.isAssignableFrom(arrayType) && elementType != long.class;
         // for long.class, attempts to round the pattern will lead to TooLargePatternCoordinatesException;
@@ -597,11 +807,6 @@ public final class PatternSpecificationParser {
                 result = Patterns.newPattern(result.points());
             }
         }
-        synchronized (patternCache) {
-            patternCache.put(s, new SoftReference<>(result));
-        }
-        final Pattern finalResult = result;
-        LOG.log(System.Logger.Level.DEBUG, () -> "Pattern loaded from cache: " + finalResult);
         return result;
     }
 
@@ -765,6 +970,65 @@ public final class PatternSpecificationParser {
         return true;
     }
 
+    private static final class CachedPattern {
+        private final CompletableFuture<SoftReference<Pattern>> future = new CompletableFuture<>();
+        private volatile long lastAccess = 0;
+        private volatile long weight = 0;
+
+        boolean isDone() {
+            return future.isDone() && !future.isCompletedExceptionally();
+        }
+
+        boolean isCleared() {
+            return isDone() && future.join().get() == null;
+        }
+
+        void complete(Pattern pattern) {
+            future.complete(new SoftReference<>(pattern));
+        }
+
+        void fail(Throwable exception) {
+            future.completeExceptionally(exception);
+        }
+
+        // Returns null if the pattern was freed by garbage collector
+        Pattern get() {
+            try {
+                return future.join().get();
+            } catch (CompletionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static final class WarmUpHolder {
+        private static final List<String> SPECIFICATIONS = readWarmUpSpecifications();
+
+        private static List<String> readWarmUpSpecifications() {
+            final String file = Arrays.SystemSettings.getStringProperty(CACHE_WARM_UP_FILE_PROPERTY_NAME, null);
+            if (file == null || file.isBlank()) {
+                return Collections.emptyList();
+            }
+            try {
+                return Files.readAllLines(Paths.get(file)).stream()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .toList();
+            } catch (IOException | InvalidPathException e) {
+                LOG.log(System.Logger.Level.WARNING, "Cannot read pattern specifications for warming up "
+                        + "the pattern cache from " + file + ": " + e);
+                return Collections.emptyList();
+            }
+        }
+    }
+
     public static void main(String[] args) {
         System.out.println(isSurelyLowCase(args[0]));
         System.out.println(isSurelyLowCase(""));
@@ -86,7 +86,9 @@ public final class StrictMorphology extends MorphologyFilter {
         logDebug(() -> String.format(Locale.US, "Strict %s with %s%s for %s: "
                         + "%.3f ms morphology operation + %.3f ms masking ",
                 operation, pattern,
-                continuationMode == null ? "" : ", " + continuationMode,
+                (continuationMode == null ? "" : ", " + continuationMode)
+                        + (getTileSize() > 0 ? ", tiles " + getTileSize()
+                        + (isMemoryMappedResult() ? " (memory-mapped result)" : "") : ""),
                 sourceMultiMatrix(),
                 (t2 - t1) * 1e-6,
                 (t3 - t2) * 1e-6));
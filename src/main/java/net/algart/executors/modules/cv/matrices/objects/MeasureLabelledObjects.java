@@ -30,6 +30,7 @@ import net.algart.executors.api.ReadOnlyExecutionInput;
 import net.algart.executors.api.data.SNumbers;
 import net.algart.executors.modules.core.common.matrices.BitMultiMatrixFilter;
 import net.algart.executors.modules.cv.matrices.objects.binary.components.ConnectedObjectScanningAlgorithm;
+import net.algart.executors.modules.cv.matrices.objects.labels.LabelsGeometryCalculator;
 import net.algart.math.functions.DividingFunc;
 import net.algart.math.functions.Func;
 import net.algart.math.functions.LinearFunc;
@@ -83,6 +84,7 @@ public final class MeasureLabelledObjects extends Executor implements ReadOnlyEx
     private double pixelSize = 1.0;
     private ConnectivityType bitInputConnectivityType = ConnectivityType.STRAIGHT_AND_DIAGONAL;
     private BoundaryLineType boundaryLineType = BoundaryLineType.BOUNDARY_PIXELS;
+    private boolean singlePassMultithreading = true;
 
     public MeasureLabelledObjects() {
         useVisibleResultParameter();
@@ -132,6 +134,15 @@ public final class MeasureLabelledObjects extends Executor implements ReadOnlyEx
         return this;
     }
 
+    public boolean isSinglePassMultithreading() {
+        return singlePassMultithreading;
+    }
+
+    public MeasureLabelledObjects setSinglePassMultithreading(boolean singlePassMultithreading) {
+        this.singlePassMultithreading = singlePassMultithreading;
+        return this;
+    }
+
     @Override
     public void process() {
         final MultiMatrix2D labels = getInputMat(INPUT_LABELS, false).toMultiMatrix2D();
@@ -161,6 +172,57 @@ public final class MeasureLabelledObjects extends Executor implements ReadOnlyEx
             labels = labels.min(mask.nonZeroRGB());
         }
         final int[] labelsArray = labels.channel(0).toInt();
+        final int dimX = (int) labels.dimX();
+        final int dimY = (int) labels.dimY();
+        if (singlePassMultithreading) {
+            analyseInSinglePass(results, labelsArray, dimX, dimY);
+        } else {
+            analyseSequentially(results, labelsArray, dimX, dimY);
+        }
+    }
+
+    private void analyseInSinglePass(
+            final Map<ObjectParameter, SNumbers> results,
+            final int[] labelsArray,
+            final int dimX,
+            final int dimY) {
+        final boolean needBoundaries = results.containsKey(ObjectParameter.BOUNDARY)
+                || results.containsKey(ObjectParameter.THICKNESS)
+                || results.containsKey(ObjectParameter.SHAPE_FACTOR);
+        try (LabelsGeometryCalculator calculator = LabelsGeometryCalculator.getInstance(
+                labelsArray,
+                dimX,
+                needBoundaries,
+                boundaryLineType == BoundaryLineType.BOUNDARY_INTERPIXEL_SEGMENTS,
+                results.containsKey(ObjectParameter.CENTROID),
+                results.containsKey(ObjectParameter.CONTAINING_RECTANGLE))) {
+            calculator.process();
+            final int numberOfObjects = calculator.maxLabel();
+            if (LOGGABLE_DEBUG) {
+                logDebug("Measuring " + numberOfObjects + " labelled objects of " + dimX + "x" + dimY
+                        + " labels in single pass");
+            }
+            getScalar(OUTPUT_NUMBER_OF_OBJECTS).setTo(numberOfObjects);
+            final int[] cardinalities = calculator.cardinalities();
+            setCardinalitiesResults(results, cardinalities);
+            if (needBoundaries) {
+                setBoundariesResults(results, cardinalities, calculator.boundaries());
+            }
+            if (results.containsKey(ObjectParameter.CENTROID)) {
+                setCentroidsResults(results, cardinalities, calculator.centroidSums());
+            }
+            if (results.containsKey(ObjectParameter.CONTAINING_RECTANGLE)) {
+                setContainingRectanglesResults(results,
+                        calculator.minX(), calculator.minY(), calculator.maxX(), calculator.maxY());
+            }
+        }
+    }
+
+    private void analyseSequentially(
+            final Map<ObjectParameter, SNumbers> results,
+            final int[] labelsArray,
+            final int dimX,
+            final int dimY) {
         int numberOfObjects = 0;
         for (int v : labelsArray) {
             if (v > numberOfObjects) {
@@ -168,7 +230,7 @@ public final class MeasureLabelledObjects extends Executor implements ReadOnlyEx
             }
         }
         if (LOGGABLE_DEBUG) {
-            logDebug("Measuring " + numberOfObjects + " labelled objects of " + labels);
+            logDebug("Measuring " + numberOfObjects + " labelled objects of " + dimX + "x" + dimY + " labels");
         }
         getScalar(OUTPUT_NUMBER_OF_OBJECTS).setTo(numberOfObjects);
         int[] cardinalities = null;
@@ -183,21 +245,8 @@ public final class MeasureLabelledObjects extends Executor implements ReadOnlyEx
                     cardinalities[v - 1]++;
                 }
             }
-            if (results.containsKey(ObjectParameter.AREA)) {
-                final UpdatablePNumberArray result = Arrays.SMM.newFloatArray(cardinalities.length);
-                Arrays.applyFunc(LinearFunc.getInstance(0.0, pixelSize * pixelSize),
-                        result, IntArray.as(cardinalities));
-                results.get(ObjectParameter.AREA).setTo(result, 1);
-            }
-            if (results.containsKey(ObjectParameter.SQRT_AREA)) {
-                final UpdatablePNumberArray result = Arrays.SMM.newFloatArray(cardinalities.length);
-                Arrays.applyFunc(PowerFunc.getInstance(0.5, pixelSize),
-                        result, IntArray.as(cardinalities));
-                results.get(ObjectParameter.SQRT_AREA).setTo(result, 1);
-            }
+            setCardinalitiesResults(results, cardinalities);
         }
-        final int dimX = (int) labels.dimX();
-        final int dimY = (int) labels.dimY();
         if (results.containsKey(ObjectParameter.BOUNDARY)
                 || results.containsKey(ObjectParameter.THICKNESS)
                 || results.containsKey(ObjectParameter.SHAPE_FACTOR)) {
@@ -237,59 +286,25 @@ public final class MeasureLabelledObjects extends Executor implements ReadOnlyEx
                     }
                 }
             }
-            if (results.containsKey(ObjectParameter.BOUNDARY)) {
-                final UpdatablePNumberArray result = Arrays.SMM.newFloatArray(boundaries.length);
-                Arrays.applyFunc(LinearFunc.getInstance(0.0, pixelSize),
-                        result, IntArray.as(boundaries));
-                results.get(ObjectParameter.BOUNDARY).setTo(result, 1);
-            }
-            if (results.containsKey(ObjectParameter.THICKNESS)) {
-                assert cardinalities != null;
-                final UpdatablePNumberArray result = Arrays.SMM.newFloatArray(boundaries.length);
-                Arrays.applyFunc(DividingFunc.getInstance(2.0 * pixelSize),
-                        result,
-                        IntArray.as(cardinalities),
-                        IntArray.as(boundaries));
-                results.get(ObjectParameter.THICKNESS).setTo(result, 1);
-            }
-            if (results.containsKey(ObjectParameter.SHAPE_FACTOR)) {
-                assert cardinalities != null;
-                final UpdatablePNumberArray result = Arrays.SMM.newFloatArray(boundaries.length);
-                Arrays.applyFunc(DividingFunc.getInstance(2 * StrictMath.sqrt(Math.PI)),
-                        result,
-                        Arrays.asFuncArray(PowerFunc.getInstance(0.5), DoubleArray.class,
-                                IntArray.as(cardinalities)),
-                        IntArray.as(boundaries));
-                results.get(ObjectParameter.SHAPE_FACTOR).setTo(result, 1);
-            }
+            setBoundariesResults(results, cardinalities, boundaries);
         }
         if (results.containsKey(ObjectParameter.CENTROID)) {
-            assert cardinalities != null;
             if (2L * (long) numberOfObjects > Integer.MAX_VALUE) {
                 throw new TooLargeArrayException("numberOfObjects = " + numberOfObjects + " >= 2^31 / 2");
             }
-            final double[] centroids = new double[2 * numberOfObjects];
+            final double[] centroidSums = new double[2 * numberOfObjects];
             for (int y = 0, disp = 0; y < dimY; y++) {
                 for (int x = 0; x < dimX; x++, disp++) {
                     final int v = labelsArray[disp];
                     if (v > 0) {
-                        centroids[2 * (v - 1)] += x;
-                        centroids[2 * (v - 1) + 1] += y;
+                        centroidSums[2 * (v - 1)] += x;
+                        centroidSums[2 * (v - 1) + 1] += y;
                     }
                 }
             }
-            for (int k = 0; k < numberOfObjects; k++) {
-                centroids[2 * k] /= cardinalities[k];
-                centroids[2 * k + 1] /= cardinalities[k];
-            }
-            final UpdatablePNumberArray result = Arrays.SMM.newFloatArray(centroids.length);
-            Arrays.applyFunc(LinearFunc.getInstance(0.0, pixelSize), result, DoubleArray.as(centroids));
-            results.get(ObjectParameter.CENTROID).setTo(result, 2);
+            setCentroidsResults(results, cardinalities, centroidSums);
         }
         if (results.containsKey(ObjectParameter.CONTAINING_RECTANGLE)) {
-            if (4L * (long) numberOfObjects > Integer.MAX_VALUE) {
-                throw new TooLargeArrayException("numberOfObjects = " + numberOfObjects + " >= 2^31 / 4");
-            }
             final int[] minX = new int[numberOfObjects];
             final int[] minY = new int[numberOfObjects];
             final int[] maxX = new int[numberOfObjects];
@@ -307,15 +322,91 @@ public final class MeasureLabelledObjects extends Executor implements ReadOnlyEx
                     }
                 }
             }
-            final float[] rectangles = new float[4 * numberOfObjects];
-            for (int k = 0; k < numberOfObjects; k++) {
-                rectangles[4 * k] = (float) (0.5 * pixelSize * (minX[k] + maxX[k]));
-                rectangles[4 * k + 1] = (float) (0.5 * pixelSize * (minY[k] + maxY[k]));
-                rectangles[4 * k + 2] = (float) (pixelSize * (maxX[k] - minX[k] + 1));
-                rectangles[4 * k + 3] = (float) (pixelSize * (maxY[k] - minY[k] + 1));
-            }
-            results.get(ObjectParameter.CONTAINING_RECTANGLE).setTo(rectangles, 4);
+            setContainingRectanglesResults(results, minX, minY, maxX, maxY);
+        }
+    }
+
+    private void setCardinalitiesResults(Map<ObjectParameter, SNumbers> results, int[] cardinalities) {
+        if (results.containsKey(ObjectParameter.AREA)) {
+            final UpdatablePNumberArray result = Arrays.SMM.newFloatArray(cardinalities.length);
+            Arrays.applyFunc(LinearFunc.getInstance(0.0, pixelSize * pixelSize),
+                    result, IntArray.as(cardinalities));
+            results.get(ObjectParameter.AREA).setTo(result, 1);
+        }
+        if (results.containsKey(ObjectParameter.SQRT_AREA)) {
+            final UpdatablePNumberArray result = Arrays.SMM.newFloatArray(cardinalities.length);
+            Arrays.applyFunc(PowerFunc.getInstance(0.5, pixelSize),
+                    result, IntArray.as(cardinalities));
+            results.get(ObjectParameter.SQRT_AREA).setTo(result, 1);
+        }
+    }
+
+    private void setBoundariesResults(
+            Map<ObjectParameter, SNumbers> results,
+            int[] cardinalities,
+            int[] boundaries) {
+        if (results.containsKey(ObjectParameter.BOUNDARY)) {
+            final UpdatablePNumberArray result = Arrays.SMM.newFloatArray(boundaries.length);
+            Arrays.applyFunc(LinearFunc.getInstance(0.0, pixelSize),
+                    result, IntArray.as(boundaries));
+            results.get(ObjectParameter.BOUNDARY).setTo(result, 1);
+        }
+        if (results.containsKey(ObjectParameter.THICKNESS)) {
+            assert cardinalities != null;
+            final UpdatablePNumberArray result = Arrays.SMM.newFloatArray(boundaries.length);
+            Arrays.applyFunc(DividingFunc.getInstance(2.0 * pixelSize),
+                    result,
+                    IntArray.as(cardinalities),
+                    IntArray.as(boundaries));
+            results.get(ObjectParameter.THICKNESS).setTo(result, 1);
+        }
+        if (results.containsKey(ObjectParameter.SHAPE_FACTOR)) {
+            assert cardinalities != null;
+            final UpdatablePNumberArray result = Arrays.SMM.newFloatArray(boundaries.length);
+            Arrays.applyFunc(DividingFunc.getInstance(2 * StrictMath.sqrt(Math.PI)),
+                    result,
+                    Arrays.asFuncArray(PowerFunc.getInstance(0.5), DoubleArray.class,
+                            IntArray.as(cardinalities)),
+                    IntArray.as(boundaries));
+            results.get(ObjectParameter.SHAPE_FACTOR).setTo(result, 1);
+        }
+    }
+
+    // Note: centroidSums array is modified (divided by cardinalities)
+    private void setCentroidsResults(
+            Map<ObjectParameter, SNumbers> results,
+            int[] cardinalities,
+            double[] centroidSums) {
+        assert cardinalities != null;
+        final int numberOfObjects = cardinalities.length;
+        assert centroidSums.length == 2 * numberOfObjects;
+        for (int k = 0; k < numberOfObjects; k++) {
+            centroidSums[2 * k] /= cardinalities[k];
+            centroidSums[2 * k + 1] /= cardinalities[k];
+        }
+        final UpdatablePNumberArray result = Arrays.SMM.newFloatArray(centroidSums.length);
+        Arrays.applyFunc(LinearFunc.getInstance(0.0, pixelSize), result, DoubleArray.as(centroidSums));
+        results.get(ObjectParameter.CENTROID).setTo(result, 2);
+    }
+
+    private void setContainingRectanglesResults(
+            Map<ObjectParameter, SNumbers> results,
+            int[] minX,
+            int[] minY,
+            int[] maxX,
+            int[] maxY) {
+        final int numberOfObjects = minX.length;
+        if (4L * (long) numberOfObjects > Integer.MAX_VALUE) {
+            throw new TooLargeArrayException("numberOfObjects = " + numberOfObjects + " >= 2^31 / 4");
+        }
+        final float[] rectangles = new float[4 * numberOfObjects];
+        for (int k = 0; k < numberOfObjects; k++) {
+            rectangles[4 * k] = (float) (0.5 * pixelSize * (minX[k] + maxX[k]));
+            rectangles[4 * k + 1] = (float) (0.5 * pixelSize * (minY[k] + maxY[k]));
+            rectangles[4 * k + 2] = (float) (pixelSize * (maxX[k] - minX[k] + 1));
+            rectangles[4 * k + 3] = (float) (pixelSize * (maxY[k] - minY[k] + 1));
         }
+        results.get(ObjectParameter.CONTAINING_RECTANGLE).setTo(rectangles, 4);
     }
 
     public void analyseConnectedComponents(
@@ -344,7 +344,9 @@ public final class ValuesAtLabelledObjects extends Executor implements ReadOnlyE
             analyser.setLowTruncatedMeanIndex(0);
             analyser.setHighTruncatedMeanIndex(Math.min(1, percentileLevelsByChannels[0].length - 1));
             // - low and high percentile levels are always in elements 0 and 1
-            analyser.prepareLists();
+            if (!analyser.isHistogramsUsedForPercentiles()) {
+                analyser.prepareLists();
+            }
             t3 = debugTime();
             analyser.findPercentilesAndCardinalities();
         }
@@ -60,6 +60,7 @@ public final class NearestMatrixPixels extends MultiMatrixToNumbers {
     private Color drawingLinesColor = Color.WHITE;
     private boolean convertMonoToColorForDrawingLines = false;
     private boolean visibleLinesToNearest = false;
+    private NearestPixelFinder.SearchAlgorithm searchAlgorithm = NearestPixelFinder.SearchAlgorithm.AUTO;
 
     public NearestMatrixPixels() {
         setDefaultInputMat(INPUT_MASK);
@@ -158,6 +159,15 @@ public final class NearestMatrixPixels extends MultiMatrixToNumbers {
         return this;
     }
 
+    public NearestPixelFinder.SearchAlgorithm getSearchAlgorithm() {
+        return searchAlgorithm;
+    }
+
+    public NearestMatrixPixels setSearchAlgorithm(NearestPixelFinder.SearchAlgorithm searchAlgorithm) {
+        this.searchAlgorithm = nonNull(searchAlgorithm);
+        return this;
+    }
+
     @Override
     public SNumbers analyse(MultiMatrix sourceMask) {
         Objects.requireNonNull(sourceMask, "Null source mask");
@@ -174,7 +184,9 @@ public final class NearestMatrixPixels extends MultiMatrixToNumbers {
                 SortedRound2DAperture.getCircle(neighbourhoodSizeForNearest, sourceMask.dimX());
         final NearestPixelFinder finder = new NearestPixelFinder(mask, maxAperture, neighbourhoodForNearest)
                 .setMaxNumberOfNeighbours(maxNumberOfNeighbours)
-                .setSkipPositionsAtMaks(skipPositionsAtMaks);
+                .setSkipPositionsAtMaks(skipPositionsAtMaks)
+                .setSearchAlgorithm(searchAlgorithm);
+        finder.prepare();
         long t2 = System.nanoTime();
         MutableIntArray nearestXY = Arrays.SMM.newEmptyIntArray();
         final int n = positions.n();
@@ -242,9 +254,10 @@ public final class NearestMatrixPixels extends MultiMatrixToNumbers {
         final SNumbers result = SNumbers.ofArray(resultPositions, returnPairsOfThisAndNearestPixel ? 4 : 2);
         long t4 = System.nanoTime();
         logDebug(() -> String.format(Locale.US, "Nearest matrix pixels for %d points at %s, "
-                        + "aperture size %d (%d points): %.3f ms = "
+                        + "aperture size %d (%d points, %d boundary pixels%s): %.3f ms = "
                         + "%.3f preparing, %.3f search, %.3f making results",
                 n, sourceMask, maxApertureSize, maxAperture.count(),
+                finder.numberOfBoundaryPixels(), finder.isBoundaryIndexUsed() ? ", indexed" : "",
                 (t4 - t1) * 1e-6,
                 (t2 - t1) * 1e-6, (t3 - t2) * 1e-6, (t4 - t3) * 1e-6));
 
@@ -24,10 +24,7 @@
 
 package net.algart.executors.modules.cv.matrices.objects.binary;
 
-import net.algart.arrays.BitArray;
-import net.algart.arrays.Matrix;
-import net.algart.arrays.MutableIntArray;
-import net.algart.arrays.PArray;
+import net.algart.arrays.*;
 import net.algart.executors.modules.cv.matrices.misc.SortedRound2DAperture;
 import net.algart.math.IPoint;
 import net.algart.math.patterns.Pattern;
@@ -39,6 +36,28 @@ import net.algart.matrices.morphology.Morphology;
 import java.util.Objects;
 
 public final class NearestPixelFinder {
+    public enum SearchAlgorithm {
+        /**
+         * Boundary index is used if the boundary pixels are rare in comparison with the aperture area.
+         */
+        AUTO,
+        /**
+         * Every query checks all points of the aperture, sorted by increasing distance.
+         */
+        APERTURE_SCAN,
+        /**
+         * Boundary pixels are indexed once by a regular grid of cells; every query checks only boundary pixels
+         * in the cells around it, in rings of increasing distance. The results are identical to
+         * {@link #APERTURE_SCAN}, including the order of equidistant pixels.
+         */
+        BOUNDARY_INDEX
+    }
+
+    private static final int INDEX_CELL_SIZE = 16;
+    private static final int AUTO_INDEX_MIN_APERTURE_COUNT = 256;
+    private static final int AUTO_INDEX_MAX_DENSITY_RECIPROCAL = 16;
+    // - index is used in AUTO mode, when less than 1/16 of all pixels are boundary ones
+
     private static final Pattern CROSS_PATTERN = Patterns.newIntegerPattern(
             IPoint.valueOf(0, 0),
             IPoint.valueOf(1, 0),
@@ -47,8 +66,9 @@ public final class NearestPixelFinder {
             IPoint.valueOf(0, -1)
     );
 
-    private final boolean[] maskArray;
-    private final boolean[] boundaries;
+    private final long[] maskBits;
+    private final long[] boundaryBits;
+    // - packed bits: 8 times less memory than boolean[]
     private final int dimX;
     private final int dimY;
     private final SortedRound2DAperture maxAperture;
@@ -60,15 +80,23 @@ public final class NearestPixelFinder {
     private final int[] neighbourhoodDx;
     private final int[] neighbourhoodDy;
     private final int maxRadiusSum;
+    private final long numberOfBoundaryPixels;
     private int maxNumberOfNeighbours = 1;
     private boolean skipPositionsAtMaks = true;
+    private SearchAlgorithm searchAlgorithm = SearchAlgorithm.AUTO;
+    private volatile BoundaryIndex boundaryIndex = null;
+    private final ThreadLocal<int[][]> pendingBuffer = ThreadLocal.withInitial(() -> new int[][]{new int[64]});
+    // - reusable buffer of checkBoundaryIndex (the finder may be used from several threads)
 
     public NearestPixelFinder(
             Matrix<? extends BitArray> mask,
             SortedRound2DAperture maxAperture,
             SortedRound2DAperture neighbourhoodForNearest) {
         Objects.requireNonNull(mask, "Null mask matrix");
-        this.maskArray = mask.array().toJavaArray();
+        if (mask.size() > Integer.MAX_VALUE) {
+            throw new TooLargeArrayException("Too large mask matrix: " + mask);
+        }
+        this.maskBits = packedBits(mask.array());
         this.maxAperture = Objects.requireNonNull(maxAperture);
         this.neighbourhoodForNearest = Objects.requireNonNull(neighbourhoodForNearest);
         if (!maxAperture.isSortedByIncreasingRadius()) {
@@ -86,7 +114,12 @@ public final class NearestPixelFinder {
                 Matrix.ContinuationMode.ZERO_CONSTANT);
         final Matrix<? extends PArray> boundariesMatrix =
                 morphology.erosion(mask, CROSS_PATTERN, Morphology.SubtractionMode.SUBTRACT_RESULT_FROM_SRC);
-        this.boundaries = (boolean[]) boundariesMatrix.toJavaArray();
+        this.boundaryBits = packedBits((BitArray) boundariesMatrix.array());
+        long numberOfBoundaryPixels = 0;
+        for (long v : boundaryBits) {
+            numberOfBoundaryPixels += Long.bitCount(v);
+        }
+        this.numberOfBoundaryPixels = numberOfBoundaryPixels;
         // No we are sure that dimX and dimY are <=Integer.MAX_VALUE
         this.dimY = (int) mask.dimY();
         this.dimX = (int) mask.dimX();
@@ -119,13 +152,45 @@ public final class NearestPixelFinder {
         return this;
     }
 
+    public SearchAlgorithm getSearchAlgorithm() {
+        return searchAlgorithm;
+    }
+
+    public NearestPixelFinder setSearchAlgorithm(SearchAlgorithm searchAlgorithm) {
+        this.searchAlgorithm = Objects.requireNonNull(searchAlgorithm, "Null searchAlgorithm");
+        return this;
+    }
+
+    public long numberOfBoundaryPixels() {
+        return numberOfBoundaryPixels;
+    }
+
+    public boolean isBoundaryIndexUsed() {
+        return switch (searchAlgorithm) {
+            case APERTURE_SCAN -> false;
+            case BOUNDARY_INDEX -> true;
+            case AUTO -> maxAperture.count() >= AUTO_INDEX_MIN_APERTURE_COUNT
+                    && numberOfBoundaryPixels() * AUTO_INDEX_MAX_DENSITY_RECIPROCAL < (long) dimX * (long) dimY;
+        };
+    }
+
+    /**
+     * Prepares this object for multithreading usage: calculates all lazily initialized data.
+     * Should be called before parallel calls of {@link #findNearest(int, int, MutableIntArray)}.
+     */
+    public void prepare() {
+        if (isBoundaryIndexUsed()) {
+            boundaryIndex();
+        }
+    }
+
     public int findNearest(int centerX, int centerY, MutableIntArray resultXY) {
         final int dimX = this.dimX;
         final int dimY = this.dimY;
         // - JVM works better with local variables, not fields of an object
         final int centerIndex = centerY * dimX + centerX;
         int count = 0;
-        if (maskArray[centerIndex]) {
+        if (bit(maskBits, centerIndex)) {
             if (skipPositionsAtMaks) {
                 return 0;
             } else {
@@ -136,6 +201,9 @@ public final class NearestPixelFinder {
                 count++;
             }
         }
+        if (isBoundaryIndexUsed()) {
+            return checkBoundaryIndex(centerX, centerY, count, resultXY);
+        }
         if (centerX >= maxRadiusSum && centerX < dimX - maxRadiusSum
                 && centerY >= maxRadiusSum && centerY < dimY - maxRadiusSum) {
             return quickCheckAperture(centerX, centerY, centerIndex, count, resultXY);
@@ -148,13 +216,13 @@ public final class NearestPixelFinder {
         search:
         for (int k = 0, m = maxAperture.count(), n = neighbourhoodForNearest.count(); k < m; k++) {
             final int indexProbe = centerIndex + maxApertureOffsets[k];
-            if (boundaries[indexProbe]) {
+            if (bit(boundaryBits, indexProbe)) {
                 final int dxProbe = maxApertureDx[k];
                 final int dyProbe = maxApertureDy[k];
                 final int dProbe = maxAperture.hypotSqr(k);
                 for (int j = 0; j < n; j++) {
                     final int index = indexProbe + neighbourhoodOffsets[j];
-                    if (maskArray[index]) {
+                    if (bit(maskBits, index)) {
                         final int dx = dxProbe + neighbourhoodDx[j];
                         final int dy = dyProbe + neighbourhoodDy[j];
                         final int d = dx * dx + dy * dy;
@@ -183,14 +251,14 @@ public final class NearestPixelFinder {
                 final int indexProbe = centerIndex + maxApertureOffsets[k];
                 assert indexProbe >= 0 : indexProbe + "center " + centerX + ", " + centerY
                         + ", point=" + xProbe + ", " + yProbe + " at " + k;
-                if (boundaries[indexProbe]) {
+                if (bit(boundaryBits, indexProbe)) {
                     final int dProbe = maxAperture.hypotSqr(k);
                     for (int j = 0; j < n; j++) {
                         final int x = xProbe + neighbourhoodDx[j];
                         final int y = yProbe + neighbourhoodDy[j];
                         if (x >= 0 && y >= 0 && x < dimX && y < dimY) {
                             final int index = indexProbe + neighbourhoodOffsets[j];
-                            if (maskArray[index]) {
+                            if (bit(maskBits, index)) {
                                 final int dx = x - centerX;
                                 final int dy = y - centerY;
                                 final int d = dx * dx + dy * dy;
@@ -212,8 +280,176 @@ public final class NearestPixelFinder {
         return count;
     }
 
+    private int checkBoundaryIndex(int centerX, int centerY, int count, MutableIntArray resultXY) {
+        final BoundaryIndex index = boundaryIndex();
+        final int radius = index.radius;
+        final int cellX = centerX / INDEX_CELL_SIZE;
+        final int cellY = centerY / INDEX_CELL_SIZE;
+        final int maxRing = radius / INDEX_CELL_SIZE + 1;
+        final int[][] pendingHolder = pendingBuffer.get();
+        int[] pending = pendingHolder[0];
+        int pendingCount = 0;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int j = cellY - ring; j <= cellY + ring; j++) {
+                if (j < 0 || j >= index.cellsY) {
+                    continue;
+                }
+                final int step = j == cellY - ring || j == cellY + ring ? 1 : 2 * ring;
+                // - inside the ring, only the left and the right cells
+                for (int i = cellX - ring; i <= cellX + ring; i += step) {
+                    if (i < 0 || i >= index.cellsX) {
+                        continue;
+                    }
+                    final int cell = j * index.cellsX + i;
+                    for (int q = index.cellStart[cell], qTo = index.cellStart[cell + 1]; q < qTo; q++) {
+                        final int p = index.pixels[q];
+                        final int dx = p % dimX - centerX;
+                        final int dy = p / dimX - centerY;
+                        if (dx < -radius || dx > radius || dy < -radius || dy > radius) {
+                            continue;
+                        }
+                        final int k = index.apertureRank[(dy + radius) * (2 * radius + 1) + dx + radius];
+                        if (k < 0) {
+                            continue;
+                        }
+                        if (pendingCount == pending.length) {
+                            pending = java.util.Arrays.copyOf(pending, 2 * pendingCount);
+                            pendingHolder[0] = pending;
+                        }
+                        pending[pendingCount++] = k;
+                    }
+                }
+            }
+            final long bound = ring == maxRing ? Long.MAX_VALUE : sqr((long) ring * INDEX_CELL_SIZE + 1);
+            // - all pixels in the further rings have distance² >= bound
+            java.util.Arrays.sort(pending, 0, pendingCount);
+            int processed = 0;
+            while (processed < pendingCount && index.maxHypotSqrUpTo[pending[processed]] < bound) {
+                // - all aperture points, preceding this one, are already collected
+                final int k = pending[processed++];
+                final int xProbe = centerX + maxApertureDx[k];
+                final int yProbe = centerY + maxApertureDy[k];
+                if (isNearestAtBoundary(centerX, centerY, xProbe, yProbe, maxAperture.hypotSqr(k))) {
+                    addPoint(xProbe, yProbe, resultXY);
+                    count++;
+                    if (count >= maxNumberOfNeighbours) {
+                        return count;
+                    }
+                }
+            }
+            System.arraycopy(pending, processed, pending, 0, pendingCount - processed);
+            pendingCount -= processed;
+        }
+        return count;
+    }
+
+    private boolean isNearestAtBoundary(int centerX, int centerY, int xProbe, int yProbe, int dProbe) {
+        final int indexProbe = yProbe * dimX + xProbe;
+        for (int j = 0, n = neighbourhoodForNearest.count(); j < n; j++) {
+            final int x = xProbe + neighbourhoodDx[j];
+            final int y = yProbe + neighbourhoodDy[j];
+            if (x >= 0 && y >= 0 && x < dimX && y < dimY) {
+                if (bit(maskBits, indexProbe + neighbourhoodOffsets[j])) {
+                    final int dx = x - centerX;
+                    final int dy = y - centerY;
+                    final int d = dx * dx + dy * dy;
+                    if (d < dProbe || (d == dProbe && (y < yProbe || (y == yProbe && x < xProbe)))) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private BoundaryIndex boundaryIndex() {
+        BoundaryIndex result = boundaryIndex;
+        if (result == null) {
+            synchronized (this) {
+                result = boundaryIndex;
+                if (result == null) {
+                    boundaryIndex = result = new BoundaryIndex();
+                }
+            }
+        }
+        return result;
+    }
+
     private void addPoint(int nearestX, int nearestY, MutableIntArray resultXY) {
         resultXY.addInt(nearestX);
         resultXY.addInt(nearestY);
     }
+
+    private static long[] packedBits(BitArray array) {
+        final long n = array.length();
+        final long[] result = new long[(int) PackedBitArrays.packedLength(n)];
+        array.getBits(0, result, 0, n);
+        return result;
+    }
+
+    private static boolean bit(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static long sqr(long v) {
+        return v * v;
+    }
+
+    private final class BoundaryIndex {
+        final int cellsX;
+        final int cellsY;
+        final int[] cellStart;
+        final int[] pixels;
+        final int radius;
+        final int[] apertureRank;
+        final int[] maxHypotSqrUpTo;
+
+        BoundaryIndex() {
+            this.cellsX = (dimX + INDEX_CELL_SIZE - 1) / INDEX_CELL_SIZE;
+            this.cellsY = (dimY + INDEX_CELL_SIZE - 1) / INDEX_CELL_SIZE;
+            final long numberOfBoundaryPixels = numberOfBoundaryPixels();
+            assert numberOfBoundaryPixels <= Integer.MAX_VALUE : "mask size was checked in the constructor";
+            this.cellStart = new int[cellsX * cellsY + 1];
+            this.pixels = new int[(int) numberOfBoundaryPixels];
+            for (int w = 0; w < boundaryBits.length; w++) {
+                for (long v = boundaryBits[w]; v != 0; v &= v - 1) {
+                    final int p = (w << 6) + Long.numberOfTrailingZeros(v);
+                    cellStart[cell(p) + 1]++;
+                }
+            }
+            for (int c = 0; c < cellStart.length - 1; c++) {
+                cellStart[c + 1] += cellStart[c];
+            }
+            final int[] positions = java.util.Arrays.copyOf(cellStart, cellStart.length - 1);
+            for (int w = 0; w < boundaryBits.length; w++) {
+                for (long v = boundaryBits[w]; v != 0; v &= v - 1) {
+                    final int p = (w << 6) + Long.numberOfTrailingZeros(v);
+                    pixels[positions[cell(p)]++] = p;
+                }
+            }
+            int radius = 0;
+            final int count = maxAperture.count();
+            for (int k = 0; k < count; k++) {
+                radius = Math.max(radius, Math.max(Math.abs(maxApertureDx[k]), Math.abs(maxApertureDy[k])));
+            }
+            this.radius = radius;
+            final int side = 2 * radius + 1;
+            this.apertureRank = new int[side * side];
+            java.util.Arrays.fill(apertureRank, -1);
+            this.maxHypotSqrUpTo = new int[count];
+            for (int k = 0, max = 0; k < count; k++) {
+                final int i = (maxApertureDy[k] + radius) * side + maxApertureDx[k] + radius;
+                if (apertureRank[i] < 0) {
+                    apertureRank[i] = k;
+                    // - for a case of duplicates, the first point is checked by the aperture scan
+                }
+                max = Math.max(max, maxAperture.hypotSqr(k));
+                maxHypotSqrUpTo[k] = max;
+            }
+        }
+
+        private int cell(int p) {
+            return (p / dimX / INDEX_CELL_SIZE) * cellsX + (p % dimX) / INDEX_CELL_SIZE;
+        }
+    }
 }
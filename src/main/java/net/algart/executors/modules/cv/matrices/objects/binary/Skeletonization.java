@@ -31,7 +31,12 @@ import net.algart.matrices.skeletons.Quadruple3x5ThinningSkeleton2D;
 import net.algart.matrices.skeletons.StrongQuadruple3x5ThinningSkeleton2D;
 import net.algart.matrices.skeletons.WeakOctupleThinningSkeleton2D;
 
+import java.util.Locale;
+
 public final class Skeletonization extends BitMultiMatrixFilter {
+    public static final String OUTPUT_NUMBER_OF_ITERATIONS = "number_of_iterations";
+    public static final String OUTPUT_ACTIVE_TILES_FRACTION = "active_tiles_fraction";
+
     public enum Algorithm {
         OCTUPLE_PLUS_QUADRUPLE_THINNING() {
             @Override
@@ -44,6 +49,14 @@ public final class Skeletonization extends BitMultiMatrixFilter {
                         .chain(Quadruple3x5ThinningSkeleton2D.getInstance(null, m), 0.01);
             }
 
+            @Override
+            TiledSkeletonization.Stage[] tiledStages(boolean diagonalThinning, boolean topological) {
+                return new TiledSkeletonization.Stage[]{
+                        m -> OctupleThinningSkeleton2D.getInstance(null, m, diagonalThinning, topological),
+                        m -> Quadruple3x5ThinningSkeleton2D.getInstance(null, m)
+                };
+            }
+
             @Override
             IterativeArrayProcessor<Matrix<? extends UpdatableBitArray>> getPostprocessingTopologicalProcessor(
                     Matrix<? extends UpdatableBitArray> m,
@@ -62,6 +75,14 @@ public final class Skeletonization extends BitMultiMatrixFilter {
                         .chain(StrongQuadruple3x5ThinningSkeleton2D.getInstance(null, m), 0.01);
             }
 
+            @Override
+            TiledSkeletonization.Stage[] tiledStages(boolean diagonalThinning, boolean topological) {
+                return new TiledSkeletonization.Stage[]{
+                        m -> OctupleThinningSkeleton2D.getInstance(null, m, diagonalThinning, topological),
+                        m -> StrongQuadruple3x5ThinningSkeleton2D.getInstance(null, m)
+                };
+            }
+
             @Override
             IterativeArrayProcessor<Matrix<? extends UpdatableBitArray>> getPostprocessingTopologicalProcessor(
                     Matrix<? extends UpdatableBitArray> m,
@@ -134,6 +155,13 @@ public final class Skeletonization extends BitMultiMatrixFilter {
                 boolean diagonalThinning) {
             return getSkeletonProcessor(m, diagonalThinning, true);
         }
+
+        // Must be equivalent to getSkeletonProcessor: the stages of its chain (if it is a chain)
+        TiledSkeletonization.Stage[] tiledStages(boolean diagonalThinning, boolean topological) {
+            return new TiledSkeletonization.Stage[]{
+                    m -> getSkeletonProcessor(m, diagonalThinning, topological)
+            };
+        }
     }
 
     private Algorithm algorithm = Algorithm.OCTUPLE_PLUS_STRONG_QUADRUPLE_THINNING;
@@ -144,6 +172,12 @@ public final class Skeletonization extends BitMultiMatrixFilter {
     private long maxNumberOfIterations = -1;
     private long numberOfAdditionalTopologicalIterations = 0;
     private boolean addBorder = false;
+    private int tileSize = 0;
+
+    public Skeletonization() {
+        addOutputScalar(OUTPUT_NUMBER_OF_ITERATIONS);
+        addOutputScalar(OUTPUT_ACTIVE_TILES_FRACTION);
+    }
 
     public Algorithm getAlgorithm() {
         return algorithm;
@@ -198,12 +232,24 @@ public final class Skeletonization extends BitMultiMatrixFilter {
         this.addBorder = addBorder;
     }
 
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public Skeletonization setTileSize(int tileSize) {
+        this.tileSize = nonNegative(tileSize);
+        return this;
+    }
+
     @Override
     public Matrix<? extends PArray> processMatrix(Matrix<? extends PArray> bitMatrix) {
         final Matrix<UpdatableBitArray> updatableBitMatrix = cloneBit(bitMatrix.cast(BitArray.class));
         if (addBorder) {
             drawBorder(updatableBitMatrix, zeroExtendingValue());
         }
+        if (tileSize > 0) {
+            return processTiled(updatableBitMatrix);
+        }
         IterativeArrayProcessor<Matrix<? extends UpdatableBitArray>> processor =
                 algorithm.getSkeletonProcessor(updatableBitMatrix, diagonalThinning, topological)
                         .limitIterations(maxNumberOfIterations);
@@ -217,6 +263,39 @@ public final class Skeletonization extends BitMultiMatrixFilter {
         return result;
     }
 
+    private Matrix<? extends UpdatableBitArray> processTiled(Matrix<UpdatableBitArray> bitMatrix) {
+        long t1 = debugTime();
+        final TiledSkeletonization skeletonization = new TiledSkeletonization(tileSize);
+        skeletonization.process(bitMatrix, maxNumberOfIterations,
+                algorithm.tiledStages(diagonalThinning, topological));
+        long t2 = debugTime();
+        long numberOfIterations = skeletonization.numberOfIterations();
+        double activeTilesFraction = skeletonization.activeTilesFraction();
+        if (numberOfAdditionalTopologicalIterations != 0) {
+            final TiledSkeletonization postprocessing = new TiledSkeletonization(tileSize);
+            postprocessing.process(bitMatrix, numberOfAdditionalTopologicalIterations,
+                    m -> algorithm.getPostprocessingTopologicalProcessor(m, diagonalThinning));
+            final long totalNumberOfIterations = numberOfIterations + postprocessing.numberOfIterations();
+            activeTilesFraction = totalNumberOfIterations == 0 ? 0.0 :
+                    (activeTilesFraction * numberOfIterations
+                            + postprocessing.activeTilesFraction() * postprocessing.numberOfIterations())
+                            / totalNumberOfIterations;
+            numberOfIterations = totalNumberOfIterations;
+        }
+        long t3 = debugTime();
+        getScalar(OUTPUT_NUMBER_OF_ITERATIONS).setTo(numberOfIterations);
+        getScalar(OUTPUT_ACTIVE_TILES_FRACTION).setTo(activeTilesFraction);
+        final long iterations = numberOfIterations;
+        final double fraction = activeTilesFraction;
+        logDebug(() -> String.format(Locale.US,
+                "Tiled skeletonization (%s, tiles %dx%d) of %s: %d iterations, %.2f%% active tiles; "
+                        + "%.3f ms = %.3f ms skeleton + %.3f ms postprocessing",
+                algorithm, skeletonization.tileSize(), skeletonization.tileSize(), bitMatrix,
+                iterations, fraction * 100.0,
+                (t3 - t1) * 1e-6, (t2 - t1) * 1e-6, (t3 - t2) * 1e-6));
+        return bitMatrix;
+    }
+
     private static void drawBorder(Matrix<UpdatableBitArray> bitMatrix, int d) {
         final long dimX = bitMatrix.dimX() - 2 * d;
         final long dimY = bitMatrix.dimY() - 2 * d;
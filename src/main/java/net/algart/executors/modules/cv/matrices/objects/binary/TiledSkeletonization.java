@@ -0,0 +1,228 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.objects.binary;
+
+import net.algart.arrays.*;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Performs iterative skeleton processors (thinning) tile by tile, processing on every iteration
+ * only the tiles, which could be changed: the tiles, changed at the previous iteration, and their neighbours.
+ * Active tiles are processed in parallel.
+ *
+ * <p>Every tile is loaded together with a halo of {@link #ITERATION_DEPENDENCY_RADIUS} pixels
+ * (outside the matrix it is filled by zeros), one iteration of the processor is performed on this piece,
+ * and the tile itself (without halo) is stored back. One iteration of all supported thinning processors
+ * consists of at most 8 sub-iterations with apertures not greater than 5x5, so the result inside the tile
+ * depends only on the pixels inside the halo, and the results are bit-identical to processing
+ * the whole matrix, when the matrix is considered to be continued by zeros (as in zero-extending mode
+ * of {@link Skeletonization}).</p>
+ */
+final class TiledSkeletonization {
+    /**
+     * Factory of iterative processors of one stage of skeletonization; for example,
+     * "octuple + quadruple thinning" consists of 2 stages. Every stage is performed
+     * until it stops changing the matrix.
+     */
+    @FunctionalInterface
+    interface Stage {
+        IterativeArrayProcessor<Matrix<? extends UpdatableBitArray>> newProcessor(
+                Matrix<? extends UpdatableBitArray> matrix);
+    }
+
+    static final int ITERATION_DEPENDENCY_RADIUS = 16;
+    static final int MIN_TILE_SIZE = 2 * ITERATION_DEPENDENCY_RADIUS;
+
+    private final int tileSize;
+
+    private long numberOfIterations = 0;
+    private final AtomicLong numberOfProcessedTiles = new AtomicLong();
+    private long numberOfTilesInAllIterations = 0;
+
+    TiledSkeletonization(int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Zero or negative tile size " + tileSize);
+        }
+        this.tileSize = Math.max(tileSize, MIN_TILE_SIZE);
+    }
+
+    public int tileSize() {
+        return tileSize;
+    }
+
+    public long numberOfIterations() {
+        return numberOfIterations;
+    }
+
+    /**
+     * Returns the ratio of processed tiles to all tiles, summed over all performed iterations.
+     *
+     * @return average fraction of active tiles.
+     */
+    public double activeTilesFraction() {
+        return numberOfTilesInAllIterations == 0 ? 0.0 :
+                (double) numberOfProcessedTiles.get() / (double) numberOfTilesInAllIterations;
+    }
+
+    /**
+     * Performs all stages in the given order, each until it stops changing the matrix, but no more than
+     * <code>maxNumberOfIterations</code> iterations in total (negative value means no limit).
+     * The matrix is modified in place.
+     *
+     * @param matrix                bit matrix.
+     * @param maxNumberOfIterations maximal number of iterations (all stages together); -1 means no limit.
+     * @param stages                stages of processing.
+     */
+    public void process(Matrix<? extends UpdatableBitArray> matrix, long maxNumberOfIterations, Stage... stages) {
+        Objects.requireNonNull(matrix, "Null matrix");
+        Objects.requireNonNull(stages, "Null stages");
+        if (matrix.dimCount() != 2) {
+            throw new IllegalArgumentException("Only 2-dimensional matrices are supported: " + matrix);
+        }
+        final int tilesX = numberOfTiles(matrix.dimX());
+        final int tilesY = numberOfTiles(matrix.dimY());
+        final int numberOfTiles = Math.multiplyExact(tilesX, tilesY);
+        final Matrix<UpdatableBitArray> changedMatrix = Arrays.SMM.newBitMatrix(matrix.dimensions());
+        changedMatrix.array().copy(matrix.array());
+        final boolean[] active = new boolean[numberOfTiles];
+        final boolean[] changed = new boolean[numberOfTiles];
+        long iterationCount = 0;
+        for (Stage stage : stages) {
+            Objects.requireNonNull(stage, "Null stage");
+            final Queue<Worker> workers = new ConcurrentLinkedQueue<>();
+            java.util.Arrays.fill(active, true);
+            boolean stageDone = false;
+            while (!stageDone && (maxNumberOfIterations < 0 || iterationCount < maxNumberOfIterations)) {
+                final int[] activeIndexes = IntStream.range(0, numberOfTiles).filter(k -> active[k]).toArray();
+                final AtomicBoolean anyChanges = new AtomicBoolean(false);
+                IntStream.range(0, activeIndexes.length).parallel().forEach(i -> {
+                    final int tileIndex = activeIndexes[i];
+                    Worker worker = workers.poll();
+                    if (worker == null) {
+                        worker = new Worker(stage);
+                    }
+                    final boolean tileChanged = worker.processTile(
+                            matrix, changedMatrix, (tileIndex % tilesX) * (long) tileSize,
+                            (tileIndex / tilesX) * (long) tileSize);
+                    workers.add(worker);
+                    changed[tileIndex] = tileChanged;
+                    if (tileChanged) {
+                        anyChanges.set(true);
+                    }
+                });
+                // - all tiles read "matrix" and write results into "changedMatrix", so the order is not important
+                numberOfProcessedTiles.addAndGet(activeIndexes.length);
+                numberOfTilesInAllIterations += numberOfTiles;
+                iterationCount++;
+                for (int tileIndex : activeIndexes) {
+                    if (changed[tileIndex]) {
+                        copyTile(matrix, changedMatrix, tileIndex % tilesX, tileIndex / tilesX);
+                    }
+                }
+                stageDone = !anyChanges.get();
+                // - like in thinning processors: the stage is finished by the first iteration without changes
+                markActive(active, changed, activeIndexes, tilesX, tilesY);
+            }
+        }
+        this.numberOfIterations = iterationCount;
+    }
+
+    private int numberOfTiles(long dim) {
+        final long result = (dim + tileSize - 1) / tileSize;
+        if (result > Integer.MAX_VALUE) {
+            throw new TooLargeArrayException("Too large matrix: " + dim + " / " + tileSize + " tiles");
+        }
+        return (int) result;
+    }
+
+    private void copyTile(
+            Matrix<? extends UpdatableBitArray> matrix,
+            Matrix<? extends UpdatableBitArray> changedMatrix,
+            int tileX,
+            int tileY) {
+        final long x = (long) tileX * tileSize;
+        final long y = (long) tileY * tileSize;
+        final long sizeX = Math.min(tileSize, matrix.dimX() - x);
+        final long sizeY = Math.min(tileSize, matrix.dimY() - y);
+        matrix.subMatr(x, y, sizeX, sizeY).array().copy(changedMatrix.subMatr(x, y, sizeX, sizeY).array());
+    }
+
+    private static void markActive(boolean[] active, boolean[] changed, int[] processed, int tilesX, int tilesY) {
+        java.util.Arrays.fill(active, false);
+        for (int tileIndex : processed) {
+            if (!changed[tileIndex]) {
+                continue;
+            }
+            final int tileX = tileIndex % tilesX;
+            final int tileY = tileIndex / tilesX;
+            for (int y = Math.max(0, tileY - 1); y <= Math.min(tilesY - 1, tileY + 1); y++) {
+                for (int x = Math.max(0, tileX - 1); x <= Math.min(tilesX - 1, tileX + 1); x++) {
+                    active[y * tilesX + x] = true;
+                }
+            }
+        }
+        java.util.Arrays.fill(changed, false);
+    }
+
+    private final class Worker {
+        private final Matrix<UpdatableBitArray> piece;
+        private final IterativeArrayProcessor<Matrix<? extends UpdatableBitArray>> processor;
+
+        Worker(Stage stage) {
+            final long pieceSize = tileSize + 2L * ITERATION_DEPENDENCY_RADIUS;
+            this.piece = Arrays.SMM.newBitMatrix(pieceSize, pieceSize);
+            this.processor = stage.newProcessor(piece);
+        }
+
+        boolean processTile(
+                Matrix<? extends UpdatableBitArray> matrix,
+                Matrix<? extends UpdatableBitArray> changedMatrix,
+                long x,
+                long y) {
+            final long sizeX = Math.min(tileSize, matrix.dimX() - x);
+            final long sizeY = Math.min(tileSize, matrix.dimY() - y);
+            final int r = ITERATION_DEPENDENCY_RADIUS;
+            piece.array().copy(matrix.subMatr(x - r, y - r, piece.dimX(), piece.dimY(),
+                    Matrix.ContinuationMode.ZERO_CONSTANT).array());
+            processor.performIteration(null);
+            final UpdatableBitArray result = piece.subMatr(r, r, sizeX, sizeY).array();
+            if (result.equals(matrix.subMatr(x, y, sizeX, sizeY).array())) {
+                return false;
+            }
+            synchronized (changedMatrix) {
+                // - neighbouring tiles may share 64-bit words of the packed bit array
+                changedMatrix.subMatr(x, y, sizeX, sizeY).array().copy(result);
+            }
+            return true;
+        }
+    }
+}
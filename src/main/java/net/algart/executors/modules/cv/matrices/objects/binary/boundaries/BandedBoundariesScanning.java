@@ -0,0 +1,170 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.modules.cv.matrices.objects.binary.boundaries;
+
+import net.algart.arrays.Arrays;
+import net.algart.arrays.Matrix;
+import net.algart.arrays.PFixedArray;
+import net.algart.matrices.scanning.Boundary2DScanner;
+import net.algart.matrices.scanning.Boundary2DWrapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Multithreading scanning of boundaries in a binary matrix by horizontal bands.
+ *
+ * <p>Every band is processed by its own {@link BoundariesScanner} (with its own buffers), which scans the matrix
+ * in usual order, starting from the first line of the band. Every boundary is considered to belong
+ * to the band, containing its topmost pixel: it is exactly the band, where the usual sequential scanner
+ * finds this boundary for the first time. Boundaries, crossing the top edge of the band, are also traced
+ * (to mark them in the buffer and to skip their other parts), but they are not analysed: they will be
+ * analysed by one of the previous bands. The band scanner stops when the next found boundary starts
+ * below the band.</p>
+ *
+ * <p>So, concatenation of results of all bands in the order of bands provides the same list of boundaries
+ * in the same order, as the sequential scanning. Note that nesting levels and labels are
+ * not supported in this mode.</p>
+ */
+final class BandedBoundariesScanning {
+    static final long MIN_BAND_HEIGHT = 256;
+    static final long MIN_BAND_SIZE = 1L << 20;
+
+    abstract static class Band {
+        long objectCounter = 0;
+        long sideCounter = 0;
+
+        void beforeBoundary() {
+        }
+
+        /**
+         * Called after scanning every boundary, found while scanning this band.
+         *
+         * @param scanner scanner of this band.
+         * @param analyse whether this boundary belongs to this band and should be analysed;
+         *                if <code>false</code>, its results must be ignored.
+         */
+        abstract void afterBoundary(BoundariesScanner scanner, boolean analyse);
+    }
+
+    private BandedBoundariesScanning() {
+    }
+
+    /**
+     * Returns recommended number of bands for the given objects; 1 means that the banded scanning
+     * has no sense or cannot be used (for example, for non-binary labels).
+     *
+     * @param objects          matrix of objects.
+     * @param needSecondBuffer whether every band scanner will allocate the second bit buffer.
+     * @return recommended number of bands.
+     */
+    static int numberOfBands(Matrix<? extends PFixedArray> objects, boolean needSecondBuffer) {
+        Objects.requireNonNull(objects, "Null objects");
+        if (objects.elementType() != boolean.class) {
+            return 1;
+        }
+        final long bufferBytes = (needSecondBuffer ? 2 : 1) * ((objects.size() + 7) >>> 3);
+        final long byMemory = Runtime.getRuntime().maxMemory() / 4 / Math.max(bufferBytes, 1);
+        // - every band scanner allocates its own bit buffers for the whole matrix
+        long result = Math.min(objects.dimY() / MIN_BAND_HEIGHT, objects.size() / MIN_BAND_SIZE);
+        result = Math.min(result, byMemory);
+        result = Math.min(result, Arrays.SystemSettings.cpuCount());
+        return (int) Math.max(result, 1);
+    }
+
+    static <B extends Band> List<B> scan(
+            Matrix<? extends PFixedArray> objects,
+            int numberOfBands,
+            Supplier<BoundariesScanner> scannerFactory,
+            Function<BoundariesScanner, B> bandFactory) {
+        Objects.requireNonNull(objects, "Null objects");
+        Objects.requireNonNull(scannerFactory, "Null scannerFactory");
+        Objects.requireNonNull(bandFactory, "Null bandFactory");
+        if (numberOfBands <= 0) {
+            throw new IllegalArgumentException("Zero or negative number of bands " + numberOfBands);
+        }
+        final long dimX = objects.dimX();
+        final long dimY = objects.dimY();
+        final List<B> result = new ArrayList<>(Collections.nCopies(numberOfBands, null));
+        IntStream.range(0, numberOfBands).parallel().forEach(k -> {
+            final long fromY = dimY * k / numberOfBands;
+            final long toY = dimY * (k + 1) / numberOfBands;
+            final BoundariesScanner scanner = scannerFactory.get();
+            final B band = bandFactory.apply(scanner);
+            final Boundary2DScanner boundaryScanner = scanner.getBoundaryScanner();
+            final MinYTracker tracker = new MinYTracker(scanner.getBoundaryMeasurer());
+            scanner.setBoundaryMeasurer(tracker);
+            if (fromY > 0 && dimX > 0) {
+                tracker.goTo(dimX - 1, fromY - 1, Boundary2DScanner.Side.X_PLUS);
+                // - the next position, checked by nextBoundary(), will be (0, fromY);
+                // if this position itself will be returned, it will be skipped by minY check
+            }
+            while (scanner.nextBoundary() && boundaryScanner.y() < toY) {
+                tracker.minY = boundaryScanner.y();
+                band.beforeBoundary();
+                final long sideCounter = scanner.sideCounter();
+                scanner.scanAndProcess();
+                final boolean analyse = tracker.minY >= fromY && scanner.needToAnalyseThisBoundary();
+                if (analyse) {
+                    band.objectCounter++;
+                    band.sideCounter += scanner.sideCounter() - sideCounter;
+                }
+                band.afterBoundary(scanner, analyse);
+            }
+            result.set(k, band);
+        });
+        return result;
+    }
+
+    static long objectCounter(List<? extends Band> bands) {
+        return bands.stream().mapToLong(band -> band.objectCounter).sum();
+    }
+
+    static long sideCounter(List<? extends Band> bands) {
+        return bands.stream().mapToLong(band -> band.sideCounter).sum();
+    }
+
+    private static final class MinYTracker extends Boundary2DWrapper {
+        private long minY = Long.MAX_VALUE;
+
+        private MinYTracker(Boundary2DScanner parent) {
+            super(parent);
+        }
+
+        @Override
+        public void next() {
+            super.next();
+            final long y = parent.y();
+            if (y < minY) {
+                minY = y;
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.objects.binary.boundaries;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * On-disk form of serialized contours (the <code>int[]</code> array, returned by
+ * <code>Contours.serialize()</code>).
+ *
+ * <p>The file starts with 8-byte signature "CONTOURS", followed by the format code (4 bytes) and the
+ * array length (4 bytes). In {@link #RAW} format, all elements follow as 32-bit big-endian integers.
+ * In {@link #DELTA_VARINT} format, every element is replaced with its difference from the element,
+ * located 2 positions before (usually the same coordinate of the previous point, which is little),
+ * and the differences are stored in zig-zag variable-length encoding (1 byte for |difference| &lt; 64).
+ * For pixel contours, it is usually several times smaller than the raw form.</p>
+ */
+public final class ContoursFileFormat {
+    public static final int RAW = 0;
+    public static final int DELTA_VARINT = 1;
+
+    private static final byte[] SIGNATURE = {'C', 'O', 'N', 'T', 'O', 'U', 'R', 'S'};
+    private static final int BUFFER_SIZE = 65536;
+
+    private ContoursFileFormat() {
+    }
+
+    public static void write(Path file, int[] serializedContours, boolean compressed) throws IOException {
+        Objects.requireNonNull(file, "Null file");
+        Objects.requireNonNull(serializedContours, "Null serialized contours");
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE))) {
+            output.write(SIGNATURE);
+            output.writeInt(compressed ? DELTA_VARINT : RAW);
+            output.writeInt(serializedContours.length);
+            if (compressed) {
+                for (int k = 0; k < serializedContours.length; k++) {
+                    final int delta = serializedContours[k] - (k >= 2 ? serializedContours[k - 2] : 0);
+                    // - overflow is not a problem: restored by the same int arithmetic
+                    writeVarInt(output, (delta << 1) ^ (delta >> 31));
+                }
+            } else {
+                for (int v : serializedContours) {
+                    output.writeInt(v);
+                }
+            }
+        }
+    }
+
+    public static int[] read(Path file) throws IOException {
+        Objects.requireNonNull(file, "Null file");
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            final byte[] signature = new byte[SIGNATURE.length];
+            input.readFully(signature);
+            if (!java.util.Arrays.equals(signature, SIGNATURE)) {
+                throw new IOException("Not a contours file: " + file);
+            }
+            final int format = input.readInt();
+            final int length = input.readInt();
+            if (length < 0) {
+                throw new IOException("Invalid contours file (negative length " + length + "): " + file);
+            }
+            final int[] result = new int[length];
+            switch (format) {
+                case RAW -> {
+                    for (int k = 0; k < length; k++) {
+                        result[k] = input.readInt();
+                    }
+                }
+                case DELTA_VARINT -> {
+                    for (int k = 0; k < length; k++) {
+                        final int zigZag = readVarInt(input);
+                        final int delta = (zigZag >>> 1) ^ -(zigZag & 1);
+                        result[k] = delta + (k >= 2 ? result[k - 2] : 0);
+                    }
+                }
+                default -> throw new IOException("Unsupported contours file format " + format + ": " + file);
+            }
+            return result;
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+
+    private static int readVarInt(DataInputStream input) throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final int b = input.readUnsignedByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Invalid variable-length integer in contours file");
+    }
+}
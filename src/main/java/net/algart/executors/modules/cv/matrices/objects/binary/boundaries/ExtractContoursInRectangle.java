@@ -158,7 +158,7 @@ public final class ExtractContoursInRectangle extends NumbersFilter implements R
         if (!doAction) {
             return source;
         }
-        final Contours contours = Contours.deserialize(source.toIntArray());
+        final Contours contours = SharedContours.get(source);
         final Contours result = Contours.newInstance();
         final Contours otherContours = Contours.newInstance();
         long x1 = left, y1 = top, x2 = right, y2 = bottom;
@@ -211,7 +211,7 @@ public final class ExtractContoursInRectangle extends NumbersFilter implements R
         if (otherContoursNecessary) {
             getNumbers(OUTPUT_OTHER_CONTOURS).setTo(otherContours);
         }
-        return resultNecessary ? SNumbers.of(result) : null;
+        return resultNecessary ? SharedContours.toNumbers(result) : null;
     }
 
     @Override
@@ -25,6 +25,8 @@
 package net.algart.executors.modules.cv.matrices.objects.binary.boundaries;
 
 import net.algart.arrays.Arrays;
+import net.algart.arrays.Matrix;
+import net.algart.arrays.UpdatablePArray;
 import net.algart.contours.ContourFiller;
 import net.algart.contours.Contours;
 import net.algart.executors.api.ReadOnlyExecutionInput;
@@ -39,6 +41,7 @@ import net.algart.multimatrix.MultiMatrix2D;
 
 import java.util.Locale;
 import java.util.Objects;
+import java.util.stream.IntStream;
 
 public final class FillContours extends MultiMatrix2DFilter implements ReadOnlyExecutionInput {
     public static final String RECTANGLE = "rectangle";
@@ -60,6 +63,7 @@ public final class FillContours extends MultiMatrix2DFilter implements ReadOnlyE
     private int sizeY = 1000;
     private IndexingBase indexingBase = IndexingBase.ONE_BASED;
     private Integer defaultFiller = null;
+    private boolean multithreadingBands = true;
 
     private final UnpackContours unpacker = new UnpackContours().setCacheLastContours(true);
 
@@ -176,6 +180,15 @@ public final class FillContours extends MultiMatrix2DFilter implements ReadOnlyE
         return this;
     }
 
+    public boolean isMultithreadingBands() {
+        return multithreadingBands;
+    }
+
+    public FillContours setMultithreadingBands(boolean multithreadingBands) {
+        this.multithreadingBands = multithreadingBands;
+        return this;
+    }
+
     @Override
     public MultiMatrix2D process(MultiMatrix2D background) {
         final SNumbers inputContours = getInputNumbers(INPUT_CONTOURS, !doAction);
@@ -195,7 +208,7 @@ public final class FillContours extends MultiMatrix2DFilter implements ReadOnlyE
             unpacker.setNeedToProcessDiagonals(needToProcessDiagonals);
             contours = unpacker.unpackContours(serializedContours);
         } else {
-            contours = Contours.deserialize(serializedContours);
+            contours = SharedContours.get(serializedContours);
         }
         getScalar(ScanAndMeasureBoundaries.OUTPUT_NUMBER_OF_OBJECTS).setTo(contours.numberOfContours());
         long t2 = debugTime();
@@ -212,38 +225,83 @@ public final class FillContours extends MultiMatrix2DFilter implements ReadOnlyE
         final int[] labelsMap = getInputNumbers(INPUT_LABELS_MAP, true).toIntArray();
 
         final MultiMatrix2D result;
-        final ContourFiller contourFiller = ContourFiller.newInstance(
-                        contours, elementType, startX, startY, sizeX, sizeY)
-                .setNeedToUnpack(!useUnpacker)
-                .setNeedToUnpackDiagonals(needToProcessDiagonals);
+        final int numberOfBands = multithreadingBands ? numberOfBands(sizeX, sizeY) : 1;
+        final long numberOfNecessaryContours;
         long t3 = debugTime(), t4;
         if (sizeX == 0 || sizeY == 0) {
             result = MultiMatrix.of2DMono(Arrays.SMM.newIntMatrix(sizeX, sizeY));
+            numberOfNecessaryContours = 0;
+            t4 = t3;
+        } else if (numberOfBands > 1) {
+            final Matrix<? extends UpdatablePArray> labels = Arrays.SMM.newMatrix(
+                    UpdatablePArray.class, elementType, sizeX, sizeY);
+            final long[] counts = new long[numberOfBands];
             t4 = t3;
+            IntStream.range(0, numberOfBands).parallel().forEach(k -> {
+                final long fromY = sizeY * k / numberOfBands;
+                final long toY = sizeY * (k + 1) / numberOfBands;
+                final ContourFiller bandFiller = newContourFiller(
+                        contours, useUnpacker, labelsMap, startX, startY + fromY, sizeX, toY - fromY);
+                bandFiller.findAndSortNecessaryContours();
+                bandFiller.fillNecessaryContours();
+                labels.subMatr(0, fromY, sizeX, toY - fromY).array().copy(bandFiller.getLabels().array());
+                counts[k] = bandFiller.numberOfNecessaryContours();
+            });
+            numberOfNecessaryContours = java.util.Arrays.stream(counts).sum();
+            result = MultiMatrix.of2DMono(labels);
         } else {
-            contourFiller.setLabelsMap(labelsMap);
-            contourFiller.setIndexingBase(indexingBase.start);
-            if (defaultFiller != null) {
-                final int filler = defaultFiller;
-                contourFiller.setLabelToFillerDefault(label -> filler);
-            }
+            final ContourFiller contourFiller = newContourFiller(
+                    contours, useUnpacker, labelsMap, startX, startY, sizeX, sizeY);
             contourFiller.findAndSortNecessaryContours();
             t4 = debugTime();
             contourFiller.fillNecessaryContours();
+            numberOfNecessaryContours = contourFiller.numberOfNecessaryContours();
             result = MultiMatrix.of2DMono(contourFiller.getLabels());
         }
         long t5 = debugTime();
         logDebug(() -> String.format(Locale.US,
-                "Filling %d contours from %d total contours in %.3f ms = "
+                "Filling %d contours from %d total contours%s in %.3f ms = "
                         + "%.3f %s + %.3f creating filler + %.3f preparing + %.3f filling",
-                contourFiller.numberOfNecessaryContours(),
+                numberOfNecessaryContours,
                 contours.numberOfContours(),
+                numberOfBands > 1 ? " by " + numberOfBands + " bands" : "",
                 (t5 - t1) * 1e-6,
                 (t2 - t1) * 1e-6, useUnpacker ? "cached unpacking" : "loading",
                 (t3 - t2) * 1e-6, (t4 - t3) * 1e-6, (t5 - t4) * 1e-6));
         return result;
     }
 
+    private ContourFiller newContourFiller(
+            Contours contours,
+            boolean unpacked,
+            int[] labelsMap,
+            long startX,
+            long startY,
+            long sizeX,
+            long sizeY) {
+        final ContourFiller contourFiller = ContourFiller.newInstance(
+                        contours, elementType, startX, startY, sizeX, sizeY)
+                .setNeedToUnpack(!unpacked)
+                .setNeedToUnpackDiagonals(needToProcessDiagonals);
+        contourFiller.setLabelsMap(labelsMap);
+        contourFiller.setIndexingBase(indexingBase.start);
+        if (defaultFiller != null) {
+            final int filler = defaultFiller;
+            contourFiller.setLabelToFillerDefault(label -> filler);
+        }
+        return contourFiller;
+    }
+
+    // Every band is filled by its own ContourFiller, which finds all contours intersecting the band;
+    // filling is local (every pixel depends only on the contours containing it), so the result is the same
+    private static int numberOfBands(long sizeX, long sizeY) {
+        long result = Math.min(
+                sizeY / BandedBoundariesScanning.MIN_BAND_HEIGHT,
+                sizeX * sizeY / BandedBoundariesScanning.MIN_BAND_SIZE);
+        result = Math.min(result, Arrays.SystemSettings.cpuCount());
+        return (int) Math.max(result, 1);
+    }
+
     @Override
     protected boolean allowUninitializedInput() {
         return true;
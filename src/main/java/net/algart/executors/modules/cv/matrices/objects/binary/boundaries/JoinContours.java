@@ -118,7 +118,7 @@ public final class JoinContours extends NumbersFilter implements ReadOnlyExecuti
 
     @Override
     protected SNumbers processNumbers(SNumbers source) {
-        final Contours contours = Contours.deserialize(source.toIntArray());
+        final Contours contours = SharedContours.get(source);
         final int[] joinedLabelsMap = joiningMap();
         if (joinedLabelsMap == null && defaultJoinedLabel == null) {
             throw new IllegalArgumentException("The port \"" + INPUT_JOINING_MAP + "\" has no initialized data; "
@@ -145,7 +145,7 @@ public final class JoinContours extends NumbersFilter implements ReadOnlyExecuti
             }
         }
         getScalar(ScanAndMeasureBoundaries.OUTPUT_NUMBER_OF_OBJECTS).setTo(result.numberOfContours());
-        return SNumbers.of(result);
+        return SharedContours.toNumbers(result);
     }
 
     private int[] joiningMap() {
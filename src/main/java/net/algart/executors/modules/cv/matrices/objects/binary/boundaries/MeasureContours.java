@@ -102,7 +102,7 @@ public final class MeasureContours extends Executor implements ReadOnlyExecution
 
     @Override
     public void process() {
-        final Contours contours = Contours.deserialize(getInputNumbers(INPUT_CONTOURS).toIntArray());
+        final Contours contours = SharedContours.get(getInputNumbers(INPUT_CONTOURS));
         getScalar(ScanAndMeasureBoundaries.OUTPUT_NUMBER_OF_OBJECTS).setTo(contours.numberOfContours());
         long t1 = debugTime();
         String additionalTiming = "";
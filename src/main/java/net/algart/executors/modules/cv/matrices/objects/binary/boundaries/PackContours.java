@@ -41,9 +41,9 @@ public final class PackContours extends NumbersFilter implements ReadOnlyExecuti
 
     @Override
     protected SNumbers processNumbers(SNumbers source) {
-        final Contours contours = Contours.deserialize(source.toIntArray());
+        final Contours contours = SharedContours.get(source);
         final Contours result = contours.packContours();
         getScalar(ScanAndMeasureBoundaries.OUTPUT_NUMBER_OF_OBJECTS).setTo(result.numberOfContours());
-        return SNumbers.of(result);
+        return SharedContours.toNumbers(result);
     }
 }
@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.objects.binary.boundaries;
+
+import net.algart.executors.api.ReadOnlyExecutionInput;
+import net.algart.executors.api.data.SNumbers;
+import net.algart.executors.modules.core.common.io.FileOperation;
+
+import java.io.IOError;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+public final class ReadContours extends FileOperation implements ReadOnlyExecutionInput {
+    public static final String OUTPUT_CONTOURS = "contours";
+
+    public ReadContours() {
+        addFileOperationPorts();
+        addInputNumbers(DEFAULT_INPUT_PORT);
+        addOutputNumbers(OUTPUT_CONTOURS);
+        addOutputScalar(ScanAndMeasureBoundaries.OUTPUT_NUMBER_OF_OBJECTS);
+    }
+
+    @Override
+    public ReadContours setFile(String file) {
+        super.setFile(file);
+        return this;
+    }
+
+    @Override
+    public void process() {
+        final SNumbers input = getInputNumbers(defaultInputPortName(), true);
+        if (input.isInitialized()) {
+            logDebug(() -> "Copying " + input);
+            getNumbers(OUTPUT_CONTOURS).setTo(input);
+        } else {
+            getNumbers(OUTPUT_CONTOURS).setTo(readContours(), 1);
+        }
+        if (isOutputNecessary(ScanAndMeasureBoundaries.OUTPUT_NUMBER_OF_OBJECTS)) {
+            getScalar(ScanAndMeasureBoundaries.OUTPUT_NUMBER_OF_OBJECTS).setTo(
+                    SharedContours.get(getNumbers(OUTPUT_CONTOURS)).numberOfContours());
+        }
+    }
+
+    public int[] readContours() {
+        final Path file = completeFilePath().toAbsolutePath();
+        logDebug(() -> "Reading serialized contours from " + file);
+        long t1 = debugTime();
+        final int[] result;
+        try {
+            result = ContoursFileFormat.read(file);
+        } catch (IOException e) {
+            throw new IOError(e);
+        }
+        long t2 = debugTime();
+        logDebug(() -> String.format(Locale.US, "%d elements of serialized contours read from %s in %.3f ms",
+                result.length, file, (t2 - t1) * 1e-6));
+        return result;
+    }
+}
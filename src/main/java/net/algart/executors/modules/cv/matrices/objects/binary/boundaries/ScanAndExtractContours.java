@@ -36,6 +36,8 @@ import net.algart.matrices.scanning.ConnectivityType;
 import net.algart.matrices.scanning.ContourLineType;
 import net.algart.multimatrix.MultiMatrix;
 
+import java.util.List;
+
 public final class ScanAndExtractContours extends MultiMatrixToNumbers {
     public static final String INPUT_OBJECTS = AbstractScanAndMeasureBoundaries.INPUT_OBJECTS;
     public static final String INPUT_POSITION = "position";
@@ -56,6 +58,7 @@ public final class ScanAndExtractContours extends MultiMatrixToNumbers {
     private int startX = 0;
     private int startY = 0;
     private boolean optimizeCollinearSteps = false;
+    private boolean multithreadingBands = true;
 
     public ScanAndExtractContours() {
         useVisibleResultParameter();
@@ -135,6 +138,15 @@ public final class ScanAndExtractContours extends MultiMatrixToNumbers {
         return this;
     }
 
+    public boolean isMultithreadingBands() {
+        return multithreadingBands;
+    }
+
+    public ScanAndExtractContours setMultithreadingBands(boolean multithreadingBands) {
+        this.multithreadingBands = multithreadingBands;
+        return this;
+    }
+
     @Override
     public SNumbers analyse(MultiMatrix source) {
         final SNumbers position = getInputNumbers(INPUT_POSITION, true);
@@ -153,43 +165,120 @@ public final class ScanAndExtractContours extends MultiMatrixToNumbers {
         final long startX = originPoint == null ? this.startX : originPoint.x();
         final long startY = originPoint == null ? this.startY : originPoint.y();
         final boolean resultLabelsRequired = isOutputNecessary(AbstractScanAndMeasureBoundaries.OUTPUT_LABELS);
-        final MutableIntArray objectLabelArray = Arrays.SMM.newEmptyIntArray();
-        final MutableBitArray internalBoundaryFlags = Arrays.SMM.newEmptyBitArray();
-        final MutableLongArray strictArea = Arrays.SMM.newEmptyLongArray();
-        final MutableDoubleArray segmentCentersArea = Arrays.SMM.newEmptyDoubleArray();
-        final MutableIntArray contourLength = Arrays.SMM.newEmptyIntArray();
-        final MutableDoubleArray segmentCentersPerimeter = Arrays.SMM.newEmptyDoubleArray();
-        final BoundariesScanner scanner = new BoundariesScanner(
-                objects,
-                getConnectivityType(),
-                getBoundaryType(),
-                false,
-                resultLabelsRequired,
-                Long.MAX_VALUE);
-        final Boundary2DScanner boundaryScanner = scanner.getBoundaryScanner();
-        final Contours contours = Contours.newInstance().setOptimizeCollinearSteps(optimizeCollinearSteps);
-        scanner.setBoundaryMeasurer(new Boundary2DWrapper(boundaryScanner) {
-            @Override
-            public void next() {
-                super.next();
-                contours.addPoint(parent, startX, startY);
+        final int numberOfBands = multithreadingBands && !resultLabelsRequired ?
+                BandedBoundariesScanning.numberOfBands(objects, false) :
+                1;
+        final ContoursCollector collector;
+        final BoundariesScanner scanner;
+        if (numberOfBands > 1) {
+            final List<ContoursCollector> bands = BandedBoundariesScanning.scan(
+                    objects,
+                    numberOfBands,
+                    () -> new BoundariesScanner(objects, getConnectivityType(), getBoundaryType(), false),
+                    bandScanner -> new ContoursCollector(bandScanner, startX, startY));
+            collector = joinCollectors(bands);
+            scanner = null;
+            logDebug(() -> "Scanned " + collector.objectCounter + " contours, "
+                    + collector.sideCounter + " pixel sides in " + numberOfBands + " bands");
+        } else {
+            scanner = new BoundariesScanner(
+                    objects,
+                    getConnectivityType(),
+                    getBoundaryType(),
+                    false,
+                    resultLabelsRequired,
+                    Long.MAX_VALUE);
+            collector = new ContoursCollector(scanner, startX, startY);
+            while (scanner.nextBoundary()) {
+                collector.beforeBoundary();
+                scanner.scanAndProcess();
+                collector.afterBoundary(scanner, scanner.needToAnalyseThisBoundary());
             }
-        });
-        scanner.setProcessBackgroundAsObject(getObjectsInterpretation().processBackgroundAsObject());
-        ContourHeader header = new ContourHeader();
-        if (frameId != null) {
-            header.setFrameId(frameId);
+            collector.objectCounter = scanner.objectCounter();
+            collector.sideCounter = scanner.sideCounter();
+            logDebug(() -> "Scanned " + scanner.objectCounter() + " contours, "
+                    + scanner.sideCounter() + " pixel sides");
+        }
+        ScanAndMeasureBoundaries.uploadSimpleOutputs(
+                this, collector.objectCounter, collector.objectLabelArray, collector.internalBoundaryFlags);
+        if (resultLabelsRequired) {
+            getMat(AbstractScanAndMeasureBoundaries.OUTPUT_LABELS).setTo(ScanAndMeasureBoundaries.getLabels(scanner));
+        }
+        if (isOutputNecessary(OUTPUT_STRICT_AREA)) {
+            getNumbers(OUTPUT_STRICT_AREA).setTo(collector.strictArea, 1);
         }
-        while (scanner.nextBoundary()) {
+        if (isOutputNecessary(OUTPUT_SEGMENT_CENTERS_AREA)) {
+            getNumbers(OUTPUT_SEGMENT_CENTERS_AREA).setTo(collector.segmentCentersArea, 1);
+        }
+        if (isOutputNecessary(OUTPUT_STRICT_PERIMETER)) {
+            getNumbers(OUTPUT_STRICT_PERIMETER).setTo(collector.contourLength, 1);
+        }
+        if (isOutputNecessary(OUTPUT_SEGMENT_CENTERS_PERIMETER)) {
+            getNumbers(OUTPUT_SEGMENT_CENTERS_PERIMETER).setTo(collector.segmentCentersPerimeter, 1);
+        }
+        return SharedContours.toNumbers(collector.contours);
+    }
+
+    private ContoursCollector joinCollectors(List<ContoursCollector> bands) {
+        final ContoursCollector result = new ContoursCollector();
+        for (ContoursCollector band : bands) {
+            result.contours.addContours(band.contours);
+            result.objectLabelArray.append(band.objectLabelArray);
+            result.internalBoundaryFlags.append(band.internalBoundaryFlags);
+            result.strictArea.append(band.strictArea);
+            result.segmentCentersArea.append(band.segmentCentersArea);
+            result.contourLength.append(band.contourLength);
+            result.segmentCentersPerimeter.append(band.segmentCentersPerimeter);
+            result.objectCounter += band.objectCounter;
+            result.sideCounter += band.sideCounter;
+        }
+        return result;
+    }
+
+    private final class ContoursCollector extends BandedBoundariesScanning.Band {
+        private final Contours contours = Contours.newInstance().setOptimizeCollinearSteps(optimizeCollinearSteps);
+        private final ContourHeader header = new ContourHeader();
+        private final Boundary2DScanner boundaryScanner;
+        private final MutableIntArray objectLabelArray = Arrays.SMM.newEmptyIntArray();
+        private final MutableBitArray internalBoundaryFlags = Arrays.SMM.newEmptyBitArray();
+        private final MutableLongArray strictArea = Arrays.SMM.newEmptyLongArray();
+        private final MutableDoubleArray segmentCentersArea = Arrays.SMM.newEmptyDoubleArray();
+        private final MutableIntArray contourLength = Arrays.SMM.newEmptyIntArray();
+        private final MutableDoubleArray segmentCentersPerimeter = Arrays.SMM.newEmptyDoubleArray();
+
+        private ContoursCollector() {
+            this.boundaryScanner = null;
+        }
+
+        private ContoursCollector(BoundariesScanner scanner, long startX, long startY) {
+            this.boundaryScanner = scanner.getBoundaryScanner();
+            scanner.setBoundaryMeasurer(new Boundary2DWrapper(boundaryScanner) {
+                @Override
+                public void next() {
+                    super.next();
+                    contours.addPoint(parent, startX, startY);
+                }
+            });
+            scanner.setProcessBackgroundAsObject(getObjectsInterpretation().processBackgroundAsObject());
+            if (frameId != null) {
+                header.setFrameId(frameId);
+            }
+        }
+
+        @Override
+        void beforeBoundary() {
             contours.openContourForAdding(header);
-            scanner.scanAndProcess();
+        }
+
+        @Override
+        void afterBoundary(BoundariesScanner scanner, boolean analyse) {
             final long stepCount = boundaryScanner.stepCount();
             assert stepCount == (int) stepCount : "Contour2DArray.closeContour did not step count";
             header.setObjectLabel(scanner.currentLabel());
             // - important: scanner's current label is set only in scanAndProcess()!
             header.setInternalContour(boundaryScanner.orientedArea() < 0);
             contours.closeContour(header);
-            if (scanner.needToAnalyseThisBoundary()) {
+            if (analyse) {
                 objectLabelArray.addInt(scanner.currentLabel());
                 internalBoundaryFlags.addBit(scanner.internalBoundary());
                 strictArea.addLong(boundaryScanner.orientedArea());
@@ -201,24 +290,5 @@ public final class ScanAndExtractContours extends MultiMatrixToNumbers {
                 contours.removeLastContour();
             }
         }
-        ScanAndMeasureBoundaries.uploadSimpleOutputs(this, scanner, objectLabelArray, internalBoundaryFlags);
-        logDebug(() -> "Scanned " + scanner.objectCounter() + " contours, "
-                + scanner.sideCounter() + " pixel sides");
-        if (resultLabelsRequired) {
-            getMat(AbstractScanAndMeasureBoundaries.OUTPUT_LABELS).setTo(ScanAndMeasureBoundaries.getLabels(scanner));
-        }
-        if (isOutputNecessary(OUTPUT_STRICT_AREA)) {
-            getNumbers(OUTPUT_STRICT_AREA).setTo(strictArea, 1);
-        }
-        if (isOutputNecessary(OUTPUT_SEGMENT_CENTERS_AREA)) {
-            getNumbers(OUTPUT_SEGMENT_CENTERS_AREA).setTo(segmentCentersArea, 1);
-        }
-        if (isOutputNecessary(OUTPUT_STRICT_PERIMETER)) {
-            getNumbers(OUTPUT_STRICT_PERIMETER).setTo(contourLength, 1);
-        }
-        if (isOutputNecessary(OUTPUT_SEGMENT_CENTERS_PERIMETER)) {
-            getNumbers(OUTPUT_SEGMENT_CENTERS_PERIMETER).setTo(segmentCentersPerimeter, 1);
-        }
-        return SNumbers.of(contours);
     }
 }
@@ -33,6 +33,7 @@ import net.algart.multimatrix.MultiMatrix;
 import net.algart.multimatrix.MultiMatrix2D;
 
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -64,6 +65,8 @@ public final class ScanAndMeasureBoundaries extends AbstractScanAndMeasureBounda
         OUTPUT_STATISTICS.put(OUTPUT_NESTING_LEVEL, BoundaryParameter.NESTING_LEVEL);
     }
 
+    private boolean multithreadingBands = true;
+
     public ScanAndMeasureBoundaries() {
         for (String port : OUTPUT_STATISTICS.keySet()) {
             addOutputNumbers(port);
@@ -73,6 +76,14 @@ public final class ScanAndMeasureBoundaries extends AbstractScanAndMeasureBounda
         addOutputScalar(OUTPUT_NUMBER_OF_OBJECTS);
     }
 
+    public boolean isMultithreadingBands() {
+        return multithreadingBands;
+    }
+
+    public void setMultithreadingBands(boolean multithreadingBands) {
+        this.multithreadingBands = multithreadingBands;
+    }
+
     @Override
     public MultiMatrix2D process(MultiMatrix2D source) {
         final Map<BoundaryParameter, SNumbers> resultStatistics = convertMap(
@@ -89,11 +100,17 @@ public final class ScanAndMeasureBoundaries extends AbstractScanAndMeasureBounda
             final boolean resultLabelsRequired) {
         final Set<BoundaryParameter> parameters = resultStatistics.keySet();
         BoundaryParameter[] parametersArray = parameters.toArray(new BoundaryParameter[0]);
-        MutablePNumberArray[] statisticsArray = new MutablePNumberArray[resultStatistics.size()];
-        for (int k = 0; k < parametersArray.length; k++) {
-            statisticsArray[k] = parametersArray[k] == BoundaryParameter.NESTING_LEVEL ?
-                    Arrays.SMM.newIntArray(0) : Arrays.SMM.newFloatArray(0);
+        final int numberOfBands = multithreadingBands
+                && !resultLabelsRequired
+                && !BoundaryParameter.needSecondBuffer(parameters) ?
+                BandedBoundariesScanning.numberOfBands(objects, false) :
+                1;
+        // - nesting level and labels depend on all previously scanned boundaries and require sequential scanning
+        if (numberOfBands > 1) {
+            analyseByBands(resultStatistics, objects, parametersArray, numberOfBands);
+            return null;
         }
+        MutablePNumberArray[] statisticsArray = newStatisticsArrays(parametersArray);
         final MutableIntArray objectLabelArray = Arrays.SMM.newEmptyIntArray();
         final MutableBitArray internalBoundaryFlags = Arrays.SMM.newEmptyBitArray();
         final BoundariesScanner scanner = new BoundariesScanner(
@@ -103,12 +120,7 @@ public final class ScanAndMeasureBoundaries extends AbstractScanAndMeasureBounda
                 BoundaryParameter.needSecondBuffer(parameters),
                 resultLabelsRequired,
                 getMaxLabelLevelOrMaxValue());
-        final Boundary2DSimpleMeasurer measurer = Boundary2DSimpleMeasurer.getInstance(
-                scanner.getBoundaryScanner(),
-                getContourLineType(),
-                BoundaryParameter.objectParameters(parameters));
-        scanner.setBoundaryMeasurer(measurer);
-        scanner.setProcessBackgroundAsObject(getObjectsInterpretation().processBackgroundAsObject());
+        final Boundary2DSimpleMeasurer measurer = newMeasurer(scanner, parameters);
         while (scanner.nextBoundary()) {
             scanner.scanAndProcess();
             if (scanner.needToAnalyseThisBoundary()) {
@@ -123,11 +135,7 @@ public final class ScanAndMeasureBoundaries extends AbstractScanAndMeasureBounda
         logDebug(() -> "Scanned " + scanner.objectCounter() + " boundaries, "
                 + scanner.sideCounter() + " pixel sides "
                 + "for calculating " + parametersArray.length + " parameters " + parameters + " at " + objects);
-        for (int k = 0; k < parametersArray.length; k++) {
-            final BoundaryParameter p = parametersArray[k];
-            final int blockLength = p.parameterLength();
-            resultStatistics.get(p).setTo(statisticsArray[k], blockLength);
-        }
+        setStatisticsResults(resultStatistics, parametersArray, statisticsArray);
         return getLabels(scanner);
     }
 
@@ -136,6 +144,14 @@ public final class ScanAndMeasureBoundaries extends AbstractScanAndMeasureBounda
             BoundariesScanner scanner,
             IntArray objectLabelArray,
             BitArray internalBoundaryFlags) {
+        uploadSimpleOutputs(executor, scanner.objectCounter(), objectLabelArray, internalBoundaryFlags);
+    }
+
+    static void uploadSimpleOutputs(
+            Executor executor,
+            long numberOfObjects,
+            IntArray objectLabelArray,
+            BitArray internalBoundaryFlags) {
         if (executor.isOutputNecessary(OUTPUT_OBJECT_LABEL)) {
             executor.getNumbers(OUTPUT_OBJECT_LABEL).setTo(objectLabelArray, 1);
         }
@@ -143,7 +159,7 @@ public final class ScanAndMeasureBoundaries extends AbstractScanAndMeasureBounda
             executor.getNumbers(OUTPUT_INTERNAL_BOUNDARY).setTo(Arrays.asFuncArray(
                     Func.IDENTITY, ByteArray.class, internalBoundaryFlags), 1);
         }
-        executor.getScalar(OUTPUT_NUMBER_OF_OBJECTS).setTo(scanner.objectCounter());
+        executor.getScalar(OUTPUT_NUMBER_OF_OBJECTS).setTo(numberOfObjects);
     }
 
     static MultiMatrix2D getLabels(BoundariesScanner scanner) {
@@ -151,6 +167,90 @@ public final class ScanAndMeasureBoundaries extends AbstractScanAndMeasureBounda
         return labels == null ? null : MultiMatrix.of2DMono(labels);
     }
 
+    private void analyseByBands(
+            Map<BoundaryParameter, SNumbers> resultStatistics,
+            Matrix<? extends PFixedArray> objects,
+            BoundaryParameter[] parametersArray,
+            int numberOfBands) {
+        final Set<BoundaryParameter> parameters = resultStatistics.keySet();
+        final List<MeasuringBand> bands = BandedBoundariesScanning.scan(
+                objects,
+                numberOfBands,
+                () -> new BoundariesScanner(objects, getConnectivityType(), getBoundaryType(), false),
+                scanner -> new MeasuringBand(parametersArray, newMeasurer(scanner, parameters)));
+        final MutablePNumberArray[] statisticsArray = newStatisticsArrays(parametersArray);
+        final MutableIntArray objectLabelArray = Arrays.SMM.newEmptyIntArray();
+        final MutableBitArray internalBoundaryFlags = Arrays.SMM.newEmptyBitArray();
+        for (MeasuringBand band : bands) {
+            objectLabelArray.append(band.objectLabelArray);
+            internalBoundaryFlags.append(band.internalBoundaryFlags);
+            for (int k = 0; k < parametersArray.length; k++) {
+                statisticsArray[k].append(band.statisticsArray[k]);
+            }
+        }
+        final long objectCounter = BandedBoundariesScanning.objectCounter(bands);
+        uploadSimpleOutputs(this, objectCounter, objectLabelArray, internalBoundaryFlags);
+        logDebug(() -> "Scanned " + objectCounter + " boundaries, "
+                + BandedBoundariesScanning.sideCounter(bands) + " pixel sides in " + numberOfBands + " bands "
+                + "for calculating " + parametersArray.length + " parameters " + parameters + " at " + objects);
+        setStatisticsResults(resultStatistics, parametersArray, statisticsArray);
+    }
+
+    private Boundary2DSimpleMeasurer newMeasurer(BoundariesScanner scanner, Set<BoundaryParameter> parameters) {
+        final Boundary2DSimpleMeasurer measurer = Boundary2DSimpleMeasurer.getInstance(
+                scanner.getBoundaryScanner(),
+                getContourLineType(),
+                BoundaryParameter.objectParameters(parameters));
+        scanner.setBoundaryMeasurer(measurer);
+        scanner.setProcessBackgroundAsObject(getObjectsInterpretation().processBackgroundAsObject());
+        return measurer;
+    }
+
+    private static MutablePNumberArray[] newStatisticsArrays(BoundaryParameter[] parametersArray) {
+        MutablePNumberArray[] statisticsArray = new MutablePNumberArray[parametersArray.length];
+        for (int k = 0; k < parametersArray.length; k++) {
+            statisticsArray[k] = parametersArray[k] == BoundaryParameter.NESTING_LEVEL ?
+                    Arrays.SMM.newIntArray(0) : Arrays.SMM.newFloatArray(0);
+        }
+        return statisticsArray;
+    }
+
+    private static void setStatisticsResults(
+            Map<BoundaryParameter, SNumbers> resultStatistics,
+            BoundaryParameter[] parametersArray,
+            MutablePNumberArray[] statisticsArray) {
+        for (int k = 0; k < parametersArray.length; k++) {
+            final BoundaryParameter p = parametersArray[k];
+            final int blockLength = p.parameterLength();
+            resultStatistics.get(p).setTo(statisticsArray[k], blockLength);
+        }
+    }
+
+    private final class MeasuringBand extends BandedBoundariesScanning.Band {
+        private final BoundaryParameter[] parametersArray;
+        private final Boundary2DSimpleMeasurer measurer;
+        private final MutablePNumberArray[] statisticsArray;
+        private final MutableIntArray objectLabelArray = Arrays.SMM.newEmptyIntArray();
+        private final MutableBitArray internalBoundaryFlags = Arrays.SMM.newEmptyBitArray();
+
+        private MeasuringBand(BoundaryParameter[] parametersArray, Boundary2DSimpleMeasurer measurer) {
+            this.parametersArray = parametersArray;
+            this.measurer = measurer;
+            this.statisticsArray = newStatisticsArrays(parametersArray);
+        }
+
+        @Override
+        void afterBoundary(BoundariesScanner scanner, boolean analyse) {
+            if (analyse) {
+                objectLabelArray.addInt(scanner.currentLabel());
+                internalBoundaryFlags.addBit(scanner.internalBoundary());
+                for (int k = 0; k < parametersArray.length; k++) {
+                    parametersArray[k].getStatistics(statisticsArray[k], measurer, getPixelSize());
+                }
+            }
+        }
+    }
+
     private static Map<BoundaryParameter, SNumbers> convertMap(Map<String, SNumbers> statistics) {
         Map<BoundaryParameter, SNumbers> result = new LinkedHashMap<>();
         statistics.forEach((s, numbers) -> {
@@ -0,0 +1,128 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.objects.binary.boundaries;
+
+import net.algart.arrays.Arrays;
+import net.algart.contours.Contours;
+import net.algart.executors.api.data.SNumbers;
+import net.algart.executors.modules.cv.matrices.misc.ArrayContentCache;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared deserialized contours, passed through <code>SNumbers</code> ports.
+ *
+ * <p>Contours travel between executors as serialized <code>int[]</code> arrays. Usually the same Java array
+ * is passed by reference from the output port of one executor to the input ports of the following ones,
+ * so we can deserialize it at most once: this class maps every such array (by identity) to the
+ * {@link Contours} object, built from it or serialized into it, in {@link ArrayContentCache}.</p>
+ *
+ * <p>Every found object is compared with the current content of the array by
+ * {@link Contours#equalsToSerialized(int[])}, so neither modification of the array in place,
+ * nor modification of the returned contours can lead to stale results: in this case, the array is just
+ * deserialized again. Still, returned {@link Contours} objects are shared between all executors, using
+ * the same array, and can be used by them at the same time, so they are intended <b>for reading only</b>.
+ * Executors that need to modify contours must call {@link Contours#deserialize(int[])} themselves.</p>
+ */
+public final class SharedContours {
+    /**
+     * Maximal summary memory (in bytes) of shared contours.
+     */
+    public static final String CACHE_MAX_MEMORY_PROPERTY_NAME =
+            "net.algart.executors.modules.cv.sharedContoursCacheMemory";
+
+    private static final System.Logger LOG = System.getLogger(SharedContours.class.getName());
+
+    private record Entry(Contours contours, long creationTime) {
+    }
+
+    private static final ArrayContentCache<Entry> CACHE = ArrayContentCache.newInstance(
+            Arrays.SystemSettings.getLongProperty(
+                    CACHE_MAX_MEMORY_PROPERTY_NAME, 256L * 1048576L),
+            (array, entry) -> entry.contours.equalsToSerialized((int[]) array));
+    private static final AtomicLong NUMBER_OF_HITS = new AtomicLong();
+    private static final AtomicLong SAVED_TIME = new AtomicLong();
+
+    private SharedContours() {
+    }
+
+    public static Contours get(SNumbers serializedContours) {
+        Objects.requireNonNull(serializedContours, "Null serialized contours");
+        return get(serializedContours.toIntArrayOrReference());
+        // - reference: necessary to find the same array
+    }
+
+    public static Contours get(int[] serializedContours) {
+        Objects.requireNonNull(serializedContours, "Null serialized contours");
+        final Entry entry = CACHE.get(serializedContours);
+        if (entry != null) {
+            final long hits = NUMBER_OF_HITS.incrementAndGet();
+            final long saved = SAVED_TIME.addAndGet(entry.creationTime);
+            LOG.log(System.Logger.Level.DEBUG, () -> String.format(Locale.US,
+                    "Shared %d contours: deserialization skipped, ~%.3f ms saved "
+                            + "(totally ~%.3f ms saved in %d hits)",
+                    entry.contours.numberOfContours(), entry.creationTime * 1e-6, saved * 1e-6, hits));
+            return entry.contours;
+        }
+        final long t1 = System.nanoTime();
+        final Contours contours = Contours.deserialize(serializedContours);
+        final long t2 = System.nanoTime();
+        register(serializedContours, contours, t2 - t1);
+        return contours;
+    }
+
+    /**
+     * Serializes contours and registers the result, so that the following executors,
+     * receiving the same array, will not deserialize it again.
+     *
+     * @param contours contours (usually the result of some executor).
+     * @return serialized contours.
+     */
+    public static SNumbers toNumbers(Contours contours) {
+        Objects.requireNonNull(contours, "Null contours");
+        final long t1 = System.nanoTime();
+        final SNumbers result = SNumbers.of(contours);
+        final long t2 = System.nanoTime();
+        register(result.toIntArrayOrReference(), contours, t2 - t1);
+        // - serialization time is a good estimate of the time of deserialization
+        return result;
+    }
+
+    public static long numberOfHits() {
+        return NUMBER_OF_HITS.get();
+    }
+
+    public static long savedTimeInNanoseconds() {
+        return SAVED_TIME.get();
+    }
+
+    private static void register(int[] serializedContours, Contours contours, long creationTime) {
+        CACHE.put(serializedContours, new Entry(contours, creationTime), 4L * serializedContours.length);
+        // - deserialized contours occupy approximately the same memory as the serialized array
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.objects.binary.boundaries;
+
+import net.algart.executors.api.ReadOnlyExecutionInput;
+import net.algart.executors.api.data.SNumbers;
+import net.algart.executors.modules.core.common.io.WriteFileOperation;
+
+import java.io.IOError;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+public final class WriteContours extends WriteFileOperation implements ReadOnlyExecutionInput {
+    public static final String INPUT_CONTOURS = "contours";
+
+    private boolean requireInput = false;
+    private boolean compressed = true;
+
+    public WriteContours() {
+        addFileOperationPorts();
+        addInputNumbers(INPUT_CONTOURS);
+    }
+
+    @Override
+    public WriteContours setFile(String file) {
+        super.setFile(file);
+        return this;
+    }
+
+    public boolean requireInput() {
+        return requireInput;
+    }
+
+    public WriteContours setRequireInput(boolean requireInput) {
+        this.requireInput = requireInput;
+        return this;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    public WriteContours setCompressed(boolean compressed) {
+        this.compressed = compressed;
+        return this;
+    }
+
+    @Override
+    public void process() {
+        final SNumbers contours = getInputNumbers(INPUT_CONTOURS, !requireInput);
+        if (contours.isInitialized()) {
+            writeContours(contours.toIntArrayOrReference());
+        }
+    }
+
+    public void writeContours(int[] serializedContours) {
+        final Path file = completeFilePath().toAbsolutePath();
+        logDebug(() -> "Writing " + serializedContours.length + " elements of serialized contours to "
+                + (compressed ? "compressed " : "") + "file " + file);
+        long t1 = debugTime();
+        try {
+            ContoursFileFormat.write(file, serializedContours, compressed);
+        } catch (IOException e) {
+            throw new IOError(e);
+        }
+        long t2 = debugTime();
+        logDebug(() -> String.format(Locale.US, "%s written in %.3f ms", file, (t2 - t1) * 1e-6));
+    }
+}
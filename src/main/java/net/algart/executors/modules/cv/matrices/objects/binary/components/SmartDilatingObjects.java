@@ -126,7 +126,25 @@ public final class SmartDilatingObjects extends SeveralMultiMatricesOperation {
                 null :
                 unlikely.zeroAllChannels().clone();
         // - zeroAllChannels actually means "NOT" for binary matrix
-
+        return processBinary(surely, maybe, possibleInPrinciple);
+    }
+
+    /**
+     * Equivalent of {@link #process(MultiMatrix2D, MultiMatrix2D, MultiMatrix2D)} for already prepared
+     * monochrome bit matrices, which are used without cloning.
+     * Note that the last argument is <i>NOT</i> unlikely: it is the set of pixels, that are possible in principle.
+     *
+     * @param surely              binary matrix of pixels, that surely belong to the objects.
+     * @param maybe               binary matrix of pixels with less probability to be objects.
+     * @param possibleInPrinciple binary inverted "unlikely" matrix; may be {@code null}.
+     * @return resulting binary matrix.
+     */
+    public MultiMatrix2D processBinary(
+            MultiMatrix2D surely,
+            MultiMatrix2D maybe,
+            MultiMatrix2D possibleInPrinciple) {
+        Objects.requireNonNull(surely, "Null surely matrix");
+        Objects.requireNonNull(maybe, "Null maybe matrix");
         final StrictMorphology morphology = new StrictMorphology();
         morphology.setOperation(MorphologyOperation.DILATION);
         morphology.setContinuationMode(Matrix.ContinuationMode.ZERO_CONSTANT);
@@ -144,29 +144,58 @@ abstract class CardinalitiesAndSumsCalculator extends CardinalitiesCalculator {
             }
             /*Repeat.AutoGeneratedEnd*/
             default: {
-                if (channel0 instanceof byte[]) {
-                    return new ForBytes(labels, castToByte(channels));
-                } else if (channel0 instanceof short[]) {
-                    return new ForShorts(labels, castToShort(channels));
-                } else if (channel0 instanceof int[]) {
-                    return new ForInts(labels, castToInt(channels));
-                } else if (channel0 instanceof float[]) {
-                    return new ForFloats(labels, castToFloat(channels));
-                } else if (channel0 instanceof double[]) {
-                    return new ForDoubles(labels, castToDouble(channels));
-                } else {
-                    throw new AssertionError();
-                }
+                return getGenericInstance(labels, channels);
             }
         }
     }
 
+    // Universal implementation for any number of channels; also used for comparison with unrolled versions
+    static CardinalitiesAndSumsCalculator getGenericInstance(int[] labels, Object[] channels) {
+        Objects.requireNonNull(channels, "Null channels");
+        final Object channel0 = channels[0];
+        if (channel0 instanceof byte[]) {
+            return new ForBytes(labels, castToByte(channels));
+        } else if (channel0 instanceof short[]) {
+            return new ForShorts(labels, castToShort(channels));
+        } else if (channel0 instanceof int[]) {
+            return new ForInts(labels, castToInt(channels));
+        } else if (channel0 instanceof float[]) {
+            return new ForFloats(labels, castToFloat(channels));
+        } else if (channel0 instanceof double[]) {
+            return new ForDoubles(labels, castToDouble(channels));
+        } else {
+            throw new IllegalArgumentException("Illegal array type: " + channel0);
+        }
+    }
+
     @Override
     public void close() {
         super.close();
         releaseAndClearDoubleArrays(requestedSums, maxLabel + 1);
     }
 
+    // Counts cardinalities in the block and ensures that all thread arrays are enough for its labels:
+    // after this, the sums can be accumulated channel by channel without further checks
+    final void countAndEnsureCapacity(int p, int count, int threadIndex) {
+        int[] cardinalities = this.threadCardinalities[threadIndex];
+        for (int k = p, kMax = k + count; k < kMax; k++) {
+            final int label = labels[k];
+            if (label > 0) {
+                if (label >= cardinalities.length) {
+                    cardinalities = ensureCapacityForLabel(cardinalities, label);
+                    ensureThreadSumsCapacityForLabel(threadIndex, label);
+                }
+                cardinalities[label]++;
+                // Note: for better performance, skip cardinalities[0]=0
+            }
+        }
+        this.threadCardinalities[threadIndex] = cardinalities;
+    }
+
+    void ensureThreadSumsCapacityForLabel(int threadIndex, int label) {
+        ensureSeveralArraysCapacityForLabel(threadSums[threadIndex], label);
+    }
+
     @Override
     protected void finish() {
         super.finish();
@@ -193,7 +222,7 @@ abstract class CardinalitiesAndSumsCalculator extends CardinalitiesCalculator {
 
     /*Repeat() Bytes  ==> Shorts,,Ints,,Floats,,Doubles;;
                byte   ==> short,,int,,float,,double;;
-               (data\w*\[c\]\[k\]) \& 0xFF ==> $1 & 0xFFFF,,$1,,$1,,$1 */
+               (channel\[k\]) \& 0xFF ==> $1 & 0xFFFF,,$1,,$1,,$1 */
 
     private static class ForBytes extends CardinalitiesAndSumsCalculator {
         private final byte[][] data;
@@ -205,25 +234,23 @@ abstract class CardinalitiesAndSumsCalculator extends CardinalitiesCalculator {
 
         @Override
         protected void processSubArr(int p, int count, int threadIndex) {
-            int[] cardinalities = this.threadCardinalities[threadIndex];
-            double[][] sums = this.threadSums[threadIndex];
-            for (int k = p, kMax = k + count; k < kMax; k++) {
-                int label = labels[k];
-                if (label > 0) {
-                    if (label >= cardinalities.length) {
-                        cardinalities = ensureCapacityForLabel(cardinalities, label);
-                        ensureSeveralArraysCapacityForLabel(sums, label);
-                    }
-                    cardinalities[label]++;
-                    for (int c = 0; c < numberOfChannels; c++) {
-                        sums[c][label] += data[c][k] & 0xFF;
-                        // Note: for better performance, skip cardinalities/sums[0]=0
+            countAndEnsureCapacity(p, count, threadIndex);
+            final double[][] sums = this.threadSums[threadIndex];
+            for (int c = 0; c < numberOfChannels; c++) {
+                // - channel by channel: the inner loop accesses only 3 arrays for any number of channels
+                final byte[] channel = data[c];
+                final double[] channelSums = sums[c];
+                for (int k = p, kMax = k + count; k < kMax; k++) {
+                    final int label = labels[k];
+                    if (label > 0) {
+                        channelSums[label] += channel[k] & 0xFF;
+                        // Note: for better performance, skip sums[0]=0
                     }
                 }
             }
-            this.threadCardinalities[threadIndex] = cardinalities;
         }
     }
+
     /*Repeat.AutoGeneratedStart !! Auto-generated: NOT EDIT !! */
 
     private static class ForShorts extends CardinalitiesAndSumsCalculator {
@@ -236,23 +263,20 @@ abstract class CardinalitiesAndSumsCalculator extends CardinalitiesCalculator {
 
         @Override
         protected void processSubArr(int p, int count, int threadIndex) {
-            int[] cardinalities = this.threadCardinalities[threadIndex];
-            double[][] sums = this.threadSums[threadIndex];
-            for (int k = p, kMax = k + count; k < kMax; k++) {
-                int label = labels[k];
-                if (label > 0) {
-                    if (label >= cardinalities.length) {
-                        cardinalities = ensureCapacityForLabel(cardinalities, label);
-                        ensureSeveralArraysCapacityForLabel(sums, label);
-                    }
-                    cardinalities[label]++;
-                    for (int c = 0; c < numberOfChannels; c++) {
-                        sums[c][label] += data[c][k] & 0xFFFF;
-                        // Note: for better performance, skip cardinalities/sums[0]=0
+            countAndEnsureCapacity(p, count, threadIndex);
+            final double[][] sums = this.threadSums[threadIndex];
+            for (int c = 0; c < numberOfChannels; c++) {
+                // - channel by channel: the inner loop accesses only 3 arrays for any number of channels
+                final short[] channel = data[c];
+                final double[] channelSums = sums[c];
+                for (int k = p, kMax = k + count; k < kMax; k++) {
+                    final int label = labels[k];
+                    if (label > 0) {
+                        channelSums[label] += channel[k] & 0xFFFF;
+                        // Note: for better performance, skip sums[0]=0
                     }
                 }
             }
-            this.threadCardinalities[threadIndex] = cardinalities;
         }
     }
 
@@ -266,23 +290,20 @@ abstract class CardinalitiesAndSumsCalculator extends CardinalitiesCalculator {
 
         @Override
         protected void processSubArr(int p, int count, int threadIndex) {
-            int[] cardinalities = this.threadCardinalities[threadIndex];
-            double[][] sums = this.threadSums[threadIndex];
-            for (int k = p, kMax = k + count; k < kMax; k++) {
-                int label = labels[k];
-                if (label > 0) {
-                    if (label >= cardinalities.length) {
-                        cardinalities = ensureCapacityForLabel(cardinalities, label);
-                        ensureSeveralArraysCapacityForLabel(sums, label);
-                    }
-                    cardinalities[label]++;
-                    for (int c = 0; c < numberOfChannels; c++) {
-                        sums[c][label] += data[c][k];
-                        // Note: for better performance, skip cardinalities/sums[0]=0
+            countAndEnsureCapacity(p, count, threadIndex);
+            final double[][] sums = this.threadSums[threadIndex];
+            for (int c = 0; c < numberOfChannels; c++) {
+                // - channel by channel: the inner loop accesses only 3 arrays for any number of channels
+                final int[] channel = data[c];
+                final double[] channelSums = sums[c];
+                for (int k = p, kMax = k + count; k < kMax; k++) {
+                    final int label = labels[k];
+                    if (label > 0) {
+                        channelSums[label] += channel[k];
+                        // Note: for better performance, skip sums[0]=0
                     }
                 }
             }
-            this.threadCardinalities[threadIndex] = cardinalities;
         }
     }
 
@@ -296,23 +317,20 @@ abstract class CardinalitiesAndSumsCalculator extends CardinalitiesCalculator {
 
         @Override
         protected void processSubArr(int p, int count, int threadIndex) {
-            int[] cardinalities = this.threadCardinalities[threadIndex];
-            double[][] sums = this.threadSums[threadIndex];
-            for (int k = p, kMax = k + count; k < kMax; k++) {
-                int label = labels[k];
-                if (label > 0) {
-                    if (label >= cardinalities.length) {
-                        cardinalities = ensureCapacityForLabel(cardinalities, label);
-                        ensureSeveralArraysCapacityForLabel(sums, label);
-                    }
-                    cardinalities[label]++;
-                    for (int c = 0; c < numberOfChannels; c++) {
-                        sums[c][label] += data[c][k];
-                        // Note: for better performance, skip cardinalities/sums[0]=0
+            countAndEnsureCapacity(p, count, threadIndex);
+            final double[][] sums = this.threadSums[threadIndex];
+            for (int c = 0; c < numberOfChannels; c++) {
+                // - channel by channel: the inner loop accesses only 3 arrays for any number of channels
+                final float[] channel = data[c];
+                final double[] channelSums = sums[c];
+                for (int k = p, kMax = k + count; k < kMax; k++) {
+                    final int label = labels[k];
+                    if (label > 0) {
+                        channelSums[label] += channel[k];
+                        // Note: for better performance, skip sums[0]=0
                     }
                 }
             }
-            this.threadCardinalities[threadIndex] = cardinalities;
         }
     }
 
@@ -326,24 +344,22 @@ abstract class CardinalitiesAndSumsCalculator extends CardinalitiesCalculator {
 
         @Override
         protected void processSubArr(int p, int count, int threadIndex) {
-            int[] cardinalities = this.threadCardinalities[threadIndex];
-            double[][] sums = this.threadSums[threadIndex];
-            for (int k = p, kMax = k + count; k < kMax; k++) {
-                int label = labels[k];
-                if (label > 0) {
-                    if (label >= cardinalities.length) {
-                        cardinalities = ensureCapacityForLabel(cardinalities, label);
-                        ensureSeveralArraysCapacityForLabel(sums, label);
-                    }
-                    cardinalities[label]++;
-                    for (int c = 0; c < numberOfChannels; c++) {
-                        sums[c][label] += data[c][k];
-                        // Note: for better performance, skip cardinalities/sums[0]=0
+            countAndEnsureCapacity(p, count, threadIndex);
+            final double[][] sums = this.threadSums[threadIndex];
+            for (int c = 0; c < numberOfChannels; c++) {
+                // - channel by channel: the inner loop accesses only 3 arrays for any number of channels
+                final double[] channel = data[c];
+                final double[] channelSums = sums[c];
+                for (int k = p, kMax = k + count; k < kMax; k++) {
+                    final int label = labels[k];
+                    if (label > 0) {
+                        channelSums[label] += channel[k];
+                        // Note: for better performance, skip sums[0]=0
                     }
                 }
             }
-            this.threadCardinalities[threadIndex] = cardinalities;
         }
     }
+
     /*Repeat.AutoGeneratedEnd*/
 }
@@ -169,29 +169,42 @@ abstract class CardinalitiesAndSumsOfSquaresCalculator extends CardinalitiesAndS
             }
             /*Repeat.AutoGeneratedEnd*/
             default: {
-                if (channel0 instanceof byte[]) {
-                    return new ForBytes(labels, castToByte(channels));
-                } else if (channel0 instanceof short[]) {
-                    return new ForShorts(labels, castToShort(channels));
-                } else if (channel0 instanceof int[]) {
-                    return new ForInts(labels, castToInt(channels));
-                } else if (channel0 instanceof float[]) {
-                    return new ForFloats(labels, castToFloat(channels));
-                } else if (channel0 instanceof double[]) {
-                    return new ForDoubles(labels, castToDouble(channels));
-                } else {
-                    throw new AssertionError();
-                }
+                return getGenericInstance(labels, channels);
             }
         }
     }
 
+    // Universal implementation for any number of channels; also used for comparison with unrolled versions
+    static CardinalitiesAndSumsOfSquaresCalculator getGenericInstance(int[] labels, Object[] channels) {
+        Objects.requireNonNull(channels, "Null channels");
+        final Object channel0 = channels[0];
+        if (channel0 instanceof byte[]) {
+            return new ForBytes(labels, castToByte(channels));
+        } else if (channel0 instanceof short[]) {
+            return new ForShorts(labels, castToShort(channels));
+        } else if (channel0 instanceof int[]) {
+            return new ForInts(labels, castToInt(channels));
+        } else if (channel0 instanceof float[]) {
+            return new ForFloats(labels, castToFloat(channels));
+        } else if (channel0 instanceof double[]) {
+            return new ForDoubles(labels, castToDouble(channels));
+        } else {
+            throw new IllegalArgumentException("Illegal array type: " + channel0);
+        }
+    }
+
     @Override
     public void close() {
         super.close();
         releaseAndClearDoubleArrays(requestedSumsOfSquares, maxLabel + 1);
     }
 
+    @Override
+    void ensureThreadSumsCapacityForLabel(int threadIndex, int label) {
+        super.ensureThreadSumsCapacityForLabel(threadIndex, label);
+        ensureSeveralArraysCapacityForLabel(threadSumsOfSquares[threadIndex], label);
+    }
+
     @Override
     protected void finish() {
         super.finish();
@@ -214,7 +227,7 @@ abstract class CardinalitiesAndSumsOfSquaresCalculator extends CardinalitiesAndS
 
     /*Repeat() Bytes  ==> Shorts,,Ints,,Floats,,Doubles;;
                byte   ==> short,,int,,float,,double;;
-               (data\w*\[c\]\[k\]) \& 0xFF ==> $1 & 0xFFFF,,$1,,$1,,$1 */
+               (channel\[k\]) \& 0xFF ==> $1 & 0xFFFF,,$1,,$1,,$1 */
 
     private static class ForBytes extends CardinalitiesAndSumsOfSquaresCalculator {
         private final byte[][] data;
@@ -226,27 +239,24 @@ abstract class CardinalitiesAndSumsOfSquaresCalculator extends CardinalitiesAndS
 
         @Override
         protected void processSubArr(int p, int count, int threadIndex) {
-            int[] cardinalities = this.threadCardinalities[threadIndex];
-            double[][] sums = this.threadSums[threadIndex];
-            double[][] sumsOfSquares = this.threadSumsOfSquares[threadIndex];
-            for (int k = p, kMax = k + count; k < kMax; k++) {
-                int label = labels[k];
-                if (label > 0) {
-                    if (label >= cardinalities.length) {
-                        cardinalities = ensureCapacityForLabel(cardinalities, label);
-                        ensureSeveralArraysCapacityForLabel(sums, label);
-                        ensureSeveralArraysCapacityForLabel(sumsOfSquares, label);
-                    }
-                    cardinalities[label]++;
-                    for (int c = 0; c < numberOfChannels; c++) {
-                        final double value = data[c][k] & 0xFF;
-                        sums[c][label] += value;
-                        sumsOfSquares[c][label] += value * value;
-                        // Note: for better performance, skip cardinalities/sums[0]=0
+            countAndEnsureCapacity(p, count, threadIndex);
+            final double[][] sums = this.threadSums[threadIndex];
+            final double[][] sumsOfSquares = this.threadSumsOfSquares[threadIndex];
+            for (int c = 0; c < numberOfChannels; c++) {
+                // - channel by channel: the inner loop accesses only 4 arrays for any number of channels
+                final byte[] channel = data[c];
+                final double[] channelSums = sums[c];
+                final double[] channelSumsOfSquares = sumsOfSquares[c];
+                for (int k = p, kMax = k + count; k < kMax; k++) {
+                    final int label = labels[k];
+                    if (label > 0) {
+                        final double value = channel[k] & 0xFF;
+                        channelSums[label] += value;
+                        channelSumsOfSquares[label] += value * value;
+                        // Note: for better performance, skip sums/sumsOfSquares[0]=0
                     }
                 }
             }
-            this.threadCardinalities[threadIndex] = cardinalities;
         }
     }
 
@@ -262,27 +272,24 @@ abstract class CardinalitiesAndSumsOfSquaresCalculator extends CardinalitiesAndS
 
         @Override
         protected void processSubArr(int p, int count, int threadIndex) {
-            int[] cardinalities = this.threadCardinalities[threadIndex];
-            double[][] sums = this.threadSums[threadIndex];
-            double[][] sumsOfSquares = this.threadSumsOfSquares[threadIndex];
-            for (int k = p, kMax = k + count; k < kMax; k++) {
-                int label = labels[k];
-                if (label > 0) {
-                    if (label >= cardinalities.length) {
-                        cardinalities = ensureCapacityForLabel(cardinalities, label);
-                        ensureSeveralArraysCapacityForLabel(sums, label);
-                        ensureSeveralArraysCapacityForLabel(sumsOfSquares, label);
-                    }
-                    cardinalities[label]++;
-                    for (int c = 0; c < numberOfChannels; c++) {
-                        final double value = data[c][k] & 0xFFFF;
-                        sums[c][label] += value;
-                        sumsOfSquares[c][label] += value * value;
-                        // Note: for better performance, skip cardinalities/sums[0]=0
+            countAndEnsureCapacity(p, count, threadIndex);
+            final double[][] sums = this.threadSums[threadIndex];
+            final double[][] sumsOfSquares = this.threadSumsOfSquares[threadIndex];
+            for (int c = 0; c < numberOfChannels; c++) {
+                // - channel by channel: the inner loop accesses only 4 arrays for any number of channels
+                final short[] channel = data[c];
+                final double[] channelSums = sums[c];
+                final double[] channelSumsOfSquares = sumsOfSquares[c];
+                for (int k = p, kMax = k + count; k < kMax; k++) {
+                    final int label = labels[k];
+                    if (label > 0) {
+                        final double value = channel[k] & 0xFFFF;
+                        channelSums[label] += value;
+                        channelSumsOfSquares[label] += value * value;
+                        // Note: for better performance, skip sums/sumsOfSquares[0]=0
                     }
                 }
             }
-            this.threadCardinalities[threadIndex] = cardinalities;
         }
     }
 
@@ -296,27 +303,24 @@ abstract class CardinalitiesAndSumsOfSquaresCalculator extends CardinalitiesAndS
 
         @Override
         protected void processSubArr(int p, int count, int threadIndex) {
-            int[] cardinalities = this.threadCardinalities[threadIndex];
-            double[][] sums = this.threadSums[threadIndex];
-            double[][] sumsOfSquares = this.threadSumsOfSquares[threadIndex];
-            for (int k = p, kMax = k + count; k < kMax; k++) {
-                int label = labels[k];
-                if (label > 0) {
-                    if (label >= cardinalities.length) {
-                        cardinalities = ensureCapacityForLabel(cardinalities, label);
-                        ensureSeveralArraysCapacityForLabel(sums, label);
-                        ensureSeveralArraysCapacityForLabel(sumsOfSquares, label);
-                    }
-                    cardinalities[label]++;
-                    for (int c = 0; c < numberOfChannels; c++) {
-                        final double value = data[c][k];
-                        sums[c][label] += value;
-                        sumsOfSquares[c][label] += value * value;
-                        // Note: for better performance, skip cardinalities/sums[0]=0
+            countAndEnsureCapacity(p, count, threadIndex);
+            final double[][] sums = this.threadSums[threadIndex];
+            final double[][] sumsOfSquares = this.threadSumsOfSquares[threadIndex];
+            for (int c = 0; c < numberOfChannels; c++) {
+                // - channel by channel: the inner loop accesses only 4 arrays for any number of channels
+                final int[] channel = data[c];
+                final double[] channelSums = sums[c];
+                final double[] channelSumsOfSquares = sumsOfSquares[c];
+                for (int k = p, kMax = k + count; k < kMax; k++) {
+                    final int label = labels[k];
+                    if (label > 0) {
+                        final double value = channel[k];
+                        channelSums[label] += value;
+                        channelSumsOfSquares[label] += value * value;
+                        // Note: for better performance, skip sums/sumsOfSquares[0]=0
                     }
                 }
             }
-            this.threadCardinalities[threadIndex] = cardinalities;
         }
     }
 
@@ -330,27 +334,24 @@ abstract class CardinalitiesAndSumsOfSquaresCalculator extends CardinalitiesAndS
 
         @Override
         protected void processSubArr(int p, int count, int threadIndex) {
-            int[] cardinalities = this.threadCardinalities[threadIndex];
-            double[][] sums = this.threadSums[threadIndex];
-            double[][] sumsOfSquares = this.threadSumsOfSquares[threadIndex];
-            for (int k = p, kMax = k + count; k < kMax; k++) {
-                int label = labels[k];
-                if (label > 0) {
-                    if (label >= cardinalities.length) {
-                        cardinalities = ensureCapacityForLabel(cardinalities, label);
-                        ensureSeveralArraysCapacityForLabel(sums, label);
-                        ensureSeveralArraysCapacityForLabel(sumsOfSquares, label);
-                    }
-                    cardinalities[label]++;
-                    for (int c = 0; c < numberOfChannels; c++) {
-                        final double value = data[c][k];
-                        sums[c][label] += value;
-                        sumsOfSquares[c][label] += value * value;
-                        // Note: for better performance, skip cardinalities/sums[0]=0
+            countAndEnsureCapacity(p, count, threadIndex);
+            final double[][] sums = this.threadSums[threadIndex];
+            final double[][] sumsOfSquares = this.threadSumsOfSquares[threadIndex];
+            for (int c = 0; c < numberOfChannels; c++) {
+                // - channel by channel: the inner loop accesses only 4 arrays for any number of channels
+                final float[] channel = data[c];
+                final double[] channelSums = sums[c];
+                final double[] channelSumsOfSquares = sumsOfSquares[c];
+                for (int k = p, kMax = k + count; k < kMax; k++) {
+                    final int label = labels[k];
+                    if (label > 0) {
+                        final double value = channel[k];
+                        channelSums[label] += value;
+                        channelSumsOfSquares[label] += value * value;
+                        // Note: for better performance, skip sums/sumsOfSquares[0]=0
                     }
                 }
             }
-            this.threadCardinalities[threadIndex] = cardinalities;
         }
     }
 
@@ -364,27 +365,24 @@ abstract class CardinalitiesAndSumsOfSquaresCalculator extends CardinalitiesAndS
 
         @Override
         protected void processSubArr(int p, int count, int threadIndex) {
-            int[] cardinalities = this.threadCardinalities[threadIndex];
-            double[][] sums = this.threadSums[threadIndex];
-            double[][] sumsOfSquares = this.threadSumsOfSquares[threadIndex];
-            for (int k = p, kMax = k + count; k < kMax; k++) {
-                int label = labels[k];
-                if (label > 0) {
-                    if (label >= cardinalities.length) {
-                        cardinalities = ensureCapacityForLabel(cardinalities, label);
-                        ensureSeveralArraysCapacityForLabel(sums, label);
-                        ensureSeveralArraysCapacityForLabel(sumsOfSquares, label);
-                    }
-                    cardinalities[label]++;
-                    for (int c = 0; c < numberOfChannels; c++) {
-                        final double value = data[c][k];
-                        sums[c][label] += value;
-                        sumsOfSquares[c][label] += value * value;
-                        // Note: for better performance, skip cardinalities/sums[0]=0
+            countAndEnsureCapacity(p, count, threadIndex);
+            final double[][] sums = this.threadSums[threadIndex];
+            final double[][] sumsOfSquares = this.threadSumsOfSquares[threadIndex];
+            for (int c = 0; c < numberOfChannels; c++) {
+                // - channel by channel: the inner loop accesses only 4 arrays for any number of channels
+                final double[] channel = data[c];
+                final double[] channelSums = sums[c];
+                final double[] channelSumsOfSquares = sumsOfSquares[c];
+                for (int k = p, kMax = k + count; k < kMax; k++) {
+                    final int label = labels[k];
+                    if (label > 0) {
+                        final double value = channel[k];
+                        channelSums[label] += value;
+                        channelSumsOfSquares[label] += value * value;
+                        // Note: for better performance, skip sums/sumsOfSquares[0]=0
                     }
                 }
             }
-            this.threadCardinalities[threadIndex] = cardinalities;
         }
     }
 
@@ -0,0 +1,360 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.modules.cv.matrices.objects.labels;
+
+import net.algart.arrays.ArraySelector;
+import net.algart.arrays.Arrays;
+
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Finds percentiles and truncated means of labelled objects for 8- and 16-bit channels without
+ * building lists of pixels ({@link LabelsListsBuilder}) and without gathering pixels of every object
+ * into separate buffers ({@link LabelledObjectsProcessor}).
+ *
+ * <p>The algorithm makes 2 parallel passes over the labels, splitting them into contiguous chunks.
+ * The first pass counts pixels of every label in every chunk, the second one scatters the pixel values
+ * into a compact per-label storage (counting sort by labels, 2 bytes per pixel and channel).
+ * After this, every object is processed independently: large objects by a dense histogram
+ * (256 or 65536 bars), small objects by sorting their compact storage, which is
+ * an exact sparse representation of the histogram.
+ * The results are identical to {@link PercentilesFinderForSeparateChannels}.</p>
+ */
+class HistogramPercentilesCalculator {
+    private static final int MIN_CHUNK_LENGTH = 65536;
+    private static final int LABELS_IN_BLOCK_FOR_PARALLEL_PROCESSING = 256;
+    private static final int DENSE_HISTOGRAM_MIN_CARDINALITY_RATIO = 4;
+    // - dense histogram is used when cardinality >= numberOfBars / this ratio
+
+    private final int[] labels;
+    private final Object[] channels;
+    private final int numberOfBars;
+    private final double[][] levels;
+    private final boolean needTruncatedMeans;
+    private final int lowTruncatedMeanIndex;
+    private final int highTruncatedMeanIndex;
+
+    int maxLabel = -1;
+    int[] cardinalities;
+    float[][][] percentilesByChannels;
+    float[][] truncatedMeansByChannels;
+
+    HistogramPercentilesCalculator(
+            int[] labels,
+            Object[] channels,
+            double[][] levelsByChannels,
+            int lowTruncatedMeanIndex,
+            int highTruncatedMeanIndex) {
+        this.labels = Objects.requireNonNull(labels, "Null labels");
+        Objects.requireNonNull(channels, "Null channels");
+        Objects.requireNonNull(levelsByChannels, "Null levels");
+        if (!isSupported(channels)) {
+            throw new IllegalArgumentException("Only non-empty set of byte[] or short[] channels is supported");
+        }
+        if (levelsByChannels.length < channels.length) {
+            throw new IllegalArgumentException("Percentile levels are specified only for " + levelsByChannels.length
+                    + " channels from " + channels.length);
+        }
+        for (Object channel : channels) {
+            if (java.lang.reflect.Array.getLength(channel) != labels.length) {
+                throw new IllegalArgumentException("Length of channel " + java.lang.reflect.Array.getLength(channel)
+                        + " does not match the length of labels " + labels.length);
+            }
+        }
+        this.channels = channels.clone();
+        this.numberOfBars = channels[0] instanceof byte[] ? 256 : 65536;
+        this.levels = new double[channels.length][];
+        for (int c = 0; c < channels.length; c++) {
+            this.levels[c] = levelsByChannels[c].clone();
+        }
+        this.needTruncatedMeans = lowTruncatedMeanIndex >= 0 && highTruncatedMeanIndex >= 0;
+        this.lowTruncatedMeanIndex = lowTruncatedMeanIndex;
+        this.highTruncatedMeanIndex = highTruncatedMeanIndex;
+    }
+
+    static boolean isSupported(Object[] channels) {
+        if (channels.length == 0) {
+            return false;
+        }
+        final Class<?> arrayClass = channels[0].getClass();
+        if (arrayClass != byte[].class && arrayClass != short[].class) {
+            return false;
+        }
+        for (Object channel : channels) {
+            if (channel.getClass() != arrayClass) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void process() {
+        final int numberOfChunks = (int) Math.max(1,
+                Math.min(Arrays.SystemSettings.cpuCount(), labels.length / MIN_CHUNK_LENGTH));
+        final int[][] chunkPositions = new int[numberOfChunks][];
+        IntStream.range(0, numberOfChunks).parallel().forEach(chunk ->
+                chunkPositions[chunk] = countLabels(
+                        chunkFrom(chunk, numberOfChunks),
+                        chunkFrom(chunk + 1, numberOfChunks)));
+        int maxLabel = 0;
+        for (int[] counts : chunkPositions) {
+            for (int label = counts.length - 1; label > maxLabel; label--) {
+                if (counts[label] > 0) {
+                    maxLabel = label;
+                    break;
+                }
+            }
+        }
+        this.maxLabel = maxLabel;
+        this.cardinalities = new int[maxLabel];
+        // Note: in the resulting "this.cardinalities" we use zero element:
+        // actual information for label is in this.cardinalities[label-1]
+        final int numberOfBlocks = (maxLabel + LABELS_IN_BLOCK_FOR_PARALLEL_PROCESSING - 1)
+                / LABELS_IN_BLOCK_FOR_PARALLEL_PROCESSING;
+        IntStream.range(0, numberOfBlocks).parallel().forEach(block -> {
+            for (int label = blockFrom(block), to = blockTo(block); label <= to; label++) {
+                int sum = 0;
+                for (int[] counts : chunkPositions) {
+                    sum += label < counts.length ? counts[label] : 0;
+                }
+                cardinalities[label - 1] = sum;
+            }
+        });
+        final int[] objectStarts = new int[maxLabel + 1];
+        int totalLength = 0;
+        for (int label = 1; label <= maxLabel; label++) {
+            objectStarts[label - 1] = totalLength;
+            totalLength += cardinalities[label - 1];
+        }
+        objectStarts[maxLabel] = totalLength;
+        // - objectStarts[label - 1]..objectStarts[label] is the region of the object in the storage
+        IntStream.range(0, numberOfBlocks).parallel().forEach(block -> {
+            for (int label = blockFrom(block), to = blockTo(block); label <= to; label++) {
+                int position = objectStarts[label - 1];
+                for (int[] counts : chunkPositions) {
+                    if (label < counts.length) {
+                        final int count = counts[label];
+                        counts[label] = position;
+                        position += count;
+                    }
+                }
+            }
+        });
+        final char[][] storage = new char[channels.length][totalLength];
+        IntStream.range(0, numberOfChunks).parallel().forEach(chunk ->
+                scatterValues(storage, chunkPositions[chunk],
+                        chunkFrom(chunk, numberOfChunks), chunkFrom(chunk + 1, numberOfChunks)));
+        this.percentilesByChannels = new float[channels.length][][];
+        this.truncatedMeansByChannels = needTruncatedMeans ? new float[channels.length][maxLabel] : null;
+        for (int c = 0; c < channels.length; c++) {
+            this.percentilesByChannels[c] = new float[levels[c].length][maxLabel];
+        }
+        IntStream.range(0, numberOfBlocks).parallel().forEach(block -> {
+            int[] histogram = null;
+            for (int label = blockFrom(block), to = blockTo(block); label <= to; label++) {
+                final int from = objectStarts[label - 1];
+                final int numberOfPixels = objectStarts[label] - from;
+                final boolean dense = numberOfPixels >= numberOfBars / DENSE_HISTOGRAM_MIN_CARDINALITY_RATIO;
+                if (dense && histogram == null) {
+                    histogram = new int[numberOfBars];
+                }
+                for (int c = 0; c < channels.length; c++) {
+                    percentilesInChannel(
+                            label - 1,
+                            storage[c],
+                            from,
+                            numberOfPixels,
+                            percentilesByChannels[c],
+                            needTruncatedMeans ? truncatedMeansByChannels[c] : null,
+                            levels[c],
+                            dense ? histogram : null);
+                }
+            }
+        });
+    }
+
+    private int[] countLabels(int from, int to) {
+        int[] counts = new int[16];
+        for (int k = from; k < to; k++) {
+            final int label = labels[k];
+            if (label > 0) {
+                if (label >= counts.length) {
+                    counts = LabelsProcessor.ensureCapacityForLabel(counts, label);
+                }
+                counts[label]++;
+            }
+        }
+        return counts;
+    }
+
+    private void scatterValues(char[][] storage, int[] positions, int from, int to) {
+        if (channels.length == 1) {
+            final char[] objectValues = storage[0];
+            if (channels[0] instanceof byte[] values) {
+                for (int k = from; k < to; k++) {
+                    final int label = labels[k];
+                    if (label > 0) {
+                        objectValues[positions[label]++] = (char) (values[k] & 0xFF);
+                    }
+                }
+            } else {
+                final short[] values = (short[]) channels[0];
+                for (int k = from; k < to; k++) {
+                    final int label = labels[k];
+                    if (label > 0) {
+                        objectValues[positions[label]++] = (char) values[k];
+                    }
+                }
+            }
+            return;
+        }
+        final boolean bytes = channels[0] instanceof byte[];
+        for (int k = from; k < to; k++) {
+            final int label = labels[k];
+            if (label > 0) {
+                final int position = positions[label]++;
+                for (int c = 0; c < channels.length; c++) {
+                    storage[c][position] = bytes ?
+                            (char) (((byte[]) channels[c])[k] & 0xFF) :
+                            (char) ((short[]) channels[c])[k];
+                }
+            }
+        }
+    }
+
+    private void percentilesInChannel(
+            final int resultDisp,
+            final char[] storage,
+            final int from,
+            final int numberOfPixels,
+            final float[][] percentiles,
+            final float[] truncatedMeans,
+            final double[] levels,
+            final int[] histogram) {
+        if (levels.length == 0) {
+            // Nothing to do: no percentiles requires for this channel
+            if (needTruncatedMeans) {
+                truncatedMeans[resultDisp] = Float.NaN;
+            }
+            return;
+        }
+        if (numberOfPixels == 0) {
+            for (int k = 0; k < levels.length; k++) {
+                percentiles[k][resultDisp] = Float.NaN;
+            }
+            if (needTruncatedMeans) {
+                truncatedMeans[resultDisp] = Float.NaN;
+            }
+            return;
+        }
+        final int to = from + numberOfPixels;
+        if (histogram != null) {
+            java.util.Arrays.fill(histogram, 0);
+            for (int k = from; k < to; k++) {
+                histogram[storage[k]]++;
+            }
+            for (int v = 1; v < histogram.length; v++) {
+                histogram[v] += histogram[v - 1];
+            }
+            // - now histogram[v] is the number of values <= v
+        } else {
+            java.util.Arrays.sort(storage, from, to);
+        }
+        int low = -1;
+        int high = -1;
+        for (int k = 0; k < levels.length; k++) {
+            final int percentileIndex = ArraySelector.percentileIndex(levels[k], numberOfPixels);
+            final int value = histogram != null ?
+                    valueByRank(histogram, percentileIndex) :
+                    storage[from + percentileIndex];
+            if (k == lowTruncatedMeanIndex) {
+                low = value;
+            } else if (k == highTruncatedMeanIndex) {
+                high = value;
+            }
+            percentiles[k][resultDisp] = (float) value;
+        }
+        if (needTruncatedMeans) {
+            double mean;
+            if (low == -1) {
+                mean = Double.NaN;
+            } else if (high == -1 || low == high) {
+                mean = low;
+            } else if (low > high) {
+                mean = Double.NaN;
+            } else {
+                double sum = 0.0;
+                long count = 0;
+                if (histogram != null) {
+                    int previous = low == 0 ? 0 : histogram[low - 1];
+                    for (int v = low; v <= high; v++) {
+                        final int n = histogram[v] - previous;
+                        sum += (double) v * (double) n;
+                        count += n;
+                        previous = histogram[v];
+                    }
+                } else {
+                    for (int k = from; k < to; k++) {
+                        final int v = storage[k];
+                        if (v >= low && v <= high) {
+                            sum += v;
+                            count++;
+                        }
+                    }
+                }
+                mean = sum / (double) count;
+            }
+            truncatedMeans[resultDisp] = (float) mean;
+        }
+    }
+
+    private int chunkFrom(int chunk, int numberOfChunks) {
+        return (int) ((long) labels.length * (long) chunk / numberOfChunks);
+    }
+
+    private int blockFrom(int block) {
+        return block * LABELS_IN_BLOCK_FOR_PARALLEL_PROCESSING + 1;
+    }
+
+    private int blockTo(int block) {
+        return Math.min(maxLabel, (block + 1) * LABELS_IN_BLOCK_FOR_PARALLEL_PROCESSING);
+    }
+
+    // Returns the minimal value v, for which the number of values <= v is greater than rank
+    private static int valueByRank(int[] cumulativeHistogram, int rank) {
+        int left = 0;
+        int right = cumulativeHistogram.length - 1;
+        while (left < right) {
+            final int middle = (left + right) >>> 1;
+            if (cumulativeHistogram[middle] > rank) {
+                right = middle;
+            } else {
+                left = middle + 1;
+            }
+        }
+        return left;
+    }
+}
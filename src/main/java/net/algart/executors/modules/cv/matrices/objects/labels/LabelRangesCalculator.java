@@ -0,0 +1,220 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.modules.cv.matrices.objects.labels;
+
+import net.algart.arrays.Arrays;
+import net.algart.arrays.TooLargeArrayException;
+
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Alternative to {@link CardinalitiesCalculator}, {@link CardinalitiesAndSumsCalculator} and
+ * {@link CardinalitiesAndSumsOfSquaresCalculator} for very large number of labels.
+ *
+ * <p>Those classes use separate accumulators (up to <code>maxLabel</code> elements) for every thread
+ * and merge them in the end: it requires O(threads&times;labels) memory and time. This class
+ * partitions the labels into ranges: first, it sorts the indexes of labelled pixels by label ranges
+ * (2 parallel passes over contiguous chunks of the labels), then processes every range in a separate
+ * task and accumulates the results directly into the resulting arrays. So, it requires
+ * O(labels) memory for results + 1 <code>int</code> per labelled pixel, and no merging is needed.</p>
+ */
+class LabelRangesCalculator {
+    private static final int MIN_CHUNK_LENGTH = 65536;
+    private static final int NUMBER_OF_RANGES_PER_CPU = 4;
+    private static final int NUMBER_OF_SAMPLES_FOR_ESTIMATION = 65536;
+
+    private final int[] labels;
+    private final Object[] channels;
+    private final int numberOfChannels;
+    private final boolean needSumsOfSquares;
+
+    int maxLabel = -1;
+    int[] cardinalities;
+    double[] sums;
+    double[] sumsOfSquares;
+    // Note: the sums are ordered as RGBRGB..., like in CardinalitiesAndSumsCalculator
+
+    LabelRangesCalculator(int[] labels, Object[] channels, boolean needSumsOfSquares) {
+        this.labels = Objects.requireNonNull(labels, "Null labels");
+        this.channels = Objects.requireNonNull(channels, "Null channels").clone();
+        for (Object channel : channels) {
+            if (!LabelsProcessor.isArraySupported(channel)) {
+                throw new IllegalArgumentException("Illegal array type: " + channel);
+            }
+            if (java.lang.reflect.Array.getLength(channel) != labels.length) {
+                throw new IllegalArgumentException("Length of channel " + java.lang.reflect.Array.getLength(channel)
+                        + " does not match the length of labels " + labels.length);
+            }
+        }
+        this.numberOfChannels = channels.length;
+        this.needSumsOfSquares = needSumsOfSquares && numberOfChannels > 0;
+    }
+
+    /**
+     * Returns <code>true</code> if this class is expected to be better than usual calculators with
+     * thread accumulators. The estimation is based on the maximal label among several samples.
+     *
+     * @param labels            the labels.
+     * @param numberOfChannels  number of channels for sums (0 if only cardinalities are needed).
+     * @param needSumsOfSquares whether sums of squares are necessary.
+     * @return whether label ranges should be used.
+     */
+    static boolean isRecommended(int[] labels, int numberOfChannels, boolean needSumsOfSquares) {
+        final int cpuCount = Arrays.SystemSettings.cpuCount();
+        if (cpuCount <= 1) {
+            return false;
+        }
+        final long estimatedMaxLabel = estimateMaxLabel(labels);
+        final long bytesPerLabel = Integer.BYTES + (long) numberOfChannels * Double.BYTES * (needSumsOfSquares ? 2 : 1);
+        final long threadAccumulatorsMemory = cpuCount * (estimatedMaxLabel + 1) * bytesPerLabel;
+        final long labelRangesMemory = (long) labels.length * Integer.BYTES + (estimatedMaxLabel + 1) * bytesPerLabel;
+        return threadAccumulatorsMemory > 2 * labelRangesMemory;
+    }
+
+    static int estimateMaxLabel(int[] labels) {
+        final int step = Math.max(1, labels.length / NUMBER_OF_SAMPLES_FOR_ESTIMATION);
+        int result = 0;
+        for (int k = 0; k < labels.length; k += step) {
+            result = Math.max(result, labels[k]);
+        }
+        return result;
+    }
+
+    void process() {
+        final int cpuCount = Arrays.SystemSettings.cpuCount();
+        final int numberOfChunks = (int) Math.max(1, Math.min(cpuCount, labels.length / MIN_CHUNK_LENGTH));
+        final int[] chunkMaxLabels = new int[numberOfChunks];
+        IntStream.range(0, numberOfChunks).parallel().forEach(chunk -> {
+            int max = 0;
+            for (int k = chunkFrom(chunk, numberOfChunks), to = chunkFrom(chunk + 1, numberOfChunks); k < to; k++) {
+                max = Math.max(max, labels[k]);
+            }
+            chunkMaxLabels[chunk] = max;
+        });
+        final int maxLabel = IntStream.of(chunkMaxLabels).max().orElse(0);
+        if (maxLabel > LabelsProcessor.MAX_ALLOWED_LABEL) {
+            throw new TooLargeArrayException("Too large label " + maxLabel + " > " + LabelsProcessor.MAX_ALLOWED_LABEL
+                    + ": it is probably a random int value, not a label");
+        }
+        if ((long) maxLabel * (long) numberOfChannels > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too large required array for " + numberOfChannels
+                    + " channels: more that 2^31-1 elements");
+        }
+        this.maxLabel = maxLabel;
+        this.cardinalities = new int[maxLabel];
+        this.sums = new double[numberOfChannels * maxLabel];
+        this.sumsOfSquares = needSumsOfSquares ? new double[numberOfChannels * maxLabel] : null;
+        if (maxLabel == 0) {
+            return;
+        }
+        final int numberOfRanges = Math.min(maxLabel, NUMBER_OF_RANGES_PER_CPU * cpuCount);
+        final int labelsPerRange = (int) (((long) maxLabel + numberOfRanges - 1) / numberOfRanges);
+        // - range index for label is (label - 1) / labelsPerRange
+        final int[][] chunkPositions = new int[numberOfChunks][numberOfRanges];
+        IntStream.range(0, numberOfChunks).parallel().forEach(chunk -> {
+            final int[] counts = chunkPositions[chunk];
+            for (int k = chunkFrom(chunk, numberOfChunks), to = chunkFrom(chunk + 1, numberOfChunks); k < to; k++) {
+                final int label = labels[k];
+                if (label > 0) {
+                    counts[(label - 1) / labelsPerRange]++;
+                }
+            }
+        });
+        final int[] rangeStarts = new int[numberOfRanges + 1];
+        int position = 0;
+        for (int range = 0; range < numberOfRanges; range++) {
+            rangeStarts[range] = position;
+            for (int[] counts : chunkPositions) {
+                final int count = counts[range];
+                counts[range] = position;
+                position += count;
+            }
+        }
+        rangeStarts[numberOfRanges] = position;
+        final int[] indexes = new int[position];
+        IntStream.range(0, numberOfChunks).parallel().forEach(chunk -> {
+            final int[] positions = chunkPositions[chunk];
+            for (int k = chunkFrom(chunk, numberOfChunks), to = chunkFrom(chunk + 1, numberOfChunks); k < to; k++) {
+                final int label = labels[k];
+                if (label > 0) {
+                    indexes[positions[(label - 1) / labelsPerRange]++] = k;
+                }
+            }
+        });
+        IntStream.range(0, numberOfRanges).parallel().forEach(range ->
+                processRange(indexes, rangeStarts[range], rangeStarts[range + 1]));
+        // - different ranges never write into the same elements of the results
+    }
+
+    private void processRange(int[] indexes, int from, int to) {
+        for (int j = from; j < to; j++) {
+            cardinalities[labels[indexes[j]] - 1]++;
+        }
+        for (int c = 0; c < numberOfChannels; c++) {
+            // - channel by channel: the inner loops do not check the array type
+            final Object channel = channels[c];
+            if (channel instanceof byte[] values) {
+                for (int j = from; j < to; j++) {
+                    final int k = indexes[j];
+                    accumulate((labels[k] - 1) * numberOfChannels + c, values[k] & 0xFF);
+                }
+            } else if (channel instanceof short[] values) {
+                for (int j = from; j < to; j++) {
+                    final int k = indexes[j];
+                    accumulate((labels[k] - 1) * numberOfChannels + c, values[k] & 0xFFFF);
+                }
+            } else if (channel instanceof int[] values) {
+                for (int j = from; j < to; j++) {
+                    final int k = indexes[j];
+                    accumulate((labels[k] - 1) * numberOfChannels + c, values[k]);
+                }
+            } else if (channel instanceof float[] values) {
+                for (int j = from; j < to; j++) {
+                    final int k = indexes[j];
+                    accumulate((labels[k] - 1) * numberOfChannels + c, values[k]);
+                }
+            } else if (channel instanceof double[] values) {
+                for (int j = from; j < to; j++) {
+                    final int k = indexes[j];
+                    accumulate((labels[k] - 1) * numberOfChannels + c, values[k]);
+                }
+            } else {
+                throw new AssertionError("Unsupported array " + channel);
+            }
+        }
+    }
+
+    private void accumulate(int disp, double value) {
+        sums[disp] += value;
+        if (needSumsOfSquares) {
+            sumsOfSquares[disp] += value * value;
+        }
+    }
+
+    private int chunkFrom(int chunk, int numberOfChunks) {
+        return (int) ((long) labels.length * (long) chunk / numberOfChunks);
+    }
+}
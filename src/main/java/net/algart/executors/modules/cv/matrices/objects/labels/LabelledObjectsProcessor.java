@@ -219,23 +219,34 @@ public abstract class LabelledObjectsProcessor extends LabelsProcessor {
             }
             /*Repeat.AutoGeneratedEnd*/
             default: {
-                if (channel0 instanceof byte[]) {
-                    return new ForBytes(lists, listHeads, processor, castToByte(channels));
-                } else if (channel0 instanceof short[]) {
-                    return new ForShorts(lists, listHeads, processor, castToShort(channels));
-                } else if (channel0 instanceof int[]) {
-                    return new ForInts(lists, listHeads, processor, castToInt(channels));
-                } else if (channel0 instanceof float[]) {
-                    return new ForFloats(lists, listHeads, processor, castToFloat(channels));
-                } else if (channel0 instanceof double[]) {
-                    return new ForDoubles(lists, listHeads, processor, castToDouble(channels));
-                } else {
-                    throw new AssertionError();
-                }
+                return getGenericInstance(lists, listHeads, processor, channels);
             }
         }
     }
 
+    // Universal implementation for any number of channels; also used for comparison with unrolled versions
+    static LabelledObjectsProcessor getGenericInstance(
+            int[] lists,
+            int[] listHeads,
+            SingleObjectProcessor processor,
+            Object[] channels) {
+        Objects.requireNonNull(channels, "Null channels");
+        final Object channel0 = channels[0];
+        if (channel0 instanceof byte[]) {
+            return new ForBytes(lists, listHeads, processor, castToByte(channels));
+        } else if (channel0 instanceof short[]) {
+            return new ForShorts(lists, listHeads, processor, castToShort(channels));
+        } else if (channel0 instanceof int[]) {
+            return new ForInts(lists, listHeads, processor, castToInt(channels));
+        } else if (channel0 instanceof float[]) {
+            return new ForFloats(lists, listHeads, processor, castToFloat(channels));
+        } else if (channel0 instanceof double[]) {
+            return new ForDoubles(lists, listHeads, processor, castToDouble(channels));
+        } else {
+            throw new IllegalArgumentException("Illegal array type: " + channel0);
+        }
+    }
+
     @Override
     public void close() {
         // nothing to do: we override it for removing declatation of exceptions
@@ -245,6 +256,22 @@ public abstract class LabelledObjectsProcessor extends LabelsProcessor {
         return cardinalities;
     }
 
+    // Collects indexes of all pixels of the object into threadIndexes[threadIndex] (reallocated if necessary)
+    final int collectIndexes(int label, int[][] threadIndexes, int threadIndex) {
+        int[] indexes = threadIndexes[threadIndex];
+        int index = listHeads[label];
+        int pixelCount = 0;
+        while (index != -1) {
+            if (pixelCount >= indexes.length) {
+                indexes = java.util.Arrays.copyOf(indexes, (int) Math.min(lists.length, 2L * indexes.length));
+            }
+            indexes[pixelCount++] = index;
+            index = lists[index];
+        }
+        threadIndexes[threadIndex] = indexes;
+        return pixelCount;
+    }
+
     /*Repeat() Byte ==> Short,,Int,,Float,,Double;;
                byte ==> short,,int,,float,,double */
 
@@ -252,6 +279,8 @@ public abstract class LabelledObjectsProcessor extends LabelsProcessor {
         private final byte[][] data;
         private final byte[][][] threadObjectData;
         private final byte[][][] requestedObjectData;
+        private final int[][] threadIndexes;
+        private final int[][] requestedIndexes;
 
         ForBytes(int[] lists, int[] listHeads, SingleObjectProcessor processor, byte[][] data) {
             super(lists, listHeads, processor, data.length);
@@ -263,30 +292,32 @@ public abstract class LabelledObjectsProcessor extends LabelsProcessor {
                 // - Java arrays threadObjectData[k][c] will be probably reallocated,
                 // and we need to store original references to correctly release them
             }
+            this.requestedIndexes = requestIntArrays(numberOfTasks());
+            this.threadIndexes = requestedIndexes.clone();
         }
 
         @Override
         public void close() {
+            releaseIntArrays(requestedIndexes);
             releaseByteArrays(requestedObjectData);
         }
 
         @Override
         protected void processSubArr(int p, int count, int threadIndex) {
             byte[][] objectData = this.threadObjectData[threadIndex];
-            int capacity = objectData[0].length;
             for (int label = p, labelMax = label + count; label < labelMax; label++) {
-                int index = listHeads[label];
-                int pixelCount = 0;
-                while (index != -1) {
-                    if (pixelCount >= capacity) {
-                        ensureCapacityForPixels(objectData, lists.length, pixelCount);
-                        capacity = objectData[0].length;
-                    }
-                    for (int c = 0; c < numberOfChannels; c++) {
-                        objectData[c][pixelCount] = data[c][index];
+                final int pixelCount = collectIndexes(label, threadIndexes, threadIndex);
+                final int[] indexes = threadIndexes[threadIndex];
+                if (pixelCount > objectData[0].length) {
+                    ensureCapacityForPixels(objectData, lists.length, pixelCount - 1);
+                }
+                for (int c = 0; c < numberOfChannels; c++) {
+                    // - channel by channel: the list is passed only once for any number of channels
+                    final byte[] channel = data[c];
+                    final byte[] values = objectData[c];
+                    for (int j = 0; j < pixelCount; j++) {
+                        values[j] = channel[indexes[j]];
                     }
-                    pixelCount++;
-                    index = lists[index];
                 }
                 if (label > 0) {
                     this.cardinalities[label - 1] = pixelCount;
@@ -302,6 +333,8 @@ public abstract class LabelledObjectsProcessor extends LabelsProcessor {
         private final short[][] data;
         private final short[][][] threadObjectData;
         private final short[][][] requestedObjectData;
+        private final int[][] threadIndexes;
+        private final int[][] requestedIndexes;
 
         ForShorts(int[] lists, int[] listHeads, SingleObjectProcessor processor, short[][] data) {
             super(lists, listHeads, processor, data.length);
@@ -313,30 +346,32 @@ public abstract class LabelledObjectsProcessor extends LabelsProcessor {
                 // - Java arrays threadObjectData[k][c] will be probably reallocated,
                 // and we need to store original references to correctly release them
             }
+            this.requestedIndexes = requestIntArrays(numberOfTasks());
+            this.threadIndexes = requestedIndexes.clone();
         }
 
         @Override
         public void close() {
+            releaseIntArrays(requestedIndexes);
             releaseShortArrays(requestedObjectData);
         }
 
         @Override
         protected void processSubArr(int p, int count, int threadIndex) {
             short[][] objectData = this.threadObjectData[threadIndex];
-            int capacity = objectData[0].length;
             for (int label = p, labelMax = label + count; label < labelMax; label++) {
-                int index = listHeads[label];
-                int pixelCount = 0;
-                while (index != -1) {
-                    if (pixelCount >= capacity) {
-                        ensureCapacityForPixels(objectData, lists.length, pixelCount);
-                        capacity = objectData[0].length;
-                    }
-                    for (int c = 0; c < numberOfChannels; c++) {
-                        objectData[c][pixelCount] = data[c][index];
+                final int pixelCount = collectIndexes(label, threadIndexes, threadIndex);
+                final int[] indexes = threadIndexes[threadIndex];
+                if (pixelCount > objectData[0].length) {
+                    ensureCapacityForPixels(objectData, lists.length, pixelCount - 1);
+                }
+                for (int c = 0; c < numberOfChannels; c++) {
+                    // - channel by channel: the list is passed only once for any number of channels
+                    final short[] channel = data[c];
+                    final short[] values = objectData[c];
+                    for (int j = 0; j < pixelCount; j++) {
+                        values[j] = channel[indexes[j]];
                     }
-                    pixelCount++;
-                    index = lists[index];
                 }
                 if (label > 0) {
                     this.cardinalities[label - 1] = pixelCount;
@@ -350,6 +385,8 @@ public abstract class LabelledObjectsProcessor extends LabelsProcessor {
         private final int[][] data;
         private final int[][][] threadObjectData;
         private final int[][][] requestedObjectData;
+        private final int[][] threadIndexes;
+        private final int[][] requestedIndexes;
 
         ForInts(int[] lists, int[] listHeads, SingleObjectProcessor processor, int[][] data) {
             super(lists, listHeads, processor, data.length);
@@ -361,30 +398,32 @@ public abstract class LabelledObjectsProcessor extends LabelsProcessor {
                 // - Java arrays threadObjectData[k][c] will be probably reallocated,
                 // and we need to store original references to correctly release them
             }
+            this.requestedIndexes = requestIntArrays(numberOfTasks());
+            this.threadIndexes = requestedIndexes.clone();
         }
 
         @Override
         public void close() {
+            releaseIntArrays(requestedIndexes);
             releaseIntArrays(requestedObjectData);
         }
 
         @Override
         protected void processSubArr(int p, int count, int threadIndex) {
             int[][] objectData = this.threadObjectData[threadIndex];
-            int capacity = objectData[0].length;
             for (int label = p, labelMax = label + count; label < labelMax; label++) {
-                int index = listHeads[label];
-                int pixelCount = 0;
-                while (index != -1) {
-                    if (pixelCount >= capacity) {
-                        ensureCapacityForPixels(objectData, lists.length, pixelCount);
-                        capacity = objectData[0].length;
-                    }
-                    for (int c = 0; c < numberOfChannels; c++) {
-                        objectData[c][pixelCount] = data[c][index];
+                final int pixelCount = collectIndexes(label, threadIndexes, threadIndex);
+                final int[] indexes = threadIndexes[threadIndex];
+                if (pixelCount > objectData[0].length) {
+                    ensureCapacityForPixels(objectData, lists.length, pixelCount - 1);
+                }
+                for (int c = 0; c < numberOfChannels; c++) {
+                    // - channel by channel: the list is passed only once for any number of channels
+                    final int[] channel = data[c];
+                    final int[] values = objectData[c];
+                    for (int j = 0; j < pixelCount; j++) {
+                        values[j] = channel[indexes[j]];
                     }
-                    pixelCount++;
-                    index = lists[index];
                 }
                 if (label > 0) {
                     this.cardinalities[label - 1] = pixelCount;
@@ -398,6 +437,8 @@ public abstract class LabelledObjectsProcessor extends LabelsProcessor {
         private final float[][] data;
         private final float[][][] threadObjectData;
         private final float[][][] requestedObjectData;
+        private final int[][] threadIndexes;
+        private final int[][] requestedIndexes;
 
         ForFloats(int[] lists, int[] listHeads, SingleObjectProcessor processor, float[][] data) {
             super(lists, listHeads, processor, data.length);
@@ -409,30 +450,32 @@ public abstract class LabelledObjectsProcessor extends LabelsProcessor {
                 // - Java arrays threadObjectData[k][c] will be probably reallocated,
                 // and we need to store original references to correctly release them
             }
+            this.requestedIndexes = requestIntArrays(numberOfTasks());
+            this.threadIndexes = requestedIndexes.clone();
         }
 
         @Override
         public void close() {
+            releaseIntArrays(requestedIndexes);
             releaseFloatArrays(requestedObjectData);
         }
 
         @Override
         protected void processSubArr(int p, int count, int threadIndex) {
             float[][] objectData = this.threadObjectData[threadIndex];
-            int capacity = objectData[0].length;
             for (int label = p, labelMax = label + count; label < labelMax; label++) {
-                int index = listHeads[label];
-                int pixelCount = 0;
-                while (index != -1) {
-                    if (pixelCount >= capacity) {
-                        ensureCapacityForPixels(objectData, lists.length, pixelCount);
-                        capacity = objectData[0].length;
-                    }
-                    for (int c = 0; c < numberOfChannels; c++) {
-                        objectData[c][pixelCount] = data[c][index];
+                final int pixelCount = collectIndexes(label, threadIndexes, threadIndex);
+                final int[] indexes = threadIndexes[threadIndex];
+                if (pixelCount > objectData[0].length) {
+                    ensureCapacityForPixels(objectData, lists.length, pixelCount - 1);
+                }
+                for (int c = 0; c < numberOfChannels; c++) {
+                    // - channel by channel: the list is passed only once for any number of channels
+                    final float[] channel = data[c];
+                    final float[] values = objectData[c];
+                    for (int j = 0; j < pixelCount; j++) {
+                        values[j] = channel[indexes[j]];
                     }
-                    pixelCount++;
-                    index = lists[index];
                 }
                 if (label > 0) {
                     this.cardinalities[label - 1] = pixelCount;
@@ -446,6 +489,8 @@ public abstract class LabelledObjectsProcessor extends LabelsProcessor {
         private final double[][] data;
         private final double[][][] threadObjectData;
         private final double[][][] requestedObjectData;
+        private final int[][] threadIndexes;
+        private final int[][] requestedIndexes;
 
         ForDoubles(int[] lists, int[] listHeads, SingleObjectProcessor processor, double[][] data) {
             super(lists, listHeads, processor, data.length);
@@ -457,30 +502,32 @@ public abstract class LabelledObjectsProcessor extends LabelsProcessor {
                 // - Java arrays threadObjectData[k][c] will be probably reallocated,
                 // and we need to store original references to correctly release them
             }
+            this.requestedIndexes = requestIntArrays(numberOfTasks());
+            this.threadIndexes = requestedIndexes.clone();
         }
 
         @Override
         public void close() {
+            releaseIntArrays(requestedIndexes);
             releaseDoubleArrays(requestedObjectData);
         }
 
         @Override
         protected void processSubArr(int p, int count, int threadIndex) {
             double[][] objectData = this.threadObjectData[threadIndex];
-            int capacity = objectData[0].length;
             for (int label = p, labelMax = label + count; label < labelMax; label++) {
-                int index = listHeads[label];
-                int pixelCount = 0;
-                while (index != -1) {
-                    if (pixelCount >= capacity) {
-                        ensureCapacityForPixels(objectData, lists.length, pixelCount);
-                        capacity = objectData[0].length;
-                    }
-                    for (int c = 0; c < numberOfChannels; c++) {
-                        objectData[c][pixelCount] = data[c][index];
+                final int pixelCount = collectIndexes(label, threadIndexes, threadIndex);
+                final int[] indexes = threadIndexes[threadIndex];
+                if (pixelCount > objectData[0].length) {
+                    ensureCapacityForPixels(objectData, lists.length, pixelCount - 1);
+                }
+                for (int c = 0; c < numberOfChannels; c++) {
+                    // - channel by channel: the list is passed only once for any number of channels
+                    final double[] channel = data[c];
+                    final double[] values = objectData[c];
+                    for (int j = 0; j < pixelCount; j++) {
+                        values[j] = channel[indexes[j]];
                     }
-                    pixelCount++;
-                    index = lists[index];
                 }
                 if (label > 0) {
                     this.cardinalities[label - 1] = pixelCount;
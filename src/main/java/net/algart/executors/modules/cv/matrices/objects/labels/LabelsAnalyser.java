@@ -33,6 +33,43 @@ import java.util.List;
 import java.util.Objects;
 
 public final class LabelsAnalyser {
+    public enum PercentilesEngine {
+        /**
+         * {@link #HISTOGRAMS} for separate 8- and 16-bit channels, if the average object is not too small,
+         * {@link #LISTS} in other cases.
+         */
+        AUTO,
+        /**
+         * Percentiles are found by selection algorithms in the pixels of every object, gathered
+         * by lists built in {@link #prepareLists()}. Supports all cases.
+         */
+        LISTS,
+        /**
+         * Percentiles are found by histograms of every object without lists of pixels.
+         * Supports only separate 8- and 16-bit channels (without common level matrix);
+         * in other cases, {@link #LISTS} engine is used.
+         */
+        HISTOGRAMS
+    }
+
+    public enum AccumulationStrategy {
+        /**
+         * {@link #LABEL_RANGES} for very large number of labels (estimated by samples), when thread accumulators
+         * would require too much memory, {@link #THREAD_ACCUMULATORS} in other cases.
+         */
+        AUTO,
+        /**
+         * Every thread accumulates cardinalities and sums for all labels, then they are merged.
+         */
+        THREAD_ACCUMULATORS,
+        /**
+         * Labels are partitioned into ranges, processed in parallel and accumulated directly into the results.
+         */
+        LABEL_RANGES
+    }
+
+    private static final int MIN_AVERAGE_OBJECT_SIZE_FOR_HISTOGRAMS = 2;
+
     private int[] labels;
     private boolean labelsMustBeImmutable;
     private Object[] channels;
@@ -44,6 +81,8 @@ public final class LabelsAnalyser {
     private boolean[] separateChannelPercentilesSet = new boolean[0];
     private int lowTruncatedMeanIndex = 0;
     private int highTruncatedMeanIndex = 0;
+    private PercentilesEngine percentilesEngine = PercentilesEngine.AUTO;
+    private AccumulationStrategy accumulationStrategy = AccumulationStrategy.AUTO;
     private Class<?> elementType;
     private double scale;
 
@@ -136,8 +175,20 @@ public final class LabelsAnalyser {
         return this;
     }
 
+    public AccumulationStrategy getAccumulationStrategy() {
+        return accumulationStrategy;
+    }
+
+    public LabelsAnalyser setAccumulationStrategy(AccumulationStrategy accumulationStrategy) {
+        this.accumulationStrategy = Objects.requireNonNull(accumulationStrategy, "Null accumulationStrategy");
+        return this;
+    }
+
     public void findCardinalities() {
         checkInitialized();
+        if (findByLabelRanges(false, false)) {
+            return;
+        }
         try (CardinalitiesCalculator processor = new CardinalitiesCalculator(labels)) {
             processor.process();
             this.maxLabel = processor.maxLabel;
@@ -147,6 +198,9 @@ public final class LabelsAnalyser {
 
     public void findMeansAndCardinalities() {
         checkImageInitialized();
+        if (findByLabelRanges(true, false)) {
+            return;
+        }
         try (CardinalitiesAndSumsCalculator processor = CardinalitiesAndSumsCalculator.getInstance(labels, channels)) {
             processor.process();
             this.maxLabel = processor.maxLabel;
@@ -158,6 +212,9 @@ public final class LabelsAnalyser {
 
     public void findMeansAndStandardDeviationsAndCardinalities() {
         checkImageInitialized();
+        if (findByLabelRanges(true, true)) {
+            return;
+        }
         try (CardinalitiesAndSumsOfSquaresCalculator processor =
                      CardinalitiesAndSumsOfSquaresCalculator.getInstance(labels, channels)) {
             processor.process();
@@ -207,11 +264,54 @@ public final class LabelsAnalyser {
         return this;
     }
 
+    public PercentilesEngine getPercentilesEngine() {
+        return percentilesEngine;
+    }
+
+    public LabelsAnalyser setPercentilesEngine(PercentilesEngine percentilesEngine) {
+        this.percentilesEngine = Objects.requireNonNull(percentilesEngine, "Null percentilesEngine");
+        return this;
+    }
+
+    /**
+     * Returns <code>true</code> if {@link #findPercentilesAndCardinalities()} will use histograms
+     * and does not require {@link #prepareLists()}. Depends on the {@link #setPercentilesEngine(PercentilesEngine)
+     * percentiles engine}, element type of the image and, for {@link PercentilesEngine#AUTO} mode,
+     * the number of objects, if it is already known (after some of <code>findXxx</code> methods).
+     *
+     * @return whether the percentiles will be found by histograms.
+     */
+    public boolean isHistogramsUsedForPercentiles() {
+        checkImageInitialized();
+        if (percentilesEngine == PercentilesEngine.LISTS
+                || useCommonLevelChannelForPercentiles
+                || !HistogramPercentilesCalculator.isSupported(channelsForPercentiles)) {
+            return false;
+        }
+        return percentilesEngine == PercentilesEngine.HISTOGRAMS
+                || maxLabel <= 0
+                || labels.length / maxLabel >= MIN_AVERAGE_OBJECT_SIZE_FOR_HISTOGRAMS;
+        // - maxLabel <= 0 means that the number of objects is unknown yet
+    }
+
     public void findPercentilesAndCardinalities() {
         checkImageInitialized();
-        checkListsInitialized();
         final int lowTruncatedMeanIndex = needTruncatedMeans ? this.lowTruncatedMeanIndex : -1;
         final int highTruncatedMeanIndex = needTruncatedMeans ? this.highTruncatedMeanIndex : -1;
+        if (isHistogramsUsedForPercentiles()) {
+            final HistogramPercentilesCalculator calculator = new HistogramPercentilesCalculator(
+                    labels,
+                    channelsForPercentiles,
+                    percentileLevelByChannels,
+                    lowTruncatedMeanIndex,
+                    highTruncatedMeanIndex);
+            calculator.process();
+            this.maxLabel = calculator.maxLabel;
+            this.cardinalities = calculator.cardinalities;
+            setPercentileResults(calculator.percentilesByChannels, calculator.truncatedMeansByChannels);
+            return;
+        }
+        checkListsInitialized();
         try (PercentilesFinder percentilesFinder = useCommonLevelChannelForPercentiles ?
                 PercentilesFinderByLastChannel.getInstance(
                         channelsForPercentiles.length,
@@ -232,24 +332,9 @@ public final class LabelsAnalyser {
                 percentilesFinder.preprocess(elementType, processor.numberOfTasks());
                 processor.process();
                 this.cardinalities = processor.cardinalities;
-                this.percentilesByChannels = percentilesFinder.percentilesByChannels();
-                this.groupedPercentilesByLevels = new float[maxNumberOfPercentileLevels][];
-                float[][] percentileForSingleLevel = new float[percentilesByChannels.length][];
-                for (int p = 0; p < maxNumberOfPercentileLevels; p++) {
-                    for (int c = 0; c < percentilesByChannels.length; c++) {
-                        if (p < percentilesByChannels[c].length) {
-                            percentileForSingleLevel[c] = percentilesByChannels[c][p];
-                        } else {
-                            percentileForSingleLevel[c] = new float[maxLabel];
-                            JArrays.fill(percentileForSingleLevel[c], Float.NaN);
-                        }
-                    }
-                    this.groupedPercentilesByLevels[p] = combineMultiChannel(percentileForSingleLevel, scale);
-                }
-                float[][] truncatedMeansByChannels = percentilesFinder.truncatedMeansByChannels();
-                this.truncatedMeans = truncatedMeansByChannels != null ?
-                        combineMultiChannel(truncatedMeansByChannels, scale) :
-                        null;
+                setPercentileResults(
+                        percentilesFinder.percentilesByChannels(),
+                        percentilesFinder.truncatedMeansByChannels());
             }
         }
     }
@@ -435,6 +520,51 @@ public final class LabelsAnalyser {
         }
     }
 
+    private boolean findByLabelRanges(boolean needSums, boolean needSumsOfSquares) {
+        final Object[] channels = needSums ? this.channels : new Object[0];
+        final boolean useLabelRanges = switch (accumulationStrategy) {
+            case AUTO -> LabelRangesCalculator.isRecommended(labels, channels.length, needSumsOfSquares);
+            case THREAD_ACCUMULATORS -> false;
+            case LABEL_RANGES -> true;
+        };
+        if (!useLabelRanges) {
+            return false;
+        }
+        final LabelRangesCalculator calculator = new LabelRangesCalculator(labels, channels, needSumsOfSquares);
+        calculator.process();
+        this.maxLabel = calculator.maxLabel;
+        this.cardinalities = calculator.cardinalities;
+        if (needSums) {
+            this.sums = calculator.sums;
+            scaleValues(this.sums, scale);
+        }
+        if (needSumsOfSquares) {
+            this.sumsOfSquares = calculator.sumsOfSquares;
+            scaleValues(this.sumsOfSquares, scale * scale);
+        }
+        return true;
+    }
+
+    private void setPercentileResults(float[][][] percentilesByChannels, float[][] truncatedMeansByChannels) {
+        this.percentilesByChannels = percentilesByChannels;
+        this.groupedPercentilesByLevels = new float[maxNumberOfPercentileLevels][];
+        float[][] percentileForSingleLevel = new float[percentilesByChannels.length][];
+        for (int p = 0; p < maxNumberOfPercentileLevels; p++) {
+            for (int c = 0; c < percentilesByChannels.length; c++) {
+                if (p < percentilesByChannels[c].length) {
+                    percentileForSingleLevel[c] = percentilesByChannels[c][p];
+                } else {
+                    percentileForSingleLevel[c] = new float[maxLabel];
+                    JArrays.fill(percentileForSingleLevel[c], Float.NaN);
+                }
+            }
+            this.groupedPercentilesByLevels[p] = combineMultiChannel(percentileForSingleLevel, scale);
+        }
+        this.truncatedMeans = truncatedMeansByChannels != null ?
+                combineMultiChannel(truncatedMeansByChannels, scale) :
+                null;
+    }
+
     private static Object[] retrieveChannelsOrFloats(MultiMatrix2D matrix) {
         return retrieveChannelsOrFloats(matrix.allChannels(), false);
     }
@@ -0,0 +1,324 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.modules.cv.matrices.objects.labels;
+
+import net.algart.arrays.IntArray;
+import net.algart.arrays.TooLargeArrayException;
+
+import java.util.Objects;
+
+/**
+ * Single-pass multithreading calculator of the simplest geometrical parameters of labelled objects:
+ * cardinalities (areas), boundary lengths, sums of coordinates (for centroids) and containing rectangles.
+ * All requested parameters are found while one scanning of the labels array; every thread accumulates
+ * its own partial results, which are merged in {@link #finish()}.
+ */
+public final class LabelsGeometryCalculator extends LabelsProcessor {
+    private final int[] labels;
+    private final int dimX;
+    private final int dimY;
+    private final boolean needBoundaries;
+    private final boolean interpixelSegmentsBoundary;
+    private final boolean needCentroids;
+    private final boolean needRectangles;
+    private final int boundariesIndex;
+    private final int rectanglesIndex;
+    private final int[][][] threadInts;
+    private final double[][][] threadSums;
+    private final int[][][] requestedInts;
+    private final double[][][] requestedSums;
+
+    private int maxLabel = -1;
+    private int[] cardinalities;
+    private int[] boundaries;
+    private double[] centroidSums;
+    private int[] minX;
+    private int[] minY;
+    private int[] maxX;
+    private int[] maxY;
+
+    private LabelsGeometryCalculator(
+            int[] labels,
+            int dimX,
+            boolean needBoundaries,
+            boolean interpixelSegmentsBoundary,
+            boolean needCentroids,
+            boolean needRectangles) {
+        super(IntArray.as(Objects.requireNonNull(labels, "Null labels")));
+        if (dimX < 0) {
+            throw new IllegalArgumentException("Negative dimX = " + dimX);
+        }
+        if (dimX == 0 ? labels.length != 0 : labels.length % dimX != 0) {
+            throw new IllegalArgumentException("Length of labels array " + labels.length
+                    + " is not divisible by dimX = " + dimX);
+        }
+        this.labels = labels;
+        this.dimX = dimX;
+        this.dimY = dimX == 0 ? 0 : labels.length / dimX;
+        this.needBoundaries = needBoundaries;
+        this.interpixelSegmentsBoundary = interpixelSegmentsBoundary;
+        this.needCentroids = needCentroids;
+        this.needRectangles = needRectangles;
+        this.boundariesIndex = needBoundaries ? 1 : -1;
+        this.rectanglesIndex = needRectangles ? (needBoundaries ? 2 : 1) : -1;
+        final int numberOfIntArrays = 1 + (needBoundaries ? 1 : 0) + (needRectangles ? 4 : 0);
+        this.requestedInts = requestClearedIntArrays(numberOfTasks(), numberOfIntArrays);
+        this.requestedSums = requestClearedDoubleArrays(numberOfTasks(), needCentroids ? 2 : 0);
+        this.threadInts = new int[requestedInts.length][][];
+        this.threadSums = new double[requestedSums.length][][];
+        for (int k = 0; k < requestedInts.length; k++) {
+            this.threadInts[k] = requestedInts[k].clone();
+            this.threadSums[k] = requestedSums[k].clone();
+            // - Java arrays will be probably reallocated,
+            // and we need to store original references to correctly release them
+        }
+    }
+
+    public static LabelsGeometryCalculator getInstance(
+            int[] labels,
+            int dimX,
+            boolean needBoundaries,
+            boolean interpixelSegmentsBoundary,
+            boolean needCentroids,
+            boolean needRectangles) {
+        return new LabelsGeometryCalculator(
+                labels, dimX, needBoundaries, interpixelSegmentsBoundary, needCentroids, needRectangles);
+    }
+
+    @Override
+    public void close() {
+        releaseAndClearDoubleArrays(requestedSums, maxLabel + 1);
+        releaseAndClearIntArrays(requestedInts, maxLabel + 1);
+    }
+
+    public int maxLabel() {
+        return maxLabel;
+    }
+
+    /**
+     * Returns the number of pixels of every object: element <code>#label-1</code> corresponds to the given label.
+     *
+     * @return cardinalities of all objects.
+     */
+    public int[] cardinalities() {
+        return cardinalities;
+    }
+
+    public int[] boundaries() {
+        return boundaries;
+    }
+
+    /**
+     * Returns sums of x- and y-coordinates of all pixels of every object:
+     * elements <code>#2*(label-1)</code> and <code>#2*(label-1)+1</code> correspond to the given label.
+     *
+     * @return sums of coordinates (XYXY...).
+     */
+    public double[] centroidSums() {
+        return centroidSums;
+    }
+
+    public int[] minX() {
+        return minX;
+    }
+
+    public int[] minY() {
+        return minY;
+    }
+
+    public int[] maxX() {
+        return maxX;
+    }
+
+    public int[] maxY() {
+        return maxY;
+    }
+
+    @Override
+    protected void processSubArr(int p, int count, int threadIndex) {
+        final int[][] ints = this.threadInts[threadIndex];
+        final double[][] sums = this.threadSums[threadIndex];
+        int[] cardinalities = ints[0];
+        int[] boundaries = needBoundaries ? ints[boundariesIndex] : null;
+        int[] minX = needRectangles ? ints[rectanglesIndex] : null;
+        int[] minY = needRectangles ? ints[rectanglesIndex + 1] : null;
+        int[] maxX = needRectangles ? ints[rectanglesIndex + 2] : null;
+        int[] maxY = needRectangles ? ints[rectanglesIndex + 3] : null;
+        double[] sumsX = needCentroids ? sums[0] : null;
+        double[] sumsY = needCentroids ? sums[1] : null;
+        final int dimX = this.dimX;
+        final int dimY = this.dimY;
+        int y = p / dimX;
+        int x = p - y * dimX;
+        for (int disp = p, dispMax = disp + count; disp < dispMax; disp++) {
+            final int label = labels[disp];
+            if (label > 0) {
+                if (label >= cardinalities.length) {
+                    ensureSeveralArraysCapacityForLabel(ints, label);
+                    cardinalities = ints[0];
+                    if (needBoundaries) {
+                        boundaries = ints[boundariesIndex];
+                    }
+                    if (needRectangles) {
+                        minX = ints[rectanglesIndex];
+                        minY = ints[rectanglesIndex + 1];
+                        maxX = ints[rectanglesIndex + 2];
+                        maxY = ints[rectanglesIndex + 3];
+                    }
+                    if (needCentroids) {
+                        ensureSeveralArraysCapacityForLabel(sums, label);
+                        sumsX = sums[0];
+                        sumsY = sums[1];
+                    }
+                }
+                if (needRectangles) {
+                    if (cardinalities[label] == 0) {
+                        // - zero-filled arrays cannot be used as min/max: initializing by the first pixel
+                        minX[label] = x;
+                        minY[label] = y;
+                        maxX[label] = x;
+                        maxY[label] = y;
+                    } else {
+                        minX[label] = Math.min(minX[label], x);
+                        minY[label] = Math.min(minY[label], y);
+                        maxX[label] = Math.max(maxX[label], x);
+                        maxY[label] = Math.max(maxY[label], y);
+                    }
+                }
+                cardinalities[label]++;
+                // Note: for better performance, skip element #0
+                if (needBoundaries) {
+                    if (interpixelSegmentsBoundary) {
+                        int counter = 0;
+                        if (x == 0 || labels[disp - 1] != label) {
+                            counter++;
+                        }
+                        if (x == dimX - 1 || labels[disp + 1] != label) {
+                            counter++;
+                        }
+                        if (y == 0 || labels[disp - dimX] != label) {
+                            counter++;
+                        }
+                        if (y == dimY - 1 || labels[disp + dimX] != label) {
+                            counter++;
+                        }
+                        boundaries[label] += counter;
+                    } else {
+                        if (x == 0 || labels[disp - 1] != label
+                                || x == dimX - 1 || labels[disp + 1] != label
+                                || y == 0 || labels[disp - dimX] != label
+                                || y == dimY - 1 || labels[disp + dimX] != label) {
+                            boundaries[label]++;
+                        }
+                    }
+                }
+                if (needCentroids) {
+                    sumsX[label] += x;
+                    sumsY[label] += y;
+                }
+            }
+            if (++x == dimX) {
+                x = 0;
+                y++;
+            }
+        }
+    }
+
+    @Override
+    protected void finish() {
+        int maxLabel = 0;
+        for (int[][] ints : this.threadInts) {
+            final int[] threadCardinalities = ints[0];
+            int last = 0;
+            for (int k = threadCardinalities.length - 1; k >= 0; k--) {
+                if (threadCardinalities[k] > 0) {
+                    last = k;
+                    break;
+                }
+            }
+            maxLabel = Math.max(maxLabel, last);
+        }
+        this.maxLabel = maxLabel;
+        this.cardinalities = new int[maxLabel];
+        this.boundaries = needBoundaries ? new int[maxLabel] : null;
+        if (needCentroids && 2L * (long) maxLabel > Integer.MAX_VALUE) {
+            throw new TooLargeArrayException("maxLabel = " + maxLabel + " >= 2^31 / 2");
+        }
+        this.centroidSums = needCentroids ? new double[2 * maxLabel] : null;
+        this.minX = needRectangles ? new int[maxLabel] : null;
+        this.minY = needRectangles ? new int[maxLabel] : null;
+        this.maxX = needRectangles ? new int[maxLabel] : null;
+        this.maxY = needRectangles ? new int[maxLabel] : null;
+        // Note: in all resulting arrays we use zero element:
+        // actual information for label is in this.xxx[label-1]
+        for (int t = 0; t < threadInts.length; t++) {
+            final int[][] ints = this.threadInts[t];
+            final int[] threadCardinalities = ints[0];
+            final int length = Math.min(maxLabel, threadCardinalities.length - 1);
+            for (int label = 1; label <= length; label++) {
+                final int threadCardinality = threadCardinalities[label];
+                if (threadCardinality == 0) {
+                    continue;
+                }
+                final int k = label - 1;
+                if (needRectangles) {
+                    final int threadMinX = ints[rectanglesIndex][label];
+                    final int threadMinY = ints[rectanglesIndex + 1][label];
+                    final int threadMaxX = ints[rectanglesIndex + 2][label];
+                    final int threadMaxY = ints[rectanglesIndex + 3][label];
+                    if (cardinalities[k] == 0) {
+                        minX[k] = threadMinX;
+                        minY[k] = threadMinY;
+                        maxX[k] = threadMaxX;
+                        maxY[k] = threadMaxY;
+                    } else {
+                        minX[k] = Math.min(minX[k], threadMinX);
+                        minY[k] = Math.min(minY[k], threadMinY);
+                        maxX[k] = Math.max(maxX[k], threadMaxX);
+                        maxY[k] = Math.max(maxY[k], threadMaxY);
+                    }
+                }
+                cardinalities[k] += threadCardinality;
+                if (needBoundaries) {
+                    boundaries[k] += ints[boundariesIndex][label];
+                }
+                if (needCentroids) {
+                    centroidSums[2 * k] += threadSums[t][0][label];
+                    centroidSums[2 * k + 1] += threadSums[t][1][label];
+                }
+            }
+        }
+        if (needRectangles) {
+            for (int k = 0; k < maxLabel; k++) {
+                if (cardinalities[k] == 0) {
+                    minX[k] = Integer.MAX_VALUE;
+                    minY[k] = Integer.MAX_VALUE;
+                    // - for absent labels, we return the same values as a simple loop
+                    // "min = Math.min(min, x)" starting from min = Integer.MAX_VALUE, max = 0
+                }
+            }
+        }
+    }
+}
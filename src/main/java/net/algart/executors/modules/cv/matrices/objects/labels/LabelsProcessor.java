@@ -32,7 +32,7 @@ import net.algart.arrays.TooLargeArrayException;
 public abstract class LabelsProcessor extends Arrays.ParallelExecutor implements AutoCloseable {
     private static final int NUMBER_OR_PARTICLES_IN_BLOCK_FOR_PARALLEL_PROCESSING = 64;
 
-    private static final int MAX_ALLOWED_LABEL = Integer.MAX_VALUE / 2 - 1;
+    static final int MAX_ALLOWED_LABEL = Integer.MAX_VALUE / 2 - 1;
     // - Theoretically we could process even Integer.MAX_VALUE different labels,
     // but it complicates calculations and will probably lead to out of memory.
     // Mostly probable that it is just an error (random labels).
@@ -419,6 +419,19 @@ public abstract class LabelsProcessor extends Arrays.ParallelExecutor implements
         }
     }
 
+    // Note: all arrays must be identical length
+    protected static void ensureSeveralArraysCapacityForLabel(int[][] arrays, int label) {
+        if (label < arrays[0].length) {
+            return;
+        }
+        int newLength = increaseCapacityForLabel(label, arrays[0].length);
+        assert label < newLength;
+        for (int k = 0; k < arrays.length; k++) {
+            arrays[k] = java.util.Arrays.copyOf(arrays[k], newLength);
+            // - Java automatically fills new elements by zero
+        }
+    }
+
     // Note: all arrays must be identical length
     protected static void ensureSeveralArraysCapacityForLabel(double[][] arrays, int label) {
         if (label < arrays[0].length) {
@@ -0,0 +1,151 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.thresholds;
+
+import net.algart.arrays.*;
+import net.algart.math.functions.Func;
+
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Fused classifier for {@link SmartHysteresisThreshold}: in a single parallel pass over the intensity,
+ * classifies every pixel into "surely", "maybe" and (optionally) "possible in principle" (= NOT "unlikely")
+ * states and stores these states in packed bit planes.
+ *
+ * <p>The results are identical to 3 separate calls of {@link SimpleThreshold} with the same arguments,
+ * but the source is read only once, and no lazy function matrices are created.</p>
+ */
+final class HysteresisStatesClassifier {
+    private static final int BLOCK_LENGTH = 16 * 1024;
+    // - must be divisible by 64: then different blocks never share the same long word of packed bits
+
+    private final Matrix<? extends PArray> intensity;
+    private final double surelyMin;
+    private final double surelyMax;
+    private final double maybeMin;
+    private final double maybeMax;
+    private final boolean invert;
+    private final boolean needPossible;
+    private final double possibleMin;
+    private final double possibleMax;
+    private final boolean invertPossible;
+
+    private Matrix<UpdatableBitArray> surely = null;
+    private Matrix<UpdatableBitArray> maybe = null;
+    private Matrix<UpdatableBitArray> possibleInPrinciple = null;
+
+    HysteresisStatesClassifier(
+            Matrix<? extends PArray> intensity,
+            double surelyMin,
+            double surelyMax,
+            double maybeMin,
+            double maybeMax,
+            boolean invert,
+            boolean needPossible,
+            double backgroundMin,
+            double backgroundMax,
+            boolean invertBackground) {
+        this.intensity = Objects.requireNonNull(intensity, "Null intensity");
+        this.surelyMin = surelyMin;
+        this.surelyMax = surelyMax;
+        this.maybeMin = maybeMin;
+        this.maybeMax = maybeMax;
+        this.invert = invert;
+        this.needPossible = needPossible;
+        this.possibleMin = backgroundMin;
+        this.possibleMax = backgroundMax;
+        this.invertPossible = invertBackground;
+        // - "possible in principle" is NOT "unlikely", and "unlikely" is a threshold with !invertBackground
+    }
+
+    public Matrix<UpdatableBitArray> surely() {
+        return surely;
+    }
+
+    public Matrix<UpdatableBitArray> maybe() {
+        return maybe;
+    }
+
+    public Matrix<UpdatableBitArray> possibleInPrinciple() {
+        return possibleInPrinciple;
+    }
+
+    public void classify() {
+        final long n = intensity.size();
+        final long packedLength = PackedBitArrays.packedLength(n);
+        if (packedLength > Integer.MAX_VALUE) {
+            throw new TooLargeArrayException("Too large matrix for fused classification: " + intensity);
+        }
+        final long[] surelyBits = new long[(int) packedLength];
+        final long[] maybeBits = new long[(int) packedLength];
+        final long[] possibleBits = needPossible ? new long[(int) packedLength] : null;
+        final PArray array = intensity.array();
+        final DoubleArray values = array instanceof DoubleArray doubleArray ?
+                doubleArray :
+                Arrays.asFuncArray(Func.IDENTITY, DoubleArray.class, array);
+        // - the same conversion to double, that is performed by RectangularFunc in SimpleThreshold
+        final int numberOfBlocks = (int) ((n + BLOCK_LENGTH - 1) / BLOCK_LENGTH);
+        IntStream.range(0, numberOfBlocks).parallel().forEach(block -> {
+            final long from = (long) block * BLOCK_LENGTH;
+            final int count = (int) Math.min(n - from, BLOCK_LENGTH);
+            final double[] buffer = new double[count];
+            values.getData(from, buffer, 0, count);
+            int wordIndex = (int) (from >>> 6);
+            for (int i = 0; i < count; i += 64, wordIndex++) {
+                final int to = Math.min(i + 64, count);
+                long surelyWord = 0;
+                long maybeWord = 0;
+                long possibleWord = 0;
+                for (int k = i; k < to; k++) {
+                    final double v = buffer[k];
+                    final long bit = 1L << (k - i);
+                    if ((v >= surelyMin && v <= surelyMax) != invert) {
+                        surelyWord |= bit;
+                    }
+                    if ((v >= maybeMin && v <= maybeMax) != invert) {
+                        maybeWord |= bit;
+                    }
+                    if (needPossible && (v >= possibleMin && v <= possibleMax) != invertPossible) {
+                        possibleWord |= bit;
+                    }
+                }
+                surelyBits[wordIndex] = surelyWord;
+                maybeBits[wordIndex] = maybeWord;
+                if (possibleBits != null) {
+                    possibleBits[wordIndex] = possibleWord;
+                }
+            }
+        });
+        this.surely = asBitMatrix(surelyBits, n);
+        this.maybe = asBitMatrix(maybeBits, n);
+        this.possibleInPrinciple = possibleBits == null ? null : asBitMatrix(possibleBits, n);
+    }
+
+    private Matrix<UpdatableBitArray> asBitMatrix(long[] bits, long n) {
+        return Matrices.matrix(SimpleMemoryModel.asUpdatableBitArray(bits, n), intensity.dimensions());
+    }
+}
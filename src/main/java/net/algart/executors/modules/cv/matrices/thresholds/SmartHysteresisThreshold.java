@@ -24,11 +24,16 @@
 
 package net.algart.executors.modules.cv.matrices.thresholds;
 
+import net.algart.arrays.Matrix;
+import net.algart.arrays.PArray;
 import net.algart.executors.modules.core.common.matrices.MultiMatrix2DFilter;
 import net.algart.executors.modules.cv.matrices.morphology.MorphologyFilter;
 import net.algart.executors.modules.cv.matrices.objects.binary.components.SmartDilatingObjects;
+import net.algart.multimatrix.MultiMatrix;
 import net.algart.multimatrix.MultiMatrix2D;
 
+import java.util.Locale;
+
 public final class SmartHysteresisThreshold extends MultiMatrix2DFilter {
     private double surelyMin = Double.NEGATIVE_INFINITY;
     private double surelyMax = Double.POSITIVE_INFINITY;
@@ -40,6 +45,7 @@ public final class SmartHysteresisThreshold extends MultiMatrix2DFilter {
     private double surelyBackgroundMax = Double.POSITIVE_INFINITY;
     private boolean invertBackground = true;
     private boolean rawValues = false;
+    private boolean fusedClassification = true;
 
     private MorphologyFilter.Shape surelyDilationShape = MorphologyFilter.Shape.SPHERE;
     private int surelyDilationSize = 11;
@@ -169,6 +175,15 @@ public final class SmartHysteresisThreshold extends MultiMatrix2DFilter {
         return this;
     }
 
+    public boolean isFusedClassification() {
+        return fusedClassification;
+    }
+
+    public SmartHysteresisThreshold setFusedClassification(boolean fusedClassification) {
+        this.fusedClassification = fusedClassification;
+        return this;
+    }
+
     public MorphologyFilter.Shape getSurelyDilationShape() {
         return surelyDilationShape;
     }
@@ -226,6 +241,9 @@ public final class SmartHysteresisThreshold extends MultiMatrix2DFilter {
 
     @Override
     public MultiMatrix2D process(MultiMatrix2D source) {
+        if (fusedClassification) {
+            return processFused(source);
+        }
         final MultiMatrix2D surely = new SimpleThreshold().setRawValues(rawValues)
                 .setMin(surelyMin).setMax(surelyMax).setInvert(invert)
                 .process(source);
@@ -238,13 +256,44 @@ public final class SmartHysteresisThreshold extends MultiMatrix2DFilter {
                         .process(source) :
                 null;
         // !invertBackground to produce unlikely (= !background)
+        return smartDilatingObjects().process(surely, maybe, unlikely);
+    }
+
+    private MultiMatrix2D processFused(MultiMatrix2D source) {
+        final Matrix<? extends PArray> intensity = source.intensityChannel();
+        final double scale = rawValues ? 1.0 : intensity.array().maxPossibleValue(1.0);
+        long t1 = debugTime();
+        final HysteresisStatesClassifier classifier = new HysteresisStatesClassifier(
+                intensity,
+                surelyMin * scale, surelyMax * scale,
+                hysteresisMin * scale, hysteresisMax * scale,
+                invert,
+                checkSurelyBackground,
+                surelyBackgroundMin * scale, surelyBackgroundMax * scale,
+                invertBackground);
+        classifier.classify();
+        long t2 = debugTime();
+        final MultiMatrix2D result = smartDilatingObjects().processBinary(
+                MultiMatrix.of2DMono(classifier.surely()),
+                MultiMatrix.of2DMono(classifier.maybe()),
+                checkSurelyBackground ? MultiMatrix.of2DMono(classifier.possibleInPrinciple()) : null);
+        long t3 = debugTime();
+        logDebug(() -> String.format(Locale.US, "Fused smart hysteresis threshold of %s calculated in %.3f ms: "
+                        + "%.3f classification, "
+                        + "%.3f dilating objects",
+                source, (t3 - t1) * 1e-6,
+                (t2 - t1) * 1e-6,
+                (t3 - t2) * 1e-6));
+        return result;
+    }
+
+    private SmartDilatingObjects smartDilatingObjects() {
         return new SmartDilatingObjects()
                 .setSurelyDilationShape(surelyDilationShape)
                 .setSurelyDilationSize(surelyDilationSize)
                 .setSurelyCustomPatternSpecification(surelyCustomPatternSpecification)
                 .setUnlikelyErosionShape(backgroundDilationShape)
                 .setUnlikelyErosionSize(backgroundDilationSize)
-                .setUnlikelyCustomPatternSpecification(backgroundCustomPatternSpecification)
-                .process(surely, maybe, unlikely);
+                .setUnlikelyCustomPatternSpecification(backgroundCustomPatternSpecification);
     }
 }
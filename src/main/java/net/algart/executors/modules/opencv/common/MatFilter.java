@@ -25,6 +25,7 @@
 package net.algart.executors.modules.opencv.common;
 
 import net.algart.executors.modules.opencv.util.O2SMat;
+import net.algart.executors.modules.opencv.util.ReadOnlyMatLease;
 import net.algart.executors.modules.opencv.util.enums.OInterpolation;
 import org.bytedeco.opencv.global.opencv_imgproc;
 import org.bytedeco.opencv.opencv_core.Mat;
@@ -75,6 +76,20 @@ public abstract class MatFilter extends OpenCVExecutor {
 
     @Override
     public void process() {
+        if (isSourceReadOnly() && O2SMat.isReadOnlySharingEnabled()) {
+            try (ReadOnlyMatLease lease = O2SMat.toReadOnlyMat(
+                    getInputMat(allowUninitializedInput()),
+                    allowInputPackedBits())) {
+                final Mat source = lease == null ? null : lease.mat();
+                Mat result = processWithCompression(source);
+                if (result != null && result == source) {
+                    // - the result must not share memory with the input
+                    result = lease.writableMat();
+                }
+                setOutputTo(result);
+            }
+            return;
+        }
         Mat source = O2SMat.toMat(
                 getInputMat(allowUninitializedInput()),
                 allowInputPackedBits());
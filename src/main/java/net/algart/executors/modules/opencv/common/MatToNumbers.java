@@ -26,6 +26,7 @@ package net.algart.executors.modules.opencv.common;
 
 import net.algart.executors.api.data.SNumbers;
 import net.algart.executors.modules.opencv.util.O2SMat;
+import net.algart.executors.modules.opencv.util.ReadOnlyMatLease;
 import org.bytedeco.opencv.opencv_core.Mat;
 
 public abstract class MatToNumbers extends OpenCVExecutor {
@@ -36,6 +37,15 @@ public abstract class MatToNumbers extends OpenCVExecutor {
 
     @Override
     public void process() {
+        if (isSourceReadOnly() && O2SMat.isReadOnlySharingEnabled()) {
+            try (ReadOnlyMatLease lease = O2SMat.toReadOnlyMat(getInputMat(), allowInputPackedBits())) {
+                setStartProcessingTimeStamp();
+                final SNumbers result = analyse(lease.mat());
+                setEndProcessingTimeStamp();
+                getNumbers().setTo(result);
+            }
+            return;
+        }
         final Mat source = O2SMat.toMat(getInputMat(), allowInputPackedBits());
         setStartProcessingTimeStamp();
         final SNumbers result = analyse(source);
@@ -24,7 +24,9 @@
 
 package net.algart.executors.modules.opencv.common;
 
+import net.algart.arrays.Arrays;
 import net.algart.executors.api.Executor;
+import net.algart.executors.modules.opencv.util.O2SMat;
 import net.algart.executors.modules.opencv.util.OTools;
 import net.algart.multimatrix.MultiMatrix;
 import org.bytedeco.opencv.global.opencv_core;
@@ -43,6 +45,12 @@ public abstract class OpenCVExecutor extends Executor {
         }
     }
 
+    public static final String DEVICE_RESIDENT_RESULTS_PROPERTY_NAME =
+            "net.algart.executors.modules.opencv.deviceResidentResults";
+
+    private static final boolean DEFAULT_DEVICE_RESIDENT_RESULTS = Arrays.SystemSettings.getBooleanProperty(
+            DEVICE_RESIDENT_RESULTS_PROPERTY_NAME, false);
+
     private static final Cleaner CLEANER = Cleaner.create();
 
     private final FinalizationKeeper finalizationKeeper;
@@ -66,6 +74,38 @@ public abstract class OpenCVExecutor extends Executor {
         this.useGPU = useGPU;
     }
 
+    private boolean deviceResidentResults = DEFAULT_DEVICE_RESIDENT_RESULTS;
+
+    /**
+     * Returns <code>true</code> if UMat results of this executor should stay in the device (GPU) memory
+     * after finishing it, so that the next UMat-based executor, working in the same thread, will
+     * use them without transfers between host and device memory
+     * (see {@link net.algart.executors.modules.opencv.util.DeviceResidentUMat}).
+     * Default value is specified by the system property {@value #DEVICE_RESIDENT_RESULTS_PROPERTY_NAME}
+     * (<code>false</code> if it is not set).
+     *
+     * @return whether the device-resident mode is enabled.
+     */
+    public boolean isDeviceResidentResults() {
+        return deviceResidentResults;
+    }
+
+    public void setDeviceResidentResults(boolean deviceResidentResults) {
+        this.deviceResidentResults = deviceResidentResults;
+    }
+
+    /**
+     * Returns <code>true</code> if this executor never modifies the source OpenCV matrix.
+     * In this case, the source may be passed as a read-only view of the input data without copying
+     * (see {@link O2SMat#toReadOnlyMat(net.algart.executors.api.data.SMat, boolean)}).
+     * May be overridden; default implementation returns <code>false</code>.
+     *
+     * @return whether the source <code>Mat</code> is used as a constant.
+     */
+    protected boolean isSourceReadOnly() {
+        return false;
+    }
+
     // This additional method helps in interaction between MultiMatrix-oriented and OpenCV executors
     public final void setMat(String name, MultiMatrix mat) {
         getInputMatContainer(name).setTo(mat);
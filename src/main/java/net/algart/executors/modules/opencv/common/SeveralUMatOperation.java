@@ -25,6 +25,7 @@
 package net.algart.executors.modules.opencv.common;
 
 import net.algart.executors.api.data.SMat;
+import net.algart.executors.modules.opencv.util.DeviceResidentUMat;
 import net.algart.executors.modules.opencv.util.O2SMat;
 import net.algart.executors.modules.opencv.util.OTools;
 import org.bytedeco.opencv.opencv_core.UMat;
@@ -65,6 +66,9 @@ public abstract class SeveralUMatOperation extends SeveralMatOperation {
     public void setOutputTo(UMat result) {
         if (packOutputBits()) {
             getMat().setTo(O2SMat.toBinaryMatrix(result));
+        } else if (isDeviceResidentResults()) {
+            O2SMat.setToDeviceResident(getMat(), result);
+            logDebug(DeviceResidentUMat::currentThreadStatistics);
         } else {
             O2SMat.setTo(getMat(), result);
         }
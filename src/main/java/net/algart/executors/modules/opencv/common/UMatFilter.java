@@ -24,6 +24,7 @@
 
 package net.algart.executors.modules.opencv.common;
 
+import net.algart.executors.modules.opencv.util.DeviceResidentUMat;
 import net.algart.executors.modules.opencv.util.O2SMat;
 import org.bytedeco.opencv.global.opencv_imgproc;
 import org.bytedeco.opencv.opencv_core.Size;
@@ -41,8 +42,13 @@ public abstract class UMatFilter extends MatFilter {
         }
         UMat source = O2SMat.toUMat(
                 getInputMat(allowUninitializedInput()),
-                allowInputPackedBits());
-        final UMat result = processWithCompression(source);
+                allowInputPackedBits(),
+                isSourceReadOnly());
+        UMat result = processWithCompression(source);
+        if (result != null && result == source && isSourceReadOnly()) {
+            // - the source may be owned by the input (device-resident UMat): the result must not share it
+            result = result.clone();
+        }
         setOutputTo(result);
     }
 
@@ -68,6 +74,9 @@ public abstract class UMatFilter extends MatFilter {
     public void setOutputTo(UMat result) {
         if (packOutputBits()) {
             getMat().setTo(O2SMat.toBinaryMatrix(result));
+        } else if (isDeviceResidentResults()) {
+            O2SMat.setToDeviceResident(getMat(), result);
+            logDebug(DeviceResidentUMat::currentThreadStatistics);
         } else {
             O2SMat.setTo(getMat(), result);
         }
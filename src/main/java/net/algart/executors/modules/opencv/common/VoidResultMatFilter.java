@@ -37,4 +37,10 @@ public abstract class VoidResultMatFilter extends MatFilter {
     }
 
     public abstract void process(Mat result, Mat source);
+
+    @Override
+    protected boolean isSourceReadOnly() {
+        return true;
+        // - the result is always written into a separate Mat
+    }
 }
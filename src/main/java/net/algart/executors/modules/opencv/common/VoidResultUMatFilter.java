@@ -47,4 +47,10 @@ public abstract class VoidResultUMatFilter extends UMatFilter {
     public abstract void process(Mat result, Mat source);
 
     public abstract void process(UMat result, UMat source);
+
+    @Override
+    protected boolean isSourceReadOnly() {
+        return true;
+        // - the result is always written into a separate Mat
+    }
 }
@@ -28,6 +28,7 @@ import net.algart.executors.api.Executor;
 import net.algart.executors.api.ReadOnlyExecutionInput;
 import net.algart.executors.api.data.SMat;
 import net.algart.executors.modules.opencv.util.ConvertibleUMat;
+import net.algart.executors.modules.opencv.util.DeviceResidentUMat;
 import net.algart.executors.modules.opencv.util.O2SMat;
 import org.bytedeco.opencv.opencv_core.Mat;
 import org.bytedeco.opencv.opencv_core.UMat;
@@ -69,7 +70,9 @@ public final class CopyMat extends Executor implements ReadOnlyExecutionInput {
     public void process() {
         final SMat input = getInputMat();
         boolean copyToUMat = resultType == ResultType.UMAT
-                || (resultType == ResultType.UMAT_FOR_UMAT_INPUT && input.getPointer() instanceof ConvertibleUMat);
+                || (resultType == ResultType.UMAT_FOR_UMAT_INPUT
+                && (input.getPointer() instanceof ConvertibleUMat
+                || input.getPointer() instanceof DeviceResidentUMat));
         if (copyToUMat) {
             logDebug(() -> (cloneData ? "Cloning" : "Copying") + " to OpenCV UMat (GPU): " + input);
             final UMat uMat = O2SMat.toUMat(input, true);
@@ -83,4 +83,10 @@ public final class CornerHarris extends VoidResultUMatFilter {
         }
         opencv_imgproc.cornerHarris(source, result, blockSize, kernelSizeSobel | 1, k, borderType.code());
     }
+
+    @Override
+    protected boolean isSourceReadOnly() {
+        return false;
+        // - source can be converted to grayscale in-place
+    }
 }
@@ -149,4 +149,9 @@ public final class HoughCircles extends MatToNumbers {
     protected boolean allowInputPackedBits() {
         return true;
     }
+
+    @Override
+    protected boolean isSourceReadOnly() {
+        return true;
+    }
 }
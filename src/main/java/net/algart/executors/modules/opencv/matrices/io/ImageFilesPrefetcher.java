@@ -0,0 +1,332 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.opencv.matrices.io;
+
+import org.bytedeco.opencv.global.opencv_imgcodecs;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.MatVector;
+
+import java.io.IOError;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decodes image files by OpenCV in a pool of background threads, so that decoding the next files
+ * is performed in parallel with processing the current one.
+ * Optionally keeps decoded images in a memory-bounded LRU cache, keyed by the file path and
+ * its last modification time.
+ *
+ * <p>This class is thread-safe.</p>
+ */
+public final class ImageFilesPrefetcher implements AutoCloseable {
+    private record Key(Path path, long lastModified, boolean multipage) {
+    }
+
+    private record Decoded(Mat[] pages, long sizeInBytes) {
+        void close() {
+            for (Mat page : pages) {
+                page.close();
+            }
+        }
+    }
+
+    private final int numberOfThreads;
+    private final long maxCacheSizeInBytes;
+    private final ExecutorService pool;
+    private final Map<Key, Future<Decoded>> pending = new ConcurrentHashMap<>();
+    private final LinkedHashMap<Key, Decoded> cache = new LinkedHashMap<>(16, 0.75f, true);
+    // - access order: the eldest entry is the least recently used
+    private long cacheSizeInBytes = 0;
+
+    private final AtomicLong decodingTime = new AtomicLong();
+    private final AtomicLong waitingTime = new AtomicLong();
+    private final AtomicLong decodedCount = new AtomicLong();
+    private final AtomicLong prefetchedCount = new AtomicLong();
+    private final AtomicLong cacheHitCount = new AtomicLong();
+
+    public ImageFilesPrefetcher(int numberOfThreads, long maxCacheSizeInBytes) {
+        if (numberOfThreads <= 0) {
+            throw new IllegalArgumentException("Zero or negative number of threads " + numberOfThreads);
+        }
+        if (maxCacheSizeInBytes < 0) {
+            throw new IllegalArgumentException("Negative maximal cache size " + maxCacheSizeInBytes);
+        }
+        this.numberOfThreads = numberOfThreads;
+        this.maxCacheSizeInBytes = maxCacheSizeInBytes;
+        final AtomicInteger threadCounter = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(numberOfThreads, runnable -> {
+            final Thread thread = new Thread(runnable, "Image decoding #" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int numberOfThreads() {
+        return numberOfThreads;
+    }
+
+    public long maxCacheSizeInBytes() {
+        return maxCacheSizeInBytes;
+    }
+
+    /**
+     * Starts decoding the given files in background threads, if they are not decoded yet.
+     * Non-existing files are skipped.
+     *
+     * <p>The given files are the new prefetch window: all other files, which were prefetched before
+     * but not read yet, excepting <code>retainedFile</code>, are cancelled and their decoded images are freed.
+     * So, the number of decoded images, waiting for reading, never exceeds the window size + 1,
+     * even if some prefetched files are never read (for example, the chain skipped them).</p>
+     *
+     * @param files        files to decode in advance.
+     * @param multipage    whether all pages should be decoded (by <code>imreadmulti</code>).
+     * @param retainedFile the file that will be read soon (usually the current file, prefetched
+     *                     by the previous call); may be <code>null</code>.
+     */
+    public void prefetch(Collection<Path> files, boolean multipage, Path retainedFile) {
+        Objects.requireNonNull(files, "Null files");
+        final Set<Key> window = new HashSet<>();
+        for (Path file : files) {
+            final Key key = keyOrNull(file, multipage);
+            if (key == null) {
+                continue;
+            }
+            window.add(key);
+            if (isCached(key)) {
+                continue;
+            }
+            discardStalePending(key);
+            pending.computeIfAbsent(key, k -> {
+                prefetchedCount.incrementAndGet();
+                return pool.submit(() -> decode(k));
+            });
+        }
+        final Key retained = retainedFile == null ? null : keyOrNull(retainedFile, multipage);
+        for (Key key : pending.keySet()) {
+            if (!window.contains(key) && !key.equals(retained)) {
+                discardPending(key);
+            }
+        }
+    }
+
+    /**
+     * Returns the decoded image: from the cache, from the results of prefetching (waiting for finishing
+     * decoding if necessary) or, if it was not requested before, by decoding it in the current thread.
+     * The caller becomes the owner of the returned matrices.
+     *
+     * @param file      image file.
+     * @param multipage whether all pages should be decoded (by <code>imreadmulti</code>).
+     * @return all decoded pages (1 page if <code>multipage</code> is <code>false</code>).
+     */
+    public Mat[] read(Path file, boolean multipage) {
+        Objects.requireNonNull(file, "Null file");
+        final Key key = keyOrNull(file, multipage);
+        if (key == null) {
+            throw new IOError(new IOException("Cannot read " + file + ": file does not exist"));
+        }
+        synchronized (cache) {
+            final Decoded cached = cache.get(key);
+            if (cached != null) {
+                cacheHitCount.incrementAndGet();
+                return cloneAll(cached.pages);
+            }
+        }
+        discardStalePending(key);
+        final Future<Decoded> future = pending.remove(key);
+        final Decoded decoded;
+        if (future != null) {
+            long t1 = System.nanoTime();
+            try {
+                decoded = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOError(new IOException("Interrupted while decoding " + file, e));
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IOError(cause);
+            }
+            waitingTime.addAndGet(System.nanoTime() - t1);
+        } else {
+            decoded = decode(key);
+        }
+        if (maxCacheSizeInBytes > 0 && decoded.sizeInBytes <= maxCacheSizeInBytes) {
+            synchronized (cache) {
+                final Decoded previous = cache.put(key, decoded);
+                if (previous != null) {
+                    cacheSizeInBytes -= previous.sizeInBytes;
+                    previous.close();
+                }
+                cacheSizeInBytes += decoded.sizeInBytes;
+                evictIfNecessary();
+                return cloneAll(decoded.pages);
+            }
+        }
+        return decoded.pages;
+    }
+
+    public String statistics() {
+        final long decoded = decodedCount.get();
+        synchronized (cache) {
+            return String.format(Locale.US,
+                    "%d images decoded (%d prefetched) in %.3f ms, %.3f ms waiting for prefetched images, "
+                            + "%d cache hits, %d images / %.1f MB in cache",
+                    decoded, prefetchedCount.get(), decodingTime.get() * 1e-6, waitingTime.get() * 1e-6,
+                    cacheHitCount.get(), cache.size(), cacheSizeInBytes / 1048576.0);
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+        try {
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Future<Decoded> future : pending.values()) {
+            if (future.isDone() && !future.isCancelled()) {
+                try {
+                    future.get().close();
+                } catch (InterruptedException | ExecutionException ignored) {
+                    // - nothing to free
+                }
+            }
+        }
+        pending.clear();
+        synchronized (cache) {
+            cache.values().forEach(Decoded::close);
+            cache.clear();
+            cacheSizeInBytes = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "image files prefetcher (" + numberOfThreads + " threads, cache "
+                + (maxCacheSizeInBytes == 0 ? "disabled" : "up to " + maxCacheSizeInBytes / 1048576 + " MB") + ")";
+    }
+
+    private boolean isCached(Key key) {
+        synchronized (cache) {
+            return cache.containsKey(key);
+        }
+    }
+
+    // Discards prefetched versions of the same file with another modification time or multipage flag
+    private void discardStalePending(Key key) {
+        for (Key other : pending.keySet()) {
+            if (other.path.equals(key.path) && !other.equals(key)) {
+                discardPending(other);
+            }
+        }
+    }
+
+    private void discardPending(Key key) {
+        final Future<Decoded> future = pending.remove(key);
+        if (future == null) {
+            return;
+        }
+        future.cancel(false);
+        // - not interrupting: OpenCV decoding cannot be interrupted anyway
+        if (!future.isCancelled()) {
+            // - the decoding is already started or finished: we must free its result
+            pool.execute(() -> {
+                try {
+                    future.get().close();
+                } catch (InterruptedException | ExecutionException | CancellationException ignored) {
+                    // - nothing to free
+                }
+            });
+        }
+    }
+
+    private void evictIfNecessary() {
+        assert Thread.holdsLock(cache);
+        for (Iterator<Decoded> iterator = cache.values().iterator();
+             cacheSizeInBytes > maxCacheSizeInBytes && iterator.hasNext(); ) {
+            final Decoded eldest = iterator.next();
+            iterator.remove();
+            cacheSizeInBytes -= eldest.sizeInBytes;
+            eldest.close();
+            // - the cache is the only owner: clients receive clones
+        }
+    }
+
+    private Decoded decode(Key key) {
+        final String file = key.path.toString();
+        long t1 = System.nanoTime();
+        final Mat[] pages;
+        if (key.multipage) {
+            try (MatVector vector = new MatVector()) {
+                if (!opencv_imgcodecs.imreadmulti(file, vector)) {
+                    throw new IOError(new IOException("Cannot read " + file));
+                }
+                pages = new Mat[(int) vector.size()];
+                for (int k = 0; k < pages.length; k++) {
+                    pages[k] = vector.get(k).clone();
+                    // - clone: elements of the vector are freed together with it
+                }
+            }
+        } else {
+            final Mat mat = opencv_imgcodecs.imread(file);
+            if (mat == null || mat.data() == null) {
+                throw new IOError(new IOException("Cannot read " + file));
+            }
+            pages = new Mat[]{mat};
+        }
+        long size = 0;
+        for (Mat page : pages) {
+            size += page.total() * page.elemSize();
+        }
+        decodingTime.addAndGet(System.nanoTime() - t1);
+        decodedCount.incrementAndGet();
+        return new Decoded(pages, size);
+    }
+
+    private static Key keyOrNull(Path file, boolean multipage) {
+        try {
+            return new Key(file, Files.getLastModifiedTime(file).toMillis(), multipage);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Mat[] cloneAll(Mat[] pages) {
+        final Mat[] result = new Mat[pages.length];
+        for (int k = 0; k < result.length; k++) {
+            result[k] = pages[k].clone();
+        }
+        return result;
+    }
+}
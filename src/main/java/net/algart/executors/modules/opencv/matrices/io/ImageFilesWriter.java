@@ -0,0 +1,241 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.opencv.matrices.io;
+
+import org.bytedeco.javacpp.IntPointer;
+import org.bytedeco.opencv.global.opencv_imgcodecs;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.io.IOError;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Encodes and writes image files by OpenCV in a pool of background threads.
+ * The number of files, waiting for writing, is limited: when the queue is full,
+ * {@link #write(Path, Mat, int[])} method blocks until one of the previous files is written (back-pressure).
+ *
+ * <p>Files are written in parallel, but several writes into the same file (for example, overwriting
+ * the same file for every frame) are performed strictly one after another, in the order of calls of
+ * {@link #write(Path, Mat, int[])}: the last call always determines the file content.</p>
+ *
+ * <p>An error, occurred while writing some file, is thrown by the next call of
+ * {@link #write(Path, Mat, int[])} or {@link #flush()}.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ */
+public final class ImageFilesWriter implements AutoCloseable {
+    private final int numberOfThreads;
+    private final int maxQueueSize;
+    private final Consumer<String> logger;
+    private final ExecutorService pool;
+    private final Semaphore freeSlots;
+    private final Queue<Future<?>> pending = new ConcurrentLinkedQueue<>();
+    private final Map<Path, CompletableFuture<Void>> lastWrites = new ConcurrentHashMap<>();
+    // - the last submitted (not finished yet) write for every file
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong encodingTime = new AtomicLong();
+    private final AtomicLong waitingTime = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+
+    /**
+     * Creates new writer.
+     *
+     * @param numberOfThreads number of threads, encoding files in parallel.
+     * @param maxQueueSize    maximal number of files, submitted for writing but not written yet.
+     * @param logger          if not <code>null</code>, receives short message about every written file
+     *                        (called from a background thread).
+     */
+    public ImageFilesWriter(int numberOfThreads, int maxQueueSize, Consumer<String> logger) {
+        if (numberOfThreads <= 0) {
+            throw new IllegalArgumentException("Zero or negative number of threads " + numberOfThreads);
+        }
+        if (maxQueueSize <= 0) {
+            throw new IllegalArgumentException("Zero or negative maximal queue size " + maxQueueSize);
+        }
+        this.numberOfThreads = numberOfThreads;
+        this.maxQueueSize = maxQueueSize;
+        this.logger = logger;
+        this.freeSlots = new Semaphore(maxQueueSize);
+        final AtomicInteger threadCounter = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(numberOfThreads, runnable -> {
+            final Thread thread = new Thread(runnable, "Image encoding #" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int numberOfThreads() {
+        return numberOfThreads;
+    }
+
+    public int maxQueueSize() {
+        return maxQueueSize;
+    }
+
+    public int queueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Submits the matrix for writing into the file. The writer becomes the owner of the passed matrix
+     * and closes it after writing; the caller should pass a clone if it needs the matrix further.
+     *
+     * @param file       resulting file.
+     * @param mat        image to write.
+     * @param parameters encoder parameters (pairs <code>IMWRITE_xxx, value</code>), passed to
+     *                   <code>imwrite</code>; may be empty.
+     * @return number of files in the queue, including this one.
+     */
+    public int write(Path file, Mat mat, int[] parameters) {
+        Objects.requireNonNull(file, "Null file");
+        Objects.requireNonNull(mat, "Null mat");
+        Objects.requireNonNull(parameters, "Null parameters");
+        checkFailure();
+        long t1 = System.nanoTime();
+        try {
+            freeSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            mat.close();
+            throw new IOError(new IOException("Interrupted while waiting for writing " + file, e));
+        }
+        waitingTime.addAndGet(System.nanoTime() - t1);
+        final int depth = queueDepth.incrementAndGet();
+        maxQueueDepth.accumulateAndGet(depth, Math::max);
+        final Runnable task = () -> {
+            try {
+                final long encodingTime = encode(file, mat, parameters);
+                writtenCount.incrementAndGet();
+                this.encodingTime.addAndGet(encodingTime);
+                if (logger != null) {
+                    logger.accept(String.format(Locale.US, "%s written in %.3f ms (%d files in queue)",
+                            file, encodingTime * 1e-6, queueDepth.get() - 1));
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                mat.close();
+                queueDepth.decrementAndGet();
+                freeSlots.release();
+            }
+        };
+        final Path key = file.toAbsolutePath().normalize();
+        final CompletableFuture<Void> future = lastWrites.compute(key, (k, previous) -> previous == null ?
+                CompletableFuture.runAsync(task, pool) :
+                previous.thenRunAsync(task, pool));
+        // - the task never fails (exceptions are stored in "failure"), so the chain is never broken
+        future.whenComplete((result, exception) -> lastWrites.remove(key, future));
+        pending.add(future);
+        pending.removeIf(Future::isDone);
+        return depth;
+    }
+
+    /**
+     * Waits until all submitted files are written.
+     */
+    public void flush() {
+        for (Future<?> future; (future = pending.poll()) != null; ) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOError(new IOException("Interrupted while waiting for writing files", e));
+            } catch (ExecutionException e) {
+                failure.compareAndSet(null, e.getCause());
+            }
+        }
+        checkFailure();
+    }
+
+    public String statistics() {
+        return String.format(Locale.US,
+                "%d images written in %.3f ms, %.3f ms waiting for free queue slots, "
+                        + "%d files in queue (maximum %d of %d)",
+                writtenCount.get(), encodingTime.get() * 1e-6, waitingTime.get() * 1e-6,
+                queueDepth.get(), maxQueueDepth.get(), maxQueueSize);
+    }
+
+    /**
+     * Writes all submitted files (see {@link #flush()}) and stops the background threads.
+     */
+    @Override
+    public void close() {
+        try {
+            flush();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "image files writer (" + numberOfThreads + " threads, queue up to " + maxQueueSize + " files)";
+    }
+
+    static long encode(Path file, Mat mat, int[] parameters) {
+        final String fileName = file.toString();
+        long t1 = System.nanoTime();
+        final boolean success;
+        if (parameters.length == 0) {
+            success = opencv_imgcodecs.imwrite(fileName, mat);
+        } else {
+            try (IntPointer pointer = new IntPointer(parameters)) {
+                success = opencv_imgcodecs.imwrite(fileName, mat, pointer);
+            }
+        }
+        if (!success) {
+            throw new IOError(new IOException("Cannot write " + fileName));
+        }
+        return System.nanoTime() - t1;
+    }
+
+    private void checkFailure() {
+        final Throwable e = failure.getAndSet(null);
+        if (e == null) {
+            return;
+        }
+        if (e instanceof Error error) {
+            throw error;
+        }
+        if (e instanceof RuntimeException exception) {
+            throw exception;
+        }
+        throw new IOError(e);
+    }
+}
@@ -24,23 +24,43 @@
 
 package net.algart.executors.modules.opencv.matrices.io;
 
+import net.algart.arrays.Arrays;
 import net.algart.executors.api.ReadOnlyExecutionInput;
 import net.algart.executors.api.data.SMat;
 import net.algart.executors.modules.core.common.io.FileOperation;
+import net.algart.executors.modules.core.common.io.PathPropertyReplacement;
 import net.algart.executors.modules.opencv.util.O2SMat;
 import org.bytedeco.opencv.global.opencv_imgcodecs;
 import org.bytedeco.opencv.opencv_core.Mat;
 
 import java.io.IOError;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.*;
+import java.util.stream.Stream;
 
 public final class ReadMat extends FileOperation implements ReadOnlyExecutionInput {
+    public static final String OUTPUT_NUMBER_OF_PAGES = "number_of_pages";
+
     private boolean relativizePath = false;
+    private boolean multipage = false;
+    private int pageIndex = 0;
+    private String prefetchFiles = "";
+    private int prefetchCount = 0;
+    private int decodedCacheSizeInMB = 0;
+
+    private volatile ImageFilesPrefetcher prefetcher = null;
+    private String parsedPrefetchFiles = null;
+    private List<Path> prefetchList = List.of();
+    private Map<Path, Integer> prefetchIndexes = Map.of();
 
     public ReadMat() {
         addFileOperationPorts();
         addInputMat(DEFAULT_INPUT_PORT);
         addOutputMat(DEFAULT_OUTPUT_PORT);
+        addOutputScalar(OUTPUT_NUMBER_OF_PAGES);
     }
 
     public static ReadMat getSecureInstance() {
@@ -58,6 +78,51 @@ public final class ReadMat extends FileOperation implements ReadOnlyExecutionInp
         return this;
     }
 
+    public boolean isMultipage() {
+        return multipage;
+    }
+
+    public ReadMat setMultipage(boolean multipage) {
+        this.multipage = multipage;
+        return this;
+    }
+
+    public int getPageIndex() {
+        return pageIndex;
+    }
+
+    public ReadMat setPageIndex(int pageIndex) {
+        this.pageIndex = nonNegative(pageIndex);
+        return this;
+    }
+
+    public String getPrefetchFiles() {
+        return prefetchFiles;
+    }
+
+    public ReadMat setPrefetchFiles(String prefetchFiles) {
+        this.prefetchFiles = nonNull(prefetchFiles);
+        return this;
+    }
+
+    public int getPrefetchCount() {
+        return prefetchCount;
+    }
+
+    public ReadMat setPrefetchCount(int prefetchCount) {
+        this.prefetchCount = nonNegative(prefetchCount);
+        return this;
+    }
+
+    public int getDecodedCacheSizeInMB() {
+        return decodedCacheSizeInMB;
+    }
+
+    public ReadMat setDecodedCacheSizeInMB(int decodedCacheSizeInMB) {
+        this.decodedCacheSizeInMB = nonNegative(decodedCacheSizeInMB);
+        return this;
+    }
+
     @Override
     public ReadMat setFile(String file) {
         super.setFile(file);
@@ -80,6 +145,9 @@ public final class ReadMat extends FileOperation implements ReadOnlyExecutionInp
     }
 
     public SMat readMat(SMat result) {
+        if (multipage || prefetchCount > 0 || decodedCacheSizeInMB > 0) {
+            return readMatByPrefetcher(result);
+        }
         final String file = completeOSFilePath(relativizePath).toString();
         logDebug(() -> "Reading OpenCV matrix from " + file);
         final Mat mat = opencv_imgcodecs.imread(file);
@@ -89,4 +157,113 @@ public final class ReadMat extends FileOperation implements ReadOnlyExecutionInp
         O2SMat.setTo(result, mat);
         return result;
     }
+
+    @Override
+    public void close() {
+        closePrefetcher();
+        super.close();
+    }
+
+    private SMat readMatByPrefetcher(SMat result) {
+        final Path file = completeOSFilePath(false).toAbsolutePath().normalize();
+        // - note: relativizePath is not used here; prefetched files are always decoded by absolute paths
+        final ImageFilesPrefetcher prefetcher = prefetcher();
+        long t1 = System.nanoTime();
+        prefetcher.prefetch(nextFilesToPrefetch(file), multipage, file);
+        // - before reading the current file: the pool starts decoding the next files immediately;
+        // other previously prefetched files, which were not read, are freed
+        final Mat[] pages = prefetcher.read(file, multipage);
+        long t2 = System.nanoTime();
+        if (pageIndex >= pages.length) {
+            for (Mat page : pages) {
+                page.close();
+            }
+            throw new IllegalArgumentException("Page index " + pageIndex + " is out of range 0.."
+                    + (pages.length - 1) + " for " + file);
+        }
+        for (int k = 0; k < pages.length; k++) {
+            if (k != pageIndex) {
+                pages[k].close();
+            }
+        }
+        O2SMat.setTo(result, pages[pageIndex]);
+        getScalar(OUTPUT_NUMBER_OF_PAGES).setTo(pages.length);
+        logDebug(() -> String.format(Locale.US, "OpenCV matrix read from %s in %.3f ms by %s: %s",
+                file, (t2 - t1) * 1e-6, prefetcher, prefetcher.statistics()));
+        return result;
+    }
+
+    private ImageFilesPrefetcher prefetcher() {
+        final int numberOfThreads = Math.max(1, Math.min(prefetchCount, Arrays.SystemSettings.cpuCount()));
+        final long maxCacheSize = (long) decodedCacheSizeInMB << 20;
+        if (prefetcher != null
+                && (prefetcher.numberOfThreads() != numberOfThreads
+                || prefetcher.maxCacheSizeInBytes() != maxCacheSize)) {
+            closePrefetcher();
+        }
+        if (prefetcher == null) {
+            prefetcher = new ImageFilesPrefetcher(numberOfThreads, maxCacheSize);
+        }
+        return prefetcher;
+    }
+
+    private void closePrefetcher() {
+        if (prefetcher != null) {
+            logDebug(() -> "Closing " + prefetcher + ": " + prefetcher.statistics());
+            prefetcher.close();
+            prefetcher = null;
+        }
+    }
+
+    private List<Path> nextFilesToPrefetch(Path file) {
+        if (prefetchCount == 0 || isSecure()) {
+            return List.of();
+        }
+        if (!prefetchFiles.equals(parsedPrefetchFiles)) {
+            prefetchList = parsePrefetchFiles(prefetchFiles);
+            final Map<Path, Integer> indexes = new HashMap<>();
+            for (int k = 0; k < prefetchList.size(); k++) {
+                indexes.putIfAbsent(prefetchList.get(k), k);
+            }
+            prefetchIndexes = indexes;
+            parsedPrefetchFiles = prefetchFiles;
+        }
+        final Integer index = prefetchIndexes.get(file);
+        if (index == null) {
+            return List.of();
+        }
+        return prefetchList.subList(index + 1, Math.min(index + 1 + prefetchCount, prefetchList.size()));
+    }
+
+    // Files are separated by line feeds or ";"; any entry may be a glob pattern like "images/*.png"
+    // (only in the file name, not in the directories)
+    private List<Path> parsePrefetchFiles(String files) {
+        final List<Path> result = new ArrayList<>();
+        for (String file : files.split("[\\r\\n;]+")) {
+            file = file.trim();
+            if (file.isEmpty()) {
+                continue;
+            }
+            final int separator = Math.max(file.lastIndexOf('/'), file.lastIndexOf('\\'));
+            final String fileName = file.substring(separator + 1);
+            if (fileName.chars().noneMatch(c -> c == '*' || c == '?' || c == '[' || c == '{')) {
+                result.add(translate(file));
+                continue;
+            }
+            final Path folder = translate(separator < 0 ? "." : file.substring(0, separator + 1));
+            final PathMatcher matcher = folder.getFileSystem().getPathMatcher("glob:" + fileName);
+            try (Stream<Path> list = Files.list(folder)) {
+                list.filter(p -> Files.isRegularFile(p) && matcher.matches(p.getFileName()))
+                        .sorted()
+                        .forEach(result::add);
+            } catch (IOException e) {
+                throw new IOError(e);
+            }
+        }
+        return result;
+    }
+
+    private Path translate(String file) {
+        return PathPropertyReplacement.translatePropertiesAndCurrentDirectory(file, this).toAbsolutePath().normalize();
+    }
 }
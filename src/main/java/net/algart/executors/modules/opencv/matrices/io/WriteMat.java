@@ -24,6 +24,7 @@
 
 package net.algart.executors.modules.opencv.matrices.io;
 
+import net.algart.arrays.Arrays;
 import net.algart.executors.api.ExecutionVisibleResultsInformation;
 import net.algart.executors.api.ReadOnlyExecutionInput;
 import net.algart.executors.api.data.Port;
@@ -33,11 +34,39 @@ import net.algart.executors.modules.opencv.util.O2SMat;
 import org.bytedeco.opencv.global.opencv_imgcodecs;
 import org.bytedeco.opencv.opencv_core.Mat;
 
-import java.io.IOError;
-import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
 public final class WriteMat extends WriteFileOperation implements ReadOnlyExecutionInput {
+    public enum TiffCompression {
+        DEFAULT(-1),
+        NONE(1),
+        LZW(5),
+        DEFLATE(8),
+        PACKBITS(32773);
+
+        private final int code;
+
+        TiffCompression(int code) {
+            this.code = code;
+        }
+
+        public int code() {
+            return code;
+        }
+    }
+
     private boolean requireInput = false;
+    private int pngCompression = -1;
+    private int jpegQuality = -1;
+    private TiffCompression tiffCompression = TiffCompression.DEFAULT;
+    private boolean asynchronous = false;
+    private int writingQueueSize = 4;
+    private boolean waitForCompletion = false;
+
+    private volatile ImageFilesWriter writer = null;
 
     public WriteMat() {
         addFileOperationPorts();
@@ -59,6 +88,67 @@ public final class WriteMat extends WriteFileOperation implements ReadOnlyExecut
         return this;
     }
 
+    public int getPngCompression() {
+        return pngCompression;
+    }
+
+    public WriteMat setPngCompression(int pngCompression) {
+        if (pngCompression < -1 || pngCompression > 9) {
+            throw new IllegalArgumentException("PNG compression level " + pngCompression
+                    + " is out of range -1..9");
+        }
+        this.pngCompression = pngCompression;
+        return this;
+    }
+
+    public int getJpegQuality() {
+        return jpegQuality;
+    }
+
+    public WriteMat setJpegQuality(int jpegQuality) {
+        if (jpegQuality < -1 || jpegQuality > 100) {
+            throw new IllegalArgumentException("JPEG quality " + jpegQuality + " is out of range -1..100");
+        }
+        this.jpegQuality = jpegQuality;
+        return this;
+    }
+
+    public TiffCompression getTiffCompression() {
+        return tiffCompression;
+    }
+
+    public WriteMat setTiffCompression(TiffCompression tiffCompression) {
+        this.tiffCompression = nonNull(tiffCompression);
+        return this;
+    }
+
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
+
+    public WriteMat setAsynchronous(boolean asynchronous) {
+        this.asynchronous = asynchronous;
+        return this;
+    }
+
+    public int getWritingQueueSize() {
+        return writingQueueSize;
+    }
+
+    public WriteMat setWritingQueueSize(int writingQueueSize) {
+        this.writingQueueSize = positive(writingQueueSize);
+        return this;
+    }
+
+    public boolean isWaitForCompletion() {
+        return waitForCompletion;
+    }
+
+    public WriteMat setWaitForCompletion(boolean waitForCompletion) {
+        this.waitForCompletion = waitForCompletion;
+        return this;
+    }
+
     @Override
     public void process() {
         writeMat(getInputMat(!requireInput));
@@ -71,10 +161,33 @@ public final class WriteMat extends WriteFileOperation implements ReadOnlyExecut
     }
 
     public void writeMat(Mat mat) {
-        final String file = completeFilePath().toAbsolutePath().toString();
-        logDebug(() -> "Writing OpenCV matrix " + mat + " to file " + file);
-        if (!opencv_imgcodecs.imwrite(file, mat)) {
-            throw new IOError(new IOException("Cannot write " + file));
+        final Path file = completeFilePath().toAbsolutePath();
+        final int[] parameters = encoderParameters();
+        if (asynchronous) {
+            final ImageFilesWriter writer = writer();
+            final int queueDepth = writer.write(file, mat.clone(), parameters);
+            // - clone: the source matrix may be changed or freed before writing
+            logDebug(() -> "OpenCV matrix " + mat + " queued for writing to file " + file
+                    + " (" + queueDepth + " files in queue)");
+            if (waitForCompletion) {
+                writer.flush();
+                logDebug(() -> "All files written by " + writer + ": " + writer.statistics());
+            }
+        } else {
+            closeWriter();
+            // - previously queued files must be written before this one (it may be the same file)
+            logDebug(() -> "Writing OpenCV matrix " + mat + " to file " + file);
+            final long encodingTime = ImageFilesWriter.encode(file, mat, parameters);
+            logDebug(() -> String.format(Locale.US, "%s written in %.3f ms", file, encodingTime * 1e-6));
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            closeWriter();
+        } finally {
+            super.close();
         }
     }
 
@@ -82,4 +195,42 @@ public final class WriteMat extends WriteFileOperation implements ReadOnlyExecut
     public ExecutionVisibleResultsInformation visibleResultsInformation() {
         return defaultVisibleResultsInformation(Port.Type.INPUT, DEFAULT_INPUT_PORT);
     }
+
+    private int[] encoderParameters() {
+        final List<Integer> result = new ArrayList<>();
+        if (pngCompression != -1) {
+            result.add(opencv_imgcodecs.IMWRITE_PNG_COMPRESSION);
+            result.add(pngCompression);
+        }
+        if (jpegQuality != -1) {
+            result.add(opencv_imgcodecs.IMWRITE_JPEG_QUALITY);
+            result.add(jpegQuality);
+        }
+        if (tiffCompression != TiffCompression.DEFAULT) {
+            result.add(opencv_imgcodecs.IMWRITE_TIFF_COMPRESSION);
+            result.add(tiffCompression.code());
+        }
+        return result.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private ImageFilesWriter writer() {
+        final int numberOfThreads = Math.max(1, Math.min(writingQueueSize, Arrays.SystemSettings.cpuCount()));
+        if (writer != null
+                && (writer.numberOfThreads() != numberOfThreads || writer.maxQueueSize() != writingQueueSize)) {
+            closeWriter();
+        }
+        if (writer == null) {
+            writer = new ImageFilesWriter(numberOfThreads, writingQueueSize, message -> logDebug(() -> message));
+        }
+        return writer;
+    }
+
+    private void closeWriter() {
+        final ImageFilesWriter writer = this.writer;
+        if (writer != null) {
+            this.writer = null;
+            writer.close();
+            logDebug(() -> "Closing " + writer + ": " + writer.statistics());
+        }
+    }
 }
@@ -381,4 +381,10 @@ public final class GrabCut extends VoidResultMatFilter {
             opencv_core.copyTo(constant, result, mask);
         }
     }
+
+    @Override
+    protected boolean isSourceReadOnly() {
+        return false;
+        // - source can be converted to BGR in-place
+    }
 }
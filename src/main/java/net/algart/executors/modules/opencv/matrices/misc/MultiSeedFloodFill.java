@@ -0,0 +1,414 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.opencv.matrices.misc;
+
+import net.algart.arrays.Arrays;
+import net.algart.executors.api.data.SNumbers;
+import net.algart.executors.modules.opencv.common.OpenCVExecutor;
+import net.algart.executors.modules.opencv.util.O2SMat;
+import net.algart.executors.modules.opencv.util.OTools;
+import net.algart.executors.modules.opencv.util.enums.OConnectivity;
+import net.algart.math.IRectangularArea;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.global.opencv_imgproc;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Point;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Flood-filling from many seeds in one call: the result is a map of labels, where pixels,
+ * filled from the seed #k, contain k+1. Every pixel gets the label of the first seed reaching it:
+ * areas, filled by previous seeds, are not filled again.
+ *
+ * <p>The padded mask (2 pixels wider and taller than the image), required by OpenCV, is allocated once
+ * and reused by the following calls; only rectangles, modified by the previous call, are cleared.
+ * If the filling size is restricted, the seeds, whose restricting squares do not intersect,
+ * are filled in parallel.</p>
+ */
+public final class MultiSeedFloodFill extends OpenCVExecutor {
+    public static final String INPUT_NON_FILLED_MASK = "non_filled_mask";
+    public static final String INPUT_SEEDS = "seeds";
+    public static final String OUTPUT_LABELS = "labels";
+    public static final String OUTPUT_RECTANGLES = "rectangles";
+
+    private static final Scalar zeroScalar = new Scalar(0.0, 0.0, 0.0, 0.0);
+    // - must not be public: it is mutable
+    private static final int NEW_FILLER = 127;
+    private static final int OLD_FILLER = 1;
+    private static final int BORDER_FILLER = 255;
+    private static final int MAX_PARALLEL_SEEDS_PER_THREAD = 4;
+
+    private double maxFillingSize = 0.0;
+    private Double loDiff = 0.1;
+    private Double upDiff = null;
+    private boolean rawDiffValues = false;
+    private boolean floodFillFixedRange = false;
+    private OConnectivity connectivity = OConnectivity.CONNECTIVITY_4;
+    private boolean multithreading = true;
+
+    private Mat paddedMask = null;
+    private boolean paddedMaskContainsNonFilled = false;
+    private final List<IRectangularArea> modifiedInPaddedMask = new ArrayList<>();
+    private CirclePointsBuilder[] circlePointsBuilders = new CirclePointsBuilder[0];
+
+    public MultiSeedFloodFill() {
+        addInputMat(DEFAULT_INPUT_PORT);
+        addInputMat(INPUT_NON_FILLED_MASK);
+        addInputNumbers(INPUT_SEEDS);
+        setDefaultOutputMat(OUTPUT_LABELS);
+        addOutputNumbers(OUTPUT_RECTANGLES);
+    }
+
+    public double getMaxFillingSize() {
+        return maxFillingSize;
+    }
+
+    public MultiSeedFloodFill setMaxFillingSize(double maxFillingSize) {
+        this.maxFillingSize = nonNegative(maxFillingSize);
+        return this;
+    }
+
+    public Double getLoDiff() {
+        return loDiff;
+    }
+
+    public MultiSeedFloodFill setLoDiff(Double loDiff) {
+        this.loDiff = loDiff == null ? null : nonNegative(loDiff);
+        return this;
+    }
+
+    public Double getUpDiff() {
+        return upDiff;
+    }
+
+    public MultiSeedFloodFill setUpDiff(Double upDiff) {
+        this.upDiff = upDiff == null ? null : nonNegative(upDiff);
+        return this;
+    }
+
+    public boolean isRawDiffValues() {
+        return rawDiffValues;
+    }
+
+    public MultiSeedFloodFill setRawDiffValues(boolean rawDiffValues) {
+        this.rawDiffValues = rawDiffValues;
+        return this;
+    }
+
+    public boolean isFloodFillFixedRange() {
+        return floodFillFixedRange;
+    }
+
+    public MultiSeedFloodFill setFloodFillFixedRange(boolean floodFillFixedRange) {
+        this.floodFillFixedRange = floodFillFixedRange;
+        return this;
+    }
+
+    public OConnectivity getConnectivity() {
+        return connectivity;
+    }
+
+    public MultiSeedFloodFill setConnectivity(OConnectivity connectivity) {
+        this.connectivity = nonNull(connectivity);
+        return this;
+    }
+
+    public boolean isMultithreading() {
+        return multithreading;
+    }
+
+    public MultiSeedFloodFill setMultithreading(boolean multithreading) {
+        this.multithreading = multithreading;
+        return this;
+    }
+
+    @Override
+    public void process() {
+        final Mat image = O2SMat.toMat(getInputMat(), false);
+        final Mat nonFilledMask = O2SMat.toMat(getInputMat(INPUT_NON_FILLED_MASK, true), true);
+        final SNumbers seeds = getInputNumbers(INPUT_SEEDS);
+        final int[] rectangles = new int[4 * seeds.n()];
+        final Mat labels = process(image, nonFilledMask, seeds, rectangles);
+        O2SMat.setTo(getMat(OUTPUT_LABELS), labels);
+        getNumbers(OUTPUT_RECTANGLES).setTo(SNumbers.ofArray(rectangles, 4));
+    }
+
+    /**
+     * Fills the image from all seeds.
+     *
+     * @param image         source image.
+     * @param nonFilledMask optional mask of pixels that cannot be filled (same sizes as the image);
+     *                      may be <code>null</code>.
+     * @param seeds         seed points: x, y (other columns, if exist, are ignored).
+     * @param rectangles    filled with 4 numbers for every seed: min_x, max_x, min_y, max_y of the area,
+     *                      filled from this seed, or 4 values −1 if nothing was filled;
+     *                      may be <code>null</code>.
+     * @return map of labels (32-bit integers): 0 for non-filled pixels, k+1 for pixels filled from the seed #k.
+     */
+    public Mat process(Mat image, Mat nonFilledMask, SNumbers seeds, int[] rectangles) {
+        Objects.requireNonNull(image, "Null image");
+        Objects.requireNonNull(seeds, "Null seeds");
+        final int n = seeds.n();
+        if (rectangles != null && rectangles.length < 4 * n) {
+            throw new IllegalArgumentException("Too short rectangles array: " + rectangles.length + " < 4 * " + n);
+        }
+        final double[] seedsXY = seeds.columnRange(0, 2).toDoubleArray();
+        long t1 = debugTime();
+        final Mat source = image.channels() == 4 ? new Mat() : image;
+        try {
+            if (source != image) {
+                opencv_imgproc.cvtColor(image, source, opencv_imgproc.CV_BGRA2BGR);
+            }
+            final int clearedRectangles = preparePaddedMask(source.cols(), source.rows(), nonFilledMask);
+            long t2 = debugTime();
+            final Mat labels = new Mat(source.rows(), source.cols(), opencv_core.CV_32SC1, zeroScalar);
+            final IntBuffer labelsInts = TestBorderPixels.asByteBuffer(labels).asIntBuffer();
+            final ByteBuffer maskBytes = TestBorderPixels.asByteBuffer(paddedMask);
+            final IRectangularArea[] filled = new IRectangularArea[numberOfParallelSeeds()];
+            final long radius = (long) Math.ceil(0.5 * maxFillingSize) + 1;
+            // - the restricting circle with its border lies inside the square seed ± radius
+            int numberOfBatches = 0;
+            for (int k = 0; k < n; ) {
+                final int from = k;
+                final int batchLength = maxFillingSize > 0.0 ?
+                        numberOfNonIntersectingSeeds(seedsXY, from, filled.length, radius) :
+                        1;
+                // - without restriction, the filled area may be any; so, we fill one seed at a time
+                IntStream.range(0, batchLength).parallel().forEach(i -> filled[i] = fillSeed(
+                        source, seedsXY, from + i, circlePointsBuilders[i], maskBytes, labelsInts));
+                for (int i = 0; i < batchLength; i++) {
+                    if (filled[i] != null) {
+                        modifiedInPaddedMask.add(filled[i]);
+                    }
+                    storeRectangle(rectangles, from + i, filled[i]);
+                }
+                k += batchLength;
+                numberOfBatches++;
+            }
+            long t3 = debugTime();
+            final int batches = numberOfBatches;
+            logDebug(() -> String.format(Locale.US, "Flood-filling %d seeds in %s: %.3f ms = "
+                            + "%.3f ms preparing mask (%s) + %.3f ms filling in %d %s",
+                    n, OTools.toString(source), (t3 - t1) * 1e-6,
+                    (t2 - t1) * 1e-6,
+                    nonFilledMask != null ? "copying non-filled mask" :
+                            clearedRectangles >= 0 ? "clearing " + clearedRectangles + " rectangles" :
+                                    "clearing all",
+                    (t3 - t2) * 1e-6, batches, batches == n ? "sequential steps" : "parallel batches"));
+            return labels;
+        } finally {
+            OTools.closeFirstIfDiffersFromSecond(source, image);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (paddedMask != null) {
+            paddedMask.close();
+            paddedMask = null;
+        }
+        modifiedInPaddedMask.clear();
+        for (CirclePointsBuilder builder : circlePointsBuilders) {
+            builder.clear();
+        }
+        super.close();
+    }
+
+    // Returns the number of cleared rectangles or -1 if the mask was cleared or filled completely
+    private int preparePaddedMask(int dimX, int dimY, Mat nonFilledMask) {
+        final boolean sameSizes = paddedMask != null
+                && paddedMask.cols() == dimX + 2 && paddedMask.rows() == dimY + 2;
+        if (paddedMask == null) {
+            paddedMask = new Mat();
+        }
+        if (nonFilledMask != null) {
+            if (nonFilledMask.cols() != dimX || nonFilledMask.rows() != dimY) {
+                throw new IllegalArgumentException("Non-filled mask sizes " + nonFilledMask.cols() + "x"
+                        + nonFilledMask.rows() + " do not match the image sizes " + dimX + "x" + dimY);
+            }
+            Mat mask = nonFilledMask;
+            try {
+                mask = OTools.toMono8UIfNot(nonFilledMask);
+                opencv_core.copyMakeBorder(mask, paddedMask, 1, 1, 1, 1, opencv_core.BORDER_CONSTANT);
+                // - reuses paddedMask memory if the sizes are the same
+            } finally {
+                OTools.closeFirstIfDiffersFromSecond(mask, nonFilledMask);
+            }
+            opencv_imgproc.threshold(paddedMask, paddedMask, 0, BORDER_FILLER, opencv_imgproc.THRESH_BINARY);
+            // - non-zero values must not be confused with NEW_FILLER
+            paddedMaskContainsNonFilled = true;
+            modifiedInPaddedMask.clear();
+            return -1;
+        }
+        if (!sameSizes || paddedMaskContainsNonFilled) {
+            Mat.zeros(dimY + 2, dimX + 2, opencv_core.CV_8U).asMat().copyTo(paddedMask);
+            paddedMaskContainsNonFilled = false;
+            modifiedInPaddedMask.clear();
+            return -1;
+        }
+        final ByteBuffer maskBytes = TestBorderPixels.asByteBuffer(paddedMask);
+        final int maskDimX = dimX + 2;
+        for (IRectangularArea r : modifiedInPaddedMask) {
+            for (int y = (int) r.minY() + 1, maxY = (int) r.maxY() + 1; y <= maxY; y++) {
+                for (int p = y * maskDimX + (int) r.minX() + 1, to = p + (int) r.sizeX(); p < to; p++) {
+                    maskBytes.put(p, (byte) 0);
+                }
+            }
+        }
+        final int result = modifiedInPaddedMask.size();
+        modifiedInPaddedMask.clear();
+        return result;
+    }
+
+    private int numberOfParallelSeeds() {
+        final int result = multithreading && maxFillingSize > 0.0 ?
+                MAX_PARALLEL_SEEDS_PER_THREAD * Arrays.SystemSettings.cpuCount() :
+                1;
+        if (circlePointsBuilders.length < result) {
+            final CirclePointsBuilder[] builders = java.util.Arrays.copyOf(circlePointsBuilders, result);
+            for (int k = circlePointsBuilders.length; k < result; k++) {
+                builders[k] = new CirclePointsBuilder();
+            }
+            circlePointsBuilders = builders;
+        }
+        for (int k = 0; k < result; k++) {
+            circlePointsBuilders[k].setDimensions(paddedMask.cols(), paddedMask.rows());
+            circlePointsBuilders[k].setDiameter(maxFillingSize);
+            // - no-op when not changed: the circle points are built only once
+        }
+        return result;
+    }
+
+    // Greedy: the seeds from..from+result-1 have pairwise non-intersecting squares seed ± radius
+    private static int numberOfNonIntersectingSeeds(double[] seedsXY, int from, int maxCount, long radius) {
+        final int n = seedsXY.length / 2;
+        final long size = 2 * radius + 1;
+        int count = 1;
+        for (int k = from + 1; k < n && count < maxCount; k++, count++) {
+            final long x = Math.round(seedsXY[2 * k]);
+            final long y = Math.round(seedsXY[2 * k + 1]);
+            for (int i = from; i < k; i++) {
+                if (Math.abs(Math.round(seedsXY[2 * i]) - x) < size
+                        && Math.abs(Math.round(seedsXY[2 * i + 1]) - y) < size) {
+                    return count;
+                }
+            }
+        }
+        return count;
+    }
+
+    private IRectangularArea fillSeed(
+            Mat image,
+            double[] seedsXY,
+            int seedIndex,
+            CirclePointsBuilder circlePointsBuilder,
+            ByteBuffer maskBytes,
+            IntBuffer labelsInts) {
+        final int dimX = image.cols();
+        final int dimY = image.rows();
+        final long seedX = Math.round(seedsXY[2 * seedIndex]);
+        final long seedY = Math.round(seedsXY[2 * seedIndex + 1]);
+        if (seedX < 0 || seedX >= dimX || seedY < 0 || seedY >= dimY) {
+            throw new IllegalArgumentException("Seed #" + seedIndex + " position (" + seedX + ", " + seedY
+                    + ") is out of the image " + dimX + "x" + dimY);
+        }
+        circlePointsBuilder.drawAndSavePrevious(paddedMask, seedX + 1, seedY + 1, (byte) BORDER_FILLER);
+        final IRectangularArea result;
+        try {
+            result = floodFill(image, (int) seedX, (int) seedY);
+        } finally {
+            circlePointsBuilder.restorePrevious(paddedMask, seedX + 1, seedY + 1);
+        }
+        if (result == null) {
+            return null;
+        }
+        final int maskDimX = dimX + 2;
+        final int label = seedIndex + 1;
+        for (int y = (int) result.minY(), maxY = (int) result.maxY(); y <= maxY; y++) {
+            int maskOffset = (y + 1) * maskDimX + (int) result.minX() + 1;
+            int labelsOffset = y * dimX + (int) result.minX();
+            for (int to = labelsOffset + (int) result.sizeX(); labelsOffset < to; labelsOffset++, maskOffset++) {
+                if (maskBytes.get(maskOffset) == (byte) NEW_FILLER) {
+                    maskBytes.put(maskOffset, (byte) OLD_FILLER);
+                    labelsInts.put(labelsOffset, label);
+                }
+            }
+        }
+        return result;
+    }
+
+    private IRectangularArea floodFill(Mat image, int seedX, int seedY) {
+        final double maxValue = OTools.maxPossibleValue(image);
+        final double loDiff = this.loDiff != null ? this.loDiff : this.upDiff != null ? this.upDiff : 0.0;
+        final double upDiff = this.upDiff != null ? this.upDiff : this.loDiff != null ? this.loDiff : 0.0;
+        try (Point seed = new Point(seedX, seedY);
+             Scalar loDiffScalar = OTools.scalarBGR(loDiff * (rawDiffValues ? 1.0 : maxValue));
+             Scalar upDiffScalar = OTools.scalarBGR(upDiff * (rawDiffValues ? 1.0 : maxValue));
+             Scalar newValScalar = OTools.scalarBGR(0.0);
+             Rect rect = new Rect()) {
+            opencv_imgproc.floodFill(
+                    image,
+                    paddedMask,
+                    seed,
+                    newValScalar,
+                    rect,
+                    loDiffScalar,
+                    upDiffScalar,
+                    connectivity.code()
+                            | (NEW_FILLER << 8)
+                            | (floodFillFixedRange ? opencv_imgproc.FLOODFILL_FIXED_RANGE : 0)
+                            | opencv_imgproc.FLOODFILL_MASK_ONLY);
+            // Note: OpenCV also fills the 1-pixel frame of the mask by 1 at every call; while parallel filling,
+            // it is a harmless race: all threads write the same value outside the image area
+            return OTools.toIRectangularArea(rect);
+            // - null if nothing was filled (the mask is already set at the seed point)
+        }
+    }
+
+    private static void storeRectangle(int[] rectangles, int seedIndex, IRectangularArea filled) {
+        if (rectangles == null) {
+            return;
+        }
+        final int disp = 4 * seedIndex;
+        if (filled == null) {
+            java.util.Arrays.fill(rectangles, disp, disp + 4, -1);
+        } else {
+            rectangles[disp] = (int) filled.minX();
+            rectangles[disp + 1] = (int) filled.maxX();
+            rectangles[disp + 2] = (int) filled.minY();
+            rectangles[disp + 3] = (int) filled.maxY();
+        }
+    }
+}
@@ -238,4 +238,9 @@ public class TestBorderPixels extends MatToNumbers implements ReadOnlyExecutionI
         final long arraySize = m.arraySize();
         return m.data().position(0).capacity(arraySize).asByteBuffer();
     }
+
+    @Override
+    protected boolean isSourceReadOnly() {
+        return true;
+    }
 }
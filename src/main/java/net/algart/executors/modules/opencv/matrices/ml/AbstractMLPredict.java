@@ -188,6 +188,33 @@ public abstract class AbstractMLPredict extends AbstractMLOperation {
         return readPredictor(defaultKind, MLKind.StatModelBased::of);
     }
 
+    /**
+     * Analog of {@link #readStandardPredictor(MLKind)}, which, if <code>useCache</code> is set,
+     * does not load the model file every time, but uses {@link MLPredictorCache}.
+     * The returned lease must be closed after usage.
+     *
+     * @param defaultKind kind of the model, used if there is no <code>.meta</code>-file.
+     * @param useCache    whether the global cache of predictors should be used.
+     * @return lease of the predictor.
+     */
+    public final MLPredictorCache.Lease leaseStandardPredictor(MLKind defaultKind, boolean useCache) {
+        Objects.requireNonNull(defaultKind, "Null defaultKind");
+        if (!useCache) {
+            return MLPredictorCache.Lease.owned(readStandardPredictor(defaultKind));
+        }
+        final Path file = statModelFile();
+        final MLPredictorCache cache = MLPredictorCache.getInstance();
+        try {
+            final MLPredictorCache.Lease lease = cache.acquire(file, defaultKind);
+            logDebug(() -> "Model file " + file + " leased from cache: " + cache);
+            getScalar(OUTPUT_PREDICTION_MODEL_KIND).setTo(lease.kind().modelName());
+            getScalar(OUTPUT_IS_CLASSIFIER).setTo(lease.predictor().isClassifier());
+            return lease;
+        } catch (IOException e) {
+            throw new IOError(e);
+        }
+    }
+
     public final MLPredictor readPredictor(MLKind defaultKind, Function<String, Optional<MLKind>> modelNameToKind) {
         Objects.requireNonNull(defaultKind, "Null defaultKind");
         Objects.requireNonNull(modelNameToKind, "Null modelNameToKind function");
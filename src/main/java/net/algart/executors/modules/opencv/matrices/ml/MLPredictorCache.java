@@ -0,0 +1,338 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.modules.opencv.matrices.ml;
+
+import net.algart.arrays.Arrays;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide cache of loaded ML predictors.
+ *
+ * <p>Loading OpenCV statistical model (RTrees, ANN_MLP etc.) from the file is a very slow operation,
+ * much slower than prediction of a little portion of samples. This cache allows to load every model file
+ * only once and reuse it in further calls of prediction executors.</p>
+ *
+ * <p>Every cached model is identified by its absolute path, the last modification time and size of the model file
+ * and its <code>.meta</code>-file, and also by the default model kind. So, if the model is re-trained and
+ * the file is changed, it will be loaded again.</p>
+ *
+ * <p>OpenCV models are not guaranteed to be reentrant, and also the predictor has a mutable state
+ * (prediction flags). So, the cache stores a pool of identical predictors for every model file:
+ * {@link #acquire(Path, MLKind)} method returns a {@link Lease}, which exclusively owns one of them
+ * until {@link Lease#close()} call, which returns the predictor back to the pool.
+ * If several threads use the same model simultaneously, every thread gets its own instance.</p>
+ *
+ * <p>The cache is limited by the number of models and by the summary "weight" of idle predictors,
+ * which is estimated as the size of the model file; least recently used models are evicted first.</p>
+ */
+public final class MLPredictorCache {
+    public static final String MAX_MEMORY_PROPERTY_NAME =
+            "net.algart.executors.modules.opencv.ml.predictorCacheMemory";
+    public static final String MAX_MODELS_PROPERTY_NAME =
+            "net.algart.executors.modules.opencv.ml.predictorCacheModels";
+    public static final String MAX_IDLE_PREDICTORS_PER_MODEL_PROPERTY_NAME =
+            "net.algart.executors.modules.opencv.ml.predictorCacheIdlePerModel";
+
+    private static final MLPredictorCache INSTANCE = new MLPredictorCache(
+            Arrays.SystemSettings.getLongProperty(MAX_MEMORY_PROPERTY_NAME, 512L * 1048576L),
+            Arrays.SystemSettings.getIntProperty(MAX_MODELS_PROPERTY_NAME, 16),
+            Arrays.SystemSettings.getIntProperty(MAX_IDLE_PREDICTORS_PER_MODEL_PROPERTY_NAME,
+                    Math.max(1, Arrays.SystemSettings.cpuCount())));
+
+    private final long maxMemory;
+    private final int maxModels;
+    private final int maxIdlePredictorsPerModel;
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // - access order: the first entry is the least recently used
+    private long idleWeight = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong loadTimeNanos = new AtomicLong();
+
+    private MLPredictorCache(long maxMemory, int maxModels, int maxIdlePredictorsPerModel) {
+        this.maxMemory = Math.max(0, maxMemory);
+        this.maxModels = Math.max(0, maxModels);
+        this.maxIdlePredictorsPerModel = Math.max(0, maxIdlePredictorsPerModel);
+    }
+
+    public static MLPredictorCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns a lease of the predictor for the given model file. If there is an idle predictor for this file
+     * in the cache, it is returned without loading; in other case, a new predictor is loaded from the file.
+     * The kind of the model is detected by the <code>.meta</code>-file, created while training, or is
+     * <code>defaultKind</code> if there is no such file.
+     *
+     * @param file        model file.
+     * @param defaultKind kind of the model, used if there is no <code>.meta</code>-file.
+     * @return lease of the predictor; must be closed after usage.
+     * @throws IOException in a case of I/O error.
+     */
+    public Lease acquire(Path file, MLKind defaultKind) throws IOException {
+        Objects.requireNonNull(file, "Null file");
+        Objects.requireNonNull(defaultKind, "Null defaultKind");
+        final Key key = Key.of(file, defaultKind);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null) {
+                final MLPredictor predictor = entry.idle.pollLast();
+                if (predictor != null) {
+                    idleWeight -= entry.weight;
+                    hits.incrementAndGet();
+                    return new Lease(this, entry, predictor, entry.kind);
+                }
+            }
+        }
+        misses.incrementAndGet();
+        final long t1 = System.nanoTime();
+        final MLKind kind = entry != null ? entry.kind : detectKind(key.file, defaultKind);
+        final MLPredictor predictor = kind.loadPredictor(file);
+        loadTimeNanos.addAndGet(System.nanoTime() - t1);
+        synchronized (entries) {
+            Entry actual = entries.get(key);
+            if (actual == null) {
+                actual = new Entry(kind, key.weight());
+                entries.put(key, actual);
+                evictIfNecessary();
+            }
+            return new Lease(this, actual, predictor, kind);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext(); ) {
+                evict(iterator.next());
+                iterator.remove();
+            }
+        }
+    }
+
+    public int numberOfModels() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long idleWeight() {
+        synchronized (entries) {
+            return idleWeight;
+        }
+    }
+
+    public long numberOfHits() {
+        return hits.get();
+    }
+
+    public long numberOfMisses() {
+        return misses.get();
+    }
+
+    public long numberOfEvictions() {
+        return evictions.get();
+    }
+
+    public long loadTimeNanos() {
+        return loadTimeNanos.get();
+    }
+
+    public void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+        loadTimeNanos.set(0);
+    }
+
+    public String statistics() {
+        return String.format(Locale.US,
+                "%d hits, %d misses (%.3f ms for loading), %d evictions, %d models, %.3f MB in idle predictors",
+                numberOfHits(), numberOfMisses(), loadTimeNanos() * 1e-6, numberOfEvictions(),
+                numberOfModels(), idleWeight() / 1048576.0);
+    }
+
+    @Override
+    public String toString() {
+        return "ML predictor cache (" + statistics() + ")";
+    }
+
+    public static MLKind detectKind(Path file, MLKind defaultKind) throws IOException {
+        final Path metadataJsonFile = MLMetadataJson.metadataFile(file);
+        MLKind kind = null;
+        if (Files.exists(metadataJsonFile)) {
+            final MLMetadataJson metadata = MLMetadataJson.read(metadataJsonFile, MLKind.StatModelBased::of);
+            kind = metadata.getModelKind();
+        }
+        return kind != null ? kind : defaultKind;
+    }
+
+    // Called while synchronization by entries
+    private void evictIfNecessary() {
+        for (Iterator<Entry> iterator = entries.values().iterator();
+             iterator.hasNext() && (entries.size() > maxModels || idleWeight > maxMemory); ) {
+            final Entry entry = iterator.next();
+            evict(entry);
+            iterator.remove();
+        }
+    }
+
+    // Called while synchronization by entries
+    private void evict(Entry entry) {
+        entry.evicted = true;
+        idleWeight -= entry.weight * entry.idle.size();
+        for (MLPredictor predictor : entry.idle) {
+            predictor.close();
+        }
+        entry.idle.clear();
+        evictions.incrementAndGet();
+    }
+
+    private void release(Entry entry, MLPredictor predictor) {
+        synchronized (entries) {
+            if (!entry.evicted
+                    && entry.idle.size() < maxIdlePredictorsPerModel
+                    && entry.weight <= maxMemory) {
+                entry.idle.addLast(predictor);
+                idleWeight += entry.weight;
+                evictIfNecessary();
+                return;
+            }
+        }
+        predictor.close();
+    }
+
+    public static final class Lease implements AutoCloseable {
+        private final MLPredictorCache cache;
+        private final Entry entry;
+        private final MLKind kind;
+        private MLPredictor predictor;
+
+        private Lease(MLPredictorCache cache, Entry entry, MLPredictor predictor, MLKind kind) {
+            this.cache = cache;
+            this.entry = entry;
+            this.predictor = Objects.requireNonNull(predictor, "Null predictor");
+            this.kind = kind;
+        }
+
+        /**
+         * Returns a lease of the given predictor, which is not stored in any cache:
+         * {@link #close()} method just closes it.
+         *
+         * @param predictor some predictor.
+         * @return lease, owning this predictor.
+         */
+        public static Lease owned(MLPredictor predictor) {
+            return new Lease(null, null, predictor, null);
+        }
+
+        public MLPredictor predictor() {
+            if (predictor == null) {
+                throw new IllegalStateException("The predictor lease is already closed");
+            }
+            return predictor;
+        }
+
+        /**
+         * Returns the kind of the model or <code>null</code> for {@link #owned(MLPredictor) owned} predictors.
+         *
+         * @return kind of the model.
+         */
+        public MLKind kind() {
+            return kind;
+        }
+
+        public boolean isCached() {
+            return cache != null;
+        }
+
+        @Override
+        public void close() {
+            final MLPredictor predictor = this.predictor;
+            if (predictor == null) {
+                return;
+            }
+            this.predictor = null;
+            if (cache != null) {
+                cache.release(entry, predictor);
+            } else {
+                predictor.close();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final MLKind kind;
+        private final long weight;
+        private final ArrayDeque<MLPredictor> idle = new ArrayDeque<>();
+        private boolean evicted = false;
+
+        private Entry(MLKind kind, long weight) {
+            this.kind = kind;
+            this.weight = weight;
+        }
+    }
+
+    private record Key(
+            Path file,
+            long lastModified,
+            long size,
+            long metadataLastModified,
+            MLKind defaultKind) {
+
+        static Key of(Path file, MLKind defaultKind) throws IOException {
+            file = file.toAbsolutePath().normalize();
+            final Path metadataJsonFile = MLMetadataJson.metadataFile(file);
+            final long metadataLastModified = Files.exists(metadataJsonFile) ?
+                    Files.getLastModifiedTime(metadataJsonFile).toMillis() :
+                    -1;
+            if (!Files.isRegularFile(file)) {
+                // - we should not try to load such a file: it can crash OpenCV
+                throw new FileNotFoundException(
+                        "Statistic model file does not exist or is not a regular file: " + file);
+            }
+            return new Key(
+                    file,
+                    Files.getLastModifiedTime(file).toMillis(),
+                    Files.size(file),
+                    metadataLastModified,
+                    defaultKind);
+        }
+
+        long weight() {
+            return Math.max(size, 1);
+        }
+    }
+}
@@ -29,11 +29,13 @@ import net.algart.executors.api.data.SNumbers;
 import net.algart.executors.modules.opencv.matrices.ml.AbstractMLPredict;
 import net.algart.executors.modules.opencv.matrices.ml.MLKind;
 import net.algart.executors.modules.opencv.matrices.ml.MLPredictor;
+import net.algart.executors.modules.opencv.matrices.ml.MLPredictorCache;
 import net.algart.executors.modules.opencv.matrices.ml.MLSamplesType;
 import org.bytedeco.opencv.opencv_ml.DTrees;
 
 public final class MLPredict extends AbstractMLPredict {
     private MLKind.StatModelBased defaultPredictor = MLKind.StatModelBased.SVM;
+    private boolean useCache = true;
 
     private MLPredict(MLSamplesType samplesType) {
         super(samplesType);
@@ -56,6 +58,15 @@ public final class MLPredict extends AbstractMLPredict {
         return this;
     }
 
+    public boolean isUseCache() {
+        return useCache;
+    }
+
+    public MLPredict setUseCache(boolean useCache) {
+        this.useCache = useCache;
+        return this;
+    }
+
     public boolean isPredictionDTreesSum() {
         return getPredictionFlagByMask(DTrees.PREDICT_SUM);
     }
@@ -76,7 +87,8 @@ public final class MLPredict extends AbstractMLPredict {
 
     @Override
     public void process() {
-        try (MLPredictor predictor = readStandardPredictor(defaultPredictor)) {
+        try (MLPredictorCache.Lease lease = leaseStandardPredictor(defaultPredictor, useCache)) {
+            final MLPredictor predictor = lease.predictor();
             setPredictionFlags(predictor);
             predict(predictor);
         }
@@ -297,4 +297,9 @@ public final class CascadeClassifier extends UMatToNumbers {
             }
         }
     }
+
+    @Override
+    protected boolean isSourceReadOnly() {
+        return true;
+    }
 }
@@ -90,4 +90,9 @@ public final class MinMaxInfo extends UMatToNumbers implements ReadOnlyExecution
         System.arraycopy(max, 0, result, min.length, max.length);
         return result;
     }
+
+    @Override
+    protected boolean isSourceReadOnly() {
+        return true;
+    }
 }
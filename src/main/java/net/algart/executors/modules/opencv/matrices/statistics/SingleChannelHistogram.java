@@ -142,4 +142,9 @@ public final class SingleChannelHistogram extends UMatToNumbers implements ReadO
             return O2SMat.toRawNumbers(hist, 1);
         }
     }
+
+    @Override
+    protected boolean isSourceReadOnly() {
+        return true;
+    }
 }
@@ -25,20 +25,31 @@
 package net.algart.executors.modules.opencv.matrices.video;
 
 import net.algart.executors.api.data.Port;
+import net.algart.executors.modules.core.common.io.PathPropertyReplacement;
 import net.algart.executors.modules.opencv.common.VoidResultUMatFilter;
 import net.algart.executors.modules.opencv.util.O2SMat;
+import org.bytedeco.opencv.global.opencv_imgcodecs;
 import org.bytedeco.opencv.opencv_core.Mat;
 import org.bytedeco.opencv.opencv_core.UMat;
 import org.bytedeco.opencv.opencv_video.BackgroundSubtractor;
 
+import java.io.IOError;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 public abstract class AbstractBackgroundSubtractor extends VoidResultUMatFilter {
     public static final String OUTPUT_BACKGROUND = "background";
 
     private boolean reset = true;
     private boolean detectShadows = true;
+    private int backgroundOutputPeriod = 1;
+    private String modelSnapshotFile = "";
+    private int modelSnapshotPeriod = 0;
 
     private volatile BackgroundSubtractor subtractor = null;
     private volatile Mat background = null;
+    private long frameCounter = 0;
 
     public boolean isReset() {
         return reset;
@@ -60,6 +71,37 @@ public abstract class AbstractBackgroundSubtractor extends VoidResultUMatFilter
         this.detectShadows = detectShadows;
     }
 
+    public int getBackgroundOutputPeriod() {
+        return backgroundOutputPeriod;
+    }
+
+    public void setBackgroundOutputPeriod(int backgroundOutputPeriod) {
+        this.backgroundOutputPeriod = positive(backgroundOutputPeriod);
+    }
+
+    /**
+     * Returns the file for saving and restoring the background model.
+     * It is used only in streaming mode, when {@link #isReset() reset} flag is cleared:
+     * in other case, the model is created again for every frame, and its snapshot has no sense.
+     *
+     * @return model snapshot file (empty string if not specified).
+     */
+    public String getModelSnapshotFile() {
+        return modelSnapshotFile;
+    }
+
+    public void setModelSnapshotFile(String modelSnapshotFile) {
+        this.modelSnapshotFile = nonNull(modelSnapshotFile).trim();
+    }
+
+    public int getModelSnapshotPeriod() {
+        return modelSnapshotPeriod;
+    }
+
+    public void setModelSnapshotPeriod(int modelSnapshotPeriod) {
+        this.modelSnapshotPeriod = nonNegative(modelSnapshotPeriod);
+    }
+
     public Mat getBackground() {
         return background;
     }
@@ -67,61 +109,125 @@ public abstract class AbstractBackgroundSubtractor extends VoidResultUMatFilter
     /*Repeat() \bMat ==> UMat */
     @Override
     public void process(Mat result, Mat source) {
-        final Port backgroundPort = getOutputPort(OUTPUT_BACKGROUND);
-        if (subtractor == null || reset) {
-            if (subtractor != null) {
-                subtractor.close();
-            }
-            subtractor = createBackgroundSubtractor();
+        prepareSubtractor().apply(source, result);
+        afterFrame();
+    }
+
+    /*Repeat.AutoGeneratedStart !! Auto-generated: NOT EDIT !! */
+    @Override
+    public void process(UMat result, UMat source) {
+        prepareSubtractor().apply(source, result);
+        afterFrame();
+    }
+
+    /*Repeat.AutoGeneratedEnd*/
+
+    /**
+     * Saves the current background image of the model into {@link #getModelSnapshotFile() model snapshot file}.
+     * When the model is created next time (for example, after restarting the application),
+     * it is initialized by this image, so the model does not need a long warm-up period.
+     */
+    public void saveModelSnapshot() {
+        final BackgroundSubtractor subtractor = this.subtractor;
+        if (subtractor == null) {
+            throw new IllegalStateException("No background model: no frames were processed yet");
         }
-        subtractor.apply(source, result);
-        if (backgroundPort != null && backgroundPort.isConnected()) {
-            if (background != null) {
-                background.close();
+        final Path path = modelSnapshotPath();
+        if (path == null) {
+            throw new IllegalStateException("Model snapshot file is not specified");
+        }
+        try (Mat image = new Mat()) {
+            subtractor.getBackgroundImage(image);
+            if (image.empty()) {
+                return;
+            }
+            logDebug(() -> "Saving background model snapshot " + image + " to " + path);
+            if (!opencv_imgcodecs.imwrite(path.toString(), image)) {
+                throw new IOError(new IOException("Cannot write model snapshot " + path));
             }
-            createBackground();
-            subtractor.getBackgroundImage(background);
-            O2SMat.setTo(getMat(OUTPUT_BACKGROUND), background);
         }
     }
 
-    /*Repeat.AutoGeneratedStart !! Auto-generated: NOT EDIT !! */
     @Override
-    public void process(UMat result, UMat source) {
-        final Port backgroundPort = getOutputPort(OUTPUT_BACKGROUND);
+    public void close() {
+        if (subtractor != null) {
+            if (isModelSnapshotUsed()) {
+                try {
+                    saveModelSnapshot();
+                } catch (RuntimeException | IOError e) {
+                    logInfo(() -> "Cannot save background model snapshot: " + e);
+                }
+            }
+            subtractor.close();
+            subtractor = null;
+        }
+        if (background != null) {
+            background.close();
+            background = null;
+        }
+        super.close();
+    }
+
+    abstract BackgroundSubtractor createBackgroundSubtractor();
+
+    private BackgroundSubtractor prepareSubtractor() {
         if (subtractor == null || reset) {
             if (subtractor != null) {
                 subtractor.close();
             }
             subtractor = createBackgroundSubtractor();
+            frameCounter = 0;
+            if (isModelSnapshotUsed()) {
+                // - without reset, the subtractor is created only once: the snapshot is restored for the first frame
+                restoreModelSnapshot(subtractor);
+            }
         }
-        subtractor.apply(source, result);
-        if (backgroundPort != null && backgroundPort.isConnected()) {
+        return subtractor;
+    }
+
+    private void afterFrame() {
+        final Port backgroundPort = getOutputPort(OUTPUT_BACKGROUND);
+        if (backgroundPort != null && backgroundPort.isConnected() && frameCounter % backgroundOutputPeriod == 0) {
+            // - in streaming mode, the background image is copied only every backgroundOutputPeriod frames
             if (background != null) {
                 background.close();
+                // - cannot be reused: the previous output SMat may still refer to it
             }
             createBackground();
             subtractor.getBackgroundImage(background);
             O2SMat.setTo(getMat(OUTPUT_BACKGROUND), background);
         }
+        frameCounter++;
+        if (modelSnapshotPeriod > 0 && frameCounter % modelSnapshotPeriod == 0 && isModelSnapshotUsed()) {
+            saveModelSnapshot();
+        }
     }
 
-    /*Repeat.AutoGeneratedEnd*/
-
-    @Override
-    public void close() {
-        if (subtractor != null) {
-            subtractor.close();
-            subtractor = null;
+    private void restoreModelSnapshot(BackgroundSubtractor subtractor) {
+        final Path path = modelSnapshotPath();
+        if (path == null || !Files.isRegularFile(path)) {
+            return;
         }
-        if (background != null) {
-            background.close();
-            background = null;
+        try (Mat image = opencv_imgcodecs.imread(path.toString(), opencv_imgcodecs.IMREAD_UNCHANGED);
+             Mat mask = new Mat()) {
+            if (image == null || image.empty()) {
+                throw new IOError(new IOException("Cannot read model snapshot " + path));
+            }
+            logDebug(() -> "Initializing background model by snapshot " + image + " from " + path);
+            subtractor.apply(image, mask, 1.0);
+            // - learning rate 1.0 means that the model is completely reinitialized from this image
         }
-        super.close();
     }
 
-    abstract BackgroundSubtractor createBackgroundSubtractor();
+    private boolean isModelSnapshotUsed() {
+        return !reset && modelSnapshotPath() != null;
+    }
+
+    private Path modelSnapshotPath() {
+        return modelSnapshotFile.isEmpty() ?
+                null :
+                PathPropertyReplacement.translatePropertiesAndCurrentDirectory(modelSnapshotFile, this);
+    }
 
     private void createBackground() {
         background = new Mat();
@@ -0,0 +1,225 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.opencv.matrices.video;
+
+import net.algart.executors.api.ReadOnlyExecutionInput;
+import net.algart.executors.modules.core.common.io.FileOperation;
+import net.algart.executors.modules.opencv.util.O2SMat;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_videoio.VideoCapture;
+
+import java.io.IOError;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads frames of a video file one by one: every call of {@link #process()} returns the next frame.
+ * Frames are decoded in a separate thread and placed into a bounded prefetch queue,
+ * so decoding the next frames is performed in parallel with processing the current one.
+ */
+public final class ReadVideoFrames extends FileOperation implements ReadOnlyExecutionInput {
+    public static final String OUTPUT_FRAME_INDEX = "frame_index";
+    public static final String OUTPUT_END_OF_VIDEO = "end_of_video";
+
+    private int prefetchQueueSize = 8;
+
+    private volatile Prefetcher prefetcher = null;
+
+    public ReadVideoFrames() {
+        addFileOperationPorts();
+        addOutputMat(DEFAULT_OUTPUT_PORT);
+        addOutputScalar(OUTPUT_FRAME_INDEX);
+        addOutputScalar(OUTPUT_END_OF_VIDEO);
+    }
+
+    @Override
+    public ReadVideoFrames setFile(String file) {
+        super.setFile(file);
+        return this;
+    }
+
+    public int getPrefetchQueueSize() {
+        return prefetchQueueSize;
+    }
+
+    public ReadVideoFrames setPrefetchQueueSize(int prefetchQueueSize) {
+        this.prefetchQueueSize = positive(prefetchQueueSize);
+        return this;
+    }
+
+    @Override
+    public void process() {
+        final String file = completeOSFilePath(false).toString();
+        if (prefetcher != null && !prefetcher.file.equals(file)) {
+            logInfo(() -> "Video file changed, need to reopen");
+            closePrefetcher();
+        }
+        if (prefetcher == null) {
+            prefetcher = new Prefetcher(file, prefetchQueueSize);
+            logInfo(() -> "Opened " + prefetcher);
+        }
+        final Frame frame = prefetcher.nextFrame();
+        getScalar(OUTPUT_END_OF_VIDEO).setTo(String.valueOf(frame == null));
+        if (frame == null) {
+            getMat().remove();
+            getScalar(OUTPUT_FRAME_INDEX).remove();
+            return;
+        }
+        logDebug(() -> "Frame #" + frame.index + " from " + prefetcher);
+        O2SMat.setTo(getMat(), frame.mat);
+        getScalar(OUTPUT_FRAME_INDEX).setTo(frame.index);
+    }
+
+    @Override
+    public void close() {
+        closePrefetcher();
+        super.close();
+    }
+
+    private void closePrefetcher() {
+        if (prefetcher != null) {
+            logInfo(() -> "Closing " + prefetcher);
+            prefetcher.close();
+            prefetcher = null;
+        }
+    }
+
+    public record Frame(Mat mat, long index) {
+    }
+
+    public static final class Prefetcher implements AutoCloseable {
+        private static final Frame END_OF_VIDEO = new Frame(null, -1);
+
+        private final String file;
+        private final VideoCapture video;
+        private final BlockingQueue<Frame> queue;
+        private final Thread thread;
+        private volatile boolean closed = false;
+        private volatile Throwable decodingException = null;
+        private boolean ended = false;
+
+        public Prefetcher(String file, int queueSize) {
+            this.file = Objects.requireNonNull(file, "Null file");
+            if (queueSize <= 0) {
+                throw new IllegalArgumentException("Zero or negative queue size " + queueSize);
+            }
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+            this.video = new VideoCapture();
+            if (!video.open(file)) {
+                video.close();
+                throw new IOError(new IOException("Cannot open video file " + file));
+            }
+            this.thread = new Thread(this::decode, "Video decoding: " + file);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        /**
+         * Returns the next decoded frame or {@code null} at the end of the video.
+         * Waits while the frame is being decoded.
+         *
+         * @return next frame or {@code null}.
+         */
+        public Frame nextFrame() {
+            if (ended) {
+                return null;
+            }
+            final Frame frame;
+            try {
+                frame = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOError(new IOException("Interrupted while waiting for frame from " + file, e));
+            }
+            if (frame == END_OF_VIDEO) {
+                ended = true;
+                final Throwable exception = decodingException;
+                if (exception != null) {
+                    throw new IOError(new IOException("Cannot decode " + file, exception));
+                }
+                return null;
+            }
+            return frame;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (Frame frame; (frame = queue.poll()) != null; ) {
+                if (frame.mat != null) {
+                    frame.mat.close();
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "video file " + file + " (prefetch queue " + queue.remainingCapacity() + "+" + queue.size() + ")";
+        }
+
+        private void decode() {
+            try {
+                for (long index = 0; !closed; index++) {
+                    final Mat mat = new Mat();
+                    boolean handedOff = false;
+                    try {
+                        if (!video.read(mat)) {
+                            break;
+                        }
+                        queue.put(new Frame(mat, index));
+                        handedOff = true;
+                    } finally {
+                        if (!handedOff) {
+                            mat.close();
+                            // - end of video, interruption by close() or decoding error
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+                // - closed
+            } catch (Throwable e) {
+                decodingException = e;
+            } finally {
+                video.release();
+                video.close();
+            }
+            try {
+                queue.put(END_OF_VIDEO);
+            } catch (InterruptedException ignored) {
+                // - closed
+            }
+        }
+    }
+}
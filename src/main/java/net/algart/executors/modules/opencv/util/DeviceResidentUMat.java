@@ -0,0 +1,190 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.modules.opencv.util;
+
+import net.algart.executors.api.data.SMat;
+import org.bytedeco.opencv.opencv_core.UMat;
+
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reference to OpenCV <code>UMat</code>, which stays in the device (GPU) memory after finishing the executor,
+ * which created it ("device-resident" mode, see {@link O2SMat#setToDeviceResident(SMat, UMat)}).
+ *
+ * <p>Unlike {@link ConvertibleUMat}, {@link #copyToMemoryAndDisposePrevious()} does not download
+ * the data into usual memory. If the next executor is also UMat-based and works in the same thread,
+ * it receives this <code>UMat</code> via {@link O2SMat#toUMat(SMat, boolean, boolean)} without any transfers
+ * between device and host memory. The data are downloaded into usual memory lazily: only when some
+ * other consumer requests the {@link #toByteBuffer(SMat) byte buffer}, or when the <code>UMat</code>
+ * is requested from another thread (OpenCL queues are not shared safely between threads).</p>
+ *
+ * <p>This class counts transfers between device and host memory (downloads here, uploads in
+ * {@link O2SMat#toUMat(SMat, boolean)}) and "hand-overs" without transfers: globally and for every thread.
+ * Thread statistics are a good estimation for a chain, executed in one thread.</p>
+ */
+public final class DeviceResidentUMat extends SMat.Convertible {
+    private static final AtomicLong HAND_OVERS = new AtomicLong();
+    private static final AtomicLong DOWNLOADS = new AtomicLong();
+    private static final AtomicLong UPLOADS = new AtomicLong();
+    private static final ThreadLocal<long[]> THREAD_COUNTERS = ThreadLocal.withInitial(() -> new long[3]);
+    private static final int HAND_OVERS_INDEX = 0;
+    private static final int DOWNLOADS_INDEX = 1;
+    private static final int UPLOADS_INDEX = 2;
+
+    private volatile UMat mat;
+    private final Thread ownerThread;
+    private final AtomicBoolean disposed = new AtomicBoolean(false);
+
+    DeviceResidentUMat(UMat mat) {
+        this(mat, Thread.currentThread());
+    }
+
+    private DeviceResidentUMat(UMat mat, Thread ownerThread) {
+        this.mat = Objects.requireNonNull(mat, "Null mat");
+        this.ownerThread = Objects.requireNonNull(ownerThread, "Null ownerThread");
+    }
+
+    public boolean isAccessibleFromCurrentThread() {
+        return Thread.currentThread() == ownerThread;
+    }
+
+    /**
+     * Returns the <code>UMat</code> for the consumer in the owner thread without any transfers.
+     * If <code>readOnly</code> is <code>false</code>, returns its clone in the device memory:
+     * the consumer may process it in place, but this output may be also used by other consumers.
+     *
+     * @param readOnly whether the consumer guarantees that the result will not be modified.
+     * @return the <code>UMat</code> or its clone.
+     * @throws IllegalStateException if the current thread is not the owner thread.
+     */
+    public UMat handOver(boolean readOnly) {
+        checkMat();
+        if (!isAccessibleFromCurrentThread()) {
+            throw new IllegalStateException("Device-resident UMat cannot be used in thread "
+                    + Thread.currentThread() + ": it was created in " + ownerThread);
+        }
+        count(HAND_OVERS, HAND_OVERS_INDEX);
+        return readOnly ? mat : mat.clone();
+    }
+
+    @Override
+    public SMat.Convertible copy() {
+        checkMat();
+        if (isAccessibleFromCurrentThread()) {
+            return new DeviceResidentUMat(mat.clone(), ownerThread);
+        } else {
+            return new ConvertibleByteBufferMatrix(download());
+        }
+    }
+
+    @Override
+    public SMat.Convertible copyToMemoryAndDisposePrevious() {
+        checkMat();
+        // - no copying: the ownership of the UMat is passed to the new reference
+        final DeviceResidentUMat result = new DeviceResidentUMat(mat, ownerThread);
+        if (!disposed.getAndSet(true)) {
+            mat = null;
+        }
+        return result;
+    }
+
+    @Override
+    public ByteBuffer toByteBuffer(SMat thisMatrix) {
+        checkMat();
+        return download();
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed.getAndSet(true)) {
+            return;
+        }
+        mat.close();
+        mat = null;
+    }
+
+    public static long numberOfHandOvers() {
+        return HAND_OVERS.get();
+    }
+
+    public static long numberOfDownloads() {
+        return DOWNLOADS.get();
+    }
+
+    public static long numberOfUploads() {
+        return UPLOADS.get();
+    }
+
+    public static void resetStatistics() {
+        HAND_OVERS.set(0);
+        DOWNLOADS.set(0);
+        UPLOADS.set(0);
+    }
+
+    public static String statistics() {
+        return String.format(Locale.US, "%d UMat hand-overs without transfers, %d downloads, %d uploads",
+                numberOfHandOvers(), numberOfDownloads(), numberOfUploads());
+    }
+
+    public static String currentThreadStatistics() {
+        final long[] counters = THREAD_COUNTERS.get();
+        return String.format(Locale.US, "%d UMat hand-overs without transfers, %d downloads, %d uploads "
+                        + "in the current thread",
+                counters[HAND_OVERS_INDEX], counters[DOWNLOADS_INDEX], counters[UPLOADS_INDEX]);
+    }
+
+    public static void resetCurrentThreadStatistics() {
+        java.util.Arrays.fill(THREAD_COUNTERS.get(), 0);
+    }
+
+    @Override
+    public String toString() {
+        return "device-resident reference to " + OTools.toString(mat);
+    }
+
+    static void countUpload() {
+        count(UPLOADS, UPLOADS_INDEX);
+    }
+
+    private ByteBuffer download() {
+        count(DOWNLOADS, DOWNLOADS_INDEX);
+        return OTools.toByteBuffer(mat);
+    }
+
+    private void checkMat() {
+        if (disposed.get()) {
+            throw new IllegalStateException("mat is already deallocated");
+        }
+    }
+
+    private static void count(AtomicLong counter, int threadCounterIndex) {
+        counter.incrementAndGet();
+        THREAD_COUNTERS.get()[threadCounterIndex]++;
+    }
+}
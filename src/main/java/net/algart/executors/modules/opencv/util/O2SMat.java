@@ -40,8 +40,14 @@ import java.util.Objects;
 public final class O2SMat {
     public static int ML_LAYOUT = opencv_ml.ROW_SAMPLE;
 
+    public static final String READ_ONLY_SHARING_PROPERTY_NAME =
+            "net.algart.executors.modules.opencv.readOnlySharing";
+
     private static final boolean OPTIMIZE_COPYING = true;
 
+    private static final boolean READ_ONLY_SHARING_ENABLED = Arrays.SystemSettings.getBooleanProperty(
+            READ_ONLY_SHARING_PROPERTY_NAME, true);
+
     static {
         final Class<?> dummy = OTools.class;
         // initialize OTools class
@@ -125,12 +131,63 @@ public final class O2SMat {
         // that must stay immutable
     }
 
+    public static boolean isReadOnlySharingEnabled() {
+        return READ_ONLY_SHARING_ENABLED;
+    }
+
+    /**
+     * Analog of {@link #toMat(SMat, boolean)} for a case, when the client guarantees that the returned
+     * <code>Mat</code> will not be modified. If the matrix is stored in a direct <code>ByteBuffer</code>,
+     * the result shares this memory without copying; in other case, it is a usual copy or
+     * a cached <code>Mat</code>. In any case, the client must {@link ReadOnlyMatLease#close() close}
+     * the returned lease after usage, and should use {@link ReadOnlyMatLease#writableMat()}
+     * to get a matrix that can be modified.
+     *
+     * @param m                     source matrix.
+     * @param autoConvertPackedBits whether the bit matrix should be automatically converted to bytes.
+     * @return lease of read-only OpenCV matrix or <code>null</code> if the source is not initialized.
+     */
+    public static ReadOnlyMatLease toReadOnlyMat(SMat m, boolean autoConvertPackedBits) {
+        if (!m.isInitialized()) {
+            return null;
+        }
+        final SMat.Convertible pointer = m.getPointer();
+        if (pointer instanceof ConvertibleMat) {
+            return ReadOnlyMatLease.borrow(((ConvertibleMat) pointer).mat());
+        }
+        m = prepareForOpenCV(m, autoConvertPackedBits);
+        final int type = opencv_core.CV_MAKE_TYPE(m.getDepth().code(), m.getNumberOfChannels());
+        final ByteBuffer byteBuffer = m.getByteBuffer();
+        if (READ_ONLY_SHARING_ENABLED && byteBuffer.isDirect()) {
+            return ReadOnlyMatLease.share((int) m.getDimX(), (int) m.getDimY(), type, byteBuffer);
+            // - no copying: the lease guarantees that nobody will write into this buffer
+        }
+        return ReadOnlyMatLease.own(OTools.toMat((int) m.getDimX(), (int) m.getDimY(), type, byteBuffer));
+    }
+
     public static UMat toUMat(SMat m) {
         // Usually it is better to throw an exception than to convert to byte with unpredictable behaviour and slowing
         return toUMat(m, false);
     }
 
     public static UMat toUMat(SMat m, boolean autoConvertPackedBits) {
+        return toUMat(m, autoConvertPackedBits, false);
+    }
+
+    /**
+     * Analog of {@link #toUMat(SMat, boolean)}, which, in addition, can receive
+     * a {@link DeviceResidentUMat device-resident} result of the previous executor without transfers
+     * between host and device memory, if it was created in the current thread.
+     * If <code>readOnly</code> is <code>true</code>, the client guarantees that the returned <code>UMat</code>
+     * will not be modified, and it is returned without any copying; in other case,
+     * it is cloned in the device memory.
+     *
+     * @param m                     source matrix.
+     * @param autoConvertPackedBits whether the bit matrix should be automatically converted to bytes.
+     * @param readOnly              whether the returned matrix will be used as a constant.
+     * @return OpenCV matrix or <code>null</code> if the source is not initialized.
+     */
+    public static UMat toUMat(SMat m, boolean autoConvertPackedBits, boolean readOnly) {
         if (!m.isInitialized()) {
             return null;
         }
@@ -139,10 +196,15 @@ public final class O2SMat {
 //            System.out.println("OOO use cached " + pointer);
             return ((ConvertibleUMat) pointer).mat();
         }
+        if (pointer instanceof DeviceResidentUMat resident && resident.isAccessibleFromCurrentThread()) {
+            return resident.handOver(readOnly);
+        }
         m = prepareForOpenCV(m, autoConvertPackedBits);
 //        System.out.println("Converting " + m + " to Mat");
         final int type = opencv_core.CV_MAKE_TYPE(m.getDepth().code(), m.getNumberOfChannels());
-        return OTools.toUMat((int) m.getDimX(), (int) m.getDimY(), type, m.getByteBuffer());
+        final UMat result = OTools.toUMat((int) m.getDimX(), (int) m.getDimY(), type, m.getByteBuffer());
+        DeviceResidentUMat.countUpload();
+        return result;
     }
 
     public static Mat toMat(Matrix<? extends PArray> interleavedChannels) {
@@ -233,6 +295,24 @@ public final class O2SMat {
         return setTo(result, mat, false);
     }
 
+    /**
+     * Analog of {@link #setTo(SMat, UMat)}, which leaves the data in the device memory
+     * after finishing the executor: see {@link DeviceResidentUMat}.
+     *
+     * @param result the target matrix.
+     * @param mat    OpenCV matrix; must not be used by the caller after this call.
+     * @return the reference to <code>result</code>.
+     */
+    public static SMat setToDeviceResident(SMat result, UMat mat) {
+        Objects.requireNonNull(result, "Null result");
+        Objects.requireNonNull(mat, "Null mat");
+        final long dimX = mat.cols();
+        final long dimY = mat.rows();
+        final SMat.Depth depth = SMat.Depth.of(mat.depth());
+        final int channels = mat.channels();
+        return result.setAll(new long[]{dimX, dimY}, depth, channels, new DeviceResidentUMat(mat));
+    }
+
     public static Mat matrixToMlSamplesOrResponsesMat(SMat values, boolean intResult) {
         return toMat(matrixToMlSamplesOrResponsesSMat(values, intResult));
     }
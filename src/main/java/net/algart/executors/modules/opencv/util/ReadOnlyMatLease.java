@@ -0,0 +1,186 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.modules.opencv.util;
+
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reference-counted lease of OpenCV <code>Mat</code>, which must be used as a constant (read-only) matrix.
+ * It is returned by {@link O2SMat#toReadOnlyMat(net.algart.executors.api.data.SMat, boolean)}.
+ *
+ * <p>If the lease is <i>shared</i>, the <code>Mat</code> is a view of some external memory,
+ * for example, of a direct <code>ByteBuffer</code> of an immutable AlgART matrix.
+ * In this case the {@link #mat()} must never be modified; if the client needs to write into it,
+ * it must call {@link #writableMat()}, which makes a copy (copy-on-write).
+ * The lease keeps a strong reference to the shared <code>ByteBuffer</code> while it is retained.</p>
+ *
+ * <p>The <code>Mat</code>, owned by the lease, is closed when the last reference is released
+ * by {@link #close()}.</p>
+ */
+public final class ReadOnlyMatLease implements AutoCloseable {
+    private static final AtomicLong AVOIDED_COPIES = new AtomicLong();
+    private static final AtomicLong SAVED_BYTES = new AtomicLong();
+    private static final AtomicLong COPIES_ON_WRITE = new AtomicLong();
+
+    private final Mat mat;
+    private final boolean shared;
+    private final boolean ownsMat;
+    private volatile ByteBuffer sharedBuffer;
+    // - strong reference, guaranteeing that the memory of the shared Mat is not freed by GC
+    private final AtomicInteger referenceCount = new AtomicInteger(1);
+
+    private ReadOnlyMatLease(Mat mat, ByteBuffer sharedBuffer, boolean ownsMat) {
+        this.mat = Objects.requireNonNull(mat, "Null mat");
+        this.sharedBuffer = sharedBuffer;
+        this.shared = sharedBuffer != null;
+        this.ownsMat = ownsMat;
+    }
+
+    /**
+     * Creates a shared lease: <code>Mat</code>, wrapping the given direct byte buffer without copying.
+     */
+    static ReadOnlyMatLease share(int width, int height, int type, ByteBuffer byteBuffer) {
+        Objects.requireNonNull(byteBuffer, "Null byteBuffer");
+        if (!byteBuffer.isDirect()) {
+            throw new IllegalArgumentException("Cannot share non-direct byte buffer");
+        }
+        final Mat mat = OTools.asMat(width, height, type, byteBuffer);
+        AVOIDED_COPIES.incrementAndGet();
+        SAVED_BYTES.addAndGet(OTools.sizeOfInBytes(mat));
+        return new ReadOnlyMatLease(mat, byteBuffer, true);
+    }
+
+    /**
+     * Creates a lease of the own (private) copy of data: it may be freely modified.
+     */
+    static ReadOnlyMatLease own(Mat mat) {
+        return new ReadOnlyMatLease(mat, null, true);
+    }
+
+    /**
+     * Creates a lease of a <code>Mat</code>, owned by someone else (usually by a cached
+     * {@link ConvertibleMat}): it is not closed by this lease and must not be modified.
+     */
+    static ReadOnlyMatLease borrow(Mat mat) {
+        return new ReadOnlyMatLease(mat, null, false);
+    }
+
+    public Mat mat() {
+        checkNotReleased();
+        return mat;
+    }
+
+    /**
+     * Returns <code>true</code> if {@link #mat()} is a view of external memory, which must stay immutable.
+     *
+     * @return whether this lease shares memory with some other object.
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Returns a new copy of {@link #mat()}, which can be modified by the caller and stays valid
+     * after releasing this lease. The caller is responsible for closing the returned <code>Mat</code>.
+     *
+     * @return modifiable copy of the matrix.
+     */
+    public Mat writableMat() {
+        checkNotReleased();
+        COPIES_ON_WRITE.incrementAndGet();
+        return mat.clone();
+    }
+
+    public ReadOnlyMatLease retain() {
+        while (true) {
+            final int count = referenceCount.get();
+            if (count <= 0) {
+                throw new IllegalStateException("Mat lease is already released");
+            }
+            if (referenceCount.compareAndSet(count, count + 1)) {
+                return this;
+            }
+        }
+    }
+
+    public int referenceCount() {
+        return referenceCount.get();
+    }
+
+    @Override
+    public void close() {
+        final int count = referenceCount.decrementAndGet();
+        if (count < 0) {
+            throw new IllegalStateException("Mat lease is released more than once");
+        }
+        if (count == 0) {
+            if (ownsMat) {
+                mat.close();
+            }
+            sharedBuffer = null;
+        }
+    }
+
+    public static long numberOfAvoidedCopies() {
+        return AVOIDED_COPIES.get();
+    }
+
+    public static long numberOfSavedBytes() {
+        return SAVED_BYTES.get();
+    }
+
+    public static long numberOfCopiesOnWrite() {
+        return COPIES_ON_WRITE.get();
+    }
+
+    public static void resetStatistics() {
+        AVOIDED_COPIES.set(0);
+        SAVED_BYTES.set(0);
+        COPIES_ON_WRITE.set(0);
+    }
+
+    public static String statistics() {
+        return String.format(Locale.US, "%d copies avoided (%.2f MB saved), %d copies on write",
+                numberOfAvoidedCopies(), numberOfSavedBytes() / 1048576.0, numberOfCopiesOnWrite());
+    }
+
+    @Override
+    public String toString() {
+        return (shared ? "shared" : ownsMat ? "own" : "borrowed") + " read-only lease of " + OTools.toString(mat)
+                + ", " + referenceCount.get() + " references";
+    }
+
+    private void checkNotReleased() {
+        if (referenceCount.get() <= 0) {
+            throw new IllegalStateException("Mat lease is already released");
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.camera;
+
+import net.algart.arrays.Arrays;
+import net.algart.arrays.Matrix;
+import net.algart.arrays.PArray;
+import net.algart.arrays.UpdatablePArray;
+import net.algart.executors.modules.cv.matrices.camera.reflectance.ReflectanceSettings;
+import net.algart.math.functions.Func;
+import net.algart.multimatrix.MultiMatrix;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+
+public class LookupTableTranslationTest {
+    private static void compare(MultiMatrix source, Func f, Class<?> resultElementType) {
+        long t1 = System.nanoTime();
+        final MultiMatrix simple = source.asMono().asFunc(f, Arrays.type(PArray.class, resultElementType)).clone();
+        long t2 = System.nanoTime();
+        final MultiMatrix lookup = LookupTableTranslation.translate(source, f, resultElementType);
+        long t3 = System.nanoTime();
+        System.out.printf(Locale.US, "  %s -> %s: simple %.3f ms, lookup table %.3f ms%n",
+                source.elementType(), resultElementType, (t2 - t1) * 1e-6, (t3 - t2) * 1e-6);
+        if (!simple.channel(0).array().equals(lookup.channel(0).array())) {
+            throw new AssertionError("Different results");
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.printf("Usage: %s dimX dimY [numberOfTests]%n", LookupTableTranslationTest.class);
+            return;
+        }
+        final int dimX = Integer.parseInt(args[0]);
+        final int dimY = Integer.parseInt(args[1]);
+        final int numberOfTests = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        final ReflectanceSettings settings = new ReflectanceSettings();
+        settings.setTranslation(new ReflectanceSettings.LinearTranslation().setA255(0.0104).setB(-0.148));
+        final Path file = Files.createTempFile("reflectance", ".json");
+        try {
+            settings.write(file);
+            final ReflectanceSettings read = ReflectanceSettings.readCached(file);
+            if (!read.jsonString().equals(ReflectanceSettings.readCached(file).jsonString())
+                    || !read.jsonString().equals(ReflectanceSettings.read(file).jsonString())) {
+                throw new AssertionError("Cached settings differ from the file");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        final Random rnd = new Random(157);
+        for (int test = 1; test <= numberOfTests; test++) {
+            System.out.printf("Test #%d:%n", test);
+            for (Class<?> elementType : new Class<?>[]{byte.class, short.class}) {
+                final Matrix<? extends UpdatablePArray> m = Arrays.SMM.newMatrix(
+                        UpdatablePArray.class, elementType, dimX, dimY);
+                for (long k = 0, n = m.size(); k < n; k++) {
+                    m.array().setInt(k, rnd.nextInt(65536));
+                }
+                final MultiMatrix source = MultiMatrix.ofMono(m);
+                for (boolean maximalPrecision : new boolean[]{false, true}) {
+                    compare(source, settings.intensityToReflectanceFunc(elementType, maximalPrecision), float.class);
+                    compare(source, settings.reflectanceToIntensityFunc(byte.class, maximalPrecision), byte.class);
+                    compare(source, settings.reflectanceToIntensityFunc(short.class, maximalPrecision), short.class);
+                    compare(source, settings.reflectanceToIntensityFunc(int.class, maximalPrecision), int.class);
+                }
+            }
+        }
+        System.out.println("O'k");
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.derivatives;
+
+import net.algart.arrays.*;
+import net.algart.matrices.linearfiltering.BasicConvolution;
+import net.algart.matrices.linearfiltering.ContinuedConvolution;
+import net.algart.matrices.linearfiltering.Convolution;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public class HessianFusedEngineTest {
+    private static final double TOLERANCE = 1e-5;
+    // - relative; derivatives can be summed by the convolution in another order
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.printf("Usage: %s dimX dimY [numberOfTests]%n", HessianFusedEngineTest.class);
+            return;
+        }
+        final int dimX = Integer.parseInt(args[0]);
+        final int dimY = Integer.parseInt(args[1]);
+        final int numberOfTests = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        final Random rnd = new Random(157);
+        final Matrix<UpdatableFloatArray> source = Arrays.SMM.newFloatMatrix(dimX, dimY);
+        for (long k = 0, n = source.size(); k < n; k++) {
+            // - integer values with plateaus: a lot of pixels with d2/dxdy = 0
+            source.array().setFloat(k, rnd.nextInt(4) == 0 ? 0.0f : rnd.nextInt(100));
+        }
+        final List<HessianOperation> operations = List.of(HessianOperation.values());
+        final Matrix.ContinuationMode[] modes = {
+                null,
+                Matrix.ContinuationMode.MIRROR_CYCLIC,
+                Matrix.ContinuationMode.CYCLIC,
+                Matrix.ContinuationMode.ZERO_CONSTANT};
+        for (int test = 1; test <= numberOfTests; test++) {
+            System.out.printf("Test #%d:%n", test);
+            for (Matrix.ContinuationMode mode : modes) {
+                for (int flags = 0; flags < 8; flags++) {
+                    final boolean order = (flags & 1) != 0;
+                    final boolean stable = (flags & 2) != 0;
+                    final boolean normalize = (flags & 4) != 0;
+                    long t1 = System.nanoTime();
+                    final List<Matrix<? extends PArray>> simple = simpleProcess(
+                            operations, source, mode, order, stable, normalize);
+                    long t2 = System.nanoTime();
+                    final List<Matrix<? extends PArray>> fused = new HessianFusedEngine(
+                            operations, FloatArray.class, mode, order, stable, normalize).process(source);
+                    long t3 = System.nanoTime();
+                    System.out.printf(Locale.US, "  %-15s order=%-5s stable=%-5s normalize=%-5s: "
+                                    + "simple %.3f ms, fused %.3f ms%n",
+                            mode, order, stable, normalize, (t2 - t1) * 1e-6, (t3 - t2) * 1e-6);
+                    for (int k = 0; k < operations.size(); k++) {
+                        compare(operations.get(k), simple.get(k).array(), fused.get(k).array());
+                    }
+                }
+            }
+        }
+        System.out.println("O'k");
+    }
+
+    private static List<Matrix<? extends PArray>> simpleProcess(
+            List<HessianOperation> operations,
+            Matrix<? extends PArray> m,
+            Matrix.ContinuationMode mode,
+            boolean order,
+            boolean stable,
+            boolean normalize) {
+        Convolution convolution = BasicConvolution.getInstance(null, false);
+        if (mode != null) {
+            convolution = ContinuedConvolution.getInstance(convolution, mode);
+        }
+        final Matrix<? extends PFloatingArray> d2dx2 = DerivativeOperation.D2_DX2.process(
+                FloatArray.class, convolution, m);
+        final Matrix<? extends PFloatingArray> d2dy2 = DerivativeOperation.D2_DY2.process(
+                FloatArray.class, convolution, m);
+        final Matrix<? extends PFloatingArray> d2dxdy = DerivativeOperation.D2_DXDY.process(
+                FloatArray.class, convolution, m);
+        final Matrix<? extends PFloatingArray> dx = DerivativeOperation.DX.process(
+                FloatArray.class, convolution, m);
+        final Matrix<? extends PFloatingArray> dy = DerivativeOperation.DY.process(
+                FloatArray.class, convolution, m);
+        return operations.stream().<Matrix<? extends PArray>>map(operation -> Matrices.clone(operation.asOperation(
+                FloatArray.class, d2dx2, d2dy2, d2dxdy, dx, dy, order, stable, normalize))).toList();
+    }
+
+    private static void compare(HessianOperation operation, PArray expected, PArray actual) {
+        for (long k = 0, n = expected.length(); k < n; k++) {
+            final double e = expected.getDouble(k);
+            final double a = actual.getDouble(k);
+            if (!(Math.abs(e - a) <= TOLERANCE * Math.max(1.0, Math.abs(e)))
+                    && !(Double.isNaN(e) && Double.isNaN(a))) {
+                throw new AssertionError("Different results for " + operation + " at " + k
+                        + ": " + a + " instead of " + e);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.drawing;
+
+import net.algart.arrays.Matrix;
+import net.algart.arrays.UpdatableBitArray;
+import net.algart.contours.Contours;
+import net.algart.executors.modules.cv.matrices.objects.binary.boundaries.FillContours;
+import net.algart.executors.modules.cv.matrices.objects.binary.boundaries.ScanAndExtractContours;
+import net.algart.executors.modules.cv.matrices.objects.binary.boundaries.tests.RandomDiscs;
+import net.algart.multimatrix.MultiMatrix2D;
+
+import java.util.Locale;
+import java.util.Random;
+
+public class ContoursBandsTest {
+    private static boolean equal(MultiMatrix2D m1, MultiMatrix2D m2) {
+        return m1.allChannels().equals(m2.allChannels());
+        // - Matrix.equals compares dimensions and elements
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.printf("Usage: %s dimX dimY numberOfDiscs [scale [numberOfTests]]%n",
+                    ContoursBandsTest.class);
+            return;
+        }
+        final int dimX = Integer.parseInt(args[0]);
+        final int dimY = Integer.parseInt(args[1]);
+        final int numberOfDiscs = Integer.parseInt(args[2]);
+        final int scale = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        final int numberOfTests = args.length > 4 ? Integer.parseInt(args[4]) : 3;
+        final Matrix<UpdatableBitArray> objects = RandomDiscs.makeObjects(
+                dimX, dimY, numberOfDiscs, 1, Math.max(1, Math.min(dimX, dimY) / 10), false, new Random(157));
+        final int[] serialized;
+        try (ScanAndExtractContours scanner = new ScanAndExtractContours()) {
+            serialized = scanner.analyse(objects, null).toIntArray();
+        }
+        final Contours contours = Contours.deserialize(serialized);
+        System.out.printf("%d contours%n", contours.numberOfContours());
+        try (DrawContours sequential = new DrawContours();
+             DrawContours banded = new DrawContours();
+             FillContours sequentialFill = new FillContours();
+             FillContours bandedFill = new FillContours()) {
+            for (DrawContours drawer : new DrawContours[]{sequential, banded}) {
+                drawer.setDimX(dimX * scale).setDimY(dimY * scale).setScale(scale);
+                drawer.setDrawnContourKinds(DrawContours.DrawnContourKinds.ALL).setRandSeed(157);
+            }
+            sequential.setMultithreadingBands(false);
+            for (FillContours filler : new FillContours[]{sequentialFill, bandedFill}) {
+                filler.setSizeX(dimX).setSizeY(dimY);
+            }
+            sequentialFill.setMultithreadingBands(false);
+            for (int test = 1; test <= numberOfTests; test++) {
+                System.out.printf("Test #%d:%n", test);
+                for (DrawContours.DrawnFeatures features : DrawContours.DrawnFeatures.values()) {
+                    sequential.setDrawnFeatures(features);
+                    banded.setDrawnFeatures(features);
+                    long t1 = System.nanoTime();
+                    final MultiMatrix2D result1 = sequential.process(contours, null);
+                    long t2 = System.nanoTime();
+                    final MultiMatrix2D result2 = banded.process(contours, null);
+                    long t3 = System.nanoTime();
+                    System.out.printf(Locale.US, "  %-45s sequential %.3f ms, banded %.3f ms%n",
+                            features, (t2 - t1) * 1e-6, (t3 - t2) * 1e-6);
+                    if (features == DrawContours.DrawnFeatures.NOT_INTERSECTED_RANDOMLY_COLORED_CONTOURS) {
+                        // - other colors, but must be deterministic
+                        if (!equal(result2, banded.process(contours, null))) {
+                            throw new AssertionError("Non-deterministic random colors");
+                        }
+                    } else if (!equal(result1, result2)) {
+                        throw new AssertionError("Different results for " + features);
+                    }
+                }
+                long t1 = System.nanoTime();
+                final MultiMatrix2D filled1 = sequentialFill.process(null, serialized);
+                long t2 = System.nanoTime();
+                final MultiMatrix2D filled2 = bandedFill.process(null, serialized);
+                long t3 = System.nanoTime();
+                System.out.printf(Locale.US, "  %-45s sequential %.3f ms, banded %.3f ms%n",
+                        "FillContours", (t2 - t1) * 1e-6, (t3 - t2) * 1e-6);
+                if (!equal(filled1, filled2)) {
+                    throw new AssertionError("Different results of filling");
+                }
+            }
+        }
+        System.out.println("O'k");
+    }
+}
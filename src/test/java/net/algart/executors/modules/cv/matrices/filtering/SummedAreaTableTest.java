@@ -0,0 +1,148 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.filtering;
+
+import net.algart.arrays.*;
+import net.algart.math.IRectangularArea;
+import net.algart.matrices.morphology.Quick2DAverager;
+
+import java.util.Locale;
+import java.util.Random;
+
+public class SummedAreaTableTest {
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.printf("Usage: %s dimX dimY [numberOfTests]%n", SummedAreaTableTest.class);
+            return;
+        }
+        final int dimX = Integer.parseInt(args[0]);
+        final int dimY = Integer.parseInt(args[1]);
+        final int numberOfTests = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        final Random rnd = new Random(157);
+        final Matrix<UpdatableByteArray> source = Arrays.SMM.newByteMatrix(dimX, dimY);
+        for (long k = 0, n = source.size(); k < n; k++) {
+            source.array().setByte(k, rnd.nextInt(256));
+        }
+        System.setProperty(SummedAreaTable.CACHE_MAX_MEMORY_PROPERTY_NAME, String.valueOf(Long.MAX_VALUE));
+        // - before initializing SummedAreaTable class: the table of any size must be cached
+        long t1 = System.nanoTime();
+        final SummedAreaTable table = SummedAreaTable.getInstance(source, true);
+        long t2 = System.nanoTime();
+        final SummedAreaTable reused = SummedAreaTable.getInstance(source, false);
+        final SummedAreaTable reusedAgain = SummedAreaTable.getInstance(source, true);
+        long t3 = System.nanoTime();
+        if (reused != table || reusedAgain != table) {
+            throw new AssertionError("Summed-area table is not reused");
+        }
+        SummedAreaTable.clearCache();
+        final SummedAreaTable withoutSquares = SummedAreaTable.getInstance(source, false);
+        final SummedAreaTable upgraded = SummedAreaTable.getInstance(source, true);
+        if (withoutSquares.hasSquares() || !upgraded.hasSquares()
+                || SummedAreaTable.getInstance(source, false) != upgraded) {
+            throw new AssertionError("Cached table without squares is not replaced by the table with squares");
+        }
+        final int original = source.array().getInt(0);
+        source.array().setInt(0, original ^ 1);
+        final SummedAreaTable changed = SummedAreaTable.getInstance(source, true);
+        if (changed == upgraded || changed.sum(0, 0, IRectangularArea.valueOf(0, 0, 0, 0)) != (original ^ 1)) {
+            throw new AssertionError("Stale summed-area table returned for the modified matrix");
+        }
+        source.array().setInt(0, original);
+        System.out.printf(Locale.US, "%s built in %.3f ms, reused in %.3f ms%n",
+                table, (t2 - t1) * 1e-6, (t3 - t2) * 1e-6);
+        for (int test = 1; test <= numberOfTests; test++) {
+            final int sizeX = 1 + rnd.nextInt(test % 3 == 0 ? 3 * dimX : Math.max(1, dimX / 4));
+            final int sizeY = 1 + rnd.nextInt(test % 3 == 0 ? 3 * dimY : Math.max(1, dimY / 4));
+            final int minX = rnd.nextInt(2 * sizeX + 5) - sizeX - 2;
+            final int minY = rnd.nextInt(2 * sizeY + 5) - sizeY - 2;
+            final IRectangularArea rectangle = IRectangularArea.valueOf(
+                    minX, minY, minX + sizeX - 1, minY + sizeY - 1);
+            final boolean strictDivision = rnd.nextBoolean();
+            t1 = System.nanoTime();
+            final Matrix<? extends PArray> quick = Quick2DAverager.newInstance(
+                            byte.class, source.dimensions(), false)
+                    .setRounding(true)
+                    .setStrictDivision(strictDivision)
+                    .filter(source, rectangle);
+            t2 = System.nanoTime();
+            final Matrix<? extends PArray> integral = table.average(byte.class, rectangle, true, strictDivision);
+            t3 = System.nanoTime();
+            final Matrix<? extends PArray> variance = table.variance(float.class, rectangle);
+            long t4 = System.nanoTime();
+            System.out.printf(Locale.US, "Test #%d, %s: Quick2DAverager %.3f ms, summed-area table %.3f ms, "
+                            + "variance %.3f ms%n",
+                    test, rectangle, (t2 - t1) * 1e-6, (t3 - t2) * 1e-6, (t4 - t3) * 1e-6);
+            if (!quick.equals(integral)) {
+                throw new AssertionError("Different averaging results for " + rectangle);
+            }
+            final int numberOfCheckedPixels = (long) sizeX * (long) sizeY > 1000000 ? 3 : 100;
+            // - brute-force checking is slow for large rectangles
+            for (int k = 0; k < numberOfCheckedPixels; k++) {
+                final int x = rnd.nextInt(dimX);
+                final int y = rnd.nextInt(dimY);
+                checkPixel(source, table, variance, rectangle, x, y);
+            }
+        }
+        System.out.println("O'k");
+    }
+
+    private static void checkPixel(
+            Matrix<? extends PArray> source,
+            SummedAreaTable table,
+            Matrix<? extends PArray> variance,
+            IRectangularArea rectangle,
+            int x,
+            int y) {
+        final PArray array = source.array();
+        final long n = array.length();
+        final long dimX = source.dimX();
+        double sum = 0.0;
+        double sumOfSquares = 0.0;
+        for (long dy = rectangle.min(1); dy <= rectangle.max(1); dy++) {
+            for (long dx = rectangle.min(0); dx <= rectangle.max(0); dx++) {
+                final long index = Math.floorMod((y - dy) * dimX + x - dx, n);
+                // - pseudo-cyclic continuation
+                final double v = array.getDouble(index);
+                sum += v;
+                sumOfSquares += v * v;
+            }
+        }
+        final double tableSum = table.sum(x, y, rectangle);
+        if (tableSum != sum) {
+            throw new AssertionError("Invalid sum at (" + x + ", " + y + "): "
+                    + tableSum + " instead of " + sum);
+        }
+        final double count = (double) (rectangle.max(0) - rectangle.min(0) + 1)
+                * (double) (rectangle.max(1) - rectangle.min(1) + 1);
+        final double mean = sum / count;
+        final double expected = Math.max(0.0, sumOfSquares / count - mean * mean);
+        final double actual = variance.array().getDouble(y * dimX + x);
+        if (Math.abs(actual - expected) > 1e-3 * Math.max(1.0, expected)) {
+            throw new AssertionError("Invalid variance at (" + x + ", " + y + "): "
+                    + actual + " instead of " + expected);
+        }
+    }
+}
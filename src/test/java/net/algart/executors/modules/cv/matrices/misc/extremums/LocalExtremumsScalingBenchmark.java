@@ -0,0 +1,109 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.misc.extremums;
+
+import net.algart.arrays.Arrays;
+import net.algart.arrays.Matrix;
+import net.algart.arrays.UpdatableFloatArray;
+import net.algart.executors.modules.cv.matrices.misc.LocalExtremums;
+import net.algart.multimatrix.MultiMatrix;
+import net.algart.multimatrix.MultiMatrix2D;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class LocalExtremumsScalingBenchmark {
+    private static void testSelect(Random rnd) {
+        for (int test = 0; test < 10000; test++) {
+            final int n = 1 + rnd.nextInt(200);
+            final float[] values = new float[n];
+            for (int k = 0; k < n; k++) {
+                values[k] = rnd.nextInt(1 + rnd.nextInt(50));
+            }
+            final float[] sorted = values.clone();
+            java.util.Arrays.sort(sorted);
+            final int index = rnd.nextInt(n);
+            if (ExtremumsFinder.select(values, n, index) != sorted[index]) {
+                throw new AssertionError("Bug in select for index " + index);
+            }
+        }
+        System.out.println("select: O'k");
+    }
+
+    private static float[] findExtremums(MultiMatrix2D source, int threads) throws Exception {
+        final LocalExtremums extremums = new LocalExtremums();
+        extremums.setGaussianBlurKernelSize(0);
+        extremums.setApertureSize(5);
+        extremums.setDepthApertureSize(15);
+        extremums.setDepthPercentileLevel(0.8);
+        extremums.setMinimalDepth(0.01);
+        extremums.setResultAtPlateau(LocalExtremums.ResultAtPlateau.ALL_PIXELS);
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long t1 = System.nanoTime();
+            final float[] result = pool.submit(() -> extremums.analyse(source, null, null).toFloatArray()).get();
+            long t2 = System.nanoTime();
+            System.out.printf(Locale.US, "    %3d threads: %.3f ms, %d extremums%n",
+                    threads, (t2 - t1) * 1e-6, result.length / 2);
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.printf("Usage: %s dimX dimY [maxNumberOfThreads [numberOfTests]]%n",
+                    LocalExtremumsScalingBenchmark.class);
+            return;
+        }
+        final int dimX = Integer.parseInt(args[0]);
+        final int dimY = Integer.parseInt(args[1]);
+        final int maxNumberOfThreads = args.length > 2 ?
+                Integer.parseInt(args[2]) :
+                Runtime.getRuntime().availableProcessors();
+        final int numberOfTests = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        final Random rnd = new Random(157);
+        testSelect(rnd);
+        final Matrix<UpdatableFloatArray> matrix = Arrays.SMM.newFloatMatrix(dimX, dimY);
+        for (long k = 0, n = matrix.size(); k < n; k++) {
+            matrix.array().setFloat(k, rnd.nextFloat());
+            // - white noise: very dense extremums
+        }
+        final MultiMatrix2D source = MultiMatrix.of2DMono(matrix);
+        for (int test = 1; test <= numberOfTests; test++) {
+            System.out.printf("Test #%d for %s:%n", test, source);
+            final float[] singleThread = findExtremums(source, 1);
+            for (int threads = 2; threads <= maxNumberOfThreads; threads *= 2) {
+                if (!java.util.Arrays.equals(singleThread, findExtremums(source, threads))) {
+                    throw new AssertionError("Results depend on the number of threads");
+                }
+            }
+        }
+        System.out.println("O'k");
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.misc.slopes;
+
+import net.algart.arrays.Arrays;
+import net.algart.arrays.Matrix;
+import net.algart.arrays.UpdatablePArray;
+
+import java.util.Locale;
+import java.util.Random;
+
+public class MatrixBoundariesEmphasizerSpeed {
+    private static final Class<?>[] ELEMENT_TYPES = {
+            byte.class, short.class, int.class, long.class, float.class, double.class
+    };
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.printf("Usage: %s dimX dimY [numberOfTests]%n", MatrixBoundariesEmphasizerSpeed.class);
+            return;
+        }
+        final int dimX = Integer.parseInt(args[0]);
+        final int dimY = Integer.parseInt(args[1]);
+        final int numberOfTests = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        final MatrixBoundariesEmphasizer emphasizer = MatrixBoundariesEmphasizer.getInstance(
+                SlopeEmphasizer.getInstance().setSlopeWidth(5).setMinimalChange(5));
+        final Random rnd = new Random(157);
+        for (Class<?> elementType : ELEMENT_TYPES) {
+            final Matrix<UpdatablePArray> source = Arrays.SMM.newMatrix(
+                    UpdatablePArray.class, elementType, dimX, dimY);
+            for (long k = 0, n = source.size(); k < n; k++) {
+                source.array().setDouble(k, rnd.nextInt(8) * 30);
+                // - plateaus and steps, so that there are slopes to emphasize
+            }
+            for (int test = 1; test <= numberOfTests; test++) {
+                final Matrix<UpdatablePArray> horizontal = source.matrix(source.array().updatableClone(Arrays.SMM));
+                final Matrix<UpdatablePArray> strided = source.matrix(source.array().updatableClone(Arrays.SMM));
+                final Matrix<UpdatablePArray> blocked = source.matrix(source.array().updatableClone(Arrays.SMM));
+                long t1 = System.nanoTime();
+                emphasizer.setDirectionToEmphasize(0).emphasize(horizontal);
+                long t2 = System.nanoTime();
+                emphasizer.setDirectionToEmphasize(1).setBlockedVerticalPass(false).emphasize(strided);
+                long t3 = System.nanoTime();
+                emphasizer.setDirectionToEmphasize(1).setBlockedVerticalPass(true).emphasize(blocked);
+                long t4 = System.nanoTime();
+                System.out.printf(Locale.US, "%-8s test #%d: horizontal %.3f ms, vertical strided %.3f ms, "
+                                + "vertical blocked %.3f ms (%.2f times faster)%n",
+                        elementType, test, (t2 - t1) * 1e-6, (t3 - t2) * 1e-6, (t4 - t3) * 1e-6,
+                        (double) (t3 - t2) / (double) (t4 - t3));
+                if (!strided.array().equals(blocked.array())) {
+                    throw new AssertionError("Different results for " + elementType);
+                }
+            }
+        }
+        System.out.println("O'k");
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.modules.cv.matrices.morphology;
+
+import net.algart.math.patterns.Pattern;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+public final class PatternCacheTest {
+    private static final List<String> SPECIFICATIONS = List.of(
+            "circle 25",
+            "ellipse 60 20 30",
+            "ring 40 5",
+            "3 x circle 11",
+            "circle 15 + square 7",
+            "rect 20 10 \\ square 5",
+            "circle 31 -raw",
+            "circle 31 -slow",
+            "Circle 31");
+
+    public static void main(String[] args) {
+        final int numberOfThreads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        final int numberOfTests = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        final PatternSpecificationParser parser = PatternSpecificationParser.getInstance(byte.class);
+        for (int test = 1; test <= numberOfTests; test++) {
+            final long t1 = System.nanoTime();
+            IntStream.range(0, numberOfThreads).parallel().forEach(k -> {
+                for (String specification : SPECIFICATIONS) {
+                    final Pattern pattern = parser.parse(specification);
+                    if (pattern != parser.parse(specification)) {
+                        throw new AssertionError("Pattern \"" + specification + "\" was built twice");
+                    }
+                }
+            });
+            final long t2 = System.nanoTime();
+            System.out.printf("Test #%d: %.3f ms; %s%n", test, (t2 - t1) * 1e-6, parser.statistics());
+        }
+        if (parser.parse("circle 31 -raw") == parser.parse("circle 31")) {
+            throw new AssertionError("Suffix -raw is ignored by the cache");
+        }
+        if (parser.numberOfMisses() > SPECIFICATIONS.size() + 8) {
+            throw new AssertionError("Some patterns were built several times");
+        }
+        System.out.printf("Patterns: %d, weight %d%n", parser.cacheSize(), parser.cacheWeight());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.modules.cv.matrices.morphology;
+
+import net.algart.arrays.Matrix;
+import net.algart.arrays.PArray;
+import net.algart.arrays.UpdatableByteArray;
+import net.algart.multimatrix.MultiMatrix;
+
+import java.util.Random;
+
+public final class TiledStrictMorphologyTest {
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.printf("Usage: %s dimX dimY tileSize [patternSize]%n",
+                    TiledStrictMorphologyTest.class.getName());
+            return;
+        }
+        final int dimX = Integer.parseInt(args[0]);
+        final int dimY = Integer.parseInt(args[1]);
+        final int tileSize = Integer.parseInt(args[2]);
+        final int patternSize = args.length > 3 ? Integer.parseInt(args[3]) : 15;
+        final Matrix<UpdatableByteArray> source = net.algart.arrays.Arrays.SMM.newByteMatrix(dimX, dimY);
+        final UpdatableByteArray array = source.array();
+        final Random rnd = new Random(157);
+        for (long k = 0, n = array.length(); k < n; k++) {
+            array.setByte(k, rnd.nextInt(256));
+        }
+        final MultiMatrix multiMatrix = MultiMatrix.ofMono(source);
+        for (MorphologyOperation operation : MorphologyOperation.values()) {
+            try (StrictMorphology whole = new StrictMorphology();
+                 StrictMorphology tiled = new StrictMorphology()) {
+                whole.setOperation(operation).setPattern(MorphologyFilter.Shape.SPHERE, patternSize);
+                tiled.setOperation(operation).setPattern(MorphologyFilter.Shape.SPHERE, patternSize);
+                tiled.setTileSize(tileSize);
+                long t1 = System.nanoTime();
+                final Matrix<? extends PArray> result1 = whole.process(multiMatrix).channel(0);
+                long t2 = System.nanoTime();
+                final Matrix<? extends PArray> result2 = tiled.process(multiMatrix).channel(0);
+                long t3 = System.nanoTime();
+                System.out.printf("%s: %.3f ms whole, %.3f ms tiled%n",
+                        operation, (t2 - t1) * 1e-6, (t3 - t2) * 1e-6);
+                if (!result1.equals(result2)) {
+                    throw new AssertionError("Tiled " + operation + " differs from usual one");
+                }
+            }
+        }
+        System.out.println("All results are identical");
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.modules.cv.matrices.objects;
+
+import net.algart.arrays.Matrix;
+import net.algart.executors.api.data.SNumbers;
+import net.algart.multimatrix.MultiMatrix;
+import net.algart.multimatrix.MultiMatrix2D;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+public final class MeasureLabelledObjectsSpeed {
+    private static int[] makeLabels(int dimX, int dimY, int cellSize, Random rnd) {
+        final int[] labels = new int[dimX * dimY];
+        final int cellsX = (dimX + cellSize - 1) / cellSize;
+        final int cellsY = (dimY + cellSize - 1) / cellSize;
+        final int[] cellLabels = new int[cellsX * cellsY];
+        for (int k = 0; k < cellLabels.length; k++) {
+            cellLabels[k] = rnd.nextInt(8) == 0 ? 0 : 1 + rnd.nextInt(cellLabels.length);
+            // - some labels are absent, some cells are background
+        }
+        for (int y = 0, disp = 0; y < dimY; y++) {
+            for (int x = 0; x < dimX; x++, disp++) {
+                labels[disp] = rnd.nextInt(16) == 0 ? 0 : cellLabels[(y / cellSize) * cellsX + x / cellSize];
+            }
+        }
+        return labels;
+    }
+
+    private static Map<MeasureLabelledObjects.ObjectParameter, SNumbers> newResults() {
+        final Map<MeasureLabelledObjects.ObjectParameter, SNumbers> results =
+                new EnumMap<>(MeasureLabelledObjects.ObjectParameter.class);
+        for (MeasureLabelledObjects.ObjectParameter parameter : MeasureLabelledObjects.ObjectParameter.values()) {
+            results.put(parameter, new SNumbers());
+        }
+        return results;
+    }
+
+    private static void compare(
+            Map<MeasureLabelledObjects.ObjectParameter, SNumbers> results1,
+            Map<MeasureLabelledObjects.ObjectParameter, SNumbers> results2) {
+        for (MeasureLabelledObjects.ObjectParameter parameter : results1.keySet()) {
+            final float[] a1 = results1.get(parameter).toFloatArray();
+            final float[] a2 = results2.get(parameter).toFloatArray();
+            if (!java.util.Arrays.equals(a1, a2)) {
+                throw new AssertionError("Different results for " + parameter);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.printf("Usage: %s dimX dimY cellSize [numberOfTests]%n",
+                    MeasureLabelledObjectsSpeed.class.getName());
+            return;
+        }
+        final int dimX = Integer.parseInt(args[0]);
+        final int dimY = Integer.parseInt(args[1]);
+        final int cellSize = Integer.parseInt(args[2]);
+        final int numberOfTests = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        final Random rnd = new Random(157);
+        final int[] labels = makeLabels(dimX, dimY, cellSize, rnd);
+        final MultiMatrix2D labelsMatrix = MultiMatrix.of2DMono(Matrix.as(labels, dimX, dimY));
+        System.out.printf("Labels: %s%n", labelsMatrix);
+
+        try (MeasureLabelledObjects multiPass = new MeasureLabelledObjects();
+             MeasureLabelledObjects singlePass = new MeasureLabelledObjects()) {
+            multiPass.setSinglePassMultithreading(false);
+            singlePass.setSinglePassMultithreading(true);
+            for (MeasureLabelledObjects.BoundaryLineType boundaryLineType :
+                    MeasureLabelledObjects.BoundaryLineType.values()) {
+                multiPass.setBoundaryLineType(boundaryLineType);
+                singlePass.setBoundaryLineType(boundaryLineType);
+                for (int test = 1; test <= numberOfTests; test++) {
+                    System.out.printf("%nTest #%d, %s%n", test, boundaryLineType);
+                    final Map<MeasureLabelledObjects.ObjectParameter, SNumbers> results1 = newResults();
+                    final Map<MeasureLabelledObjects.ObjectParameter, SNumbers> results2 = newResults();
+                    long t1 = System.nanoTime();
+                    multiPass.analyse(results1, labelsMatrix, null);
+                    long t2 = System.nanoTime();
+                    singlePass.analyse(results2, labelsMatrix, null);
+                    long t3 = System.nanoTime();
+                    System.out.printf("Multi-pass:  %.3f ms, %.3f ns/pixel%n",
+                            (t2 - t1) * 1e-6, (double) (t2 - t1) / labels.length);
+                    System.out.printf("Single-pass: %.3f ms, %.3f ns/pixel%n",
+                            (t3 - t2) * 1e-6, (double) (t3 - t2) / labels.length);
+                    compare(results1, results2);
+                    System.out.printf("%d objects, results are identical%n",
+                            results1.get(MeasureLabelledObjects.ObjectParameter.AREA).n());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.objects.binary;
+
+import net.algart.arrays.Arrays;
+import net.algart.arrays.Matrix;
+import net.algart.arrays.MutableIntArray;
+import net.algart.arrays.UpdatableBitArray;
+import net.algart.executors.modules.cv.matrices.misc.SortedRound2DAperture;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class NearestPixelFinderIndexTest {
+    private static int[] find(
+            NearestPixelFinder finder,
+            int[] positions,
+            NearestPixelFinder.SearchAlgorithm algorithm) {
+        finder.setSearchAlgorithm(algorithm);
+        finder.prepare();
+        final int n = positions.length / 2;
+        long t1 = System.nanoTime();
+        final MutableIntArray[] results = new MutableIntArray[n];
+        IntStream.range(0, n).parallel().forEach(k -> {
+            results[k] = Arrays.SMM.newEmptyIntArray();
+            finder.findNearest(positions[2 * k], positions[2 * k + 1], results[k]);
+        });
+        final MutableIntArray result = Arrays.SMM.newEmptyIntArray();
+        for (MutableIntArray r : results) {
+            result.addInt((int) r.length());
+            result.append(r);
+        }
+        long t2 = System.nanoTime();
+        System.out.printf(Locale.US, "    %-15s: %.3f ms, %d results%n",
+                algorithm, (t2 - t1) * 1e-6, result.length() - n);
+        return result.toJavaArray();
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 5) {
+            System.out.printf("Usage: %s dimX dimY numberOfMaskPixels numberOfPositions apertureSize "
+                    + "[neighbourhoodSize [maxNumberOfNeighbours]]%n", NearestPixelFinderIndexTest.class);
+            return;
+        }
+        final int dimX = Integer.parseInt(args[0]);
+        final int dimY = Integer.parseInt(args[1]);
+        final int numberOfMaskPixels = Integer.parseInt(args[2]);
+        final int numberOfPositions = Integer.parseInt(args[3]);
+        final int apertureSize = Integer.parseInt(args[4]);
+        final int neighbourhoodSize = args.length > 5 ? Integer.parseInt(args[5]) : 3;
+        final int maxNumberOfNeighbours = args.length > 6 ? Integer.parseInt(args[6]) : 1;
+        final Random rnd = new Random(157);
+        final Matrix<UpdatableBitArray> mask = Arrays.SMM.newBitMatrix(dimX, dimY);
+        for (int k = 0; k < numberOfMaskPixels; k++) {
+            final int x = rnd.nextInt(dimX);
+            final int y = rnd.nextInt(dimY);
+            mask.array().setBit(mask.index(x, y));
+            if (rnd.nextBoolean() && x + 1 < dimX) {
+                mask.array().setBit(mask.index(x + 1, y));
+            }
+        }
+        final int[] positions = new int[2 * numberOfPositions];
+        for (int k = 0; k < numberOfPositions; k++) {
+            positions[2 * k] = rnd.nextInt(dimX);
+            positions[2 * k + 1] = rnd.nextInt(dimY);
+        }
+        final NearestPixelFinder finder = new NearestPixelFinder(
+                mask,
+                SortedRound2DAperture.getCircle(apertureSize, dimX),
+                SortedRound2DAperture.getCircle(neighbourhoodSize, dimX))
+                .setMaxNumberOfNeighbours(maxNumberOfNeighbours);
+        for (boolean skip : new boolean[]{true, false}) {
+            finder.setSkipPositionsAtMaks(skip);
+            System.out.printf("%d boundary pixels, skipPositionsAtMaks=%s:%n", finder.numberOfBoundaryPixels(), skip);
+            final int[] scan = find(finder, positions, NearestPixelFinder.SearchAlgorithm.APERTURE_SCAN);
+            final int[] index = find(finder, positions, NearestPixelFinder.SearchAlgorithm.BOUNDARY_INDEX);
+            find(finder, positions, NearestPixelFinder.SearchAlgorithm.AUTO);
+            if (!java.util.Arrays.equals(scan, index)) {
+                throw new AssertionError("Different results");
+            }
+        }
+        System.out.println("O'k");
+    }
+}
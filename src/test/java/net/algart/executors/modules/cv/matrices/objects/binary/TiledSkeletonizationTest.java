@@ -0,0 +1,94 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.objects.binary;
+
+import net.algart.arrays.Arrays;
+import net.algart.arrays.IterativeArrayProcessor;
+import net.algart.arrays.Matrix;
+import net.algart.arrays.UpdatableBitArray;
+
+import java.util.Locale;
+import java.util.Random;
+
+public class TiledSkeletonizationTest {
+    private static final int MARGIN = 4;
+    // - zero margin: whole-matrix processing is equivalent to processing with zero continuation
+
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.out.printf("Usage: %s dimX dimY numberOfDiscs maxRadius [tileSize [numberOfTests]]%n",
+                    TiledSkeletonizationTest.class);
+            return;
+        }
+        final int dimX = Integer.parseInt(args[0]);
+        final int dimY = Integer.parseInt(args[1]);
+        final int numberOfDiscs = Integer.parseInt(args[2]);
+        final int maxRadius = Integer.parseInt(args[3]);
+        final int tileSize = args.length > 4 ? Integer.parseInt(args[4]) : 256;
+        final int numberOfTests = args.length > 5 ? Integer.parseInt(args[5]) : 3;
+        final Random rnd = new Random(157);
+        final Matrix<UpdatableBitArray> source = Arrays.SMM.newBitMatrix(dimX, dimY);
+        for (int k = 0; k < numberOfDiscs; k++) {
+            final int r = 1 + rnd.nextInt(maxRadius);
+            final int cx = rnd.nextInt(dimX);
+            final int cy = rnd.nextInt(dimY);
+            for (int y = Math.max(MARGIN, cy - r); y <= Math.min(dimY - 1 - MARGIN, cy + r); y++) {
+                for (int x = Math.max(MARGIN, cx - r); x <= Math.min(dimX - 1 - MARGIN, cx + r); x++) {
+                    if ((long) (x - cx) * (x - cx) + (long) (y - cy) * (y - cy) <= (long) r * r) {
+                        source.array().setBit(source.index(x, y));
+                    }
+                }
+            }
+        }
+        for (int test = 1; test <= numberOfTests; test++) {
+            System.out.printf("Test #%d:%n", test);
+            for (Skeletonization.Algorithm algorithm : Skeletonization.Algorithm.values()) {
+                for (boolean topological : new boolean[]{false, true}) {
+                    final Matrix<UpdatableBitArray> whole = source.matrix(source.array().updatableClone(Arrays.SMM));
+                    final Matrix<UpdatableBitArray> tiled = source.matrix(source.array().updatableClone(Arrays.SMM));
+                    long t1 = System.nanoTime();
+                    final IterativeArrayProcessor<Matrix<? extends UpdatableBitArray>> processor =
+                            algorithm.getSkeletonProcessor(whole, true, topological);
+                    processor.process();
+                    long t2 = System.nanoTime();
+                    final TiledSkeletonization tiledSkeletonization = new TiledSkeletonization(tileSize);
+                    tiledSkeletonization.process(tiled, -1, algorithm.tiledStages(true, topological));
+                    long t3 = System.nanoTime();
+                    System.out.printf(Locale.US, "  %-40s%s: whole %.3f ms, tiled %.3f ms "
+                                    + "(%d iterations, %.2f%% active tiles)%n",
+                            algorithm, topological ? " (topological)" : "",
+                            (t2 - t1) * 1e-6, (t3 - t2) * 1e-6,
+                            tiledSkeletonization.numberOfIterations(),
+                            tiledSkeletonization.activeTilesFraction() * 100.0);
+                    if (!whole.array().equals(tiled.array())) {
+                        throw new AssertionError("Different results for " + algorithm);
+                    }
+                }
+            }
+        }
+        System.out.println("O'k");
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.objects.binary.boundaries.tests;
+
+import net.algart.arrays.Arrays;
+import net.algart.arrays.Matrix;
+import net.algart.arrays.UpdatableBitArray;
+
+import java.util.Random;
+
+/**
+ * Test fixture: binary matrix with random discs or rings, combined by XOR
+ * (so, intersecting figures produce complex objects with pores).
+ */
+public final class RandomDiscs {
+    private RandomDiscs() {
+    }
+
+    /**
+     * Creates new bit matrix with random figures.
+     *
+     * @param dimX            x-dimension of the matrix.
+     * @param dimY            y-dimension of the matrix.
+     * @param numberOfFigures number of discs/rings.
+     * @param minRadius       minimal radius of a figure.
+     * @param maxRadius       maximal radius of a figure (inclusive).
+     * @param rings           if <code>true</code>, the figures are rings with inner radius r/2.
+     * @param rnd             random generator.
+     * @return new matrix.
+     */
+    public static Matrix<UpdatableBitArray> makeObjects(
+            int dimX,
+            int dimY,
+            int numberOfFigures,
+            int minRadius,
+            int maxRadius,
+            boolean rings,
+            Random rnd) {
+        final Matrix<UpdatableBitArray> result = Arrays.SMM.newBitMatrix(dimX, dimY);
+        final UpdatableBitArray array = result.array();
+        for (int k = 0; k < numberOfFigures; k++) {
+            final int cx = rnd.nextInt(dimX);
+            final int cy = rnd.nextInt(dimY);
+            final int r = minRadius + rnd.nextInt(Math.max(1, maxRadius - minRadius + 1));
+            for (int y = Math.max(0, cy - r); y <= Math.min(dimY - 1, cy + r); y++) {
+                for (int x = Math.max(0, cx - r); x <= Math.min(dimX - 1, cx + r); x++) {
+                    final long d2 = (long) (x - cx) * (x - cx) + (long) (y - cy) * (y - cy);
+                    if (d2 <= (long) r * r && (!rings || 4 * d2 >= (long) r * r)) {
+                        array.flipBit((long) y * dimX + x);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
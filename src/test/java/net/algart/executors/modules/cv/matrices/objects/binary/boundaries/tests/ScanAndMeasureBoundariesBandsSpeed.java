@@ -0,0 +1,125 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.modules.cv.matrices.objects.binary.boundaries.tests;
+
+import net.algart.arrays.Matrix;
+import net.algart.arrays.UpdatableBitArray;
+import net.algart.executors.api.data.SNumbers;
+import net.algart.executors.modules.cv.matrices.objects.binary.boundaries.BoundaryParameter;
+import net.algart.executors.modules.cv.matrices.objects.binary.boundaries.BoundaryType;
+import net.algart.executors.modules.cv.matrices.objects.binary.boundaries.ScanAndExtractContours;
+import net.algart.executors.modules.cv.matrices.objects.binary.boundaries.ScanAndMeasureBoundaries;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+public final class ScanAndMeasureBoundariesBandsSpeed {
+    private static final BoundaryParameter[] PARAMETERS = {
+            BoundaryParameter.AREA,
+            BoundaryParameter.PERIMETER,
+            BoundaryParameter.CENTROID,
+            BoundaryParameter.CONTAINING_RECTANGLE
+    };
+
+    private static Map<BoundaryParameter, SNumbers> newResults() {
+        final Map<BoundaryParameter, SNumbers> results = new EnumMap<>(BoundaryParameter.class);
+        for (BoundaryParameter parameter : PARAMETERS) {
+            results.put(parameter, new SNumbers());
+        }
+        return results;
+    }
+
+    private static void compare(String name, SNumbers numbers1, SNumbers numbers2) {
+        if (!java.util.Arrays.equals(numbers1.toFloatArray(), numbers2.toFloatArray())) {
+            throw new AssertionError("Different results for " + name);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.printf("Usage: %s dimX dimY numberOfRings [numberOfTests]%n",
+                    ScanAndMeasureBoundariesBandsSpeed.class.getName());
+            return;
+        }
+        final int dimX = Integer.parseInt(args[0]);
+        final int dimY = Integer.parseInt(args[1]);
+        final int numberOfRings = Integer.parseInt(args[2]);
+        final int numberOfTests = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        final Matrix<UpdatableBitArray> objects = RandomDiscs.makeObjects(
+                dimX, dimY, numberOfRings, 2, 1 + Math.max(1, Math.min(dimX, dimY) / 8), true, new Random(157));
+        // - large rings cross band edges and contain pores
+        System.out.printf("Objects: %s%n", objects);
+
+        try (ScanAndMeasureBoundaries sequential = new ScanAndMeasureBoundaries();
+             ScanAndMeasureBoundaries banded = new ScanAndMeasureBoundaries();
+             ScanAndExtractContours sequentialContours = new ScanAndExtractContours();
+             ScanAndExtractContours bandedContours = new ScanAndExtractContours()) {
+            sequential.setMultithreadingBands(false);
+            banded.setMultithreadingBands(true);
+            sequentialContours.setMultithreadingBands(false);
+            bandedContours.setMultithreadingBands(true);
+            for (BoundaryType boundaryType : BoundaryType.values()) {
+                sequential.setBoundaryType(boundaryType);
+                banded.setBoundaryType(boundaryType);
+                sequentialContours.setBoundaryType(boundaryType);
+                bandedContours.setBoundaryType(boundaryType);
+                for (int test = 1; test <= numberOfTests; test++) {
+                    System.out.printf("%nTest #%d, %s%n", test, boundaryType);
+                    final Map<BoundaryParameter, SNumbers> results1 = newResults();
+                    final Map<BoundaryParameter, SNumbers> results2 = newResults();
+                    long t1 = System.nanoTime();
+                    sequential.analyse(results1, objects, false);
+                    long t2 = System.nanoTime();
+                    banded.analyse(results2, objects, false);
+                    long t3 = System.nanoTime();
+                    System.out.printf("Sequential measuring: %.3f ms, %.3f ns/pixel%n",
+                            (t2 - t1) * 1e-6, (double) (t2 - t1) / objects.size());
+                    System.out.printf("Banded measuring:     %.3f ms, %.3f ns/pixel%n",
+                            (t3 - t2) * 1e-6, (double) (t3 - t2) / objects.size());
+                    for (BoundaryParameter parameter : PARAMETERS) {
+                        compare(parameter.toString(), results1.get(parameter), results2.get(parameter));
+                    }
+                    compare(ScanAndMeasureBoundaries.OUTPUT_OBJECT_LABEL,
+                            sequential.getNumbers(ScanAndMeasureBoundaries.OUTPUT_OBJECT_LABEL),
+                            banded.getNumbers(ScanAndMeasureBoundaries.OUTPUT_OBJECT_LABEL));
+
+                    t1 = System.nanoTime();
+                    final SNumbers contours1 = sequentialContours.analyse(objects, null);
+                    t2 = System.nanoTime();
+                    final SNumbers contours2 = bandedContours.analyse(objects, null);
+                    t3 = System.nanoTime();
+                    System.out.printf("Sequential contours:  %.3f ms, %.3f ns/pixel%n",
+                            (t2 - t1) * 1e-6, (double) (t2 - t1) / objects.size());
+                    System.out.printf("Banded contours:      %.3f ms, %.3f ns/pixel%n",
+                            (t3 - t2) * 1e-6, (double) (t3 - t2) / objects.size());
+                    compare("contours", contours1, contours2);
+                    System.out.printf("%d boundaries, results are identical%n",
+                            results1.get(BoundaryParameter.AREA).n());
+                }
+            }
+        }
+    }
+}
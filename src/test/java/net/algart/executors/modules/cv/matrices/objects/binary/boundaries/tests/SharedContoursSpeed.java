@@ -0,0 +1,109 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.objects.binary.boundaries.tests;
+
+import net.algart.arrays.Matrix;
+import net.algart.arrays.UpdatableBitArray;
+import net.algart.contours.Contours;
+import net.algart.executors.api.data.SNumbers;
+import net.algart.executors.modules.cv.matrices.objects.binary.boundaries.ContoursFileFormat;
+import net.algart.executors.modules.cv.matrices.objects.binary.boundaries.ScanAndExtractContours;
+import net.algart.executors.modules.cv.matrices.objects.binary.boundaries.SharedContours;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+
+public final class SharedContoursSpeed {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.printf("Usage: %s dimX dimY numberOfDiscs [numberOfTests]%n", SharedContoursSpeed.class);
+            return;
+        }
+        final int dimX = Integer.parseInt(args[0]);
+        final int dimY = Integer.parseInt(args[1]);
+        final int numberOfDiscs = Integer.parseInt(args[2]);
+        final int numberOfTests = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        final Matrix<UpdatableBitArray> objects = RandomDiscs.makeObjects(
+                dimX, dimY, numberOfDiscs, 1, 20, false, new Random(157));
+        final SNumbers contours;
+        try (ScanAndExtractContours scanner = new ScanAndExtractContours()) {
+            contours = scanner.analyse(objects, null);
+        }
+        final int[] serialized = contours.toIntArray();
+        System.out.printf("%d contours, %d elements%n",
+                Contours.deserialize(serialized).numberOfContours(), serialized.length);
+        final Path raw = Files.createTempFile("contours-", ".raw.dat");
+        final Path compressed = Files.createTempFile("contours-", ".dat");
+        try {
+            for (int test = 1; test <= numberOfTests; test++) {
+                long t1 = System.nanoTime();
+                final Contours deserialized = Contours.deserialize(serialized);
+                long t2 = System.nanoTime();
+                final Contours shared1 = SharedContours.get(serialized);
+                long t3 = System.nanoTime();
+                final Contours shared2 = SharedContours.get(serialized);
+                long t4 = System.nanoTime();
+                if (shared1 != shared2 || !deserialized.equalsToSerialized(serialized)) {
+                    throw new AssertionError("Contours are not shared");
+                }
+                ContoursFileFormat.write(raw, serialized, false);
+                long t5 = System.nanoTime();
+                ContoursFileFormat.write(compressed, serialized, true);
+                long t6 = System.nanoTime();
+                final int[] rawRead = ContoursFileFormat.read(raw);
+                long t7 = System.nanoTime();
+                final int[] compressedRead = ContoursFileFormat.read(compressed);
+                long t8 = System.nanoTime();
+                if (!java.util.Arrays.equals(serialized, rawRead)
+                        || !java.util.Arrays.equals(serialized, compressedRead)) {
+                    throw new AssertionError("Contours are not restored from file");
+                }
+                System.out.printf(Locale.US, "Test #%d: deserialize %.3f ms, shared %.3f ms (1st) / %.6f ms; "
+                                + "raw file %d bytes (%.3f ms writing, %.3f ms reading), "
+                                + "compressed %d bytes (%.3f ms writing, %.3f ms reading)%n",
+                        test, (t2 - t1) * 1e-6, (t3 - t2) * 1e-6, (t4 - t3) * 1e-6,
+                        Files.size(raw), (t5 - t4) * 1e-6, (t7 - t6) * 1e-6,
+                        Files.size(compressed), (t6 - t5) * 1e-6, (t8 - t7) * 1e-6);
+            }
+            final int[] modified = serialized.clone();
+            final Contours original = SharedContours.get(modified);
+            modified[modified.length - 1]++;
+            // - the last point of the last contour
+            final Contours changed = SharedContours.get(modified);
+            if (changed == original || !changed.equalsToSerialized(modified)) {
+                throw new AssertionError("Stale contours returned for the modified array");
+            }
+            System.out.printf(Locale.US, "Totally saved %.3f ms in %d hits%n",
+                    SharedContours.savedTimeInNanoseconds() * 1e-6, SharedContours.numberOfHits());
+        } finally {
+            Files.deleteIfExists(raw);
+            Files.deleteIfExists(compressed);
+        }
+    }
+}
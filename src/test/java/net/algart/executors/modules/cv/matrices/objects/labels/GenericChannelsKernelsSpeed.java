@@ -0,0 +1,182 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.modules.cv.matrices.objects.labels;
+
+import java.util.Locale;
+import java.util.Random;
+
+// Compares optimized branches for 1..5 (7) channels with the universal channel-by-channel implementation
+public final class GenericChannelsKernelsSpeed {
+    private static final class ChecksumProcessor implements SingleObjectProcessor {
+        final double[] checksums;
+
+        ChecksumProcessor(int numberOfLabels) {
+            this.checksums = new double[numberOfLabels];
+        }
+
+        @Override
+        public void preprocess(Class<?> elementType, int numberOfTasks) {
+        }
+
+        @Override
+        public void processPixels(
+                int objectLabel,
+                byte[][] objectPixelsByChannels,
+                int numberOfPixels,
+                int threadIndex) {
+            double sum = 0.0;
+            for (int c = 0; c < objectPixelsByChannels.length; c++) {
+                for (int k = 0; k < numberOfPixels; k++) {
+                    sum += (double) (objectPixelsByChannels[c][k] & 0xFF) * (k + 1) * (c + 1);
+                }
+            }
+            checksums[objectLabel] = sum;
+        }
+
+        @Override
+        public void processPixels(
+                int objectLabel,
+                short[][] objectPixelsByChannels,
+                int numberOfPixels,
+                int threadIndex) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void processPixels(
+                int objectLabel,
+                int[][] objectPixelsByChannels,
+                int numberOfPixels,
+                int threadIndex) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void processPixels(
+                int objectLabel,
+                float[][] objectPixelsByChannels,
+                int numberOfPixels,
+                int threadIndex) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void processPixels(
+                int objectLabel,
+                double[][] objectPixelsByChannels,
+                int numberOfPixels,
+                int threadIndex) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static double[] sums(int[] labels, Object[] channels, boolean generic, boolean squares) {
+        if (squares) {
+            try (CardinalitiesAndSumsOfSquaresCalculator calculator = generic ?
+                    CardinalitiesAndSumsOfSquaresCalculator.getGenericInstance(labels, channels) :
+                    CardinalitiesAndSumsOfSquaresCalculator.getInstance(labels, channels)) {
+                calculator.process();
+                return calculator.sumsOfSquares;
+            }
+        } else {
+            try (CardinalitiesAndSumsCalculator calculator = generic ?
+                    CardinalitiesAndSumsCalculator.getGenericInstance(labels, channels) :
+                    CardinalitiesAndSumsCalculator.getInstance(labels, channels)) {
+                calculator.process();
+                return calculator.sums;
+            }
+        }
+    }
+
+    private static double[] checksums(int[] labels, Object[] channels, boolean generic) {
+        final int[] lists = new int[labels.length];
+        try (LabelsListsBuilder builder = LabelsListsBuilder.getInstance(labels, lists)) {
+            builder.process();
+            final int[] listHeads = builder.listHeads();
+            final ChecksumProcessor checksumProcessor = new ChecksumProcessor(listHeads.length);
+            try (LabelledObjectsProcessor processor = generic ?
+                    LabelledObjectsProcessor.getGenericInstance(lists, listHeads, checksumProcessor, channels) :
+                    LabelledObjectsProcessor.getInstance(lists, listHeads, checksumProcessor, channels)) {
+                processor.process();
+            }
+            return checksumProcessor.checksums;
+        }
+    }
+
+    private interface Engine {
+        double[] run(boolean generic);
+    }
+
+    private static void compare(String name, int numberOfChannels, Engine engine) {
+        double[] optimized = null;
+        double[] generic = null;
+        long tOptimized = Long.MAX_VALUE;
+        long tGeneric = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < 5; attempt++) {
+            long t1 = System.nanoTime();
+            optimized = engine.run(false);
+            long t2 = System.nanoTime();
+            generic = engine.run(true);
+            long t3 = System.nanoTime();
+            tOptimized = Math.min(tOptimized, t2 - t1);
+            tGeneric = Math.min(tGeneric, t3 - t2);
+        }
+        if (!java.util.Arrays.equals(optimized, generic)) {
+            throw new AssertionError("Different results for " + name + ", " + numberOfChannels + " channels");
+        }
+        System.out.printf(Locale.US, "  %-18s %2d channels: %8.3f ms default, %8.3f ms universal%n",
+                name, numberOfChannels, tOptimized * 1e-6, tGeneric * 1e-6);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.printf("Usage: %s numberOfPixels numberOfLabels [maxNumberOfChannels]%n",
+                    GenericChannelsKernelsSpeed.class);
+            return;
+        }
+        final int numberOfPixels = Integer.parseInt(args[0]);
+        final int numberOfLabels = Integer.parseInt(args[1]);
+        final int maxNumberOfChannels = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        final Random rnd = new Random(157);
+        final int[] labels = new int[numberOfPixels];
+        for (int k = 0; k < labels.length; ) {
+            final int label = rnd.nextInt(numberOfLabels + 1);
+            for (int len = 1 + rnd.nextInt(50); len > 0 && k < labels.length; len--) {
+                labels[k++] = label;
+            }
+        }
+        for (int numberOfChannels = 1; numberOfChannels <= maxNumberOfChannels; numberOfChannels++) {
+            final Object[] channels = new Object[numberOfChannels];
+            for (int c = 0; c < numberOfChannels; c++) {
+                final byte[] channel = new byte[numberOfPixels];
+                rnd.nextBytes(channel);
+                channels[c] = channel;
+            }
+            compare("sums", numberOfChannels, generic -> sums(labels, channels, generic, false));
+            compare("sums of squares", numberOfChannels, generic -> sums(labels, channels, generic, true));
+            compare("gathering objects", numberOfChannels, generic -> checksums(labels, channels, generic));
+        }
+    }
+}
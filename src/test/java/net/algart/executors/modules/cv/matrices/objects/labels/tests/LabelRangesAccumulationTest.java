@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.modules.cv.matrices.objects.labels.tests;
+
+import net.algart.arrays.Arrays;
+import net.algart.arrays.Matrix;
+import net.algart.arrays.PArray;
+import net.algart.arrays.UpdatableByteArray;
+import net.algart.arrays.UpdatableIntArray;
+import net.algart.executors.modules.cv.matrices.objects.labels.LabelsAnalyser;
+import net.algart.multimatrix.MultiMatrix;
+import net.algart.multimatrix.MultiMatrix2D;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public final class LabelRangesAccumulationTest {
+    private static LabelsAnalyser analyse(
+            MultiMatrix2D labels,
+            MultiMatrix2D image,
+            LabelsAnalyser.AccumulationStrategy strategy) {
+        final LabelsAnalyser analyser = new LabelsAnalyser();
+        analyser.setLabels(labels);
+        analyser.setImage(image, true);
+        analyser.setAccumulationStrategy(strategy);
+        long t1 = System.nanoTime();
+        analyser.findMeansAndStandardDeviationsAndCardinalities();
+        long t2 = System.nanoTime();
+        System.out.printf(Locale.US, "    %-20s: %.3f ms, %d objects%n",
+                strategy, (t2 - t1) * 1e-6, analyser.maxLabel());
+        return analyser;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.printf("Usage: %s dimX dimY averageObjectSize [numberOfChannels [numberOfTests]]%n",
+                    LabelRangesAccumulationTest.class);
+            return;
+        }
+        final int dimX = Integer.parseInt(args[0]);
+        final int dimY = Integer.parseInt(args[1]);
+        final int averageObjectSize = Integer.parseInt(args[2]);
+        final int numberOfChannels = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        final int numberOfTests = args.length > 4 ? Integer.parseInt(args[4]) : 5;
+        final Random rnd = new Random(157);
+        final Matrix<UpdatableIntArray> labelsMatrix = Arrays.SMM.newIntMatrix(dimX, dimY);
+        final UpdatableIntArray labelsArray = labelsMatrix.array();
+        int label = 0;
+        for (long k = 0, n = labelsArray.length(); k < n; ) {
+            final int length = 1 + rnd.nextInt(2 * averageObjectSize);
+            label++;
+            for (int i = 0; i < length && k < n; i++, k++) {
+                labelsArray.setInt(k, rnd.nextInt(8) == 0 ? 0 : label);
+            }
+        }
+        final List<Matrix<? extends PArray>> channels = new ArrayList<>();
+        for (int c = 0; c < numberOfChannels; c++) {
+            final Matrix<UpdatableByteArray> channel = Arrays.SMM.newByteMatrix(dimX, dimY);
+            for (long k = 0, n = channel.size(); k < n; k++) {
+                channel.array().setInt(k, rnd.nextInt(256));
+            }
+            channels.add(channel);
+        }
+        final MultiMatrix2D labels = MultiMatrix.of2DMono(labelsMatrix);
+        final MultiMatrix2D image = MultiMatrix.of2D(channels);
+        for (int test = 1; test <= numberOfTests; test++) {
+            System.out.printf("Test #%d, %d labels, %d channels:%n", test, label, numberOfChannels);
+            final LabelsAnalyser threads = analyse(
+                    labels, image, LabelsAnalyser.AccumulationStrategy.THREAD_ACCUMULATORS);
+            final LabelsAnalyser ranges = analyse(labels, image, LabelsAnalyser.AccumulationStrategy.LABEL_RANGES);
+            analyse(labels, image, LabelsAnalyser.AccumulationStrategy.AUTO);
+            if (threads.maxLabel() != ranges.maxLabel()
+                    || !java.util.Arrays.equals(threads.cardinalities(), ranges.cardinalities())) {
+                throw new AssertionError("Different cardinalities");
+            }
+            if (!java.util.Arrays.equals(threads.sums(), ranges.sums())
+                    || !java.util.Arrays.equals(threads.sumOfSquares(), ranges.sumOfSquares())) {
+                throw new AssertionError("Different sums");
+            }
+        }
+        System.out.println("O'k");
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.modules.cv.matrices.objects.labels.tests;
+
+import net.algart.arrays.Arrays;
+import net.algart.arrays.Matrix;
+import net.algart.arrays.PArray;
+import net.algart.arrays.UpdatableIntArray;
+import net.algart.arrays.UpdatablePArray;
+import net.algart.executors.modules.cv.matrices.objects.labels.LabelsAnalyser;
+import net.algart.multimatrix.MultiMatrix;
+import net.algart.multimatrix.MultiMatrix2D;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public final class LabelsPercentilesEnginesTest {
+    private static final double[] LEVELS = {0.2, 0.8, 0.5, 0.0, 1.0, 0.999};
+
+    private static MultiMatrix2D makeLabels(int dimX, int dimY, int numberOfObjects, Random rnd) {
+        final Matrix<UpdatableIntArray> result = Arrays.SMM.newIntMatrix(dimX, dimY);
+        final UpdatableIntArray array = result.array();
+        for (int k = 1; k <= numberOfObjects; k++) {
+            final int sizeX = 1 + rnd.nextInt(k % 10 == 0 ? dimX / 2 : 20);
+            // - some large objects (with dense histograms) and many little objects
+            final int sizeY = 1 + rnd.nextInt(k % 10 == 0 ? dimY / 2 : 20);
+            final int x0 = rnd.nextInt(dimX - sizeX + 1);
+            final int y0 = rnd.nextInt(dimY - sizeY + 1);
+            for (int y = y0; y < y0 + sizeY; y++) {
+                array.fill((long) y * dimX + x0, sizeX, k);
+            }
+        }
+        return MultiMatrix.of2DMono(result);
+    }
+
+    private static MultiMatrix2D makeImage(
+            Class<?> elementType,
+            int numberOfChannels,
+            int dimX,
+            int dimY,
+            Random rnd) {
+        final List<Matrix<? extends PArray>> channels = new ArrayList<>();
+        for (int c = 0; c < numberOfChannels; c++) {
+            final Matrix<? extends UpdatablePArray> m = Arrays.SMM.newMatrix(
+                    UpdatablePArray.class, elementType, dimX, dimY);
+            final UpdatablePArray array = m.array();
+            final long maxValue = elementType == byte.class ? 255 : 65535;
+            for (long k = 0, n = array.length(); k < n; k++) {
+                array.setLong(k, rnd.nextInt(10) == 0 ? maxValue : rnd.nextLong(maxValue / 2 + 1));
+            }
+            channels.add(m);
+        }
+        return MultiMatrix.of2D(channels);
+    }
+
+    private static LabelsAnalyser analyse(
+            MultiMatrix2D labels,
+            MultiMatrix2D image,
+            LabelsAnalyser.PercentilesEngine engine) {
+        final LabelsAnalyser analyser = new LabelsAnalyser();
+        analyser.setLabels(labels);
+        analyser.setImage(image, true);
+        analyser.setPercentilesEngine(engine);
+        final double[][] levels = new double[image.numberOfChannels()][];
+        java.util.Arrays.fill(levels, LEVELS);
+        analyser.setPercentileLevelByChannels(levels);
+        analyser.setNeedTruncatedMeans(true);
+        analyser.setLowTruncatedMeanIndex(0);
+        analyser.setHighTruncatedMeanIndex(1);
+        long t1 = System.nanoTime();
+        if (!analyser.isHistogramsUsedForPercentiles()) {
+            analyser.prepareLists();
+        }
+        long t2 = System.nanoTime();
+        analyser.findPercentilesAndCardinalities();
+        long t3 = System.nanoTime();
+        System.out.printf(Locale.US, "    %-10s: %.3f ms (%.3f lists + %.3f percentiles), %d objects%n",
+                engine, (t3 - t1) * 1e-6, (t2 - t1) * 1e-6, (t3 - t2) * 1e-6, analyser.maxLabel());
+        return analyser;
+    }
+
+    private static void compare(float[] a, float[] b, String name) {
+        if (a == null && b == null) {
+            return;
+        }
+        if (a == null || b == null || a.length != b.length) {
+            throw new AssertionError("Different " + name + " arrays");
+        }
+        for (int k = 0; k < a.length; k++) {
+            if (Float.compare(a[k], b[k]) != 0) {
+                throw new AssertionError("Different " + name + "[" + k + "]: " + a[k] + " and " + b[k]);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.printf("Usage: %s dimX dimY numberOfObjects [numberOfTests]%n",
+                    LabelsPercentilesEnginesTest.class);
+            return;
+        }
+        final int dimX = Integer.parseInt(args[0]);
+        final int dimY = Integer.parseInt(args[1]);
+        final int numberOfObjects = Integer.parseInt(args[2]);
+        final int numberOfTests = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        final Random rnd = new Random(157);
+        for (int test = 1; test <= numberOfTests; test++) {
+            for (Class<?> elementType : new Class<?>[]{byte.class, short.class}) {
+                for (int numberOfChannels : new int[]{1, 3}) {
+                    System.out.printf("Test #%d, %s, %d channels:%n", test, elementType, numberOfChannels);
+                    final MultiMatrix2D labels = makeLabels(dimX, dimY, numberOfObjects, rnd);
+                    final MultiMatrix2D image = makeImage(elementType, numberOfChannels, dimX, dimY, rnd);
+                    final LabelsAnalyser lists = analyse(labels, image, LabelsAnalyser.PercentilesEngine.LISTS);
+                    final LabelsAnalyser histograms = analyse(
+                            labels, image, LabelsAnalyser.PercentilesEngine.HISTOGRAMS);
+                    if (lists.maxLabel() != histograms.maxLabel()) {
+                        throw new AssertionError("Different maxLabel");
+                    }
+                    if (!java.util.Arrays.equals(lists.cardinalities(), histograms.cardinalities())) {
+                        throw new AssertionError("Different cardinalities");
+                    }
+                    for (int p = 0; p < LEVELS.length; p++) {
+                        compare(lists.groupedPercentilesByLevel(p), histograms.groupedPercentilesByLevel(p),
+                                "percentiles #" + p);
+                    }
+                    compare(lists.truncatedMeans(), histograms.truncatedMeans(), "truncated means");
+                }
+            }
+        }
+        System.out.println("O'k");
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.cv.matrices.thresholds.tests;
+
+import net.algart.arrays.Arrays;
+import net.algart.arrays.Matrix;
+import net.algart.arrays.UpdatableShortArray;
+import net.algart.executors.modules.cv.matrices.thresholds.SmartHysteresisThreshold;
+import net.algart.multimatrix.MultiMatrix;
+import net.algart.multimatrix.MultiMatrix2D;
+
+import java.util.Locale;
+import java.util.Random;
+
+public final class SmartHysteresisFusedTest {
+    private static MultiMatrix2D threshold(MultiMatrix2D source, boolean checkBackground, boolean fused) {
+        final SmartHysteresisThreshold threshold = new SmartHysteresisThreshold();
+        threshold.setSurelyMin(0.7).setHysteresisMin(0.4);
+        threshold.setCheckSurelyBackground(checkBackground).setSurelyBackgroundMax(0.2);
+        threshold.setSurelyDilationSize(7).setBackgroundDilationSize(15);
+        threshold.setFusedClassification(fused);
+        long t1 = System.nanoTime();
+        final MultiMatrix2D result = threshold.process(source);
+        long t2 = System.nanoTime();
+        System.out.printf(Locale.US, "    %s%s: %.3f ms%n",
+                fused ? "fused " : "simple", checkBackground ? " (with background)" : "", (t2 - t1) * 1e-6);
+        return result;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.printf("Usage: %s dimX dimY [numberOfTests]%n", SmartHysteresisFusedTest.class);
+            return;
+        }
+        final int dimX = Integer.parseInt(args[0]);
+        final int dimY = Integer.parseInt(args[1]);
+        final int numberOfTests = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        final Random rnd = new Random(157);
+        final Matrix<UpdatableShortArray> matrix = Arrays.SMM.newShortMatrix(dimX, dimY);
+        for (int y = 0; y < dimY; y++) {
+            for (int x = 0; x < dimX; x++) {
+                final double v = 0.5 + 0.3 * Math.sin(x * 0.05) * Math.cos(y * 0.07) + 0.2 * (rnd.nextDouble() - 0.5);
+                matrix.array().setInt(matrix.index(x, y), (int) Math.max(0, Math.min(65535, v * 65535)));
+            }
+        }
+        final MultiMatrix2D source = MultiMatrix.of2DMono(matrix);
+        for (int test = 1; test <= numberOfTests; test++) {
+            System.out.printf("Test #%d for %s:%n", test, source);
+            for (boolean checkBackground : new boolean[]{false, true}) {
+                final MultiMatrix2D simple = threshold(source, checkBackground, false);
+                final MultiMatrix2D fused = threshold(source, checkBackground, true);
+                if (!simple.channel(0).array().equals(fused.channel(0).array())) {
+                    throw new AssertionError("Different results");
+                }
+            }
+        }
+        System.out.println("O'k");
+    }
+}
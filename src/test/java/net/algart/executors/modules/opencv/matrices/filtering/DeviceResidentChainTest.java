@@ -0,0 +1,93 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.modules.opencv.matrices.filtering;
+
+import net.algart.executors.api.data.SMat;
+import net.algart.executors.modules.opencv.common.UMatFilter;
+import net.algart.executors.modules.opencv.util.DeviceResidentUMat;
+import net.algart.executors.modules.opencv.util.O2SMat;
+import net.algart.executors.modules.opencv.util.OTools;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.global.opencv_imgcodecs;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.io.File;
+
+// Note: for testing OpenCL CPU fallback, set environment variable OPENCV_OPENCL_DEVICE=:CPU:
+public final class DeviceResidentChainTest {
+    private static SMat chain(SMat source, boolean deviceResident) {
+        final Median median = new Median();
+        median.setKernelSize(5);
+        final UMatFilter[] filters = {
+                new GaussianBlur().setKernelSizeX(15),
+                median,
+                new GaussianBlur().setKernelSizeX(7)
+        };
+        SMat data = source;
+        for (UMatFilter filter : filters) {
+            filter.setDeviceResidentResults(deviceResident);
+            filter.getInputMatContainer().exchange(data);
+            filter.execute();
+            data = filter.getMat();
+        }
+        return data;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty(OTools.USE_GPU_PROPERTY_NAME, "true");
+        if (args.length < 2) {
+            System.out.printf("Usage: %s source_image target_image [number_of_tests]%n",
+                    DeviceResidentChainTest.class);
+            return;
+        }
+        final File sourceFile = new File(args[0]);
+        final File targetFile = new File(args[1]);
+        final int numberOfTests = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        System.out.printf("OpenCL: %s, GPU optimization: %s%n",
+                opencv_core.haveOpenCL(), OTools.isGPUOptimizationEnabled());
+        final Mat image = opencv_imgcodecs.imread(sourceFile.getPath());
+        Mat resultMat = null;
+        for (int test = 1; test <= numberOfTests; test++) {
+            for (boolean deviceResident : new boolean[]{false, true}) {
+                DeviceResidentUMat.resetStatistics();
+                DeviceResidentUMat.resetCurrentThreadStatistics();
+                long t1 = System.nanoTime();
+                final SMat result = chain(O2SMat.toSMat(image.clone()), deviceResident);
+                final Mat mat = O2SMat.toMat(result);
+                long t2 = System.nanoTime();
+                System.out.printf("Test #%d, %s mode: %.3f ms; %s%n",
+                        test, deviceResident ? "device-resident" : "usual", (t2 - t1) * 1e-6,
+                        DeviceResidentUMat.statistics());
+                if (resultMat == null) {
+                    resultMat = mat;
+                } else if (opencv_core.norm(resultMat, mat, opencv_core.NORM_INF, new Mat()) != 0.0) {
+                    throw new AssertionError("Different results in device-resident mode");
+                }
+            }
+        }
+        opencv_imgcodecs.imwrite(targetFile.getPath(), resultMat);
+        System.out.println("Result saved in " + targetFile);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.opencv.matrices.io;
+
+import net.algart.executors.api.data.SMat;
+import net.algart.executors.modules.opencv.util.O2SMat;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+public final class ReadMatPrefetchTest {
+    private static Mat[] readAll(List<Path> files, String glob, int prefetchCount, int cacheSizeInMB) {
+        final Mat[] result = new Mat[files.size()];
+        try (ReadMat reader = new ReadMat()) {
+            reader.setPrefetchFiles(glob);
+            reader.setPrefetchCount(prefetchCount);
+            reader.setDecodedCacheSizeInMB(cacheSizeInMB);
+            long t1 = System.nanoTime();
+            for (int k = 0; k < result.length; k++) {
+                reader.setFile(files.get(k).toString());
+                final SMat mat = reader.readMat(new SMat());
+                result[k] = O2SMat.toMat(mat);
+            }
+            long t2 = System.nanoTime();
+            System.out.printf(Locale.US, "  prefetch %d, cache %d MB: %d files read in %.3f ms%n",
+                    prefetchCount, cacheSizeInMB, result.length, (t2 - t1) * 1e-6);
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.printf("Usage: %s folder glob_pattern [prefetch_count [number_of_tests]]%n",
+                    ReadMatPrefetchTest.class);
+            return;
+        }
+        final Path folder = Path.of(args[0]).toAbsolutePath().normalize();
+        final String pattern = args[1];
+        final int prefetchCount = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        final int numberOfTests = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        final List<Path> files;
+        try (Stream<Path> list = Files.list(folder)) {
+            files = list.filter(p -> p.getFileSystem().getPathMatcher("glob:" + pattern)
+                    .matches(p.getFileName())).sorted().toList();
+        }
+        final String glob = folder + "/" + pattern;
+        System.out.printf("%d files%n", files.size());
+        for (int test = 1; test <= numberOfTests; test++) {
+            System.out.printf("Test #%d:%n", test);
+            final Mat[] simple = readAll(files, "", 0, 0);
+            final Mat[] prefetched = readAll(files, glob, prefetchCount, 0);
+            final Mat[] cached = readAll(files, glob, prefetchCount, 256);
+            for (int k = 0; k < simple.length; k++) {
+                for (Mat other : new Mat[] {prefetched[k], cached[k]}) {
+                    if (simple[k].rows() != other.rows() || simple[k].cols() != other.cols()
+                            || simple[k].type() != other.type()
+                            || opencv_core.norm(simple[k], other, opencv_core.NORM_INF, new Mat()) != 0.0) {
+                        throw new AssertionError("Different results for " + files.get(k));
+                    }
+                }
+            }
+        }
+        System.out.println("O'k");
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.opencv.matrices.io;
+
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.global.opencv_imgcodecs;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+public final class WriteMatAsynchronousTest {
+    private static void writeAll(Mat mat, Path folder, String extension, int numberOfFiles, boolean asynchronous) {
+        try (WriteMat writer = new WriteMat()) {
+            writer.setAsynchronous(asynchronous);
+            writer.setPngCompression(1);
+            writer.setTiffCompression(WriteMat.TiffCompression.LZW);
+            long t1 = System.nanoTime();
+            for (int k = 0; k < numberOfFiles; k++) {
+                writer.setFile(folder.resolve(fileName(k, asynchronous, extension)).toString());
+                writer.setWaitForCompletion(k == numberOfFiles - 1);
+                writer.writeMat(mat);
+            }
+            long t2 = System.nanoTime();
+            System.out.printf(Locale.US, "  %s: %d files written in %.3f ms%n",
+                    asynchronous ? "asynchronous" : "synchronous", numberOfFiles, (t2 - t1) * 1e-6);
+        }
+    }
+
+    private static String fileName(int index, boolean asynchronous, String extension) {
+        return "written_" + (asynchronous ? "async_" : "sync_") + index + "." + extension;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.printf("Usage: %s source_image result_folder [extension [number_of_files]]%n",
+                    WriteMatAsynchronousTest.class);
+            return;
+        }
+        final Mat mat = opencv_imgcodecs.imread(args[0]);
+        final Path folder = Path.of(args[1]);
+        final String extension = args.length > 2 ? args[2] : "png";
+        final int numberOfFiles = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+        Files.createDirectories(folder);
+        for (int test = 1; test <= 3; test++) {
+            System.out.printf("Test #%d:%n", test);
+            writeAll(mat, folder, extension, numberOfFiles, false);
+            writeAll(mat, folder, extension, numberOfFiles, true);
+            for (int k = 0; k < numberOfFiles; k++) {
+                final Mat sync = opencv_imgcodecs.imread(folder.resolve(fileName(k, false, extension)).toString());
+                final Mat async = opencv_imgcodecs.imread(folder.resolve(fileName(k, true, extension)).toString());
+                if (opencv_core.norm(sync, async, opencv_core.NORM_INF, new Mat()) != 0.0) {
+                    throw new AssertionError("Different files #" + k);
+                }
+            }
+        }
+        System.out.println("O'k");
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.opencv.matrices.misc;
+
+import net.algart.executors.api.data.SNumbers;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.global.opencv_imgcodecs;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.util.Locale;
+import java.util.Random;
+
+public final class MultiSeedFloodFillTest {
+    private static Mat fill(MultiSeedFloodFill floodFill, Mat image, SNumbers seeds, int[] rectangles) {
+        long t1 = System.nanoTime();
+        final Mat result = floodFill.process(image, null, seeds, rectangles);
+        long t2 = System.nanoTime();
+        System.out.printf(Locale.US, "  %s: %d seeds filled in %.3f ms%n",
+                floodFill.isMultithreading() ? "multithreading" : "single thread",
+                seeds.n(), (t2 - t1) * 1e-6);
+        return result;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.printf("Usage: %s source_image [number_of_seeds [max_filling_size [result_labels]]]%n",
+                    MultiSeedFloodFillTest.class);
+            return;
+        }
+        final Mat image = opencv_imgcodecs.imread(args[0]);
+        final int numberOfSeeds = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        final double maxFillingSize = args.length > 2 ? Double.parseDouble(args[2]) : 50.0;
+        final Random random = new Random(157);
+        final int[] seedsXY = new int[2 * numberOfSeeds];
+        for (int k = 0; k < numberOfSeeds; k++) {
+            seedsXY[2 * k] = random.nextInt(image.cols());
+            seedsXY[2 * k + 1] = random.nextInt(image.rows());
+        }
+        final SNumbers seeds = SNumbers.ofArray(seedsXY, 2);
+        try (MultiSeedFloodFill single = new MultiSeedFloodFill();
+             MultiSeedFloodFill parallel = new MultiSeedFloodFill()) {
+            single.setMaxFillingSize(maxFillingSize).setLoDiff(0.05).setMultithreading(false);
+            parallel.setMaxFillingSize(maxFillingSize).setLoDiff(0.05).setMultithreading(true);
+            for (int test = 1; test <= 5; test++) {
+                System.out.printf("Test #%d:%n", test);
+                final int[] singleRectangles = new int[4 * numberOfSeeds];
+                final int[] parallelRectangles = new int[4 * numberOfSeeds];
+                final Mat singleLabels = fill(single, image, seeds, singleRectangles);
+                final Mat parallelLabels = fill(parallel, image, seeds, parallelRectangles);
+                // - repeated calls check that the padded mask is correctly cleared between calls
+                final Mat difference = new Mat();
+                opencv_core.compare(singleLabels, parallelLabels, difference, opencv_core.CMP_NE);
+                if (opencv_core.countNonZero(difference) != 0
+                        || !java.util.Arrays.equals(singleRectangles, parallelRectangles)) {
+                    throw new AssertionError("Different results");
+                }
+                if (test == 1 && args.length > 3) {
+                    opencv_imgcodecs.imwrite(args[3], singleLabels);
+                }
+            }
+        }
+        System.out.println("O'k");
+    }
+}
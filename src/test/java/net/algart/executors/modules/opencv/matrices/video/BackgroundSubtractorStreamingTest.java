@@ -0,0 +1,100 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.opencv.matrices.video;
+
+import net.algart.executors.api.data.SMat;
+import net.algart.executors.modules.opencv.util.O2SMat;
+import org.bytedeco.opencv.global.opencv_imgcodecs;
+
+import java.io.File;
+import java.util.Locale;
+
+public final class BackgroundSubtractorStreamingTest {
+    private static long processVideo(File videoFile, File snapshotFile, int prefetchQueueSize, int maxNumberOfFrames) {
+        try (ReadVideoFrames reader = new ReadVideoFrames();
+             BackgroundSubtractorMOG2 subtractor = new BackgroundSubtractorMOG2()) {
+            reader.setFile(videoFile.getAbsolutePath());
+            reader.setPrefetchQueueSize(prefetchQueueSize);
+            subtractor.setReset(false);
+            subtractor.setBackgroundOutputPeriod(25);
+            subtractor.setModelSnapshotFile(snapshotFile.getAbsolutePath());
+            subtractor.requestOutput(AbstractBackgroundSubtractor.OUTPUT_BACKGROUND);
+            long nonZero = 0;
+            for (int k = 0; k < maxNumberOfFrames; k++) {
+                reader.execute();
+                final SMat frame = reader.getMat();
+                if (!frame.isInitialized()) {
+                    System.out.printf("  end of video after %d frames%n", k);
+                    break;
+                }
+                subtractor.getInputMatContainer().exchange(frame);
+                subtractor.execute();
+                nonZero += subtractor.getMat().toMultiMatrix2D().nonZeroRGBMatrix().array().cardinality();
+            }
+            return nonZero;
+            // - model snapshot is saved while closing
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.printf("Usage: %s video_file snapshot_image_file foreground_mask_of_first_frame "
+                            + "[max_number_of_frames [prefetch_queue_size]]%n",
+                    BackgroundSubtractorStreamingTest.class);
+            return;
+        }
+        final File videoFile = new File(args[0]);
+        final File snapshotFile = new File(args[1]);
+        final File firstMaskFile = new File(args[2]);
+        final int maxNumberOfFrames = args.length > 3 ? Integer.parseInt(args[3]) : 300;
+        final int prefetchQueueSize = args.length > 4 ? Integer.parseInt(args[4]) : 8;
+        if (snapshotFile.delete()) {
+            System.out.println("Previous snapshot removed");
+        }
+        for (int test = 1; test <= 2; test++) {
+            System.out.printf("Test #%d (%s):%n", test, test == 1 ? "cold start" : "restored from snapshot");
+            long t1 = System.nanoTime();
+            final long nonZero = processVideo(videoFile, snapshotFile, prefetchQueueSize, maxNumberOfFrames);
+            long t2 = System.nanoTime();
+            System.out.printf(Locale.US, "  %.3f ms, %d foreground pixels in all frames%n", (t2 - t1) * 1e-6, nonZero);
+            if (!snapshotFile.isFile()) {
+                throw new AssertionError("Model snapshot was not saved");
+            }
+        }
+        try (ReadVideoFrames reader = new ReadVideoFrames();
+             BackgroundSubtractorMOG2 subtractor = new BackgroundSubtractorMOG2()) {
+            reader.setFile(videoFile.getAbsolutePath());
+            subtractor.setReset(false);
+            // - the snapshot is used only in streaming mode
+            subtractor.setModelSnapshotFile(snapshotFile.getAbsolutePath());
+            reader.execute();
+            subtractor.getInputMatContainer().exchange(reader.getMat());
+            subtractor.execute();
+            opencv_imgcodecs.imwrite(firstMaskFile.getPath(), O2SMat.toMat(subtractor.getMat()));
+            System.out.println("Foreground of the 1st frame with restored model saved in " + firstMaskFile);
+        }
+    }
+}